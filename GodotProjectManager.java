@@ -2,28 +2,105 @@ import javax.swing.*;
 import javax.swing.border.*;
 import javax.swing.table.*;
 import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Arc2D;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
 import java.io.*;
 import java.net.*;
 import java.net.http.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
 import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.*;
 import java.util.zip.*;
+import javax.imageio.ImageIO;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
 public class GodotProjectManager extends JFrame {
     private JTabbedPane tabbedPane;
     private ProjectsPanel projectsPanel;
     private EnginesPanel enginesPanel;
+    private SearchPanel searchPanel;
     private SettingsPanel settingsPanel;
-    private List<GodotEngine> engines;
-    private List<GodotProject> projects;
+    private DiagnosticsPanel diagnosticsPanel;
+    private TaskTray taskTray;
+    private final TaskManager taskManager = new TaskManager();
+    private EngineValidator engineValidator;
+    private ProjectTemplates projectTemplates;
+    private LaunchHistory launchHistory;
+    private final Registry registry = new Registry();
+    private String appDataDir;
     private String dataFile;
-    private String defaultProjectLocation;
-    private String defaultEngineLocation;
+    // Settings are volatile because the data file is written and synced on dataExecutor
+    private volatile String defaultProjectLocation;
+    private volatile String defaultEngineLocation;
+    // Mirror URL templates tried for every engine version, see MirrorSelector.expand
+    private volatile List<String> mirrorTemplates = List.of();
+    private SharedDataFile sharedData;
+    // All data file reads and writes after startup happen on this thread, one at a time
+    private final ExecutorService dataExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "data-file");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean savePending = new AtomicBoolean();
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+    // Read by the icon loader threads
+    private volatile boolean cacheThumbnails = true;
+    // False until the data file has been read: while a large one is loading the table only shows the
+    // history's top projects, and after a failed load it shows whatever was there before
+    private volatile boolean dataLoaded;
+    // Why the last load failed; null while loading or once loaded
+    private volatile String loadError;
+    // Data files up to this size are read before the window opens
+    private static final long SYNC_LOAD_BYTES = 1024 * 1024;
+    private static final int PREVIEW_PROJECTS = 100;
 
     public static void main(String[] args) {
+        // Headless modes
+        if (args.length > 0 && args[0].equals("--bench")) {
+            System.exit(Benchmarks.run(Arrays.copyOfRange(args, 1, args.length)));
+        }
+        if (args.length > 0 && args[0].equals("--scale-test")) {
+            System.exit(ScaleTest.run(Arrays.copyOfRange(args, 1, args.length)));
+        }
+        if (args.length > 0 && args[0].equals("--mirror-test")) {
+            System.exit(MirrorTest.run(Arrays.copyOfRange(args, 1, args.length)));
+        }
+        if (args.length > 0 && args[0].equals("--build")) {
+            System.exit(BuildPipeline.runHeadless(Arrays.copyOfRange(args, 1, args.length)));
+        }
+
+        Diagnostics.startRecording();
         SwingUtilities.invokeLater(() -> {
             try {
                 UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
@@ -41,8 +118,8 @@ public class GodotProjectManager extends JFrame {
         setLocationRelativeTo(null);
 
         // Set up data file path in Documents folder
-        String documentsPath = System.getProperty("user.home") + File.separator + "Documents";
-        String appDataDir = documentsPath + File.separator + "GodotProjectManager";
+        dataFile = defaultDataFile().toString();
+        appDataDir = defaultDataFile().getParent().toString();
         
         // Create directory if it doesn't exist
         File appDir = new File(appDataDir);
@@ -50,11 +127,27 @@ public class GodotProjectManager extends JFrame {
             appDir.mkdirs();
         }
         
-        dataFile = appDataDir + File.separator + "godot_manager_data.json";
+        sharedData = new SharedDataFile(Paths.get(dataFile));
 
         initializeData();
         initializeUI();
         loadData();
+        watchDataFile();
+
+        // Let a queued save finish before the JVM exits
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            dataExecutor.shutdown();
+            try {
+                dataExecutor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+    }
+
+    // Shared by the window and the headless modes
+    static Path defaultDataFile() {
+        return Paths.get(System.getProperty("user.home"), "Documents", "GodotProjectManager", "godot_manager_data.json");
     }
 
     private void initializeData() {
@@ -62,7 +155,11 @@ public class GodotProjectManager extends JFrame {
         defaultProjectLocation = System.getProperty("user.home") + File.separator + "GodotProjects";
         defaultEngineLocation = System.getProperty("user.home") + File.separator + "Godot";
         
-        engines = new ArrayList<>();
+        registry.reload(defaultEngines(), new ArrayList<>());
+    }
+
+    static List<GodotEngine> defaultEngines() {
+        List<GodotEngine> engines = new ArrayList<>();
         engines.add(new GodotEngine("4.5", "103 MB", "https://github.com/godotengine/godot/releases/download/4.5-stable/Godot_v4.5-stable_win64.exe.zip"));
         engines.add(new GodotEngine("4.4.1", "100 MB", "https://github.com/godotengine/godot/releases/download/4.4-stable/Godot_v4.4.1-stable_win64.exe.zip"));
         engines.add(new GodotEngine("4.4", "100 MB", "https://github.com/godotengine/godot/releases/download/4.4-stable/Godot_v4.4-stable_win64.exe.zip"));
@@ -74,158 +171,425 @@ public class GodotProjectManager extends JFrame {
         engines.add(new GodotEngine("3.6.1", "45 MB", "https://github.com/godotengine/godot/releases/download/3.6.1-stable/Godot_v3.6-stable_win64.exe.zip"));
         engines.add(new GodotEngine("3.6", "45 MB", "https://github.com/godotengine/godot/releases/download/3.6-stable/Godot_v3.6-stable_win64.exe.zip"));
         engines.add(new GodotEngine("3.5.3", "44 MB", "https://github.com/godotengine/godot/releases/download/3.5.3-stable/Godot_v3.5.3-stable_win64.exe.zip"));
-
-        projects = new ArrayList<>();
+        return engines;
     }
 
     private void initializeUI() {
         tabbedPane = new JTabbedPane();
+        engineValidator = new EngineValidator(Paths.get(appDataDir, "engine-checks.txt"), Duration.ofSeconds(15));
+        projectTemplates = new ProjectTemplates(Paths.get(appDataDir, "project-templates"));
+        launchHistory = new LaunchHistory(Paths.get(appDataDir, "launch-history.txt"), () -> {
+            if (projectsPanel != null) projectsPanel.repaint();
+        });
         projectsPanel = new ProjectsPanel();
         enginesPanel = new EnginesPanel();
+        searchPanel = new SearchPanel();
         settingsPanel = new SettingsPanel();
+        diagnosticsPanel = new DiagnosticsPanel();
 
         tabbedPane.addTab("Projects", projectsPanel);
         tabbedPane.addTab("Engines", enginesPanel);
+        tabbedPane.addTab("Search", searchPanel);
         tabbedPane.addTab("Settings", settingsPanel);
+        tabbedPane.addTab("Diagnostics", diagnosticsPanel);
 
-        add(tabbedPane);
+        taskTray = new TaskTray();
+        add(tabbedPane, BorderLayout.CENTER);
+        add(taskTray, BorderLayout.SOUTH);
     }
 
+    // Large registries load in two steps: the most relevant projects according to the launch history
+    // show at once, and the data file is read on dataExecutor, ahead of any save or sync
     private void loadData() {
-        File file = new File(dataFile);
-        if (!file.exists()) {
+        launchHistory.load();
+        if (new File(dataFile).length() <= SYNC_LOAD_BYTES) {
+            loadDataFile();
             return;
         }
-        
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            String section = "";
-            
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty() || line.startsWith("#")) continue;
-                
-                if (line.equals("[SETTINGS]")) {
-                    section = "settings";
-                    continue;
-                } else if (line.equals("[ENGINES]")) {
-                    section = "engines";
-                    continue;
-                } else if (line.equals("[PROJECTS]")) {
-                    section = "projects";
-                    continue;
-                }
-                
-                if (section.equals("settings")) {
-                    // Format: key=value
-                    String[] parts = line.split("=", 2);
-                    if (parts.length == 2) {
-                        if (parts[0].equals("defaultProjectLocation")) {
-                            defaultProjectLocation = parts[1];
-                        } else if (parts[0].equals("defaultEngineLocation")) {
-                            defaultEngineLocation = parts[1];
-                        }
-                    }
-                } else if (section.equals("engines")) {
-                    // Format: version|installed|path
-                    String[] parts = line.split("\\|", -1);
-                    if (parts.length >= 3) {
-                        for (GodotEngine engine : engines) {
-                            if (engine.getVersion().equals(parts[0])) {
-                                engine.setInstalled(Boolean.parseBoolean(parts[1]));
-                                if (!parts[2].isEmpty()) {
-                                    engine.setInstalledPath(parts[2]);
-                                }
-                                break;
-                            }
-                        }
-                    }
-                } else if (section.equals("projects")) {
-                    // Format: name|path|engineVersion|lastOpened
-                    String[] parts = line.split("\\|", -1);
-                    if (parts.length >= 4) {
-                        GodotProject project = new GodotProject(parts[0], parts[1], parts[2]);
-                        project.setLastOpened(parts[3]);
-                        projects.add(project);
-                    }
-                }
+        dataLoaded = false;
+        registry.reload(registry.engines(), launchHistory.top(PREVIEW_PROJECTS));
+        dataExecutor.execute(this::loadDataFile);
+    }
+
+    private void loadDataFile() {
+        DataLoadEvent event = new DataLoadEvent();
+        event.file = dataFile;
+        try (Diagnostics.Span span = Diagnostics.begin("Load data", event)) {
+            SharedDataFile.Snapshot snapshot = sharedData.load();
+            loadError = null;
+            if (snapshot == null) {
+                dataLoaded = true;
+                return;
             }
+            List<GodotProject> projects = snapshot.toProjects();
+            event.projects = projects.size();
+            span.complete(new File(dataFile).length());
+            applySettings(snapshot.settings);
+            
+            // Tables follow the registry through its change events; most relevant projects first
+            dataLoaded = true;
+            registry.reload(snapshot.toEngines(), launchHistory.sort(projects));
             
             // Refresh UI
-            if (projectsPanel != null) {
-                projectsPanel.refreshProjectTable();
-            }
-            if (enginesPanel != null) {
-                enginesPanel.refreshEngineTable();
-            }
-            if (settingsPanel != null) {
-                settingsPanel.refreshSettings();
-            }
+            SwingUtilities.invokeLater(() -> {
+                if (settingsPanel != null) {
+                    settingsPanel.refreshSettings();
+                }
+            });
             
         } catch (IOException e) {
+            // Edits and saves stay blocked: a save now would merge what is shown over the real records
             System.err.println("Error loading data: " + e.getMessage());
             e.printStackTrace();
+            loadError = e.getMessage();
+            SwingUtilities.invokeLater(this::offerReload);
+        }
+    }
+
+    // Asks whether to read the data file again after a failed load, e.g. when another instance held its lock
+    private void offerReload() {
+        String error = loadError;
+        if (dataLoaded || error == null) return;
+        int choice = JOptionPane.showConfirmDialog(this,
+            "Projects could not be loaded from " + dataFile + ":\n" + error + "\n\nTry again?",
+            "Load Error", JOptionPane.YES_NO_OPTION, JOptionPane.ERROR_MESSAGE);
+        if (choice == JOptionPane.YES_OPTION) {
+            loadError = null;
+            dataExecutor.execute(this::loadDataFile);
         }
     }
 
+    // Changes made while only the preview is shown would be lost when the full registry arrives: saves are
+    // skipped until then and the load replaces engines, projects and settings. Every action that changes
+    // them or saves checks this first.
+    private boolean dataReady(Component parent) {
+        if (dataLoaded) return true;
+        if (loadError != null) {
+            offerReload();
+        } else {
+            JOptionPane.showMessageDialog(parent, "Projects are still loading. Please try again in a moment.");
+        }
+        return false;
+    }
+
+    // Applies the given settings; keys that are missing keep their current value
+    private void applySettings(Map<String, String> settings) {
+        defaultProjectLocation = settings.getOrDefault("defaultProjectLocation", defaultProjectLocation);
+        defaultEngineLocation = settings.getOrDefault("defaultEngineLocation", defaultEngineLocation);
+        cacheThumbnails = Boolean.parseBoolean(settings.getOrDefault("cacheThumbnails", String.valueOf(cacheThumbnails)));
+        if (settings.containsKey("mirrorTemplates")) {
+            List<String> templates = new ArrayList<>();
+            for (String template : settings.get("mirrorTemplates").split(" ")) {
+                if (!template.isEmpty()) templates.add(template);
+            }
+            mirrorTemplates = List.copyOf(templates);
+        }
+    }
+
+    private Map<String, String> currentSettings() {
+        Map<String, String> settings = new LinkedHashMap<>();
+        settings.put("defaultProjectLocation", defaultProjectLocation);
+        settings.put("defaultEngineLocation", defaultEngineLocation);
+        // URLs never contain raw spaces
+        settings.put("mirrorTemplates", String.join(" ", mirrorTemplates));
+        settings.put("cacheThumbnails", String.valueOf(cacheThumbnails));
+        return settings;
+    }
+
+    // Queues a save; several calls before it runs are written once, with the state at that time.
+    // The save merges with changes other instances made to the file since we last synced.
     private void saveData() {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(dataFile))) {
-            writer.write("# Godot Project Manager Data File");
-            writer.newLine();
-            writer.write("# Do not edit manually");
-            writer.newLine();
-            writer.newLine();
+        if (savePending.compareAndSet(false, true)) {
+            dataExecutor.execute(this::writeDataFile);
+        }
+    }
+
+    private void writeDataFile() {
+        savePending.set(false);
+        // Until the file has been read the registry holds only a preview; a successful load replaces it anyway
+        if (!dataLoaded) return;
+        DataSaveEvent event = new DataSaveEvent();
+        event.file = dataFile;
+        SharedDataFile.Snapshot ours = SharedDataFile.Snapshot.of(currentSettings(), registry.engines(), registry.projects());
+        event.projects = ours.projects.size();
+        try (Diagnostics.Span span = Diagnostics.begin("Save data", event)) {
+            SharedDataFile.Snapshot merged = sharedData.save(ours);
+            span.complete(new File(dataFile).length());
+            applyExternalChanges(ours, merged);
             
-            // Save settings
-            writer.write("[SETTINGS]");
-            writer.newLine();
-            writer.write("defaultProjectLocation=" + defaultProjectLocation);
-            writer.newLine();
-            writer.write("defaultEngineLocation=" + defaultEngineLocation);
-            writer.newLine();
-            writer.newLine();
+        } catch (IOException e) {
+            System.err.println("Error saving data: " + e.getMessage());
+            e.printStackTrace();
+            SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(this,
+                "Error saving data: " + e.getMessage(),
+                "Save Error",
+                JOptionPane.ERROR_MESSAGE));
+        }
+    }
+
+    // Picks up changes other instances or scripts write to the data file
+    private void watchDataFile() {
+        Path file = Paths.get(dataFile);
+        Thread watcher = new Thread(() -> {
+            try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+                // Writers replace the file with a rename, which shows up as a create
+                file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+                while (true) {
+                    WatchKey key = watchService.take();
+                    boolean changed = false;
+                    for (WatchEvent<?> watchEvent : key.pollEvents()) {
+                        if (file.getFileName().equals(watchEvent.context())) changed = true;
+                    }
+                    key.reset();
+                    if (changed && refreshPending.compareAndSet(false, true)) {
+                        dataExecutor.execute(this::refreshDataFile);
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Not watching the data file for changes: " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "data-file-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    private void refreshDataFile() {
+        refreshPending.set(false);
+        if (!dataLoaded) return;
+        DataLoadEvent event = new DataLoadEvent();
+        event.file = dataFile;
+        SharedDataFile.Snapshot ours = SharedDataFile.Snapshot.of(currentSettings(), registry.engines(), registry.projects());
+        try (Diagnostics.Span span = Diagnostics.begin("Sync data", event)) {
+            SharedDataFile.Snapshot merged = sharedData.refresh(ours);
+            if (merged != null) {
+                event.projects = merged.projects.size();
+                applyExternalChanges(ours, merged);
+            }
+            span.complete(new File(dataFile).length());
+        } catch (IOException e) {
+            System.err.println("Error reading external data changes: " + e.getMessage());
+        }
+    }
+
+    // Applies only the records where the merge result differs from what we had, so the tables get
+    // row-level events instead of a reload. Each record is re-checked against the live registry under
+    // its write lock: one edited locally since the snapshot was taken keeps the local value, and the
+    // save that edit queued merges it into the file.
+    private void applyExternalChanges(SharedDataFile.Snapshot ours, SharedDataFile.Snapshot merged) {
+        Map<String, GodotEngine> mergedEngines = new HashMap<>();
+        for (GodotEngine engine : merged.toEngines()) mergedEngines.put(engine.getVersion(), engine);
+        for (GodotEngine engine : registry.engines()) {
+            String version = engine.getVersion();
+            GodotEngine source = mergedEngines.get(version);
+            if (source == null) continue;
+            registry.atomically(() -> {
+                boolean fieldsChanged = !Objects.equals(ours.engines.get(version), merged.engines.get(version))
+                    && Objects.equals(ours.engines.get(version), SharedDataFile.Snapshot.engineRecord(engine));
+                boolean mirrorsChanged = !Objects.equals(ours.mirrors.get(version), merged.mirrors.get(version))
+                    && Objects.equals(ours.mirrors.get(version), SharedDataFile.Snapshot.mirrorsRecord(engine));
+                if (!fieldsChanged && !mirrorsChanged) return;
+                registry.updateEngine(engine, e -> {
+                    if (fieldsChanged) {
+                        e.setInstalled(source.isInstalled());
+                        e.setInstalledPath(source.getInstalledPath());
+                        e.setInstallRoot(source.getInstallRoot());
+                    }
+                    if (mirrorsChanged) e.setMirrors(source.getMirrors());
+                });
+            });
+        }
+
+        Map<String, GodotProject> mergedProjects = new HashMap<>();
+        for (GodotProject project : merged.toProjects()) mergedProjects.put(project.getPath(), project);
+        Set<String> paths = new LinkedHashSet<>(ours.projects.keySet());
+        paths.addAll(merged.projects.keySet());
+        for (String path : paths) {
+            String ourRecord = ours.projects.get(path);
+            if (Objects.equals(ourRecord, merged.projects.get(path))) continue;
+            GodotProject source = mergedProjects.get(path);
+            registry.atomically(() -> {
+                GodotProject live = null;
+                for (GodotProject project : registry.projects()) {
+                    if (project.hasPath(path)) {
+                        live = project;
+                        break;
+                    }
+                }
+                String liveRecord = live != null ? SharedDataFile.Snapshot.projectRecord(live) : null;
+                if (!Objects.equals(ourRecord, liveRecord)) return;
+                if (source == null) {
+                    if (live != null) registry.removeProject(live);
+                } else if (live == null) {
+                    registry.addProject(source);
+                } else if (live.getName().equals(source.getName())) {
+                    registry.updateProject(live, p -> {
+                        p.setEngineVersion(source.getEngineVersion());
+                        p.setLastOpened(source.getLastOpened());
+                    });
+                } else {
+                    registry.replaceProject(live, source);
+                }
+            });
+        }
+
+        Map<String, String> settings = new LinkedHashMap<>();
+        merged.settings.forEach((key, value) -> {
+            if (!value.equals(ours.settings.get(key))) settings.put(key, value);
+        });
+        if (!settings.isEmpty()) {
+            SwingUtilities.invokeLater(() -> {
+                // Settings change on the EDT; skip the ones changed here since the snapshot
+                Map<String, String> current = currentSettings();
+                settings.keySet().removeIf(key -> current.containsKey(key)
+                    && !Objects.equals(current.get(key), ours.settings.get(key)));
+                applySettings(settings);
+                if (settingsPanel != null) settingsPanel.refreshSettings();
+            });
+        }
+    }
+
+    // Parses the data file into the given lists and returns the settings section
+    static Map<String, String> readData(BufferedReader reader, List<GodotEngine> engines,
+                                        List<GodotProject> projects) throws IOException {
+        Map<String, String> settings = new LinkedHashMap<>();
+        String line;
+        String section = "";
+        
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
             
-            // Save engines
-            writer.write("[ENGINES]");
-            writer.newLine();
-            for (GodotEngine engine : engines) {
-                // Format: version|installed|path
-                writer.write(String.format("%s|%s|%s",
-                    engine.getVersion(),
-                    engine.isInstalled(),
-                    engine.getInstalledPath()));
-                writer.newLine();
+            if (line.equals("[SETTINGS]")) {
+                section = "settings";
+                continue;
+            } else if (line.equals("[ENGINES]")) {
+                section = "engines";
+                continue;
+            } else if (line.equals("[PROJECTS]")) {
+                section = "projects";
+                continue;
+            } else if (line.equals("[MIRRORS]")) {
+                section = "mirrors";
+                continue;
             }
             
+            if (section.equals("settings")) {
+                // Format: key=value
+                String[] parts = line.split("=", 2);
+                if (parts.length == 2) {
+                    settings.put(parts[0], parts[1]);
+                }
+            } else if (section.equals("engines")) {
+                // Format: version|installed|path|installRoot
+                String[] parts = line.split("\\|", -1);
+                if (parts.length >= 3) {
+                    for (GodotEngine engine : engines) {
+                        if (engine.getVersion().equals(parts[0])) {
+                            engine.setInstalled(Boolean.parseBoolean(parts[1]));
+                            if (!parts[2].isEmpty()) {
+                                engine.setInstalledPath(parts[2]);
+                            }
+                            if (parts.length >= 4 && !parts[3].isEmpty()) {
+                                engine.setInstallRoot(parts[3]);
+                            }
+                            break;
+                        }
+                    }
+                }
+            } else if (section.equals("mirrors")) {
+                // Format: version|url
+                String[] parts = line.split("\\|", 2);
+                if (parts.length == 2) {
+                    for (GodotEngine engine : engines) {
+                        if (engine.getVersion().equals(parts[0])) {
+                            List<String> mirrors = new ArrayList<>(engine.getMirrors());
+                            mirrors.add(parts[1]);
+                            engine.setMirrors(mirrors);
+                            break;
+                        }
+                    }
+                }
+            } else if (section.equals("projects")) {
+                // Format: name|path|engineVersion|lastOpened
+                String[] parts = line.split("\\|", -1);
+                if (parts.length >= 4) {
+                    GodotProject project = new GodotProject(parts[0], parts[1], parts[2]);
+                    project.setLastOpened(parts[3]);
+                    projects.add(project);
+                }
+            }
+        }
+        return settings;
+    }
+
+    static void writeData(BufferedWriter writer, Map<String, String> settings, List<GodotEngine> engines,
+                          List<GodotProject> projects) throws IOException {
+        writer.write("# Godot Project Manager Data File");
+        writer.newLine();
+        writer.write("# Do not edit manually");
+        writer.newLine();
+        writer.newLine();
+        
+        // Save settings
+        writer.write("[SETTINGS]");
+        writer.newLine();
+        for (Map.Entry<String, String> setting : settings.entrySet()) {
+            writer.write(setting.getKey() + "=" + setting.getValue());
             writer.newLine();
-            
-            // Save projects
-            writer.write("[PROJECTS]");
+        }
+        writer.newLine();
+        
+        // Save engines
+        writer.write("[ENGINES]");
+        writer.newLine();
+        for (GodotEngine engine : engines) {
+            // Format: version|installed|path|installRoot
+            writer.write(String.format("%s|%s|%s|%s",
+                engine.getVersion(),
+                engine.isInstalled(),
+                engine.getInstalledPath(),
+                engine.getInstallRoot()));
             writer.newLine();
-            for (GodotProject project : projects) {
-                // Format: name|path|engineVersion|lastOpened
-                writer.write(String.format("%s|%s|%s|%s",
-                    project.getName(),
-                    project.getPath(),
-                    project.getEngineVersion(),
-                    project.getLastOpened()));
+        }
+        
+        writer.newLine();
+        
+        // Save mirrors
+        writer.write("[MIRRORS]");
+        writer.newLine();
+        for (GodotEngine engine : engines) {
+            for (String mirror : engine.getMirrors()) {
+                // Format: version|url
+                writer.write(engine.getVersion() + "|" + mirror);
                 writer.newLine();
             }
-            
-        } catch (IOException e) {
-            System.err.println("Error saving data: " + e.getMessage());
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(this,
-                "Error saving data: " + e.getMessage(),
-                "Save Error",
-                JOptionPane.ERROR_MESSAGE);
+        }
+        
+        writer.newLine();
+        
+        // Save projects
+        writer.write("[PROJECTS]");
+        writer.newLine();
+        for (GodotProject project : projects) {
+            // Format: name|path|engineVersion|lastOpened
+            writer.write(String.format("%s|%s|%s|%s",
+                project.getName(),
+                project.getPath(),
+                project.getEngineVersion(),
+                project.getLastOpened()));
+            writer.newLine();
         }
     }
 
     // Inner class for Projects Panel
     class ProjectsPanel extends JPanel {
-        private DefaultTableModel tableModel;
+        private ProjectTableModel tableModel;
         private JTable projectTable;
+        private ProjectIcons icons;
+        private VcsStatus vcsStatus;
 
         public ProjectsPanel() {
             setLayout(new BorderLayout(10, 10));
@@ -246,16 +610,17 @@ public class GodotProjectManager extends JFrame {
             topPanel.add(refreshBtn);
 
             // Table for projects
-            String[] columns = {"Project Name", "Path", "Engine Version", "Last Opened"};
-            tableModel = new DefaultTableModel(columns, 0) {
-                @Override
-                public boolean isCellEditable(int row, int column) {
-                    return false;
-                }
-            };
+            // Two git processes at a time; status is mostly disk-bound
+            vcsStatus = new VcsStatus(2, () -> projectTable.repaint());
+            tableModel = new ProjectTableModel(vcsStatus, launchHistory);
             projectTable = new JTable(tableModel);
             projectTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
             projectTable.setRowHeight(30);
+            // Icons load in the background; repaint() is safe off the EDT and coalesces
+            icons = new ProjectIcons(1024, 256,
+                () -> cacheThumbnails ? Paths.get(appDataDir, "thumbnails") : null,
+                () -> projectTable.repaint());
+            projectTable.getColumnModel().getColumn(0).setCellRenderer(new ProjectIconRenderer(tableModel, icons));
             JScrollPane scrollPane = new JScrollPane(projectTable);
 
             // Bottom panel with action buttons
@@ -264,12 +629,47 @@ public class GodotProjectManager extends JFrame {
             JButton changeEngineBtn = new JButton("Change Engine Version");
             JButton removeBtn = new JButton("Remove");
             JButton showInExplorerBtn = new JButton("Show in Explorer");
+            JButton snapshotsBtn = new JButton("Snapshots");
+            JButton cloneBtn = new JButton("Clone");
+            JButton exportBtn = new JButton("Export Archive");
+            JButton toolsBtn = new JButton("Tools");
+            JPopupMenu toolsMenu = new JPopupMenu();
+            JMenuItem dependenciesItem = new JMenuItem("Analyze Dependencies...");
+            dependenciesItem.addActionListener(e -> analyzeDependencies());
+            toolsMenu.add(dependenciesItem);
+            JMenuItem cleanCacheItem = new JMenuItem("Clean Import Cache...");
+            cleanCacheItem.addActionListener(e -> cleanImportCache(false));
+            toolsMenu.add(cleanCacheItem);
+            JMenuItem cleanAllItem = new JMenuItem("Clean Import Cache of All Projects...");
+            cleanAllItem.addActionListener(e -> cleanImportCache(true));
+            toolsMenu.add(cleanAllItem);
+            JMenuItem historyItem = new JMenuItem("Launch History...");
+            historyItem.addActionListener(e -> showLaunchHistory());
+            toolsMenu.add(historyItem);
+            JMenuItem buildItem = new JMenuItem("Export Builds...");
+            buildItem.addActionListener(e -> showBuildDialog());
+            toolsMenu.add(buildItem);
+            toolsMenu.addSeparator();
+            JMenuItem saveTemplateItem = new JMenuItem("Save as Template...");
+            saveTemplateItem.addActionListener(e -> saveAsTemplate());
+            toolsMenu.add(saveTemplateItem);
+            JMenuItem manageTemplatesItem = new JMenuItem("Manage Templates...");
+            manageTemplatesItem.addActionListener(e -> manageTemplates());
+            toolsMenu.add(manageTemplatesItem);
 
             openBtn.addActionListener(e -> openSelectedProject());
             changeEngineBtn.addActionListener(e -> changeEngineVersion());
             removeBtn.addActionListener(e -> removeSelectedProject());
             showInExplorerBtn.addActionListener(e -> showInExplorer());
+            snapshotsBtn.addActionListener(e -> showSnapshotsDialog());
+            cloneBtn.addActionListener(e -> showCloneDialog());
+            exportBtn.addActionListener(e -> exportArchive());
+            toolsBtn.addActionListener(e -> toolsMenu.show(toolsBtn, 0, toolsBtn.getHeight()));
 
+            bottomPanel.add(toolsBtn);
+            bottomPanel.add(exportBtn);
+            bottomPanel.add(cloneBtn);
+            bottomPanel.add(snapshotsBtn);
             bottomPanel.add(showInExplorerBtn);
             bottomPanel.add(removeBtn);
             bottomPanel.add(changeEngineBtn);
@@ -280,12 +680,14 @@ public class GodotProjectManager extends JFrame {
             add(bottomPanel, BorderLayout.SOUTH);
 
             refreshProjectTable();
+            registry.addListener(event -> SwingUtilities.invokeLater(() -> tableModel.apply(event)));
         }
 
         private void showNewProjectDialog() {
+            if (!dataReady(this)) return;
             JDialog dialog = new JDialog(GodotProjectManager.this, "Create New Project", true);
             dialog.setLayout(new GridBagLayout());
-            dialog.setSize(500, 300);
+            dialog.setSize(540, 340);
             dialog.setLocationRelativeTo(GodotProjectManager.this);
 
             GridBagConstraints gbc = new GridBagConstraints();
@@ -324,15 +726,44 @@ public class GodotProjectManager extends JFrame {
             dialog.add(new JLabel("Engine Version:"), gbc);
             gbc.gridx = 1;
             JComboBox<String> engineCombo = new JComboBox<>();
-            for (GodotEngine engine : engines) {
+            for (GodotEngine engine : registry.engines()) {
                 if (engine.isInstalled()) {
                     engineCombo.addItem(engine.getVersion());
                 }
             }
             dialog.add(engineCombo, gbc);
 
+            // Template, offered per engine version
+            gbc.gridx = 0; gbc.gridy = 3;
+            dialog.add(new JLabel("Template:"), gbc);
+            gbc.gridx = 1;
+            JComboBox<ProjectTemplates.Template> templateCombo = new JComboBox<>();
+            dialog.add(templateCombo, gbc);
+            gbc.gridy = 4;
+            JCheckBox linkAssetsBox = new JCheckBox("Hard-link read-only assets from the template");
+            linkAssetsBox.setToolTipText("Saves space, but editing such a file in place changes it in the template and in every project created from it");
+            dialog.add(linkAssetsBox, gbc);
+
+            Runnable updateTemplates = () -> {
+                String engine = (String) engineCombo.getSelectedItem();
+                templateCombo.removeAllItems();
+                if (engine == null) return;
+                for (ProjectTemplates.Template template : projectTemplates.forEngine(engine)) {
+                    templateCombo.addItem(template);
+                }
+            };
+            Runnable updateLinkBox = () -> {
+                ProjectTemplates.Template template = (ProjectTemplates.Template) templateCombo.getSelectedItem();
+                linkAssetsBox.setEnabled(template != null && !template.isBuiltIn());
+                templateCombo.setToolTipText(template == null ? null : template.description);
+            };
+            engineCombo.addActionListener(e -> updateTemplates.run());
+            templateCombo.addActionListener(e -> updateLinkBox.run());
+            updateTemplates.run();
+            updateLinkBox.run();
+
             // Buttons
-            gbc.gridx = 0; gbc.gridy = 3; gbc.gridwidth = 2;
+            gbc.gridx = 0; gbc.gridy = 5; gbc.gridwidth = 2;
             JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
             JButton createBtn = new JButton("Create");
             JButton cancelBtn = new JButton("Cancel");
@@ -341,6 +772,7 @@ public class GodotProjectManager extends JFrame {
                 String name = nameField.getText().trim();
                 String path = pathField.getText().trim();
                 String engine = (String) engineCombo.getSelectedItem();
+                ProjectTemplates.Template template = (ProjectTemplates.Template) templateCombo.getSelectedItem();
 
                 if (name.isEmpty()) {
                     JOptionPane.showMessageDialog(dialog, "Please enter a project name.");
@@ -353,29 +785,14 @@ public class GodotProjectManager extends JFrame {
                 }
 
                 String fullPath = path + File.separator + name;
-                GodotProject project = new GodotProject(name, fullPath, engine);
-                projects.add(project);
-                
-                // Create project directory
-                try {
-                    Files.createDirectories(Paths.get(fullPath));
-                    // Create project.godot file
-                    String projectContent = String.format(
-                        "; Engine configuration file.\n\n" +
-                        "config_version=5\n\n" +
-                        "[application]\n\n" +
-                        "config/name=\"%s\"\n" +
-                        "config/features=PackedStringArray(\"4.3\")\n",
-                        name
-                    );
-                    Files.write(Paths.get(fullPath, "project.godot"), projectContent.getBytes());
-                } catch (IOException ex) {
-                    JOptionPane.showMessageDialog(dialog, "Error creating project: " + ex.getMessage());
-                }
-
-                refreshProjectTable();
-                saveData();
-                dialog.dispose();
+                boolean linkAssets = linkAssetsBox.isSelected();
+                runWithProgress(dialog, "Creating Project",
+                    listener -> projectTemplates.instantiate(template, Paths.get(fullPath), name, engine, linkAssets, listener),
+                    result -> {
+                        registry.addProject(new GodotProject(name, fullPath, engine));
+                        saveData();
+                        dialog.dispose();
+                    });
             });
 
             cancelBtn.addActionListener(e -> dialog.dispose());
@@ -388,6 +805,7 @@ public class GodotProjectManager extends JFrame {
         }
 
         private void importProject() {
+            if (!dataReady(this)) return;
             JFileChooser chooser = new JFileChooser();
             chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
             chooser.setDialogTitle("Select Godot Project Folder");
@@ -406,26 +824,28 @@ public class GodotProjectManager extends JFrame {
 
                 String name = projectDir.getName();
                 String path = projectDir.getAbsolutePath();
-                
-                // Try to detect engine version from project.godot
-                String engineVersion = "4.3.0"; // default
-                try {
-                    List<String> lines = Files.readAllLines(projectFile.toPath());
-                    for (String line : lines) {
-                        if (line.contains("config_version")) {
-                            // Simple version detection
-                            if (line.contains("5")) engineVersion = "4.3.0";
-                            else if (line.contains("4")) engineVersion = "3.6.0";
+
+                // project.godot is read off the EDT
+                runInBackground(this, "Importing " + name, listener -> {
+                    // Try to detect engine version from project.godot
+                    String engineVersion = "4.3.0"; // default
+                    try {
+                        List<String> lines = Files.readAllLines(projectFile.toPath());
+                        for (String line : lines) {
+                            if (line.contains("config_version")) {
+                                // Simple version detection
+                                if (line.contains("5")) engineVersion = "4.3.0";
+                                else if (line.contains("4")) engineVersion = "3.6.0";
+                            }
                         }
+                    } catch (IOException e) {
+                        e.printStackTrace();
                     }
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-
-                GodotProject project = new GodotProject(name, path, engineVersion);
-                projects.add(project);
-                refreshProjectTable();
-                saveData();
+                    return new GodotProject(name, path, engineVersion);
+                }, project -> {
+                    registry.addProject(project);
+                    saveData();
+                });
             }
         }
 
@@ -436,16 +856,12 @@ public class GodotProjectManager extends JFrame {
                 return;
             }
 
-            GodotProject project = projects.get(row);
+            if (!dataReady(this)) return;
+
+            GodotProject project = tableModel.getProject(row);
             
             // Find the engine
-            GodotEngine engine = null;
-            for (GodotEngine e : engines) {
-                if (e.getVersion().equals(project.getEngineVersion()) && e.isInstalled()) {
-                    engine = e;
-                    break;
-                }
-            }
+            GodotEngine engine = registry.findInstalledEngine(project.getEngineVersion());
 
             if (engine == null) {
                 JOptionPane.showMessageDialog(this, 
@@ -467,6 +883,18 @@ public class GodotProjectManager extends JFrame {
                 return;
             }
 
+            // A failed background check means the editor would not start, or start as another version
+            EngineValidator.Check check = engineValidator.get(engine.getInstalledPath());
+            if (check != null && !check.ok() && check.state != EngineValidator.State.MISSING) {
+                int choice = JOptionPane.showConfirmDialog(this,
+                    "Godot " + engine.getVersion() + " did not pass its check: " + check.describe() + "\n" +
+                    "Launch anyway?",
+                    "Engine Check Failed",
+                    JOptionPane.YES_NO_OPTION,
+                    JOptionPane.WARNING_MESSAGE);
+                if (choice != JOptionPane.YES_OPTION) return;
+            }
+
             // Verify the project file exists
             String projectFile = project.getPath() + File.separator + "project.godot";
             File projectFileObj = new File(projectFile);
@@ -478,10 +906,8 @@ public class GodotProjectManager extends JFrame {
                 return;
             }
 
-            try {
-                // Update last opened time
-                project.updateLastOpened();
-                
+            // Starting a process can take seconds on Windows (antivirus scans), so it runs as a task
+            runInBackground(this, "Launching " + project.getName(), listener -> {
                 // Launch Godot with the project (don't wait for it to close)
                 ProcessBuilder pb = new ProcessBuilder(engine.getInstalledPath(), "--editor", "--path", project.getPath());
                 pb.directory(new File(project.getPath()));
@@ -490,25 +916,30 @@ public class GodotProjectManager extends JFrame {
                 pb.redirectErrorStream(true);
                 pb.redirectOutput(ProcessBuilder.Redirect.DISCARD);
                 
-                Process process = pb.start();
-                
+                ProcessLaunchEvent event = new ProcessLaunchEvent();
+                event.executable = engine.getInstalledPath();
+                event.project = project.getPath();
+                try (Diagnostics.Span span = Diagnostics.begin("Process launch", event)) {
+                    Process process = pb.start();
+                    event.pid = process.pid();
+                    launchHistory.recordLaunch(project, engine.getVersion(), process);
+                    span.complete(0);
+                } catch (IOException e) {
+                    throw new IOException(e.getMessage() + "\n\n" +
+                        "Engine path: " + engine.getInstalledPath() + "\n" +
+                        "Project path: " + project.getPath(), e);
+                }
+                return null;
+            }, ignored -> {
                 // Don't wait for process - let it run independently
                 // Just save the updated last opened time
-                refreshProjectTable();
+                registry.updateProject(project, GodotProject::updateLastOpened);
                 saveData();
-                
-            } catch (IOException e) {
-                JOptionPane.showMessageDialog(this, 
-                    "Error opening project:\n" + e.getMessage() + "\n\n" +
-                    "Engine path: " + engine.getInstalledPath() + "\n" +
-                    "Project path: " + project.getPath(),
-                    "Error", 
-                    JOptionPane.ERROR_MESSAGE);
-                e.printStackTrace();
-            }
+            });
         }
 
         private void removeSelectedProject() {
+            if (!dataReady(this)) return;
             int row = projectTable.getSelectedRow();
             if (row == -1) {
                 JOptionPane.showMessageDialog(this, "Please select a project.");
@@ -521,8 +952,7 @@ public class GodotProjectManager extends JFrame {
                 JOptionPane.YES_NO_OPTION);
 
             if (choice == JOptionPane.YES_OPTION) {
-                projects.remove(row);
-                refreshProjectTable();
+                registry.removeProject(tableModel.getProject(row));
                 saveData();
             }
         }
@@ -534,7 +964,7 @@ public class GodotProjectManager extends JFrame {
                 return;
             }
 
-            GodotProject project = projects.get(row);
+            GodotProject project = tableModel.getProject(row);
             try {
                 Desktop.getDesktop().open(new File(project.getPath()));
             } catch (IOException e) {
@@ -546,17 +976,18 @@ public class GodotProjectManager extends JFrame {
         }
 
         private void changeEngineVersion() {
+            if (!dataReady(this)) return;
             int row = projectTable.getSelectedRow();
             if (row == -1) {
                 JOptionPane.showMessageDialog(this, "Please select a project.");
                 return;
             }
 
-            GodotProject project = projects.get(row);
+            GodotProject project = tableModel.getProject(row);
             
             // Get list of installed engines
             List<String> installedEngines = new ArrayList<>();
-            for (GodotEngine engine : engines) {
+            for (GodotEngine engine : registry.engines()) {
                 if (engine.isInstalled()) {
                     installedEngines.add(engine.getVersion());
                 }
@@ -619,6 +1050,8 @@ public class GodotProjectManager extends JFrame {
             JComboBox<String> engineCombo = new JComboBox<>(installedEngines.toArray(new String[0]));
             engineCombo.setSelectedItem(project.getEngineVersion());
             selectionPanel.add(engineCombo);
+            JCheckBox snapshotBox = new JCheckBox("Create a snapshot first", true);
+            selectionPanel.add(snapshotBox);
             
             // Buttons panel
             JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
@@ -633,17 +1066,38 @@ public class GodotProjectManager extends JFrame {
             
             confirmBtn.addActionListener(e -> {
                 String selectedVersion = (String) engineCombo.getSelectedItem();
-                if (selectedVersion != null && !selectedVersion.equals(project.getEngineVersion())) {
-                    project.setEngineVersion(selectedVersion);
-                    refreshProjectTable();
+                if (selectedVersion == null || selectedVersion.equals(project.getEngineVersion())) {
+                    warningDialog.dispose();
+                    return;
+                }
+                Runnable applyChange = () -> {
+                    registry.updateProject(project, p -> p.setEngineVersion(selectedVersion));
                     saveData();
                     JOptionPane.showMessageDialog(warningDialog,
                         "Engine version changed to " + selectedVersion + "\n\n" +
                         "Remember to test your project thoroughly!",
                         "Version Changed",
                         JOptionPane.INFORMATION_MESSAGE);
-                }
-                warningDialog.dispose();
+                    warningDialog.dispose();
+                };
+                Runnable snapshotAndApply = () -> {
+                    if (snapshotBox.isSelected()) {
+                        createSnapshot(project, "Before engine change " + project.getEngineVersion() + " -> " + selectedVersion,
+                            warningDialog, applyChange);
+                    } else {
+                        applyChange.run();
+                    }
+                };
+                // Look for known breaking changes before anything is touched
+                int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+                runWithProgress(warningDialog, "Checking Compatibility",
+                    listener -> CompatibilityChecker.check(Paths.get(project.getPath()), project.getEngineVersion(),
+                        selectedVersion, threads, listener),
+                    report -> {
+                        if (report.byFile.isEmpty() || showCompatibilityReport(warningDialog, project, selectedVersion, report)) {
+                            snapshotAndApply.run();
+                        }
+                    });
             });
             
             cancelBtn.addActionListener(e -> warningDialog.dispose());
@@ -662,343 +1116,1823 @@ public class GodotProjectManager extends JFrame {
             warningDialog.setVisible(true);
         }
 
-        private void refreshProjectTable() {
-            tableModel.setRowCount(0);
-            for (GodotProject project : projects) {
-                tableModel.addRow(new Object[]{
-                    project.getName(),
-                    project.getPath(),
-                    project.getEngineVersion(),
-                    project.getLastOpened()
-                });
+        // Returns true when the user still wants to switch
+        private boolean showCompatibilityReport(Window owner, GodotProject project, String targetVersion,
+                                                CompatibilityChecker.Report report) {
+            JDialog dialog = new JDialog(owner, "Compatibility Report", Dialog.ModalityType.APPLICATION_MODAL);
+            dialog.setSize(850, 450);
+            dialog.setLocationRelativeTo(owner);
+            dialog.setLayout(new BorderLayout(10, 10));
+
+            String summary = String.format("  %s %s -> %s: %d errors and %d warnings in %d of %d files (%s scanned in %d ms)%s",
+                project.getName(), project.getEngineVersion(), targetVersion, report.errors, report.warnings,
+                report.byFile.size(), report.files, FileOps.formatBytes(report.bytes), report.millis,
+                report.truncated ? ", list truncated" : "");
+            dialog.add(new JLabel(summary), BorderLayout.NORTH);
+
+            DefaultTableModel model = readOnlyModel("File", "Line", "Severity", "Issue", "Code");
+            for (List<CompatibilityChecker.Finding> findings : report.byFile.values()) {
+                for (CompatibilityChecker.Finding finding : findings) {
+                    model.addRow(new Object[]{finding.file, finding.line, finding.severity, finding.message, finding.text});
+                }
             }
+            JTable table = new JTable(model);
+            table.getColumnModel().getColumn(1).setMaxWidth(60);
+            table.getColumnModel().getColumn(2).setMaxWidth(90);
+            dialog.add(new JScrollPane(table), BorderLayout.CENTER);
+
+            boolean[] proceed = {false};
+            JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+            JButton cancelBtn = new JButton("Cancel");
+            JButton switchBtn = new JButton("Switch Anyway");
+            cancelBtn.addActionListener(e -> dialog.dispose());
+            switchBtn.addActionListener(e -> {
+                proceed[0] = true;
+                dialog.dispose();
+            });
+            buttonPanel.add(cancelBtn);
+            buttonPanel.add(switchBtn);
+            dialog.add(buttonPanel, BorderLayout.SOUTH);
+            dialog.setVisible(true);
+            return proceed[0];
         }
-    }
 
-    // Inner class for Engines Panel
-    class EnginesPanel extends JPanel {
-        private DefaultTableModel tableModel;
-        private JTable engineTable;
+        private void showSnapshotsDialog() {
+            int row = projectTable.getSelectedRow();
+            if (row == -1) {
+                JOptionPane.showMessageDialog(this, "Please select a project.");
+                return;
+            }
 
-        public EnginesPanel() {
-            setLayout(new BorderLayout(10, 10));
-            setBorder(new EmptyBorder(10, 10, 10, 10));
+            GodotProject project = tableModel.getProject(row);
+            Path projectDir = Paths.get(project.getPath());
+            SnapshotStore store = new SnapshotStore(Paths.get(appDataDir, "snapshots"));
 
-            // Info label
-            JLabel infoLabel = new JLabel("Manage Godot engine versions. Download and install engines to use with your projects.");
-            add(infoLabel, BorderLayout.NORTH);
+            JDialog dialog = new JDialog(GodotProjectManager.this, "Snapshots - " + project.getName(), true);
+            dialog.setSize(600, 400);
+            dialog.setLocationRelativeTo(this);
+            dialog.setLayout(new BorderLayout(10, 10));
 
-            // Table for engines
-            String[] columns = {"Version", "Status", "Size", "Installation Path"};
-            tableModel = new DefaultTableModel(columns, 0) {
-                @Override
-                public boolean isCellEditable(int row, int column) {
-                    return false;
+            DefaultListModel<SnapshotStore.Snapshot> listModel = new DefaultListModel<>();
+            JList<SnapshotStore.Snapshot> snapshotList = new JList<>(listModel);
+            snapshotList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+            Runnable reload = () -> {
+                listModel.clear();
+                try {
+                    for (SnapshotStore.Snapshot snapshot : store.list(projectDir)) {
+                        listModel.addElement(snapshot);
+                    }
+                } catch (IOException ex) {
+                    JOptionPane.showMessageDialog(dialog, "Error reading snapshots: " + ex.getMessage());
                 }
             };
-            engineTable = new JTable(tableModel);
-            engineTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-            engineTable.setRowHeight(30);
-            JScrollPane scrollPane = new JScrollPane(engineTable);
+            reload.run();
 
-            // Bottom panel with action buttons
-            JPanel bottomPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
-            JButton downloadBtn = new JButton("Download");
-            JButton installBtn = new JButton("Install from File");
-            JButton uninstallBtn = new JButton("Uninstall");
-            JButton refreshBtn = new JButton("Refresh");
+            JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+            JButton createBtn = new JButton("Create Snapshot");
+            JButton restoreBtn = new JButton("Restore");
+            JButton deleteBtn = new JButton("Delete");
+            JButton closeBtn = new JButton("Close");
 
-            downloadBtn.addActionListener(e -> downloadSelectedEngine());
-            installBtn.addActionListener(e -> installFromFile());
-            uninstallBtn.addActionListener(e -> uninstallSelectedEngine());
-            refreshBtn.addActionListener(e -> refreshEngineTable());
+            createBtn.addActionListener(e -> {
+                String label = JOptionPane.showInputDialog(dialog, "Snapshot label:", "Manual snapshot");
+                if (label != null) {
+                    createSnapshot(project, label, dialog, reload);
+                }
+            });
 
-            bottomPanel.add(refreshBtn);
-            bottomPanel.add(uninstallBtn);
-            bottomPanel.add(installBtn);
-            bottomPanel.add(downloadBtn);
+            restoreBtn.addActionListener(e -> {
+                SnapshotStore.Snapshot snapshot = snapshotList.getSelectedValue();
+                if (snapshot == null) {
+                    JOptionPane.showMessageDialog(dialog, "Please select a snapshot.");
+                    return;
+                }
+                int choice = JOptionPane.showConfirmDialog(dialog,
+                    "Restore snapshot from " + snapshot.getCreated() + "?\n" +
+                    "Files changed since then will be overwritten and files added since then will be deleted.\n" +
+                    "The .godot cache folder and version control metadata such as .git are not touched.",
+                    "Confirm Restore",
+                    JOptionPane.YES_NO_OPTION,
+                    JOptionPane.WARNING_MESSAGE);
+                if (choice != JOptionPane.YES_OPTION) return;
 
-            add(scrollPane, BorderLayout.CENTER);
-            add(bottomPanel, BorderLayout.SOUTH);
+                // Stopping half-way would leave the project a mix of two states
+                runWithProgress(dialog, "Restoring Snapshot", false, listener -> store.restore(snapshot, projectDir, listener),
+                    restored -> JOptionPane.showMessageDialog(dialog, restored + " files restored."));
+            });
 
-            refreshEngineTable();
+            deleteBtn.addActionListener(e -> {
+                SnapshotStore.Snapshot snapshot = snapshotList.getSelectedValue();
+                if (snapshot == null) {
+                    JOptionPane.showMessageDialog(dialog, "Please select a snapshot.");
+                    return;
+                }
+                // Not cancellable: the manifest is gone once it starts, and unused objects are found again next time
+                runWithProgress(dialog, "Deleting Snapshot", false, listener -> store.delete(snapshot, listener), freed -> {
+                    reload.run();
+                    JOptionPane.showMessageDialog(dialog, FileOps.formatBytes(freed) + " freed.");
+                });
+            });
+
+            closeBtn.addActionListener(e -> dialog.dispose());
+
+            buttonPanel.add(deleteBtn);
+            buttonPanel.add(restoreBtn);
+            buttonPanel.add(createBtn);
+            buttonPanel.add(closeBtn);
+
+            JScrollPane scrollPane = new JScrollPane(snapshotList);
+            scrollPane.setBorder(new CompoundBorder(new EmptyBorder(10, 10, 0, 10), scrollPane.getBorder()));
+            dialog.add(scrollPane, BorderLayout.CENTER);
+            dialog.add(buttonPanel, BorderLayout.SOUTH);
+            dialog.setVisible(true);
         }
 
-        private void downloadSelectedEngine() {
-            int row = engineTable.getSelectedRow();
+        private void createSnapshot(GodotProject project, String label, Component parent, Runnable onSuccess) {
+            SnapshotStore store = new SnapshotStore(Paths.get(appDataDir, "snapshots"));
+            runWithProgress(parent, "Creating Snapshot",
+                listener -> store.create(Paths.get(project.getPath()), label, listener),
+                result -> {
+                    JOptionPane.showMessageDialog(parent,
+                        "Snapshot created: " + result.files + " files, " + result.changedFiles + " changed\n" +
+                        FileOps.formatBytes(result.storedBytes) + " added to the store in " +
+                        String.format("%.1f", result.millis / 1000.0) + " s");
+                    onSuccess.run();
+                });
+        }
+
+        private void showCloneDialog() {
+            if (!dataReady(this)) return;
+            int row = projectTable.getSelectedRow();
             if (row == -1) {
-                JOptionPane.showMessageDialog(this, "Please select an engine version.");
+                JOptionPane.showMessageDialog(this, "Please select a project.");
                 return;
             }
 
-            GodotEngine engine = engines.get(row);
-            if (engine.isInstalled()) {
-                JOptionPane.showMessageDialog(this, "This engine version is already installed.");
+            GodotProject source = tableModel.getProject(row);
+            File sourceDir = new File(source.getPath());
+
+            JTextField nameField = new JTextField(source.getName() + " (copy)", 20);
+            JTextField locationField = new JTextField(sourceDir.getParent(), 20);
+            JCheckBox linkAssetsBox = new JCheckBox("Hard-link read-only assets (images, audio, models, fonts)");
+            linkAssetsBox.setToolTipText("Saves space, but editing such a file in place changes it in both projects");
+
+            JPanel form = new JPanel(new GridLayout(0, 1, 5, 5));
+            form.add(new JLabel("Name of the copy:"));
+            form.add(nameField);
+            form.add(new JLabel("Location:"));
+            form.add(locationField);
+            form.add(linkAssetsBox);
+            form.add(new JLabel("The .godot cache folder is not copied; Godot rebuilds it on first open."));
+
+            int choice = JOptionPane.showConfirmDialog(this, form, "Clone Project",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+            if (choice != JOptionPane.OK_OPTION) return;
+
+            String name = nameField.getText().trim();
+            if (name.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "Please enter a project name.");
+                return;
+            }
+            Path target = Paths.get(locationField.getText().trim(), name);
+            if (Files.exists(target)) {
+                JOptionPane.showMessageDialog(this,
+                    "Target folder already exists:\n" + target,
+                    "Clone Project",
+                    JOptionPane.ERROR_MESSAGE);
                 return;
             }
 
-            JFileChooser chooser = new JFileChooser();
-            chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
-            chooser.setDialogTitle("Select Installation Directory");
-            chooser.setSelectedFile(new File(defaultEngineLocation));
+            boolean linkAssets = linkAssetsBox.isSelected();
+            runWithProgress(this, "Cloning Project",
+                listener -> ProjectCloner.cloneProject(sourceDir.toPath(), target, name, linkAssets, listener),
+                result -> {
+                    GodotProject clone = new GodotProject(name, target.toString(), source.getEngineVersion());
+                    registry.addProject(clone);
+                    saveData();
+                    JOptionPane.showMessageDialog(this,
+                        "Cloned " + result.files + " files (" + FileOps.formatBytes(result.bytes) + ") in " +
+                        String.format("%.1f", result.millis / 1000.0) + " s\n" +
+                        "Reflinked: " + result.reflinked + ", hard-linked: " + result.linked +
+                        ", copied: " + result.copied);
+                });
+        }
 
-            if (chooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
-                File installDir = new File(chooser.getSelectedFile(), engine.getVersion());
-                
-                // Show progress dialog
-                JDialog progressDialog = new JDialog(GodotProjectManager.this, "Downloading", true);
-                progressDialog.setSize(400, 150);
-                progressDialog.setLocationRelativeTo(this);
-                progressDialog.setDefaultCloseOperation(JDialog.DO_NOTHING_ON_CLOSE);
-                
-                JProgressBar progressBar = new JProgressBar(0, 100);
-                progressBar.setStringPainted(true);
-                JLabel statusLabel = new JLabel("Preparing download...");
-                
-                JPanel contentPanel = new JPanel(new BorderLayout(10, 10));
-                contentPanel.setBorder(new EmptyBorder(20, 20, 20, 20));
-                contentPanel.add(statusLabel, BorderLayout.NORTH);
-                contentPanel.add(progressBar, BorderLayout.CENTER);
-                progressDialog.add(contentPanel);
-                
-                // Download in background thread
-                SwingWorker<Void, String> worker = new SwingWorker<Void, String>() {
-                    @Override
-                    protected Void doInBackground() throws Exception {
-                        try {
-                            installDir.mkdirs();
-                            
-                            // Use modern HttpClient
-                            HttpClient client = HttpClient.newBuilder()
-                                .followRedirects(HttpClient.Redirect.NORMAL)
-                                .build();
-                            
-                            HttpRequest request = HttpRequest.newBuilder()
-                                .uri(URI.create(engine.getDownloadUrl()))
-                                .GET()
-                                .build();
-                            
-                            File tempZip = new File(installDir.getParent(), "temp_" + engine.getVersion() + ".zip");
-                            
-                            // Download with progress tracking
-                            publish("Connecting...|0");
-                            
-                            HttpResponse<InputStream> response = client.send(request, 
-                                HttpResponse.BodyHandlers.ofInputStream());
-                            
-                            long fileSize = response.headers().firstValueAsLong("Content-Length").orElse(-1);
-                            
-                            try (InputStream in = response.body();
-                                 FileOutputStream out = new FileOutputStream(tempZip)) {
-                                
-                                byte[] buffer = new byte[8192];
-                                long totalRead = 0;
-                                int bytesRead;
-                                
-                                while ((bytesRead = in.read(buffer)) != -1) {
-                                    out.write(buffer, 0, bytesRead);
-                                    totalRead += bytesRead;
-                                    if (fileSize > 0) {
-                                        int progress = (int) ((totalRead * 100) / fileSize);
-                                        publish("Downloading...|" + progress);
-                                    }
-                                }
-                            }
-                            
-                            // Extract the ZIP file
-                            publish("Extracting files...|100");
-                            extractZipFile(tempZip, installDir);
-                            
-                            // Find the Godot executable in the extracted files
-                            String exePath = findGodotExecutable(installDir);
-                            if (exePath == null) {
-                                throw new Exception("Could not find Godot executable in extracted files");
-                            }
-                            
-                            engine.setInstalled(true);
-                            engine.setInstalledPath(exePath);
-                            
-                            // Cleanup
-                            tempZip.delete();
-                            
-                        } catch (Exception e) {
-                            throw e;
-                        }
-                        return null;
-                    }
-                    
-                    @Override
-                    protected void process(List<String> chunks) {
-                        String latest = chunks.get(chunks.size() - 1);
-                        String[] parts = latest.split("\\|");
-                        statusLabel.setText(parts[0]);
-                        if (parts.length > 1) {
-                            progressBar.setValue(Integer.parseInt(parts[1]));
-                        }
-                    }
-                    
-                    @Override
-                    protected void done() {
-                        progressDialog.dispose();
-                        try {
-                            get();
-                            JOptionPane.showMessageDialog(EnginesPanel.this, 
-                                "Engine " + engine.getVersion() + " downloaded successfully!");
-                            refreshEngineTable();
-                            saveData();
-                        } catch (Exception e) {
-                            JOptionPane.showMessageDialog(EnginesPanel.this, 
-                                "Download failed: " + e.getMessage(), 
-                                "Error", 
-                                JOptionPane.ERROR_MESSAGE);
-                        }
-                    }
-                };
-                
-                worker.execute();
-                progressDialog.setVisible(true);
+        private void saveAsTemplate() {
+            int row = projectTable.getSelectedRow();
+            if (row == -1) {
+                JOptionPane.showMessageDialog(this, "Please select a project.");
+                return;
+            }
+
+            GodotProject source = tableModel.getProject(row);
+            JTextField nameField = new JTextField(source.getName(), 20);
+            JTextField descriptionField = new JTextField(20);
+            JPanel form = new JPanel(new GridLayout(0, 1, 5, 5));
+            form.add(new JLabel("Template name:"));
+            form.add(nameField);
+            form.add(new JLabel("Description:"));
+            form.add(descriptionField);
+            form.add(new JLabel("The import cache is included; open the project once first so it is complete."));
+
+            int choice = JOptionPane.showConfirmDialog(this, form, "Save as Template",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+            if (choice != JOptionPane.OK_OPTION) return;
+
+            String name = nameField.getText().trim();
+            if (name.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "Please enter a template name.");
+                return;
             }
+            String description = descriptionField.getText().trim();
+            runWithProgress(this, "Saving Template",
+                listener -> projectTemplates.save(Paths.get(source.getPath()), name, description,
+                    source.getEngineVersion(), listener),
+                template -> JOptionPane.showMessageDialog(this,
+                    "Saved template \"" + template.name + "\" for Godot " + template.engine + ".x" +
+                    (ProjectTemplates.hasImportCache(template) ? "" : "\nThe project had no import cache to include.")));
         }
 
-        private void installFromFile() {
-            int row = engineTable.getSelectedRow();
-            if (row == -1) {
-                JOptionPane.showMessageDialog(this, "Please select an engine version.");
+        private void manageTemplates() {
+            DefaultListModel<ProjectTemplates.Template> model = new DefaultListModel<>();
+            projectTemplates.library().forEach(model::addElement);
+            if (model.isEmpty()) {
+                JOptionPane.showMessageDialog(this,
+                    "No saved templates. Use Tools > Save as Template to add a project to the library.");
                 return;
             }
+            JList<ProjectTemplates.Template> list = new JList<>(model);
+            list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+            JScrollPane scroll = new JScrollPane(list);
+            scroll.setPreferredSize(new Dimension(420, 200));
 
-            GodotEngine engine = engines.get(row);
-            
-            JFileChooser chooser = new JFileChooser();
-            chooser.setDialogTitle("Select Godot Executable");
-            chooser.setFileFilter(new javax.swing.filechooser.FileFilter() {
-                public boolean accept(File f) {
-                    return f.isDirectory() || f.getName().toLowerCase().endsWith(".exe");
-                }
-                public String getDescription() {
-                    return "Godot Executable (*.exe)";
+            Object[] options = {"Delete", "Close"};
+            while (!model.isEmpty()) {
+                int choice = JOptionPane.showOptionDialog(this, scroll, "Project Templates",
+                    JOptionPane.DEFAULT_OPTION, JOptionPane.PLAIN_MESSAGE, null, options, options[1]);
+                if (choice != 0) return;
+                ProjectTemplates.Template template = list.getSelectedValue();
+                if (template == null) continue;
+                int confirm = JOptionPane.showConfirmDialog(this,
+                    "Delete the template \"" + template.name + "\"?\nProjects created from it are not affected.",
+                    "Delete Template", JOptionPane.YES_NO_OPTION);
+                if (confirm != JOptionPane.YES_OPTION) continue;
+                try {
+                    projectTemplates.delete(template);
+                    model.removeElement(template);
+                } catch (IOException e) {
+                    JOptionPane.showMessageDialog(this, "Could not delete template: " + e.getMessage(),
+                        "Error", JOptionPane.ERROR_MESSAGE);
                 }
-            });
-
-            if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
-                File exeFile = chooser.getSelectedFile();
-                engine.setInstalled(true);
-                engine.setInstalledPath(exeFile.getAbsolutePath());
-                refreshEngineTable();
-                saveData();
-                JOptionPane.showMessageDialog(this, "Engine registered successfully!");
             }
         }
 
-        private void uninstallSelectedEngine() {
-            int row = engineTable.getSelectedRow();
+        private void exportArchive() {
+            int row = projectTable.getSelectedRow();
             if (row == -1) {
-                JOptionPane.showMessageDialog(this, "Please select an engine version.");
+                JOptionPane.showMessageDialog(this, "Please select a project.");
                 return;
             }
 
-            GodotEngine engine = engines.get(row);
-            if (!engine.isInstalled()) {
-                JOptionPane.showMessageDialog(this, "This engine is not installed.");
+            GodotProject project = tableModel.getProject(row);
+            File projectDir = new File(project.getPath());
+
+            JFileChooser chooser = new JFileChooser();
+            chooser.setDialogTitle("Export Project Archive");
+            chooser.setSelectedFile(new File(projectDir.getParentFile(), project.getName() + ".zip"));
+            JCheckBox storeBox = new JCheckBox("<html>Store compressed assets<br>(PNG, OGG, ...) as-is</html>", true);
+            chooser.setAccessory(storeBox);
+
+            if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+
+            File zipFile = chooser.getSelectedFile();
+            if (!zipFile.getName().toLowerCase().endsWith(".zip")) {
+                zipFile = new File(zipFile.getParentFile(), zipFile.getName() + ".zip");
+            }
+            if (zipFile.exists()) {
+                int choice = JOptionPane.showConfirmDialog(this,
+                    zipFile.getName() + " already exists. Overwrite it?",
+                    "Export Archive",
+                    JOptionPane.YES_NO_OPTION);
+                if (choice != JOptionPane.YES_OPTION) return;
+            }
+
+            Path target = zipFile.toPath();
+            boolean storeCompressed = storeBox.isSelected();
+            runWithProgress(this, "Exporting Archive",
+                listener -> ArchiveExporter.export(projectDir.toPath(), target, storeCompressed,
+                    Runtime.getRuntime().availableProcessors(), listener),
+                result -> JOptionPane.showMessageDialog(this,
+                    "Exported " + result.files + " files to " + target.getFileName() + "\n" +
+                    FileOps.formatBytes(result.inputBytes) + " -> " + FileOps.formatBytes(result.outputBytes) +
+                    " in " + String.format("%.1f", result.millis / 1000.0) + " s (" +
+                    String.format("%.1f", result.megabytesPerSecond()) + " MB/s)"));
+        }
+
+        private void analyzeDependencies() {
+            int row = projectTable.getSelectedRow();
+            if (row == -1) {
+                JOptionPane.showMessageDialog(this, "Please select a project.");
                 return;
             }
 
-            int choice = JOptionPane.showConfirmDialog(this, 
-                "Uninstall Godot " + engine.getVersion() + "?\n(Files will not be deleted from disk)", 
-                "Confirm Uninstall", 
-                JOptionPane.YES_NO_OPTION);
+            GodotProject project = tableModel.getProject(row);
+            DependencyAnalyzer analyzer = new DependencyAnalyzer(Paths.get(appDataDir, "analysis"));
+            runWithProgress(this, "Analyzing Dependencies",
+                listener -> analyzer.analyze(Paths.get(project.getPath()), listener),
+                report -> showDependencyReport(project, report));
+        }
 
-            if (choice == JOptionPane.YES_OPTION) {
-                engine.setInstalled(false);
-                engine.setInstalledPath("");
-                refreshEngineTable();
-                saveData();
+        private void showDependencyReport(GodotProject project, DependencyAnalyzer.Report report) {
+            JDialog dialog = new JDialog(GodotProjectManager.this, "Dependencies - " + project.getName(), true);
+            dialog.setSize(750, 500);
+            dialog.setLocationRelativeTo(this);
+            dialog.setLayout(new BorderLayout(10, 10));
+
+            JLabel summary = new JLabel(String.format(
+                "  %d files (%d parsed, %d from cache) in %d ms. %d unused files take %s.",
+                report.files, report.parsed, report.cached, report.millis,
+                report.unused.size(), FileOps.formatBytes(report.unusedBytes)));
+            dialog.add(summary, BorderLayout.NORTH);
+
+            DefaultTableModel unusedModel = readOnlyModel("File", "Size");
+            for (DependencyAnalyzer.FileInfo info : report.unused) {
+                unusedModel.addRow(new Object[]{info.path, FileOps.formatBytes(info.size)});
             }
+            DefaultTableModel groupModel = readOnlyModel("Main File", "Files", "Size");
+            for (DependencyAnalyzer.Component component : report.components) {
+                groupModel.addRow(new Object[]{component.main, component.files.size(), FileOps.formatBytes(component.bytes)});
+            }
+            DefaultTableModel missingModel = readOnlyModel("File", "Missing Reference");
+            report.missing.forEach((file, targets) -> {
+                for (String target : targets) missingModel.addRow(new Object[]{file, "res://" + target});
+            });
+
+            JTable unusedTable = new JTable(unusedModel);
+            JTextArea usageArea = new JTextArea(4, 40);
+            usageArea.setEditable(false);
+            // Show who references a file and what it references
+            JTable groupTable = new JTable(groupModel);
+            groupTable.getSelectionModel().addListSelectionListener(e -> {
+                int selected = groupTable.getSelectedRow();
+                if (selected < 0) return;
+                DependencyAnalyzer.Component component = report.components.get(selected);
+                StringBuilder sb = new StringBuilder();
+                for (String file : component.files) {
+                    sb.append(file);
+                    Set<String> targets = report.references.getOrDefault(file, Set.of());
+                    if (!targets.isEmpty()) sb.append("  ->  ").append(String.join(", ", targets));
+                    sb.append('\n');
+                }
+                usageArea.setText(sb.toString());
+                usageArea.setCaretPosition(0);
+            });
+            JSplitPane groupsPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT,
+                new JScrollPane(groupTable), new JScrollPane(usageArea));
+            groupsPane.setResizeWeight(0.5);
+
+            JTabbedPane tabs = new JTabbedPane();
+            tabs.addTab("Unused (" + report.unused.size() + ")", new JScrollPane(unusedTable));
+            tabs.addTab("Largest Groups", groupsPane);
+            tabs.addTab("Broken References (" + missingModel.getRowCount() + ")", new JScrollPane(new JTable(missingModel)));
+            dialog.add(tabs, BorderLayout.CENTER);
+
+            JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+            JButton closeBtn = new JButton("Close");
+            closeBtn.addActionListener(e -> dialog.dispose());
+            buttonPanel.add(closeBtn);
+            dialog.add(buttonPanel, BorderLayout.SOUTH);
+            dialog.setVisible(true);
         }
 
-        private void refreshEngineTable() {
-            tableModel.setRowCount(0);
-            for (GodotEngine engine : engines) {
-                tableModel.addRow(new Object[]{
-                    engine.getVersion(),
-                    engine.isInstalled() ? "Installed" : "Not Installed",
-                    engine.getSize(),
-                    engine.isInstalled() ? engine.getInstalledPath() : ""
-                });
+        private void showLaunchHistory() {
+            List<LaunchHistory.Stats> stats = launchHistory.all();
+            if (stats.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "No projects have been launched from the manager yet.");
+                return;
+            }
+            long now = System.currentTimeMillis();
+            stats.sort(Comparator.comparingDouble((LaunchHistory.Stats s) -> s.score(now)).reversed());
+            DefaultTableModel model = new DefaultTableModel(
+                    new String[]{"Project", "Launches", "Hours", "Last Launch", "Engine", "Score"}, 0) {
+                @Override
+                public boolean isCellEditable(int row, int column) {
+                    return false;
+                }
+
+                // Numbers sort as numbers
+                @Override
+                public Class<?> getColumnClass(int column) {
+                    switch (column) {
+                        case 1: return Integer.class;
+                        case 2: case 5: return Double.class;
+                        default: return String.class;
+                    }
+                }
+            };
+            DateTimeFormatter format = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+            for (LaunchHistory.Stats s : stats) {
+                model.addRow(new Object[]{s.name, s.launches(), Math.round(s.sessionMillis() / 360000.0) / 10.0,
+                    LocalDateTime.ofInstant(java.time.Instant.ofEpochMilli(s.lastLaunch()), java.time.ZoneId.systemDefault()).format(format),
+                    s.engine, Math.round(s.score(now) * 100) / 100.0});
             }
+            JTable table = new JTable(model);
+            table.setAutoCreateRowSorter(true);
+            JScrollPane scrollPane = new JScrollPane(table);
+            scrollPane.setPreferredSize(new Dimension(700, 300));
+            JPanel panel = new JPanel(new BorderLayout(10, 10));
+            panel.add(scrollPane, BorderLayout.CENTER);
+            panel.add(new JLabel("The score adds up launches, each counting half as much every " +
+                (int) LaunchHistory.HALF_LIFE_DAYS + " days; short sessions count less."), BorderLayout.SOUTH);
+            JOptionPane.showMessageDialog(this, panel, "Launch History", JOptionPane.PLAIN_MESSAGE);
         }
-    }
 
-    // Inner class for Settings Panel
-    class SettingsPanel extends JPanel {
-        private JTextField projectLocationField;
-        private JTextField engineLocationField;
+        private void showBuildDialog() {
+            List<GodotProject> projects = registry.projects();
+            if (projects.isEmpty()) return;
+            JList<GodotProject> projectList = new JList<>(projects.toArray(new GodotProject[0]));
+            projectList.setCellRenderer(new DefaultListCellRenderer() {
+                @Override
+                public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                              boolean selected, boolean focus) {
+                    return super.getListCellRendererComponent(list, ((GodotProject) value).getName(), index, selected, focus);
+                }
+            });
+            int row = projectTable.getSelectedRow();
+            if (row != -1) projectList.setSelectedIndex(projects.indexOf(tableModel.getProject(row)));
 
-        public SettingsPanel() {
-            setLayout(new BorderLayout(10, 10));
-            setBorder(new EmptyBorder(20, 20, 20, 20));
+            // Presets of the selected projects; none selected means all of them
+            DefaultListModel<String> presetModel = new DefaultListModel<>();
+            JList<String> presetList = new JList<>(presetModel);
+            Runnable updatePresets = () -> {
+                Set<String> names = new TreeSet<>();
+                for (GodotProject project : projectList.getSelectedValuesList()) {
+                    try {
+                        for (BuildPipeline.Preset preset : BuildPipeline.presets(Paths.get(project.getPath()))) names.add(preset.name);
+                    } catch (IOException e) {
+                        // Listed without presets; the job plan skips it
+                    }
+                }
+                presetModel.clear();
+                names.forEach(presetModel::addElement);
+            };
+            projectList.addListSelectionListener(e -> {
+                if (!e.getValueIsAdjusting()) updatePresets.run();
+            });
+            updatePresets.run();
 
-            // Title
-            JLabel titleLabel = new JLabel("Settings");
-            titleLabel.setFont(titleLabel.getFont().deriveFont(Font.BOLD, 18f));
-            
-            JPanel titlePanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
-            titlePanel.add(titleLabel);
-            
-            // Settings form
-            JPanel formPanel = new JPanel(new GridBagLayout());
-            GridBagConstraints gbc = new GridBagConstraints();
-            gbc.fill = GridBagConstraints.HORIZONTAL;
-            gbc.insets = new Insets(10, 10, 10, 10);
-            gbc.anchor = GridBagConstraints.WEST;
+            BuildPipeline pipeline = new BuildPipeline(BuildPipeline.DEFAULT_MEMORY_PER_JOB_MB, BuildPipeline.DEFAULT_TIMEOUT);
+            JTextField outputField = new JTextField(Paths.get(defaultProjectLocation, "Builds").toString(), 30);
+            JSpinner jobsSpinner = new JSpinner(new SpinnerNumberModel(pipeline.defaultConcurrency(), 1, 64, 1));
 
-            // Default Project Location
-            gbc.gridx = 0; gbc.gridy = 0;
-            gbc.weightx = 0;
-            JLabel projectLocLabel = new JLabel("Default Project Location:");
-            projectLocLabel.setFont(projectLocLabel.getFont().deriveFont(Font.BOLD));
-            formPanel.add(projectLocLabel, gbc);
+            JScrollPane projectScroll = new JScrollPane(projectList);
+            projectScroll.setPreferredSize(new Dimension(260, 220));
+            JScrollPane presetScroll = new JScrollPane(presetList);
+            presetScroll.setPreferredSize(new Dimension(220, 220));
+            JPanel lists = new JPanel(new GridLayout(1, 2, 10, 0));
+            JPanel projectPanel = new JPanel(new BorderLayout(0, 5));
+            projectPanel.add(new JLabel("Projects:"), BorderLayout.NORTH);
+            projectPanel.add(projectScroll, BorderLayout.CENTER);
+            JPanel presetPanel = new JPanel(new BorderLayout(0, 5));
+            presetPanel.add(new JLabel("Export presets (none selected = all):"), BorderLayout.NORTH);
+            presetPanel.add(presetScroll, BorderLayout.CENTER);
+            lists.add(projectPanel);
+            lists.add(presetPanel);
+            JPanel options = new JPanel(new GridLayout(0, 2, 5, 5));
+            options.add(new JLabel("Output folder:"));
+            options.add(outputField);
+            options.add(new JLabel("Parallel jobs:"));
+            options.add(jobsSpinner);
+            JPanel form = new JPanel(new BorderLayout(10, 10));
+            form.add(lists, BorderLayout.CENTER);
+            form.add(options, BorderLayout.SOUTH);
 
-            gbc.gridy = 1;
-            formPanel.add(new JLabel("New projects will be created in this folder"), gbc);
+            int choice = JOptionPane.showConfirmDialog(this, form, "Export Projects",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+            if (choice != JOptionPane.OK_OPTION) return;
 
-            gbc.gridy = 2;
-            gbc.weightx = 1;
-            projectLocationField = new JTextField(defaultProjectLocation);
-            projectLocationField.setPreferredSize(new Dimension(400, 30));
-            JButton browseProjectBtn = new JButton("Browse...");
-            JPanel projectPanel = new JPanel(new BorderLayout(5, 0));
-            projectPanel.add(projectLocationField, BorderLayout.CENTER);
-            projectPanel.add(browseProjectBtn, BorderLayout.EAST);
-            formPanel.add(projectPanel, gbc);
+            List<GodotProject> selected = projectList.getSelectedValuesList();
+            if (selected.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "Please select a project.");
+                return;
+            }
+            Set<String> presets = new HashSet<>(presetList.getSelectedValuesList());
+            Path output = Paths.get(outputField.getText().trim());
+            int concurrency = (Integer) jobsSpinner.getValue();
+            List<BuildPipeline.Job> jobs;
+            try {
+                jobs = BuildPipeline.plan(selected, presets, project -> {
+                    GodotEngine engine = registry.findInstalledEngine(project.getEngineVersion());
+                    return engine == null ? null : engine.getInstalledPath();
+                }, output);
+            } catch (IOException e) {
+                JOptionPane.showMessageDialog(this, "Error reading export presets: " + e.getMessage(),
+                    "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            if (jobs.isEmpty()) {
+                JOptionPane.showMessageDialog(this,
+                    "The selected projects have no export presets.\nCreate them in the editor under Project > Export.");
+                return;
+            }
 
-            browseProjectBtn.addActionListener(e -> {
-                JFileChooser chooser = new JFileChooser();
-                chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
-                chooser.setDialogTitle("Select Default Project Location");
-                chooser.setSelectedFile(new File(projectLocationField.getText()));
-                if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
-                    projectLocationField.setText(chooser.getSelectedFile().getAbsolutePath());
+            runWithProgress(this, "Exporting " + jobs.size() + " Build(s)",
+                listener -> pipeline.run(jobs, concurrency, job -> {}),
+                result -> showBuildResults(result, output));
+        }
+
+        private void showBuildResults(BuildPipeline.Result result, Path output) {
+            JDialog dialog = new JDialog(GodotProjectManager.this, "Export Results", true);
+            dialog.setSize(800, 520);
+            dialog.setLocationRelativeTo(this);
+            dialog.setLayout(new BorderLayout(10, 10));
+
+            dialog.add(new JLabel(String.format("  %d job(s), %d failed, %d at a time, in %s.",
+                result.jobs.size(), result.failed(), result.concurrency, Diagnostics.formatMillis(result.millis))),
+                BorderLayout.NORTH);
+
+            DefaultTableModel model = readOnlyModel("Project", "Preset", "State", "Time", "Waited", "Result");
+            for (BuildPipeline.Job job : result.jobs) {
+                model.addRow(new Object[]{job.project, job.preset, job.state, Diagnostics.formatMillis(job.millis),
+                    Diagnostics.formatMillis(job.queuedMillis), job.describe()});
+            }
+            JTable table = new JTable(model);
+            JTextArea logArea = new JTextArea(10, 60);
+            logArea.setEditable(false);
+            logArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+            table.getSelectionModel().addListSelectionListener(e -> {
+                int selected = table.getSelectedRow();
+                if (selected < 0) return;
+                BuildPipeline.Job job = result.jobs.get(selected);
+                StringBuilder sb = new StringBuilder();
+                if (!job.artifacts.isEmpty()) {
+                    for (Path artifact : job.artifacts) sb.append(artifact).append('\n');
+                    sb.append('\n');
                 }
+                sb.append(job.log);
+                logArea.setText(sb.toString());
+                logArea.setCaretPosition(0);
             });
+            // Show the first failure, or the first job
+            int first = 0;
+            for (int i = 0; i < result.jobs.size(); i++) {
+                if (result.jobs.get(i).state != BuildPipeline.JobState.SUCCEEDED) {
+                    first = i;
+                    break;
+                }
+            }
+            if (!result.jobs.isEmpty()) table.setRowSelectionInterval(first, first);
+            JSplitPane split = new JSplitPane(JSplitPane.VERTICAL_SPLIT, new JScrollPane(table), new JScrollPane(logArea));
+            split.setResizeWeight(0.4);
+            dialog.add(split, BorderLayout.CENTER);
 
-            // Spacing
-            gbc.gridy = 3;
-            gbc.insets = new Insets(30, 10, 10, 10);
-            formPanel.add(new JSeparator(), gbc);
+            JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+            JButton openBtn = new JButton("Open Output Folder");
+            openBtn.addActionListener(e -> {
+                try {
+                    Desktop.getDesktop().open(output.toFile());
+                } catch (IOException | UnsupportedOperationException | IllegalArgumentException ex) {
+                    JOptionPane.showMessageDialog(dialog, "Error opening folder: " + ex.getMessage());
+                }
+            });
+            JButton closeBtn = new JButton("Close");
+            closeBtn.addActionListener(e -> dialog.dispose());
+            buttonPanel.add(openBtn);
+            buttonPanel.add(closeBtn);
+            dialog.add(buttonPanel, BorderLayout.SOUTH);
+            dialog.setVisible(true);
+        }
 
-            // Default Engine Location
-            gbc.gridy = 4;
-            gbc.insets = new Insets(10, 10, 10, 10);
-            gbc.weightx = 0;
-            JLabel engineLocLabel = new JLabel("Default Engine Installation Location:");
-            engineLocLabel.setFont(engineLocLabel.getFont().deriveFont(Font.BOLD));
-            formPanel.add(engineLocLabel, gbc);
+        private void cleanImportCache(boolean allProjects) {
+            List<Path> projects = new ArrayList<>();
+            if (allProjects) {
+                for (GodotProject project : registry.projects()) projects.add(Paths.get(project.getPath()));
+            } else {
+                int row = projectTable.getSelectedRow();
+                if (row == -1) {
+                    JOptionPane.showMessageDialog(this, "Please select a project.");
+                    return;
+                }
+                projects.add(Paths.get(tableModel.getProject(row).getPath()));
+            }
+            if (projects.isEmpty()) return;
 
-            gbc.gridy = 5;
-            formPanel.add(new JLabel("Godot engines will be downloaded and installed in this folder"), gbc);
+            // Scans are mostly directory listing; a few at a time keeps the disk busy without thrashing
+            int maxConcurrent = Math.min(4, Runtime.getRuntime().availableProcessors());
+            runWithProgress(this, "Scanning Import Caches", listener -> projects.size() == 1
+                    ? List.of(ImportCacheCollector.scan(projects.get(0), true))
+                    : ImportCacheCollector.scanAll(projects, maxConcurrent, listener),
+                this::confirmImportCacheCleanup);
+        }
 
-            gbc.gridy = 6;
+        private void confirmImportCacheCleanup(List<ImportCacheCollector.Result> results) {
+            DefaultTableModel model = readOnlyModel("Project", "Cache Files", "Cache Size", "Orphaned", "Reclaimable");
+            int orphans = 0;
+            long reclaimable = 0;
+            for (ImportCacheCollector.Result result : results) {
+                model.addRow(new Object[]{result.project, result.cacheFiles, FileOps.formatBytes(result.cacheBytes),
+                    result.orphans.size(), FileOps.formatBytes(result.orphanBytes)});
+                orphans += result.orphans.size();
+                reclaimable += result.orphanBytes;
+            }
+            if (orphans == 0) {
+                JOptionPane.showMessageDialog(this, "No orphaned import cache files found.");
+                return;
+            }
+
+            JPanel panel = new JPanel(new BorderLayout(10, 10));
+            JScrollPane scrollPane = new JScrollPane(new JTable(model));
+            scrollPane.setPreferredSize(new Dimension(700, 250));
+            panel.add(scrollPane, BorderLayout.CENTER);
+            panel.add(new JLabel("Delete " + orphans + " orphaned files (" + FileOps.formatBytes(reclaimable) + ")? " +
+                "Close the Godot editor for these projects first."), BorderLayout.SOUTH);
+            int choice = JOptionPane.showConfirmDialog(this, panel, "Clean Import Cache",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+            if (choice != JOptionPane.OK_OPTION) return;
+
+            runWithProgress(this, "Cleaning Import Cache", listener -> ImportCacheCollector.delete(results, listener),
+                freed -> JOptionPane.showMessageDialog(this, FileOps.formatBytes(freed) + " freed."));
+        }
+
+        private DefaultTableModel readOnlyModel(String... columns) {
+            return new DefaultTableModel(columns, 0) {
+                @Override
+                public boolean isCellEditable(int row, int column) {
+                    return false;
+                }
+            };
+        }
+
+        private void refreshProjectTable() {
+            icons.invalidate();
+            vcsStatus.invalidate();
+            if (dataLoaded) {
+                // Re-ranks by frecency; the table follows the RELOADED event
+                registry.reload(registry.engines(), launchHistory.sort(registry.projects()));
+            } else if (loadError != null) {
+                offerReload();
+            }
+            tableModel.setProjects(registry.projects());
+        }
+    }
+
+    // Table model reading straight from a registry snapshot; rows are updated from registry events
+    static class ProjectTableModel extends AbstractTableModel {
+        private static final String[] COLUMNS = {"Project Name", "Path", "Engine Version", "Last Opened", "Usage", "VCS Status"};
+        private final VcsStatus vcsStatus;
+        private final LaunchHistory launchHistory;
+        private List<GodotProject> projects = List.of();
+
+        ProjectTableModel() {
+            this(null, null);
+        }
+
+        ProjectTableModel(VcsStatus vcsStatus, LaunchHistory launchHistory) {
+            this.vcsStatus = vcsStatus;
+            this.launchHistory = launchHistory;
+        }
+
+        void setProjects(List<GodotProject> projects) {
+            this.projects = projects;
+            fireTableDataChanged();
+        }
+
+        GodotProject getProject(int row) {
+            return projects.get(row);
+        }
+
+        // Applies one change; events arrive in order and each carries the snapshot after the change
+        void apply(Registry.Event event) {
+            if (event.project == null && event.type != Registry.EventType.RELOADED) return;
+            projects = event.projects;
+            switch (event.type) {
+                case ADDED: fireTableRowsInserted(event.index, event.index); break;
+                case REMOVED: fireTableRowsDeleted(event.index, event.index); break;
+                case UPDATED: fireTableRowsUpdated(event.index, event.index); break;
+                default: fireTableDataChanged(); break;
+            }
+        }
+
+        @Override
+        public int getRowCount() { return projects.size(); }
+
+        @Override
+        public int getColumnCount() { return COLUMNS.length; }
+
+        @Override
+        public String getColumnName(int column) { return COLUMNS[column]; }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            GodotProject project = projects.get(row);
+            switch (column) {
+                case 0: return project.getName();
+                case 1: return project.getPath();
+                case 2: return project.getEngineVersion();
+                case 3: return project.getLastOpened();
+                case 4: return launchHistory != null ? launchHistory.describe(project.getPath()) : "";
+                default: return vcsStatus != null ? vcsStatus.get(project.getPath()) : VcsStatus.NO_REPOSITORY;
+            }
+        }
+    }
+
+    static class EngineTableModel extends AbstractTableModel {
+        private static final String[] COLUMNS = {"Version", "Status", "Size", "Installation Path"};
+        private final EngineValidator validator;
+        private List<GodotEngine> engines = List.of();
+
+        EngineTableModel(EngineValidator validator) {
+            this.validator = validator;
+        }
+
+        void setEngines(List<GodotEngine> engines) {
+            this.engines = engines;
+            fireTableDataChanged();
+        }
+
+        GodotEngine getEngine(int row) {
+            return engines.get(row);
+        }
+
+        void apply(Registry.Event event) {
+            if (event.engine == null && event.type != Registry.EventType.RELOADED) return;
+            engines = event.engines;
+            if (event.type == Registry.EventType.UPDATED) {
+                fireTableRowsUpdated(event.index, event.index);
+            } else {
+                fireTableDataChanged();
+            }
+        }
+
+        @Override
+        public int getRowCount() { return engines.size(); }
+
+        @Override
+        public int getColumnCount() { return COLUMNS.length; }
+
+        @Override
+        public String getColumnName(int column) { return COLUMNS[column]; }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            GodotEngine engine = engines.get(row);
+            switch (column) {
+                case 0: return engine.getVersion();
+                case 1: return engine.isInstalled() ? installedStatus(engine) : "Not Installed";
+                case 2: return engine.getSize();
+                default: return engine.isInstalled() ? engine.getInstalledPath() : "";
+            }
+        }
+
+        private String installedStatus(GodotEngine engine) {
+            EngineValidator.Check check = validator.get(engine.getInstalledPath());
+            return check == null ? "Installed" : "Installed, " + check.describe();
+        }
+    }
+
+    // Inner class for Diagnostics Panel
+    class DiagnosticsPanel extends JPanel {
+        private DefaultTableModel tableModel;
+        private JTable operationTable;
+        private HistogramPanel histogramPanel;
+
+        public DiagnosticsPanel() {
+            setLayout(new BorderLayout(10, 10));
+            setBorder(new EmptyBorder(10, 10, 10, 10));
+
+            JLabel infoLabel = new JLabel("Live counters for long-running operations. Select a row to see its latency histogram.");
+            add(infoLabel, BorderLayout.NORTH);
+
+            String[] columns = {"Operation", "Count", "Failed", "In Progress", "Bytes", "Mean", "p50", "p95", "Max"};
+            tableModel = new DefaultTableModel(columns, 0) {
+                @Override
+                public boolean isCellEditable(int row, int column) {
+                    return false;
+                }
+            };
+            operationTable = new JTable(tableModel);
+            operationTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+            operationTable.setRowHeight(30);
+            operationTable.getSelectionModel().addListSelectionListener(e -> updateHistogram());
+
+            histogramPanel = new HistogramPanel();
+            histogramPanel.setPreferredSize(new Dimension(0, 200));
+            histogramPanel.setBorder(BorderFactory.createTitledBorder("Latency"));
+
+            JPanel centerPanel = new JPanel(new BorderLayout(10, 10));
+            centerPanel.add(new JScrollPane(operationTable), BorderLayout.CENTER);
+            centerPanel.add(histogramPanel, BorderLayout.SOUTH);
+
+            JPanel bottomPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+            JButton resetBtn = new JButton("Reset Counters");
+            JButton dumpBtn = new JButton("Dump Recording...");
+            resetBtn.addActionListener(e -> {
+                Diagnostics.reset();
+                refreshDiagnostics();
+            });
+            dumpBtn.addActionListener(e -> dumpRecording());
+            bottomPanel.add(resetBtn);
+            bottomPanel.add(dumpBtn);
+
+            add(centerPanel, BorderLayout.CENTER);
+            add(bottomPanel, BorderLayout.SOUTH);
+
+            // Counters are cheap to read, so poll them while the tab is showing
+            javax.swing.Timer timer = new javax.swing.Timer(1000, e -> {
+                if (isShowing()) refreshDiagnostics();
+            });
+            timer.start();
+        }
+
+        private void refreshDiagnostics() {
+            String selected = selectedOperation();
+            tableModel.setRowCount(0);
+            for (Diagnostics.Stats stats : Diagnostics.snapshot()) {
+                tableModel.addRow(new Object[]{
+                    stats.name,
+                    stats.count,
+                    stats.failed,
+                    stats.inProgress,
+                    FileOps.formatBytes(stats.bytes),
+                    Diagnostics.formatMillis(stats.meanMillis()),
+                    Diagnostics.formatMillis(stats.percentileMillis(0.50)),
+                    Diagnostics.formatMillis(stats.percentileMillis(0.95)),
+                    Diagnostics.formatMillis(stats.maxNanos / 1e6)
+                });
+                if (stats.name.equals(selected)) {
+                    int row = tableModel.getRowCount() - 1;
+                    operationTable.getSelectionModel().setSelectionInterval(row, row);
+                }
+            }
+            updateHistogram();
+        }
+
+        private String selectedOperation() {
+            int row = operationTable.getSelectedRow();
+            return row == -1 ? null : (String) tableModel.getValueAt(row, 0);
+        }
+
+        private void updateHistogram() {
+            String selected = selectedOperation();
+            Diagnostics.Stats stats = null;
+            for (Diagnostics.Stats candidate : Diagnostics.snapshot()) {
+                if (candidate.name.equals(selected)) stats = candidate;
+            }
+            histogramPanel.setStats(stats);
+        }
+
+        private void dumpRecording() {
+            JFileChooser chooser = new JFileChooser();
+            chooser.setDialogTitle("Save Flight Recording");
+            chooser.setSelectedFile(new File(appDataDir,
+                "gpm-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".jfr"));
+            if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+
+            try {
+                Path target = chooser.getSelectedFile().toPath();
+                Diagnostics.dump(target);
+                JOptionPane.showMessageDialog(this,
+                    "Recording saved to:\n" + target + "\n\nAttach this file to your bug report.",
+                    "Recording Saved",
+                    JOptionPane.INFORMATION_MESSAGE);
+            } catch (IOException e) {
+                JOptionPane.showMessageDialog(this,
+                    "Error saving recording: " + e.getMessage(),
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
+
+    static class HistogramPanel extends JPanel {
+        private Diagnostics.Stats stats;
+
+        void setStats(Diagnostics.Stats stats) {
+            this.stats = stats;
+            repaint();
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            Insets insets = getInsets();
+            int x0 = insets.left + 10;
+            int width = getWidth() - insets.left - insets.right - 20;
+            int bottom = getHeight() - insets.bottom - 20;
+            int height = bottom - insets.top - 10;
+            if (stats == null || stats.count == 0) {
+                g.drawString("No samples", x0, insets.top + 25);
+                return;
+            }
+
+            // Only draw the bucket range that has samples
+            int first = 0;
+            int last = stats.buckets.length - 1;
+            while (first < last && stats.buckets[first] == 0) first++;
+            while (last > first && stats.buckets[last] == 0) last--;
+            long max = 1;
+            for (int i = first; i <= last; i++) max = Math.max(max, stats.buckets[i]);
+
+            int bars = last - first + 1;
+            int barWidth = Math.max(4, width / bars - 4);
+            FontMetrics metrics = g.getFontMetrics();
+            for (int i = first; i <= last; i++) {
+                int x = x0 + (i - first) * (barWidth + 4);
+                int barHeight = (int) (height * stats.buckets[i] / (double) max);
+                g.setColor(new Color(70, 130, 180));
+                g.fillRect(x, bottom - barHeight, barWidth, barHeight);
+                g.setColor(getForeground());
+                String label = Diagnostics.formatMillis(Diagnostics.bucketUpperMillis(i));
+                if (metrics.stringWidth(label) <= barWidth + 4) {
+                    g.drawString(label, x, bottom + metrics.getAscent() + 2);
+                }
+                if (stats.buckets[i] > 0 && barHeight > metrics.getHeight()) {
+                    g.setColor(Color.WHITE);
+                    g.drawString(String.valueOf(stats.buckets[i]), x + 2, bottom - barHeight + metrics.getAscent());
+                }
+            }
+        }
+    }
+
+    // Inner class for Engines Panel
+    class EnginesPanel extends JPanel {
+        private EngineTableModel tableModel;
+        private JTable engineTable;
+
+        public EnginesPanel() {
+            setLayout(new BorderLayout(10, 10));
+            setBorder(new EmptyBorder(10, 10, 10, 10));
+
+            // Info label
+            JLabel infoLabel = new JLabel("Manage Godot engine versions. Download and install engines to use with your projects.");
+            add(infoLabel, BorderLayout.NORTH);
+
+            // Table for engines
+            tableModel = new EngineTableModel(engineValidator);
+            engineTable = new JTable(tableModel);
+            engineTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+            engineTable.setRowHeight(30);
+            JScrollPane scrollPane = new JScrollPane(engineTable);
+
+            // Bottom panel with action buttons
+            JPanel bottomPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+            JButton downloadBtn = new JButton("Download");
+            JButton installBtn = new JButton("Install from File");
+            JButton uninstallBtn = new JButton("Uninstall");
+            JButton refreshBtn = new JButton("Refresh");
+            JButton storageBtn = new JButton("Storage Report");
+            JButton mirrorsBtn = new JButton("Mirrors...");
+            JButton templatesBtn = new JButton("Export Templates...");
+
+            downloadBtn.addActionListener(e -> downloadSelectedEngine());
+            installBtn.addActionListener(e -> installFromFile());
+            uninstallBtn.addActionListener(e -> uninstallSelectedEngine());
+            refreshBtn.addActionListener(e -> {
+                refreshEngineTable();
+                validateEngines();
+            });
+            storageBtn.addActionListener(e -> showStorageReport());
+            mirrorsBtn.addActionListener(e -> showMirrorsDialog());
+            templatesBtn.addActionListener(e -> showTemplatesDialog());
+
+            bottomPanel.add(templatesBtn);
+            bottomPanel.add(mirrorsBtn);
+            bottomPanel.add(storageBtn);
+            bottomPanel.add(refreshBtn);
+            bottomPanel.add(uninstallBtn);
+            bottomPanel.add(installBtn);
+            bottomPanel.add(downloadBtn);
+
+            add(scrollPane, BorderLayout.CENTER);
+            add(bottomPanel, BorderLayout.SOUTH);
+
+            refreshEngineTable();
+            registry.addListener(event -> SwingUtilities.invokeLater(() -> tableModel.apply(event)));
+            // Engines are checked once the data file is first loaded (a Refresh reloads the registry too),
+            // and newly installed or re-pointed ones as soon as they change
+            AtomicBoolean checkedAfterLoad = new AtomicBoolean();
+            registry.addListener(event -> {
+                if (event.type == Registry.EventType.RELOADED && dataLoaded && checkedAfterLoad.compareAndSet(false, true)
+                        || event.type == Registry.EventType.UPDATED && event.engine != null && event.engine.isInstalled()) {
+                    SwingUtilities.invokeLater(this::validateEngines);
+                }
+            });
+            validateEngines();
+        }
+
+        // Cached engines return at once, so only new or changed executables are actually run
+        private void validateEngines() {
+            List<GodotEngine> installed = new ArrayList<>();
+            for (GodotEngine engine : registry.engines()) {
+                if (engine.isInstalled()) installed.add(engine);
+            }
+            if (installed.isEmpty()) return;
+            taskManager.submit("Validating engines", listener -> {
+                engineValidator.validateAll(installed, 4, () -> engineTable.repaint());
+                return null;
+            });
+        }
+
+        private void downloadSelectedEngine() {
+            if (!dataReady(this)) return;
+            int row = engineTable.getSelectedRow();
+            if (row == -1) {
+                JOptionPane.showMessageDialog(this, "Please select an engine version.");
+                return;
+            }
+
+            GodotEngine engine = tableModel.getEngine(row);
+            if (engine.isInstalled()) {
+                JOptionPane.showMessageDialog(this, "This engine version is already installed.");
+                return;
+            }
+
+            JFileChooser chooser = new JFileChooser();
+            chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+            chooser.setDialogTitle("Select Installation Directory");
+            chooser.setSelectedFile(new File(defaultEngineLocation));
+
+            if (chooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
+                File installDir = new File(chooser.getSelectedFile(), engine.getVersion());
+                // Everything in the folder is deduplicated and listed for uninstall, so it must not hold other files
+                String[] existing = installDir.list();
+                if (existing != null && existing.length > 0) {
+                    JOptionPane.showMessageDialog(this,
+                        installDir + " already exists and is not empty.\nPlease choose another installation directory.",
+                        "Download Engine", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                if (installDir.exists() && !installDir.isDirectory()) {
+                    JOptionPane.showMessageDialog(this, installDir + " is a file.\nPlease choose another installation directory.",
+                        "Download Engine", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                boolean createdDir = !installDir.exists();
+                runWithProgress(this, "Downloading Godot " + engine.getVersion(), listener -> {
+                    File tempZip = new File(installDir.getParent(), "temp_" + engine.getVersion() + ".zip");
+                    try {
+                        installDir.mkdirs();
+
+                        // Use modern HttpClient
+                        HttpClient client = MirrorSelector.newHttpClient();
+                        MirrorSelector selector = new MirrorSelector(client);
+
+                        // Probe every source concurrently and start with the fastest
+                        listener.progress("Probing download sources...", 0, 0);
+                        List<MirrorSelector.Probe> ranked = selector.rank(downloadSources(engine));
+
+                        EngineDownloadEvent event = new EngineDownloadEvent();
+                        event.version = engine.getVersion();
+                        try (Diagnostics.Span span = Diagnostics.begin("Engine download", event)) {
+                            MirrorSelector.Result result = selector.download(ranked, tempZip.toPath(), listener);
+                            event.url = result.source.toString();
+                            span.complete(result.bytes);
+                        }
+
+                        // Extract the ZIP file
+                        listener.progress("Extracting files...", 0, 0);
+                        extractZipFile(tempZip, installDir);
+
+                        // Find the Godot executable in the extracted files
+                        String exePath;
+                        ProjectScanEvent scanEvent = new ProjectScanEvent();
+                        scanEvent.operation = "Find executable";
+                        scanEvent.root = installDir.getAbsolutePath();
+                        try (Diagnostics.Span span = Diagnostics.begin("Engine scan", scanEvent)) {
+                            exePath = findGodotExecutable(installDir);
+                            span.complete(0);
+                        }
+                        if (exePath == null) {
+                            throw new Exception("Could not find Godot executable in extracted files");
+                        }
+
+                        // Share identical files with the other installed versions
+                        listener.progress("Deduplicating files...", 0, 0);
+                        long bytesSaved = EngineStore.deduplicate(installDir.toPath());
+
+                        registry.updateEngine(engine, e -> {
+                            e.setInstalled(true);
+                            e.setInstalledPath(exePath);
+                            e.setInstallRoot(installDir.getAbsolutePath());
+                        });
+                        return bytesSaved;
+                    } catch (Exception e) {
+                        // Leave nothing half-installed behind, e.g. after Cancel
+                        if (createdDir && !engine.isInstalled()) {
+                            FileOps.deleteTree(installDir.toPath());
+                            // Blobs that only the deleted files used would otherwise wait for the next uninstall
+                            try {
+                                EngineStore.collectGarbage(EngineStore.storeDir(installDir.toPath()), installedRoots());
+                            } catch (IOException gcError) {
+                                e.addSuppressed(gcError);
+                            }
+                        }
+                        throw e;
+                    } finally {
+                        tempZip.delete();
+                    }
+                }, bytesSaved -> {
+                    String message = "Engine " + engine.getVersion() + " downloaded successfully!";
+                    if (bytesSaved > 0) {
+                        message += "\n" + FileOps.formatBytes(bytesSaved) + " shared with other installed versions.";
+                    }
+                    JOptionPane.showMessageDialog(EnginesPanel.this, message);
+                    saveData();
+                });
+            }
+        }
+
+        private void installFromFile() {
+            if (!dataReady(this)) return;
+            int row = engineTable.getSelectedRow();
+            if (row == -1) {
+                JOptionPane.showMessageDialog(this, "Please select an engine version.");
+                return;
+            }
+
+            GodotEngine engine = tableModel.getEngine(row);
+            
+            JFileChooser chooser = new JFileChooser();
+            chooser.setDialogTitle("Select Godot Executable");
+            chooser.setFileFilter(new javax.swing.filechooser.FileFilter() {
+                public boolean accept(File f) {
+                    return f.isDirectory() || f.getName().toLowerCase().endsWith(".exe");
+                }
+                public String getDescription() {
+                    return "Godot Executable (*.exe)";
+                }
+            });
+
+            if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+                File exeFile = chooser.getSelectedFile();
+                registry.updateEngine(engine, e -> {
+                    e.setInstalled(true);
+                    e.setInstalledPath(exeFile.getAbsolutePath());
+                    // Registered executables are not managed, so uninstall never deletes them
+                    e.setInstallRoot("");
+                });
+                saveData();
+                JOptionPane.showMessageDialog(this, "Engine registered successfully!");
+            }
+        }
+
+        private void uninstallSelectedEngine() {
+            if (!dataReady(this)) return;
+            int row = engineTable.getSelectedRow();
+            if (row == -1) {
+                JOptionPane.showMessageDialog(this, "Please select an engine version.");
+                return;
+            }
+
+            GodotEngine engine = tableModel.getEngine(row);
+            if (!engine.isInstalled()) {
+                JOptionPane.showMessageDialog(this, "This engine is not installed.");
+                return;
+            }
+
+            // Only engines downloaded by the manager have a root we are allowed to delete
+            boolean managed = !engine.getInstallRoot().isEmpty() && new File(engine.getInstallRoot()).isDirectory();
+            JCheckBox deleteFilesBox = new JCheckBox("Delete files from disk", managed);
+            deleteFilesBox.setEnabled(managed);
+            Object message = managed
+                ? new Object[]{"Uninstall Godot " + engine.getVersion() + "?\n" + engine.getInstallRoot(), deleteFilesBox}
+                : "Uninstall Godot " + engine.getVersion() + "?\n(Files will not be deleted from disk)";
+
+            int choice = JOptionPane.showConfirmDialog(this, 
+                message, 
+                "Confirm Uninstall", 
+                JOptionPane.YES_NO_OPTION);
+
+            if (choice != JOptionPane.YES_OPTION) {
+                return;
+            }
+
+            Path installRoot = managed ? Paths.get(engine.getInstallRoot()) : null;
+            registry.updateEngine(engine, e -> {
+                e.setInstalled(false);
+                e.setInstalledPath("");
+                e.setInstallRoot("");
+            });
+            saveData();
+
+            if (installRoot == null || !deleteFilesBox.isSelected()) {
+                return;
+            }
+
+            // Delete in background; the store is collected against the engines that remain installed
+            List<Path> remainingRoots = installedRoots();
+            runInBackground(this, "Deleting Godot " + engine.getVersion(),
+                listener -> EngineStore.uninstall(installRoot, remainingRoots),
+                reclaimed -> JOptionPane.showMessageDialog(EnginesPanel.this,
+                    "Godot " + engine.getVersion() + " uninstalled.\n" +
+                    FileOps.formatBytes(reclaimed) + " of disk space reclaimed."));
+        }
+
+        private List<Path> installedRoots() {
+            List<Path> roots = new ArrayList<>();
+            for (GodotEngine other : registry.engines()) {
+                if (other.isInstalled() && !other.getInstallRoot().isEmpty()) {
+                    roots.add(Paths.get(other.getInstallRoot()));
+                }
+            }
+            return roots;
+        }
+
+        private void showStorageReport() {
+            List<Path> roots = installedRoots();
+            if (roots.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "No engines installed by the manager.");
+                return;
+            }
+
+            runWithProgress(this, "Measuring Engine Storage", listener -> EngineStore.report(roots),
+                report -> JOptionPane.showMessageDialog(this,
+                    "Installed versions: " + roots.size() + "\n" +
+                    "Files: " + report.fileCount + " (" + report.uniqueCount + " unique)\n" +
+                    "Logical size: " + FileOps.formatBytes(report.logicalBytes) + "\n" +
+                    "Size on disk: " + FileOps.formatBytes(report.logicalBytes - report.savedBytes) + "\n" +
+                    "Saved by deduplication: " + FileOps.formatBytes(report.savedBytes),
+                    "Engine Storage",
+                    JOptionPane.INFORMATION_MESSAGE));
+        }
+
+        private void refreshEngineTable() {
+            tableModel.setEngines(registry.engines());
+        }
+
+        private void showMirrorsDialog() {
+            if (!dataReady(this)) return;
+            int row = engineTable.getSelectedRow();
+            if (row == -1) {
+                JOptionPane.showMessageDialog(this, "Please select an engine version.");
+                return;
+            }
+
+            GodotEngine engine = tableModel.getEngine(row);
+            JTextArea engineMirrors = new JTextArea(String.join("\n", engine.getMirrors()), 4, 50);
+            JTextArea templates = new JTextArea(String.join("\n", mirrorTemplates), 4, 50);
+
+            JPanel form = new JPanel(new BorderLayout(5, 5));
+            JPanel fields = new JPanel(new GridLayout(0, 1, 5, 5));
+            fields.add(new JLabel("Extra download URLs for Godot " + engine.getVersion() + " (one per line):"));
+            fields.add(new JScrollPane(engineMirrors));
+            fields.add(new JLabel("<html>Mirrors for all versions. {file}, {version} and {tag} are replaced,<br>" +
+                "e.g. http://files.internal/godot/{tag}/{file}</html>"));
+            fields.add(new JScrollPane(templates));
+            form.add(fields, BorderLayout.CENTER);
+
+            JButton testBtn = new JButton("Test Sources");
+            testBtn.addActionListener(e -> {
+                GodotEngine preview = new GodotEngine(engine.getVersion(), engine.getSize(), engine.getDownloadUrl());
+                preview.setMirrors(parseLines(engineMirrors.getText()));
+                List<URI> sources = downloadSources(preview, parseLines(templates.getText()));
+                runWithProgress(form, "Probing Sources",
+                    listener -> new MirrorSelector(MirrorSelector.newHttpClient()).rank(sources),
+                    probes -> {
+                        StringBuilder sb = new StringBuilder("Fastest first:\n\n");
+                        for (MirrorSelector.Probe probe : probes) sb.append(probe).append('\n');
+                        JOptionPane.showMessageDialog(form, sb.toString(), "Source Probe", JOptionPane.INFORMATION_MESSAGE);
+                    });
+            });
+            JPanel testPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+            testPanel.add(testBtn);
+            form.add(testPanel, BorderLayout.SOUTH);
+
+            int choice = JOptionPane.showConfirmDialog(this, form, "Download Mirrors",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+            if (choice != JOptionPane.OK_OPTION) return;
+
+            List<String> mirrors = parseLines(engineMirrors.getText());
+            for (String url : mirrors) {
+                if (!url.startsWith("http://") && !url.startsWith("https://")) {
+                    JOptionPane.showMessageDialog(this, "Not an http(s) URL: " + url, "Invalid Mirror", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+            }
+            registry.updateEngine(engine, en -> en.setMirrors(mirrors));
+            mirrorTemplates = List.copyOf(parseLines(templates.getText()));
+            saveData();
+        }
+
+        private void showTemplatesDialog() {
+            int row = engineTable.getSelectedRow();
+            if (row == -1) {
+                JOptionPane.showMessageDialog(this, "Please select an engine version.");
+                return;
+            }
+
+            GodotEngine engine = tableModel.getEngine(row);
+            Path root = ExportTemplates.templatesRoot(engine);
+            Path directory = root.resolve(ExportTemplates.expectedDirectory(engine));
+
+            JDialog dialog = new JDialog(GodotProjectManager.this, "Export Templates - Godot " + engine.getVersion(), true);
+            dialog.setSize(560, 420);
+            dialog.setLocationRelativeTo(this);
+
+            JPanel contentPanel = new JPanel(new BorderLayout(10, 10));
+            contentPanel.setBorder(new EmptyBorder(10, 10, 10, 10));
+            contentPanel.add(new JLabel("Templates directory: " + directory), BorderLayout.NORTH);
+
+            JTextArea usageArea = new JTextArea();
+            usageArea.setEditable(false);
+            usageArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+
+            // Platforms to install or remove; start with what is installed, or the current OS
+            JPanel platformPanel = new JPanel(new GridLayout(0, 1));
+            platformPanel.setBorder(BorderFactory.createTitledBorder("Platforms"));
+            Map<String, JCheckBox> boxes = new LinkedHashMap<>();
+            Map<String, Long> installed;
+            try {
+                installed = ExportTemplates.usage(directory);
+            } catch (IOException e) {
+                installed = Map.of();
+            }
+            String os = System.getProperty("os.name").toLowerCase();
+            String hostPlatform = os.contains("win") ? "Windows" : os.contains("mac") ? "macOS" : "Linux";
+            boolean anyInstalled = installed.keySet().stream().anyMatch(ExportTemplates.PLATFORMS::contains);
+            for (String platform : ExportTemplates.PLATFORMS) {
+                JCheckBox box = new JCheckBox(platform, anyInstalled ? installed.containsKey(platform) : platform.equals(hostPlatform));
+                boxes.put(platform, box);
+                platformPanel.add(box);
+            }
+
+            Runnable refreshUsage = () -> {
+                StringBuilder sb = new StringBuilder();
+                try {
+                    Map<String, Long> usage = ExportTemplates.usage(directory);
+                    long total = 0;
+                    for (Map.Entry<String, Long> entry : usage.entrySet()) {
+                        sb.append(String.format("%-10s %12s%n", entry.getKey(), FileOps.formatBytes(entry.getValue())));
+                        total += entry.getValue();
+                    }
+                    if (usage.isEmpty()) {
+                        sb.append("No templates installed for this version.\n");
+                    } else {
+                        sb.append(String.format("%-10s %12s%n", "Total", FileOps.formatBytes(total)));
+                    }
+                    long allVersions = 0;
+                    if (Files.isDirectory(root)) {
+                        try (Stream<Path> files = Files.walk(root)) {
+                            allVersions = files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+                        }
+                    }
+                    sb.append("\nAll template versions: ").append(FileOps.formatBytes(allVersions));
+                } catch (IOException e) {
+                    sb.append("Could not read ").append(directory).append(": ").append(e.getMessage());
+                }
+                usageArea.setText(sb.toString());
+            };
+            refreshUsage.run();
+
+            JPanel centerPanel = new JPanel(new BorderLayout(10, 10));
+            centerPanel.add(platformPanel, BorderLayout.WEST);
+            centerPanel.add(new JScrollPane(usageArea), BorderLayout.CENTER);
+            contentPanel.add(centerPanel, BorderLayout.CENTER);
+
+            JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+            JButton downloadBtn = new JButton("Download");
+            JButton fileBtn = new JButton("Install from File");
+            JButton removeBtn = new JButton("Remove");
+            JButton closeBtn = new JButton("Close");
+
+            java.util.function.Supplier<Set<String>> selected = () -> {
+                Set<String> platforms = new LinkedHashSet<>();
+                boxes.forEach((platform, box) -> {
+                    if (box.isSelected()) platforms.add(platform);
+                });
+                return platforms;
+            };
+            java.util.function.Consumer<ExportTemplates.Result> onInstalled = result -> {
+                refreshUsage.run();
+                String message = "Installed " + result.files + " files (" + FileOps.formatBytes(result.bytes) + ") into\n" +
+                    result.directory + "\n\nSkipped " + result.skipped + " files for other platforms. Took " +
+                    String.format("%.1f", result.millis / 1000.0) + " s.";
+                if (!result.directory.equals(directory)) {
+                    message += "\n\nNote: the archive is for version " + result.version + ", not " + engine.getVersion() + ".";
+                }
+                JOptionPane.showMessageDialog(dialog, message, "Export Templates", JOptionPane.INFORMATION_MESSAGE);
+            };
+
+            downloadBtn.addActionListener(e -> {
+                Set<String> platforms = selected.get();
+                if (platforms.isEmpty()) {
+                    JOptionPane.showMessageDialog(dialog, "Please select at least one platform.");
+                    return;
+                }
+                List<URI> sources = templateSources(engine);
+                runWithProgress(dialog, "Installing Export Templates", listener -> {
+                    listener.progress("Probing download sources...", 0, 0);
+                    HttpClient client = MirrorSelector.newHttpClient();
+                    List<MirrorSelector.Probe> ranked = new MirrorSelector(client).rank(sources);
+                    return ExportTemplates.download(client, ranked, root, platforms, listener);
+                }, onInstalled);
+            });
+
+            fileBtn.addActionListener(e -> {
+                Set<String> platforms = selected.get();
+                if (platforms.isEmpty()) {
+                    JOptionPane.showMessageDialog(dialog, "Please select at least one platform.");
+                    return;
+                }
+                JFileChooser chooser = new JFileChooser();
+                chooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("Export templates (*.tpz)", "tpz", "zip"));
+                if (chooser.showOpenDialog(dialog) != JFileChooser.APPROVE_OPTION) return;
+                Path archive = chooser.getSelectedFile().toPath();
+                runWithProgress(dialog, "Installing Export Templates", listener -> {
+                    try (InputStream in = Files.newInputStream(archive)) {
+                        return ExportTemplates.install(in, Files.size(archive), archive.toString(), root, platforms, listener);
+                    }
+                }, onInstalled);
+            });
+
+            removeBtn.addActionListener(e -> {
+                Set<String> platforms = selected.get();
+                if (platforms.isEmpty()) return;
+                int confirm = JOptionPane.showConfirmDialog(dialog,
+                    "Remove the " + String.join(", ", platforms) + " templates for Godot " + engine.getVersion() + "?",
+                    "Confirm Remove", JOptionPane.YES_NO_OPTION);
+                if (confirm != JOptionPane.YES_OPTION) return;
+                try {
+                    long freed = ExportTemplates.remove(directory, platforms);
+                    refreshUsage.run();
+                    JOptionPane.showMessageDialog(dialog, "Freed " + FileOps.formatBytes(freed) + ".");
+                } catch (IOException ex) {
+                    JOptionPane.showMessageDialog(dialog, "Error removing templates: " + ex.getMessage(),
+                        "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            });
+
+            closeBtn.addActionListener(e -> dialog.dispose());
+
+            buttonPanel.add(removeBtn);
+            buttonPanel.add(fileBtn);
+            buttonPanel.add(downloadBtn);
+            buttonPanel.add(closeBtn);
+            contentPanel.add(buttonPanel, BorderLayout.SOUTH);
+
+            dialog.add(contentPanel);
+            dialog.setVisible(true);
+        }
+
+        private List<String> parseLines(String text) {
+            List<String> lines = new ArrayList<>();
+            for (String line : text.split("\\R")) {
+                if (!line.trim().isEmpty()) lines.add(line.trim());
+            }
+            return lines;
+        }
+    }
+
+    // Inner class for the Search tab: full-text search over all projects through SearchIndex
+    class SearchPanel extends JPanel {
+        private static final int MAX_RESULTS = 5000;
+        private static final int MAX_PREVIEWS = 200;
+        private final SearchIndex index;
+        private final DefaultTableModel resultModel;
+        private final List<Path> resultFiles = new ArrayList<>();
+        private final JTextField queryField = new JTextField(30);
+        private final JLabel statusLabel = new JLabel(" ");
+        private final JButton updateBtn = new JButton("Update Index");
+        private volatile boolean loaded;
+        private boolean updating;
+        private SwingWorker<Void, Object[]> previewWorker;
+
+        public SearchPanel() {
+            setLayout(new BorderLayout(10, 10));
+            setBorder(new EmptyBorder(10, 10, 10, 10));
+            index = new SearchIndex(Paths.get(appDataDir, "search-index"));
+
+            JPanel topPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+            JButton searchBtn = new JButton("Search");
+            topPanel.add(new JLabel("Find:"));
+            topPanel.add(queryField);
+            topPanel.add(searchBtn);
+            topPanel.add(updateBtn);
+            queryField.setToolTipText("Node types, signals, autoloads, class names... All words must match; end a word with * for a prefix.");
+            queryField.addActionListener(e -> search());
+            searchBtn.addActionListener(e -> search());
+            updateBtn.addActionListener(e -> updateIndex());
+
+            resultModel = new DefaultTableModel(new String[]{"Project", "File", "Match"}, 0) {
+                @Override
+                public boolean isCellEditable(int row, int column) {
+                    return false;
+                }
+            };
+            JTable resultTable = new JTable(resultModel);
+            resultTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+            resultTable.getColumnModel().getColumn(0).setPreferredWidth(150);
+            resultTable.getColumnModel().getColumn(1).setPreferredWidth(250);
+            resultTable.getColumnModel().getColumn(2).setPreferredWidth(400);
+            resultTable.addMouseListener(new java.awt.event.MouseAdapter() {
+                @Override
+                public void mouseClicked(java.awt.event.MouseEvent e) {
+                    int row = resultTable.getSelectedRow();
+                    if (e.getClickCount() == 2 && row != -1) openFolder(resultFiles.get(row).getParent());
+                }
+            });
+
+            add(topPanel, BorderLayout.NORTH);
+            add(new JScrollPane(resultTable), BorderLayout.CENTER);
+            add(statusLabel, BorderLayout.SOUTH);
+
+            // Load and refresh the index the first time the tab is shown, not at startup
+            addComponentListener(new java.awt.event.ComponentAdapter() {
+                @Override
+                public void componentShown(java.awt.event.ComponentEvent e) {
+                    if (!loaded) updateIndex();
+                }
+            });
+        }
+
+        private void updateIndex() {
+            if (updating) return;
+            updating = true;
+            updateBtn.setEnabled(false);
+            List<String> paths = new ArrayList<>();
+            for (GodotProject project : registry.projects()) paths.add(project.getPath());
+            int threads = Math.min(4, Runtime.getRuntime().availableProcessors());
+
+            // Progress shows in the task tray; searches keep working on the previous index meanwhile
+            statusLabel.setText("Updating index...");
+            TaskManager.Task<SearchIndex.UpdateResult> task = taskManager.submit("Search index update", listener -> {
+                if (!loaded) {
+                    listener.progress("Loading index...", 0, 0);
+                    index.load();
+                    loaded = true;
+                }
+                return index.update(paths, threads, listener);
+            });
+            task.future().whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+                updating = false;
+                updateBtn.setEnabled(true);
+                if (error == null) {
+                    statusLabel.setText(String.format("%d files in %d projects indexed; %d re-read, %d removed in %d ms.",
+                        result.files, result.projects, result.reindexed, result.removed, result.millis));
+                } else {
+                    statusLabel.setText(task.state() == TaskManager.State.CANCELLED
+                        ? "Index update cancelled." : "Index update failed: " + error.getMessage());
+                }
+            }));
+        }
+
+        private void search() {
+            String query = queryField.getText().trim();
+            if (query.isEmpty()) return;
+            if (previewWorker != null) previewWorker.cancel(true);
+            long start = System.nanoTime();
+            Map<String, List<String>> results = index.search(query, MAX_RESULTS);
+            long micros = (System.nanoTime() - start) / 1000;
+
+            Map<String, String> names = new HashMap<>();
+            for (GodotProject project : registry.projects()) names.put(project.getPath(), project.getName());
+            resultModel.setRowCount(0);
+            resultFiles.clear();
+            int files = 0;
+            for (Map.Entry<String, List<String>> entry : results.entrySet()) {
+                // The project name is shown on the first row of its group only
+                String label = names.getOrDefault(entry.getKey(), entry.getKey()) + " (" + entry.getValue().size() + ")";
+                for (String file : entry.getValue()) {
+                    resultModel.addRow(new Object[]{label, file, ""});
+                    resultFiles.add(Paths.get(entry.getKey(), file));
+                    label = "";
+                    files++;
+                }
+            }
+            statusLabel.setText(String.format("%d files in %d projects (%.1f ms)%s", files, results.size(), micros / 1000.0,
+                files >= MAX_RESULTS ? "; showing the first " + MAX_RESULTS : ""));
+            loadPreviews(query, new ArrayList<>(resultFiles.subList(0, Math.min(MAX_PREVIEWS, resultFiles.size()))));
+        }
+
+        // Fills the Match column with the first line mentioning a query word, off the EDT
+        private void loadPreviews(String query, List<Path> files) {
+            List<String> words = new ArrayList<>();
+            for (String word : query.toLowerCase().split("\\s+")) words.add(word.replace("*", ""));
+            previewWorker = new SwingWorker<Void, Object[]>() {
+                @Override
+                protected Void doInBackground() {
+                    for (int row = 0; row < files.size() && !isCancelled(); row++) {
+                        try (BufferedReader reader = Files.newBufferedReader(files.get(row))) {
+                            String line;
+                            int number = 0;
+                            while ((line = reader.readLine()) != null) {
+                                number++;
+                                String lower = line.toLowerCase();
+                                if (words.stream().anyMatch(lower::contains)) {
+                                    String text = line.trim();
+                                    publish(new Object[]{row, number + ": " + (text.length() > 200 ? text.substring(0, 200) : text)});
+                                    break;
+                                }
+                            }
+                        } catch (IOException | UncheckedIOException e) {
+                            // Changed since indexing or not UTF-8; leave the preview empty
+                        }
+                    }
+                    return null;
+                }
+
+                @Override
+                protected void process(List<Object[]> chunks) {
+                    if (isCancelled()) return;
+                    for (Object[] chunk : chunks) resultModel.setValueAt(chunk[1], (Integer) chunk[0], 2);
+                }
+            };
+            previewWorker.execute();
+        }
+
+        private void openFolder(Path folder) {
+            try {
+                Desktop.getDesktop().open(folder.toFile());
+            } catch (IOException e) {
+                JOptionPane.showMessageDialog(this,
+                    "Error opening folder: " + e.getMessage(),
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
+
+    // Status bar for background tasks; the Tasks button opens a window to follow or cancel them
+    class TaskTray extends JPanel {
+        private final JLabel summaryLabel = new JLabel("No background tasks");
+        private final JProgressBar progressBar = new JProgressBar(0, 100);
+        private DefaultTableModel taskModel;
+        private JTable taskTable;
+        private JDialog taskDialog;
+        private final List<TaskManager.Task<?>> rows = new ArrayList<>();
+
+        public TaskTray() {
+            setLayout(new BorderLayout(10, 0));
+            setBorder(new EmptyBorder(2, 10, 4, 10));
+            progressBar.setPreferredSize(new Dimension(160, 16));
+            progressBar.setVisible(false);
+            JButton tasksBtn = new JButton("Tasks");
+            tasksBtn.addActionListener(e -> showTasks());
+
+            JPanel rightPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
+            rightPanel.add(progressBar);
+            rightPanel.add(tasksBtn);
+            add(summaryLabel, BorderLayout.CENTER);
+            add(rightPanel, BorderLayout.EAST);
+
+            javax.swing.Timer timer = new javax.swing.Timer(250, e -> refresh());
+            timer.start();
+        }
+
+        private void refresh() {
+            List<TaskManager.Task<?>> running = new ArrayList<>();
+            for (TaskManager.Task<?> task : taskManager.tasks()) {
+                if (task.state() == TaskManager.State.RUNNING) running.add(task);
+            }
+            if (running.isEmpty()) {
+                summaryLabel.setText("No background tasks");
+                progressBar.setVisible(false);
+            } else {
+                summaryLabel.setText(running.size() == 1
+                    ? running.get(0).name + ": " + running.get(0).status()
+                    : running.size() + " tasks running");
+                double sum = 0;
+                boolean known = false;
+                for (TaskManager.Task<?> task : running) {
+                    double fraction = task.fraction();
+                    if (fraction >= 0) known = true;
+                    sum += Math.max(0, fraction);
+                }
+                progressBar.setIndeterminate(!known);
+                progressBar.setValue((int) (sum / running.size() * 100));
+                progressBar.setVisible(true);
+            }
+            if (taskDialog != null && taskDialog.isVisible()) refreshTaskTable();
+        }
+
+        private void showTasks() {
+            if (taskDialog == null) {
+                taskDialog = new JDialog(GodotProjectManager.this, "Background Tasks", Dialog.ModalityType.MODELESS);
+                taskDialog.setSize(650, 300);
+                taskDialog.setLocationRelativeTo(GodotProjectManager.this);
+
+                taskModel = new DefaultTableModel(new String[]{"Task", "Status", "Progress", "State"}, 0) {
+                    @Override
+                    public boolean isCellEditable(int row, int column) {
+                        return false;
+                    }
+                };
+                taskTable = new JTable(taskModel);
+                taskTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+                taskTable.getColumnModel().getColumn(1).setPreferredWidth(250);
+
+                JButton cancelBtn = new JButton("Cancel Task");
+                JButton clearBtn = new JButton("Clear Finished");
+                cancelBtn.addActionListener(e -> {
+                    int row = taskTable.getSelectedRow();
+                    if (row != -1) rows.get(row).cancel();
+                });
+                clearBtn.addActionListener(e -> {
+                    taskManager.clearFinished();
+                    refreshTaskTable();
+                });
+                JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+                buttonPanel.add(clearBtn);
+                buttonPanel.add(cancelBtn);
+
+                taskDialog.add(new JScrollPane(taskTable), BorderLayout.CENTER);
+                taskDialog.add(buttonPanel, BorderLayout.SOUTH);
+            }
+            refreshTaskTable();
+            taskDialog.setVisible(true);
+        }
+
+        // Child tasks are listed indented under their parent
+        private void refreshTaskTable() {
+            int selectedRow = taskTable.getSelectedRow();
+            TaskManager.Task<?> selected = selectedRow != -1 && selectedRow < rows.size() ? rows.get(selectedRow) : null;
+            rows.clear();
+            taskModel.setRowCount(0);
+            for (TaskManager.Task<?> task : taskManager.tasks()) addRows(task, "");
+            int index = rows.indexOf(selected);
+            if (index != -1) taskTable.setRowSelectionInterval(index, index);
+        }
+
+        private void addRows(TaskManager.Task<?> task, String indent) {
+            double fraction = task.fraction();
+            rows.add(task);
+            taskModel.addRow(new Object[]{indent + task.name, task.status(),
+                fraction < 0 ? "" : (int) (fraction * 100) + "%", task.state()});
+            for (TaskManager.Task<?> child : task.children) addRows(child, indent + "    ");
+        }
+    }
+
+    // Inner class for Settings Panel
+    class SettingsPanel extends JPanel {
+        private JTextField projectLocationField;
+        private JTextField engineLocationField;
+        private JCheckBox cacheThumbnailsBox;
+
+        public SettingsPanel() {
+            setLayout(new BorderLayout(10, 10));
+            setBorder(new EmptyBorder(20, 20, 20, 20));
+
+            // Title
+            JLabel titleLabel = new JLabel("Settings");
+            titleLabel.setFont(titleLabel.getFont().deriveFont(Font.BOLD, 18f));
+            
+            JPanel titlePanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+            titlePanel.add(titleLabel);
+            
+            // Settings form
+            JPanel formPanel = new JPanel(new GridBagLayout());
+            GridBagConstraints gbc = new GridBagConstraints();
+            gbc.fill = GridBagConstraints.HORIZONTAL;
+            gbc.insets = new Insets(10, 10, 10, 10);
+            gbc.anchor = GridBagConstraints.WEST;
+
+            // Default Project Location
+            gbc.gridx = 0; gbc.gridy = 0;
+            gbc.weightx = 0;
+            JLabel projectLocLabel = new JLabel("Default Project Location:");
+            projectLocLabel.setFont(projectLocLabel.getFont().deriveFont(Font.BOLD));
+            formPanel.add(projectLocLabel, gbc);
+
+            gbc.gridy = 1;
+            formPanel.add(new JLabel("New projects will be created in this folder"), gbc);
+
+            gbc.gridy = 2;
+            gbc.weightx = 1;
+            projectLocationField = new JTextField(defaultProjectLocation);
+            projectLocationField.setPreferredSize(new Dimension(400, 30));
+            JButton browseProjectBtn = new JButton("Browse...");
+            JPanel projectPanel = new JPanel(new BorderLayout(5, 0));
+            projectPanel.add(projectLocationField, BorderLayout.CENTER);
+            projectPanel.add(browseProjectBtn, BorderLayout.EAST);
+            formPanel.add(projectPanel, gbc);
+
+            browseProjectBtn.addActionListener(e -> {
+                JFileChooser chooser = new JFileChooser();
+                chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+                chooser.setDialogTitle("Select Default Project Location");
+                chooser.setSelectedFile(new File(projectLocationField.getText()));
+                if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+                    projectLocationField.setText(chooser.getSelectedFile().getAbsolutePath());
+                }
+            });
+
+            // Spacing
+            gbc.gridy = 3;
+            gbc.insets = new Insets(30, 10, 10, 10);
+            formPanel.add(new JSeparator(), gbc);
+
+            // Default Engine Location
+            gbc.gridy = 4;
+            gbc.insets = new Insets(10, 10, 10, 10);
+            gbc.weightx = 0;
+            JLabel engineLocLabel = new JLabel("Default Engine Installation Location:");
+            engineLocLabel.setFont(engineLocLabel.getFont().deriveFont(Font.BOLD));
+            formPanel.add(engineLocLabel, gbc);
+
+            gbc.gridy = 5;
+            formPanel.add(new JLabel("Godot engines will be downloaded and installed in this folder"), gbc);
+
+            gbc.gridy = 6;
             gbc.weightx = 1;
             engineLocationField = new JTextField(defaultEngineLocation);
             engineLocationField.setPreferredSize(new Dimension(400, 30));
@@ -1008,168 +2942,7425 @@ public class GodotProjectManager extends JFrame {
             enginePanel.add(browseEngineBtn, BorderLayout.EAST);
             formPanel.add(enginePanel, gbc);
 
-            browseEngineBtn.addActionListener(e -> {
-                JFileChooser chooser = new JFileChooser();
-                chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
-                chooser.setDialogTitle("Select Default Engine Installation Location");
-                chooser.setSelectedFile(new File(engineLocationField.getText()));
-                if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
-                    engineLocationField.setText(chooser.getSelectedFile().getAbsolutePath());
-                }
+            browseEngineBtn.addActionListener(e -> {
+                JFileChooser chooser = new JFileChooser();
+                chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+                chooser.setDialogTitle("Select Default Engine Installation Location");
+                chooser.setSelectedFile(new File(engineLocationField.getText()));
+                if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+                    engineLocationField.setText(chooser.getSelectedFile().getAbsolutePath());
+                }
+            });
+
+            // Icon thumbnails
+            gbc.gridy = 7;
+            gbc.insets = new Insets(20, 10, 10, 10);
+            cacheThumbnailsBox = new JCheckBox("Cache project icon thumbnails on disk", cacheThumbnails);
+            formPanel.add(cacheThumbnailsBox, gbc);
+
+            // Buttons
+            gbc.gridy = 8;
+            gbc.insets = new Insets(30, 10, 10, 10);
+            JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+            JButton saveBtn = new JButton("Save Settings");
+            JButton resetBtn = new JButton("Reset to Defaults");
+            
+            saveBtn.setPreferredSize(new Dimension(140, 35));
+            resetBtn.setPreferredSize(new Dimension(140, 35));
+            
+            saveBtn.addActionListener(e -> saveSettings());
+            resetBtn.addActionListener(e -> resetSettings());
+            
+            buttonPanel.add(resetBtn);
+            buttonPanel.add(saveBtn);
+            formPanel.add(buttonPanel, gbc);
+
+            // Info panel
+            JPanel infoPanel = new JPanel(new BorderLayout(10, 10));
+            infoPanel.setBorder(BorderFactory.createTitledBorder("Information"));
+            JTextArea infoText = new JTextArea(
+                "• Project Location: Where new projects will be created by default\n" +
+                "• Engine Location: Where Godot engines will be installed when downloaded\n" +
+                "• These paths can be changed at any time\n" +
+                "• Existing projects and engines will not be moved"
+            );
+            infoText.setEditable(false);
+            infoText.setBackground(formPanel.getBackground());
+            infoText.setWrapStyleWord(true);
+            infoText.setLineWrap(true);
+            infoPanel.add(infoText, BorderLayout.CENTER);
+
+            add(titlePanel, BorderLayout.NORTH);
+            add(formPanel, BorderLayout.CENTER);
+            add(infoPanel, BorderLayout.SOUTH);
+        }
+
+        private void saveSettings() {
+            if (!dataReady(this)) return;
+            String newProjectLoc = projectLocationField.getText().trim();
+            String newEngineLoc = engineLocationField.getText().trim();
+            
+            if (newProjectLoc.isEmpty() || newEngineLoc.isEmpty()) {
+                JOptionPane.showMessageDialog(this,
+                    "Paths cannot be empty.",
+                    "Invalid Settings",
+                    JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            
+            defaultProjectLocation = newProjectLoc;
+            defaultEngineLocation = newEngineLoc;
+            cacheThumbnails = cacheThumbnailsBox.isSelected();
+            
+            saveData();
+            
+            JOptionPane.showMessageDialog(this,
+                "Settings saved successfully!",
+                "Settings Saved",
+                JOptionPane.INFORMATION_MESSAGE);
+        }
+
+        private void resetSettings() {
+            if (!dataReady(this)) return;
+            int choice = JOptionPane.showConfirmDialog(this,
+                "Reset settings to default values?",
+                "Reset Settings",
+                JOptionPane.YES_NO_OPTION);
+            
+            if (choice == JOptionPane.YES_OPTION) {
+                defaultProjectLocation = System.getProperty("user.home") + File.separator + "GodotProjects";
+                defaultEngineLocation = System.getProperty("user.home") + File.separator + "Godot";
+                cacheThumbnails = true;
+                refreshSettings();
+                saveData();
+                
+                JOptionPane.showMessageDialog(this,
+                    "Settings reset to defaults.",
+                    "Settings Reset",
+                    JOptionPane.INFORMATION_MESSAGE);
+            }
+        }
+
+        public void refreshSettings() {
+            projectLocationField.setText(defaultProjectLocation);
+            engineLocationField.setText(defaultEngineLocation);
+            cacheThumbnailsBox.setSelected(cacheThumbnails);
+        }
+    }
+
+    // Official URL first, then the engine's own mirrors, then the expanded global templates
+    private List<URI> downloadSources(GodotEngine engine) {
+        return downloadSources(engine, mirrorTemplates);
+    }
+
+    static List<URI> downloadSources(GodotEngine engine, List<String> templates) {
+        Set<String> urls = new LinkedHashSet<>();
+        urls.add(engine.getDownloadUrl());
+        urls.addAll(engine.getMirrors());
+        for (String template : templates) {
+            urls.add(MirrorSelector.expand(template, engine));
+        }
+        List<URI> sources = new ArrayList<>();
+        for (String url : urls) {
+            try {
+                sources.add(new URI(url));
+            } catch (URISyntaxException e) {
+                System.err.println("Ignoring invalid mirror URL " + url + ": " + e.getMessage());
+            }
+        }
+        return sources;
+    }
+
+    // Official export templates first, then the global mirror templates
+    private List<URI> templateSources(GodotEngine engine) {
+        String url = ExportTemplates.templatesUrl(engine);
+        Set<String> urls = new LinkedHashSet<>();
+        urls.add(url);
+        for (String template : mirrorTemplates) {
+            urls.add(MirrorSelector.expand(template, url, engine.getVersion()));
+        }
+        List<URI> sources = new ArrayList<>();
+        for (String source : urls) {
+            try {
+                sources.add(new URI(source));
+            } catch (URISyntaxException e) {
+                System.err.println("Ignoring invalid mirror URL " + source + ": " + e.getMessage());
+            }
+        }
+        return sources;
+    }
+
+    // Progress reported by long-running file operations
+    interface ProgressListener {
+        void progress(String status, long done, long total);
+    }
+
+    interface ProgressTask<T> {
+        T run(ProgressListener listener) throws Exception;
+    }
+
+    // Background tasks on virtual threads. Each task has a cancellation token and is its own progress
+    // channel; work forked through a Scope runs as child tasks of the task that opened it, their
+    // progress is averaged into the parent's, and cancelling a task cancels its children. Progress
+    // reports from a cancelled task throw CancellationException, so every ProgressTask stops at its
+    // next report without extra checks. (StructuredTaskScope is a preview API in Java 21; Scope is a
+    // small stand-in with the same fork/join/close shape.)
+    static class TaskManager {
+        enum State { RUNNING, SUCCEEDED, FAILED, CANCELLED }
+
+        // Finished top-level tasks listed beyond this are dropped, oldest first: their futures (and
+        // their children's) hold results such as whole analysis reports
+        static final int KEEP_FINISHED = 10;
+
+        private static final ThreadLocal<Task<?>> CURRENT = new ThreadLocal<>();
+        private final List<Task<?>> tasks = new CopyOnWriteArrayList<>();
+
+        static class CancellationToken {
+            private final List<Runnable> callbacks = new ArrayList<>();
+            private volatile boolean cancelled;
+
+            boolean isCancelled() {
+                return cancelled;
+            }
+
+            void throwIfCancelled() {
+                if (cancelled) throw new CancellationException();
+            }
+
+            // Runs the callback on cancellation, or right away if already cancelled
+            void onCancel(Runnable callback) {
+                synchronized (callbacks) {
+                    if (!cancelled) {
+                        callbacks.add(callback);
+                        return;
+                    }
+                }
+                callback.run();
+            }
+
+            void cancel() {
+                List<Runnable> toRun;
+                synchronized (callbacks) {
+                    if (cancelled) return;
+                    cancelled = true;
+                    toRun = new ArrayList<>(callbacks);
+                    callbacks.clear();
+                }
+                for (Runnable callback : toRun) callback.run();
+            }
+        }
+
+        static class Task<T> implements ProgressListener {
+            final String name;
+            final Task<?> parent;
+            final boolean cancellable;
+            final CancellationToken token = new CancellationToken();
+            final List<Task<?>> children = new CopyOnWriteArrayList<>();
+            private final CompletableFuture<T> future = new CompletableFuture<>();
+            private volatile State state = State.RUNNING;
+            private volatile String status = "Running...";
+            private volatile long done;
+            private volatile long total;
+            private volatile Thread thread;
+
+            Task(String name, Task<?> parent, boolean cancellable) {
+                this.name = name;
+                this.parent = parent;
+                this.cancellable = cancellable;
+                token.onCancel(() -> {
+                    Thread running = thread;
+                    if (running != null) running.interrupt();
+                    for (Task<?> child : children) child.cancel();
+                });
+            }
+
+            @Override
+            public void progress(String status, long done, long total) {
+                token.throwIfCancelled();
+                this.status = status;
+                this.done = done;
+                this.total = total;
+            }
+
+            // Ignored for tasks that must not stop half-way, such as a snapshot restore
+            void cancel() {
+                if (cancellable) token.cancel();
+            }
+
+            State state() {
+                return state;
+            }
+
+            CompletableFuture<T> future() {
+                return future;
+            }
+
+            // Value of a task that succeeded
+            T resultNow() {
+                if (state != State.SUCCEEDED) throw new IllegalStateException(name + " is " + state);
+                return future.join();
+            }
+
+            String status() {
+                List<Task<?>> kids = children;
+                if (kids.isEmpty() || state != State.RUNNING) return status;
+                long finished = kids.stream().filter(child -> child.state != State.RUNNING).count();
+                return status + " (" + finished + "/" + kids.size() + ")";
+            }
+
+            // 0..1, averaged over the children if there are any; -1 when the total is unknown
+            double fraction() {
+                if (state != State.RUNNING) return 1;
+                List<Task<?>> kids = children;
+                if (!kids.isEmpty()) {
+                    double sum = 0;
+                    for (Task<?> child : kids) sum += Math.max(0, child.fraction());
+                    return sum / kids.size();
+                }
+                return total > 0 ? Math.min(1, (double) done / total) : -1;
+            }
+        }
+
+        // Forks child tasks of the current task (or of no task), at most maxConcurrent running at once.
+        // With failFast the first failure cancels the others and join() throws it; otherwise join()
+        // only waits and each child's state tells how it ended. close() cancels what is still running.
+        static class Scope<T> implements AutoCloseable {
+            private final Task<?> owner = CURRENT.get();
+            private final Semaphore permits;
+            private final boolean failFast;
+            private final List<Task<T>> forked = new CopyOnWriteArrayList<>();
+            private volatile Throwable failure;
+
+            Scope(int maxConcurrent, boolean failFast) {
+                this.permits = new Semaphore(Math.max(1, maxConcurrent));
+                this.failFast = failFast;
+            }
+
+            Task<T> fork(String name, ProgressTask<T> body) {
+                if (owner != null) owner.token.throwIfCancelled();
+                Task<T> child = new Task<>(name, owner, true);
+                forked.add(child);
+                if (owner != null) owner.children.add(child);
+                start(child, listener -> {
+                    permits.acquire();
+                    try {
+                        return body.run(listener);
+                    } finally {
+                        permits.release();
+                    }
+                });
+                child.future.whenComplete((value, error) -> {
+                    if (error != null && failFast && child.state == State.FAILED && failure == null) {
+                        failure = error;
+                        for (Task<T> other : forked) other.cancel();
+                    }
+                });
+                return child;
+            }
+
+            List<Task<T>> tasks() {
+                return forked;
+            }
+
+            void join() throws InterruptedException, ExecutionException {
+                for (Task<T> child : forked) {
+                    try {
+                        child.future.get();
+                    } catch (ExecutionException | CancellationException e) {
+                        // Reported through the child's state, or as the scope's failure below
+                    }
+                }
+                if (owner != null) owner.token.throwIfCancelled();
+                if (failure != null) throw new ExecutionException(failure);
+            }
+
+            @Override
+            public void close() {
+                boolean interrupted = false;
+                for (Task<T> child : forked) {
+                    child.cancel();
+                    while (true) {
+                        try {
+                            child.future.get();
+                            break;
+                        } catch (InterruptedException e) {
+                            interrupted = true;
+                        } catch (ExecutionException | CancellationException e) {
+                            break;
+                        }
+                    }
+                }
+                if (interrupted) Thread.currentThread().interrupt();
+            }
+        }
+
+        // Starts a top-level task, listed in the task tray until cleared or pruned
+        <T> Task<T> submit(String name, ProgressTask<T> body) {
+            return submit(name, true, body);
+        }
+
+        <T> Task<T> submit(String name, boolean cancellable, ProgressTask<T> body) {
+            Task<T> task = new Task<>(name, null, cancellable);
+            tasks.add(task);
+            task.future.whenComplete((value, error) -> pruneFinished());
+            start(task, body);
+            return task;
+        }
+
+        List<Task<?>> tasks() {
+            return tasks;
+        }
+
+        void clearFinished() {
+            tasks.removeIf(task -> task.state != State.RUNNING);
+        }
+
+        private void pruneFinished() {
+            List<Task<?>> finished = new ArrayList<>();
+            for (Task<?> task : tasks) {
+                if (task.state != State.RUNNING) finished.add(task);
+            }
+            if (finished.size() > KEEP_FINISHED) {
+                Set<Task<?>> stale = Collections.newSetFromMap(new IdentityHashMap<>());
+                stale.addAll(finished.subList(0, finished.size() - KEEP_FINISHED));
+                tasks.removeIf(stale::contains);
+            }
+        }
+
+        private static <T> void start(Task<T> task, ProgressTask<T> body) {
+            Thread thread = Thread.ofVirtual().name("task: " + task.name).unstarted(() -> {
+                CURRENT.set(task);
+                try {
+                    task.token.throwIfCancelled();
+                    T value = body.run(task);
+                    task.token.throwIfCancelled();
+                    task.state = State.SUCCEEDED;
+                    task.future.complete(value);
+                } catch (Throwable e) {
+                    if (task.token.isCancelled()) {
+                        task.state = State.CANCELLED;
+                        task.future.completeExceptionally(new CancellationException(task.name + " was cancelled"));
+                    } else {
+                        task.state = State.FAILED;
+                        task.future.completeExceptionally(e);
+                    }
+                } finally {
+                    CURRENT.remove();
+                    task.thread = null;
+                }
+            });
+            task.thread = thread;
+            thread.start();
+        }
+    }
+
+    // Helper method to run a file operation in the background behind a modal progress dialog. The
+    // dialog can cancel the task or hand it to the task tray; onSuccess runs on the EDT either way.
+    private <T> void runWithProgress(Component parent, String title, ProgressTask<T> task,
+                                     java.util.function.Consumer<T> onSuccess) {
+        runWithProgress(parent, title, true, task, onSuccess);
+    }
+
+    private <T> void runWithProgress(Component parent, String title, boolean cancellable, ProgressTask<T> task,
+                                     java.util.function.Consumer<T> onSuccess) {
+        Window owner = parent == null ? this : SwingUtilities.getWindowAncestor(parent);
+        if (parent instanceof Window) owner = (Window) parent;
+        JDialog progressDialog = new JDialog(owner, title, Dialog.ModalityType.APPLICATION_MODAL);
+        progressDialog.setSize(400, 170);
+        progressDialog.setLocationRelativeTo(parent);
+        progressDialog.setDefaultCloseOperation(JDialog.DO_NOTHING_ON_CLOSE);
+
+        JProgressBar progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        JLabel statusLabel = new JLabel("Starting...");
+        JButton backgroundBtn = new JButton("Run in Background");
+        JButton cancelBtn = new JButton("Cancel");
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 5, 0));
+        buttonPanel.add(backgroundBtn);
+        if (cancellable) buttonPanel.add(cancelBtn);
+
+        JPanel contentPanel = new JPanel(new BorderLayout(10, 10));
+        contentPanel.setBorder(new EmptyBorder(20, 20, 10, 20));
+        contentPanel.add(statusLabel, BorderLayout.NORTH);
+        contentPanel.add(progressBar, BorderLayout.CENTER);
+        contentPanel.add(buttonPanel, BorderLayout.SOUTH);
+        progressDialog.add(contentPanel);
+
+        TaskManager.Task<T> handle = taskManager.submit(title, cancellable, task);
+        // Registered first so the dialog is gone before onSuccess opens its own
+        handle.future().whenComplete((value, error) -> SwingUtilities.invokeLater(progressDialog::dispose));
+        reportCompletion(parent, title, handle, onSuccess);
+
+        javax.swing.Timer timer = new javax.swing.Timer(100, e -> {
+            statusLabel.setText(handle.status());
+            double fraction = handle.fraction();
+            progressBar.setIndeterminate(fraction < 0);
+            if (fraction >= 0) progressBar.setValue((int) (fraction * 100));
+        });
+        backgroundBtn.addActionListener(e -> progressDialog.dispose());
+        cancelBtn.addActionListener(e -> {
+            cancelBtn.setEnabled(false);
+            statusLabel.setText("Cancelling...");
+            handle.cancel();
+        });
+        timer.start();
+        progressDialog.setVisible(true);
+        timer.stop();
+    }
+
+    // Runs a task with only the task tray showing its progress
+    private <T> TaskManager.Task<T> runInBackground(Component parent, String title, ProgressTask<T> task,
+                                                    java.util.function.Consumer<T> onSuccess) {
+        TaskManager.Task<T> handle = taskManager.submit(title, task);
+        reportCompletion(parent, title, handle, onSuccess);
+        return handle;
+    }
+
+    // Cancelled tasks end quietly; the tray shows them as cancelled
+    private <T> void reportCompletion(Component parent, String title, TaskManager.Task<T> handle,
+                                      java.util.function.Consumer<T> onSuccess) {
+        handle.future().whenComplete((value, error) -> SwingUtilities.invokeLater(() -> {
+            if (handle.state() == TaskManager.State.SUCCEEDED) {
+                onSuccess.accept(value);
+            } else if (handle.state() == TaskManager.State.FAILED) {
+                Throwable cause = error instanceof ExecutionException && error.getCause() != null ? error.getCause() : error;
+                cause.printStackTrace();
+                JOptionPane.showMessageDialog(parent,
+                    title + " failed: " + cause.getMessage(),
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE);
+            }
+        }));
+    }
+
+    // Helper method to extract ZIP files
+    static void extractZipFile(File zipFile, File destDir) throws IOException {
+        byte[] buffer = new byte[8192];
+        
+        ZipExtractionEvent event = new ZipExtractionEvent();
+        event.archive = zipFile.getAbsolutePath();
+        long written = 0;
+        try (Diagnostics.Span span = Diagnostics.begin("Zip extraction", event);
+             ZipInputStream zis = new ZipInputStream(new FileInputStream(zipFile))) {
+            ZipEntry entry;
+            while ((entry = zis.getNextEntry()) != null) {
+                event.entries++;
+                File newFile = new File(destDir, entry.getName());
+                
+                if (entry.isDirectory()) {
+                    newFile.mkdirs();
+                } else {
+                    // Create parent directories if needed
+                    newFile.getParentFile().mkdirs();
+                    
+                    // Extract file
+                    try (FileOutputStream fos = new FileOutputStream(newFile)) {
+                        int len;
+                        while ((len = zis.read(buffer)) > 0) {
+                            fos.write(buffer, 0, len);
+                            written += len;
+                        }
+                    }
+                }
+                zis.closeEntry();
+            }
+            span.complete(written);
+        }
+    }
+    
+    // Helper method to find Godot executable in extracted folder
+    static String findGodotExecutable(File dir) {
+        File[] files = dir.listFiles();
+        if (files == null) return null;
+        
+        // Look for .exe files (prioritize those with "godot" in the name)
+        for (File file : files) {
+            if (file.isFile() && file.getName().toLowerCase().endsWith(".exe")) {
+                if (file.getName().toLowerCase().contains("godot")) {
+                    return file.getAbsolutePath();
+                }
+            }
+        }
+        
+        // If no godot.exe found, look in subdirectories
+        for (File file : files) {
+            if (file.isDirectory()) {
+                String result = findGodotExecutable(file);
+                if (result != null) return result;
+            }
+        }
+        
+        // If still not found, return any .exe file
+        for (File file : files) {
+            if (file.isFile() && file.getName().toLowerCase().endsWith(".exe")) {
+                return file.getAbsolutePath();
+            }
+        }
+        
+        return null;
+    }
+
+    // Shared file helpers
+    static class FileOps {
+        // Regenerable editor caches (Godot 4 and Godot 3) that never need to be copied or backed up
+        static final Set<String> CACHE_DIRS = Set.of(".godot", ".import");
+        // Version control metadata, which belongs to the repository rather than to one state of the project
+        static final Set<String> VCS_DIRS = Set.of(".git", ".svn", ".hg");
+
+        static String sha256(Path file) throws IOException {
+            MessageDigest digest;
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IOException(e);
+            }
+            byte[] buffer = new byte[65536];
+            try (InputStream in = Files.newInputStream(file)) {
+                int len;
+                while ((len = in.read(buffer)) > 0) {
+                    digest.update(buffer, 0, len);
+                }
+            }
+            return toHex(digest.digest());
+        }
+
+        // Short stable key for per-project cache directories
+        static String pathKey(Path path) {
+            try {
+                byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(path.toAbsolutePath().normalize().toString().getBytes(java.nio.charset.StandardCharsets.UTF_8));
+                return toHex(hash).substring(0, 16);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        static String toHex(byte[] bytes) {
+            StringBuilder sb = new StringBuilder(bytes.length * 2);
+            for (byte b : bytes) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+                sb.append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        }
+
+        static String formatBytes(long bytes) {
+            if (bytes < 1024) return bytes + " B";
+            String[] units = {"KB", "MB", "GB", "TB"};
+            double value = bytes;
+            int unit = -1;
+            while (value >= 1024 && unit < units.length - 1) {
+                value /= 1024;
+                unit++;
+            }
+            return String.format("%.1f %s", value, units[unit]);
+        }
+
+        // Deletes a directory tree, removing files in parallel. Returns the number of bytes deleted.
+        static long deleteTree(Path root) throws IOException {
+            if (!Files.exists(root)) return 0;
+            List<Path> files = new ArrayList<>();
+            List<Path> dirs = new ArrayList<>();
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    files.add(file);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException exc) {
+                    dirs.add(dir);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+
+            AtomicLong deleted = new AtomicLong();
+            List<IOException> errors = Collections.synchronizedList(new ArrayList<>());
+            files.parallelStream().forEach(file -> {
+                try {
+                    long size = Files.size(file);
+                    try {
+                        Files.delete(file);
+                    } catch (AccessDeniedException e) {
+                        // Read-only files cannot be deleted on Windows
+                        file.toFile().setWritable(true);
+                        Files.delete(file);
+                    }
+                    deleted.addAndGet(size);
+                } catch (IOException e) {
+                    errors.add(e);
+                }
+            });
+            if (!errors.isEmpty()) {
+                throw errors.get(0);
+            }
+
+            // Directories are listed children-first by the walk
+            for (Path dir : dirs) {
+                Files.deleteIfExists(dir);
+            }
+            return deleted.get();
+        }
+    }
+
+    // Content-addressed store shared by all engines installed under the same parent directory.
+    // Identical files are replaced by hard links to a single blob in <parent>/.gpm-store/blobs.
+    static class EngineStore {
+        static final String STORE_DIR = ".gpm-store";
+        static final String MANIFEST = ".gpm-manifest";
+        static final String LOCK_FILE = "store.lock";
+        // Linking and collection change the store; they run one at a time per store, across threads
+        // through these and across instances through LOCK_FILE. FileLock alone would throw when two
+        // threads of this process asked for it.
+        private static final Map<Path, ReentrantLock> LOCKS = new ConcurrentHashMap<>();
+        // Linking tiny files saves less than the bookkeeping costs
+        static final long MIN_LINK_SIZE = 4096;
+
+        static class StorageReport {
+            long fileCount;
+            long uniqueCount;
+            long logicalBytes;
+            long savedBytes;
+        }
+
+        static class ManifestEntry {
+            final String hash;
+            final long size;
+            final boolean linked;
+            final String relativePath;
+
+            ManifestEntry(String hash, long size, boolean linked, String relativePath) {
+                this.hash = hash;
+                this.size = size;
+                this.linked = linked;
+                this.relativePath = relativePath;
+            }
+        }
+
+        static Path storeDir(Path installRoot) {
+            return installRoot.toAbsolutePath().getParent().resolve(STORE_DIR);
+        }
+
+        static Path blobPath(Path store, String hash) {
+            return store.resolve("blobs").resolve(hash.substring(0, 2)).resolve(hash);
+        }
+
+        interface StoreAction<T> {
+            T run() throws IOException;
+        }
+
+        // Runs the action holding the store's lock; nested calls from the holding thread just run
+        static <T> T locked(Path store, StoreAction<T> action) throws IOException {
+            ReentrantLock lock = LOCKS.computeIfAbsent(store.toAbsolutePath().normalize(), s -> new ReentrantLock());
+            if (lock.isHeldByCurrentThread()) return action.run();
+            try {
+                lock.lockInterruptibly();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the engine store");
+            }
+            try {
+                Files.createDirectories(store);
+                // Blocks until another instance is done; an interrupt closes the channel and ends the wait
+                try (FileChannel channel = FileChannel.open(store.resolve(LOCK_FILE),
+                        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                     FileLock fileLock = channel.lock()) {
+                    return action.run();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Hashes every file of a freshly extracted engine and links it into the store.
+        // Returns the number of bytes that are now shared with previously installed versions.
+        static long deduplicate(Path installRoot) throws IOException {
+            Path store = storeDir(installRoot);
+            List<Path> files;
+            try (Stream<Path> walk = Files.walk(installRoot)) {
+                files = walk.filter(Files::isRegularFile)
+                    .filter(f -> !f.getFileName().toString().equals(MANIFEST))
+                    .collect(Collectors.toList());
+            }
+
+            // Hashing reads the whole engine and needs no lock
+            List<ManifestEntry> hashed = files.parallelStream().map(file -> {
+                try {
+                    long size = Files.size(file);
+                    return new ManifestEntry(FileOps.sha256(file), size, size >= MIN_LINK_SIZE,
+                        installRoot.relativize(file).toString().replace('\\', '/'));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).collect(Collectors.toList());
+
+            return locked(store, () -> {
+                // Written first, so a collection in another instance that finds the lock free again before
+                // this install is registered, or after it failed half-way, still sees every blob it may use
+                writeManifest(installRoot, hashed);
+                AtomicLong saved = new AtomicLong();
+                List<ManifestEntry> entries = hashed.parallelStream().map(entry -> {
+                    boolean linked = entry.linked && linkIntoStore(store, installRoot.resolve(entry.relativePath),
+                        entry.hash, entry.size, saved);
+                    return new ManifestEntry(entry.hash, entry.size, linked, entry.relativePath);
+                }).collect(Collectors.toList());
+                writeManifest(installRoot, entries);
+                return saved.get();
+            });
+        }
+
+        private static boolean linkIntoStore(Path store, Path file, String hash, long size, AtomicLong saved) {
+            Path blob = blobPath(store, hash);
+            try {
+                Files.createDirectories(blob.getParent());
+                try {
+                    // First copy of this content becomes the blob
+                    Files.createLink(blob, file);
+                    return true;
+                } catch (FileAlreadyExistsException e) {
+                    if (Files.isSameFile(blob, file)) return true;
+                }
+                Path temp = file.resolveSibling(file.getFileName() + ".gpmlink");
+                Files.deleteIfExists(temp);
+                Files.createLink(temp, blob);
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                saved.addAndGet(size);
+                return true;
+            } catch (IOException | UnsupportedOperationException e) {
+                // Filesystem without hard links (FAT, network shares) - keep the private copy
+                return false;
+            }
+        }
+
+        static List<ManifestEntry> readManifest(Path installRoot) throws IOException {
+            Path manifest = installRoot.resolve(MANIFEST);
+            List<ManifestEntry> entries = new ArrayList<>();
+            if (!Files.exists(manifest)) return entries;
+            for (String line : Files.readAllLines(manifest)) {
+                // Format: hash|size|linked|relativePath
+                String[] parts = line.split("\\|", 4);
+                if (parts.length == 4) {
+                    entries.add(new ManifestEntry(parts[0], Long.parseLong(parts[1]),
+                        Boolean.parseBoolean(parts[2]), parts[3]));
+                }
+            }
+            return entries;
+        }
+
+        private static void writeManifest(Path installRoot, List<ManifestEntry> entries) throws IOException {
+            try (BufferedWriter writer = Files.newBufferedWriter(installRoot.resolve(MANIFEST))) {
+                for (ManifestEntry entry : entries) {
+                    writer.write(entry.hash + "|" + entry.size + "|" + entry.linked + "|" + entry.relativePath);
+                    writer.newLine();
+                }
+            }
+        }
+
+        // Deletes the files of an installed engine and any blobs no other installed engine still uses.
+        // Only files listed in the manifest are deleted, and folders only once empty, so anything else
+        // in the install folder survives. Returns the disk space actually reclaimed.
+        static long uninstall(Path installRoot, List<Path> remainingRoots) throws IOException {
+            return locked(storeDir(installRoot), () -> uninstallLocked(installRoot, remainingRoots));
+        }
+
+        private static long uninstallLocked(Path installRoot, List<Path> remainingRoots) throws IOException {
+            Path root = installRoot.toAbsolutePath().normalize();
+            long deleted = 0;
+            long storeBacked = 0;
+            Set<Path> dirs = new HashSet<>();
+            for (ManifestEntry entry : readManifest(root)) {
+                Path file = root.resolve(entry.relativePath).normalize();
+                if (!file.startsWith(root) || file.equals(root)) continue;
+                try {
+                    long size = Files.size(file);
+                    Files.delete(file);
+                    deleted += size;
+                    if (entry.linked) storeBacked += size;
+                } catch (NoSuchFileException e) {
+                    // Already gone
+                }
+                for (Path dir = file.getParent(); dir.startsWith(root); dir = dir.getParent()) {
+                    if (!dirs.add(dir)) break;
+                }
+            }
+            Files.deleteIfExists(root.resolve(MANIFEST));
+
+            List<Path> deepestFirst = new ArrayList<>(dirs);
+            deepestFirst.sort(Comparator.comparingInt(Path::getNameCount).reversed());
+            for (Path dir : deepestFirst) {
+                try {
+                    Files.deleteIfExists(dir);
+                } catch (DirectoryNotEmptyException e) {
+                    // Holds files the engine did not ship with
+                }
+            }
+            return deleted - storeBacked + collectGarbage(storeDir(root), remainingRoots);
+        }
+
+        // Deletes blobs that neither the remaining engines nor any install folder next to the store lists.
+        // The folders cover installs that are not registered yet and engines unregistered without deleting
+        // their files; a folder whose install failed was deleted, so its blobs go.
+        static long collectGarbage(Path store, List<Path> remainingRoots) throws IOException {
+            return locked(store, () -> collectGarbageLocked(store, remainingRoots));
+        }
+
+        private static long collectGarbageLocked(Path store, List<Path> remainingRoots) throws IOException {
+            Path blobs = store.resolve("blobs");
+            if (!Files.isDirectory(blobs)) return 0;
+
+            Set<Path> roots = new LinkedHashSet<>();
+            for (Path root : remainingRoots) {
+                if (storeDir(root).equals(store)) roots.add(root);
+            }
+            try (Stream<Path> siblings = Files.list(store.toAbsolutePath().getParent())) {
+                siblings.filter(dir -> Files.isRegularFile(dir.resolve(MANIFEST))).forEach(roots::add);
+            }
+            Set<String> referenced = new HashSet<>();
+            for (Path root : roots) {
+                for (ManifestEntry entry : readManifest(root)) {
+                    if (entry.linked) referenced.add(entry.hash);
+                }
+            }
+
+            List<Path> unused;
+            try (Stream<Path> walk = Files.walk(blobs)) {
+                unused = walk.filter(Files::isRegularFile)
+                    .filter(blob -> !referenced.contains(blob.getFileName().toString()))
+                    .collect(Collectors.toList());
+            }
+            AtomicLong freed = new AtomicLong();
+            unused.parallelStream().forEach(blob -> {
+                try {
+                    long size = Files.size(blob);
+                    Files.delete(blob);
+                    freed.addAndGet(size);
+                } catch (IOException e) {
+                    System.err.println("Could not delete blob " + blob + ": " + e.getMessage());
+                }
+            });
+            for (Path blob : unused) {
+                try {
+                    Files.deleteIfExists(blob.getParent());
+                } catch (DirectoryNotEmptyException e) {
+                    // Shard still holds blobs in use
+                }
+            }
+            return freed.get();
+        }
+
+        static StorageReport report(List<Path> installRoots) {
+            StorageReport report = new StorageReport();
+            Map<String, Long> unique = new HashMap<>();
+            for (Path root : installRoots) {
+                try {
+                    for (ManifestEntry entry : readManifest(root)) {
+                        report.fileCount++;
+                        report.logicalBytes += entry.size;
+                        if (!entry.linked) {
+                            report.uniqueCount++;
+                        } else if (unique.putIfAbsent(storeDir(root) + "|" + entry.hash, entry.size) == null) {
+                            report.uniqueCount++;
+                        } else {
+                            report.savedBytes += entry.size;
+                        }
+                    }
+                } catch (IOException e) {
+                    System.err.println("Error reading manifest for " + root + ": " + e.getMessage());
+                }
+            }
+            return report;
+        }
+    }
+
+    // Incremental, content-addressed project snapshots.
+    // Objects are gzip-compressed file contents named by their SHA-256 and shared by all projects;
+    // each snapshot is a manifest of relativePath|size|mtime|hash lines.
+    static class SnapshotStore {
+        private static final DateTimeFormatter ID_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+        // One per store folder, shared by every SnapshotStore on it: create and restore only add objects
+        // or read them, while delete removes the ones no manifest references and must not run alongside
+        private static final Map<Path, ReentrantReadWriteLock> LOCKS = new ConcurrentHashMap<>();
+
+        private final Path root;
+        private final ReentrantReadWriteLock lock;
+
+        SnapshotStore(Path root) {
+            this.root = root;
+            this.lock = LOCKS.computeIfAbsent(root.toAbsolutePath().normalize(), r -> new ReentrantReadWriteLock());
+        }
+
+        static class Entry {
+            final String relativePath;
+            final long size;
+            final long modified;
+            final String hash;
+
+            Entry(String relativePath, long size, long modified, String hash) {
+                this.relativePath = relativePath;
+                this.size = size;
+                this.modified = modified;
+                this.hash = hash;
+            }
+        }
+
+        static class Snapshot {
+            final Path manifest;
+            final String created;
+            final String label;
+            final int files;
+            final long bytes;
+
+            Snapshot(Path manifest, String created, String label, int files, long bytes) {
+                this.manifest = manifest;
+                this.created = created;
+                this.label = label;
+                this.files = files;
+                this.bytes = bytes;
+            }
+
+            public String getCreated() { return created; }
+
+            @Override
+            public String toString() {
+                return created + "  -  " + label + "  (" + files + " files, " + FileOps.formatBytes(bytes) + ")";
+            }
+        }
+
+        static class Result {
+            int files;
+            int changedFiles;
+            long storedBytes;
+            long millis;
+        }
+
+        Path projectDir(Path project) {
+            return root.resolve("projects").resolve(FileOps.pathKey(project));
+        }
+
+        Path objectPath(String hash) {
+            return root.resolve("objects").resolve(hash.substring(0, 2)).resolve(hash + ".gz");
+        }
+
+        Result create(Path project, String label, ProgressListener listener) throws IOException {
+            lock.readLock().lock();
+            try {
+                return createLocked(project, label, listener);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private Result createLocked(Path project, String label, ProgressListener listener) throws IOException {
+            long start = System.currentTimeMillis();
+            Map<String, Entry> previous = new HashMap<>();
+            List<Snapshot> existing = list(project);
+            if (!existing.isEmpty()) {
+                for (Entry entry : readEntries(existing.get(0).manifest)) {
+                    previous.put(entry.relativePath, entry);
+                }
+            }
+
+            List<Path> files = listFiles(project);
+            int total = files.size();
+            AtomicLong processed = new AtomicLong();
+            AtomicLong stored = new AtomicLong();
+            AtomicLong changed = new AtomicLong();
+
+            List<Entry> entries = files.parallelStream().map(file -> {
+                try {
+                    BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+                    String relativePath = project.relativize(file).toString().replace('\\', '/');
+                    long modified = attrs.lastModifiedTime().toMillis();
+                    Entry old = previous.get(relativePath);
+                    Entry entry;
+                    if (old != null && old.size == attrs.size() && old.modified == modified
+                            && Files.exists(objectPath(old.hash))) {
+                        // Unchanged since the last snapshot - no need to read it
+                        entry = old;
+                    } else {
+                        changed.incrementAndGet();
+                        entry = new Entry(relativePath, attrs.size(), modified, storeObject(file, stored));
+                    }
+                    long done = processed.incrementAndGet();
+                    if (done % 64 == 0 || done == total) {
+                        listener.progress("Snapshot: " + done + " / " + total + " files", done, total);
+                    }
+                    return entry;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).collect(Collectors.toList());
+
+            Path dir = projectDir(project);
+            Files.createDirectories(dir);
+            Path manifest = dir.resolve(LocalDateTime.now().format(ID_FORMAT) + ".snap");
+            try (BufferedWriter writer = Files.newBufferedWriter(manifest)) {
+                writer.write("# project=" + project.toAbsolutePath());
+                writer.newLine();
+                writer.write("# created=" + LocalDateTime.now().withNano(0));
+                writer.newLine();
+                writer.write("# label=" + label.replace('\n', ' '));
+                writer.newLine();
+                for (Entry entry : entries) {
+                    writer.write(entry.relativePath + "|" + entry.size + "|" + entry.modified + "|" + entry.hash);
+                    writer.newLine();
+                }
+            }
+
+            Result result = new Result();
+            result.files = entries.size();
+            result.changedFiles = (int) changed.get();
+            result.storedBytes = stored.get();
+            result.millis = System.currentTimeMillis() - start;
+            return result;
+        }
+
+        // Hashes and compresses a file in a single read; the compressed copy is kept only if the content is new
+        private String storeObject(Path file, AtomicLong stored) throws IOException {
+            MessageDigest digest;
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IOException(e);
+            }
+            Path objects = root.resolve("objects");
+            Files.createDirectories(objects);
+            Path temp = Files.createTempFile(objects, "incoming", ".tmp");
+            try {
+                byte[] buffer = new byte[65536];
+                try (InputStream in = Files.newInputStream(file);
+                     GZIPOutputStream out = new GZIPOutputStream(Files.newOutputStream(temp), 65536)) {
+                    int len;
+                    while ((len = in.read(buffer)) > 0) {
+                        digest.update(buffer, 0, len);
+                        out.write(buffer, 0, len);
+                    }
+                }
+                String hash = FileOps.toHex(digest.digest());
+                Path object = objectPath(hash);
+                if (!Files.exists(object)) {
+                    Files.createDirectories(object.getParent());
+                    long size = Files.size(temp);
+                    try {
+                        Files.move(temp, object, StandardCopyOption.ATOMIC_MOVE);
+                        stored.addAndGet(size);
+                    } catch (FileAlreadyExistsException e) {
+                        // Another thread stored the same content
+                    }
+                }
+                return hash;
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+
+        static List<Path> listFiles(Path project) throws IOException {
+            List<Path> files = new ArrayList<>();
+            ProjectScanEvent event = new ProjectScanEvent();
+            event.operation = "List project files";
+            event.root = project.toString();
+            long[] bytes = {0};
+            try (Diagnostics.Span span = Diagnostics.begin("Project scan", event)) {
+                walkProject(project, files, bytes);
+                event.files = files.size();
+                span.complete(bytes[0]);
+            }
+            return files;
+        }
+
+        private static void walkProject(Path project, List<Path> files, long[] bytes) throws IOException {
+            Files.walkFileTree(project, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    if (!dir.equals(project) && excluded(dir.getFileName().toString())) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    // A submodule or worktree has a .git file pointing at its repository
+                    if (attrs.isRegularFile() && !FileOps.VCS_DIRS.contains(file.getFileName().toString())) {
+                        files.add(file);
+                        bytes[0] += attrs.size();
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+
+        // Caches are regenerated by the editor; restoring VCS metadata would roll back the repository and
+        // delete commits made since the snapshot
+        private static boolean excluded(String name) {
+            return FileOps.CACHE_DIRS.contains(name) || FileOps.VCS_DIRS.contains(name);
+        }
+
+        // Whether a manifest path lies in a folder snapshots leave alone; older manifests may list .git
+        private static boolean excludedPath(String relativePath) {
+            for (String segment : relativePath.split("/")) {
+                if (excluded(segment)) return true;
+            }
+            return false;
+        }
+
+        List<Snapshot> list(Path project) throws IOException {
+            Path dir = projectDir(project);
+            List<Snapshot> snapshots = new ArrayList<>();
+            if (!Files.isDirectory(dir)) return snapshots;
+            List<Path> manifests;
+            try (Stream<Path> stream = Files.list(dir)) {
+                manifests = stream.filter(p -> p.toString().endsWith(".snap"))
+                    .sorted(Comparator.reverseOrder())
+                    .collect(Collectors.toList());
+            }
+            for (Path manifest : manifests) {
+                String created = "";
+                String label = "";
+                int files = 0;
+                long bytes = 0;
+                try (BufferedReader reader = Files.newBufferedReader(manifest)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (line.startsWith("# created=")) {
+                            created = line.substring(10).replace('T', ' ');
+                        } else if (line.startsWith("# label=")) {
+                            label = line.substring(8);
+                        } else if (!line.startsWith("#")) {
+                            Entry entry = parseEntry(line);
+                            if (entry != null) {
+                                files++;
+                                bytes += entry.size;
+                            }
+                        }
+                    }
+                }
+                snapshots.add(new Snapshot(manifest, created, label, files, bytes));
+            }
+            return snapshots;
+        }
+
+        static List<Entry> readEntries(Path manifest) throws IOException {
+            List<Entry> entries = new ArrayList<>();
+            try (BufferedReader reader = Files.newBufferedReader(manifest)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith("#")) continue;
+                    Entry entry = parseEntry(line);
+                    if (entry != null) entries.add(entry);
+                }
+            }
+            return entries;
+        }
+
+        // Parses a manifest line. Paths may contain '|', so the fields are split from the right.
+        private static Entry parseEntry(String line) {
+            int hashSep = line.lastIndexOf('|');
+            if (hashSep <= 0) return null;
+            int modifiedSep = line.lastIndexOf('|', hashSep - 1);
+            if (modifiedSep <= 0) return null;
+            int sizeSep = line.lastIndexOf('|', modifiedSep - 1);
+            if (sizeSep <= 0) return null;
+            try {
+                return new Entry(line.substring(0, sizeSep),
+                    Long.parseLong(line.substring(sizeSep + 1, modifiedSep)),
+                    Long.parseLong(line.substring(modifiedSep + 1, hashSep)),
+                    line.substring(hashSep + 1));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        // Restores a snapshot into the project folder. Files that still match are left alone,
+        // files missing from the snapshot are deleted. Returns the number of files written.
+        int restore(Snapshot snapshot, Path project, ProgressListener listener) throws IOException {
+            lock.readLock().lock();
+            try {
+                return restoreLocked(snapshot, project, listener);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private int restoreLocked(Snapshot snapshot, Path project, ProgressListener listener) throws IOException {
+            List<Entry> entries = new ArrayList<>();
+            for (Entry entry : readEntries(snapshot.manifest)) {
+                if (!excludedPath(entry.relativePath)) entries.add(entry);
+            }
+            Set<String> wanted = new HashSet<>();
+            for (Entry entry : entries) wanted.add(entry.relativePath);
+
+            // Check the stored content first so a damaged snapshot leaves the project untouched
+            int missing = 0;
+            for (Entry entry : entries) {
+                if (!Files.isRegularFile(objectPath(entry.hash))) missing++;
+            }
+            if (missing > 0) {
+                throw new IOException("Snapshot is damaged: stored content is missing for " + missing + " of "
+                    + entries.size() + " files. The project was not changed.");
+            }
+
+            Set<Path> dirs = new HashSet<>();
+            for (Path file : listFiles(project)) {
+                if (!wanted.contains(project.relativize(file).toString().replace('\\', '/'))) {
+                    Files.delete(file);
+                    for (Path dir = file.getParent(); !dir.equals(project); dir = dir.getParent()) {
+                        if (!dirs.add(dir)) break;
+                    }
+                }
+            }
+            // The manifest lists no folders, so one left empty here did not exist at snapshot time; folders
+            // with snapshot files below are recreated by the copy anyway
+            List<Path> deepestFirst = new ArrayList<>(dirs);
+            deepestFirst.sort(Comparator.comparingInt(Path::getNameCount).reversed());
+            for (Path dir : deepestFirst) {
+                try {
+                    Files.deleteIfExists(dir);
+                } catch (DirectoryNotEmptyException e) {
+                    // Still holds snapshot files, or cache and VCS folders restore leaves alone
+                }
+            }
+
+            int total = entries.size();
+            AtomicLong processed = new AtomicLong();
+            AtomicLong written = new AtomicLong();
+            entries.parallelStream().forEach(entry -> {
+                try {
+                    Path target = project.resolve(entry.relativePath);
+                    if (Files.exists(target) && Files.size(target) == entry.size
+                            && Files.getLastModifiedTime(target).toMillis() == entry.modified) {
+                        // Already matches the snapshot
+                    } else {
+                        Files.createDirectories(target.getParent());
+                        try (InputStream in = new GZIPInputStream(Files.newInputStream(objectPath(entry.hash)), 65536)) {
+                            Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+                        }
+                        Files.setLastModifiedTime(target, FileTime.fromMillis(entry.modified));
+                        written.incrementAndGet();
+                    }
+                    long done = processed.incrementAndGet();
+                    if (done % 64 == 0 || done == total) {
+                        listener.progress("Restore: " + done + " / " + total + " files", done, total);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            return (int) written.get();
+        }
+
+        // Deletes a snapshot and every object no remaining snapshot references. Returns the bytes freed.
+        long delete(Snapshot snapshot, ProgressListener listener) throws IOException {
+            lock.writeLock().lock();
+            try {
+                return deleteLocked(snapshot, listener);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private long deleteLocked(Snapshot snapshot, ProgressListener listener) throws IOException {
+            Files.delete(snapshot.manifest);
+            listener.progress("Collecting unused content...", 0, 0);
+
+            Set<String> referenced = new HashSet<>();
+            Path projects = root.resolve("projects");
+            if (Files.isDirectory(projects)) {
+                try (Stream<Path> walk = Files.walk(projects)) {
+                    for (Path manifest : walk.filter(p -> p.toString().endsWith(".snap")).collect(Collectors.toList())) {
+                        for (Entry entry : readEntries(manifest)) referenced.add(entry.hash);
+                    }
+                }
+            }
+
+            long freed = 0;
+            Path objects = root.resolve("objects");
+            if (!Files.isDirectory(objects)) return 0;
+            try (Stream<Path> walk = Files.walk(objects)) {
+                for (Path object : walk.filter(p -> p.toString().endsWith(".gz")).collect(Collectors.toList())) {
+                    String name = object.getFileName().toString();
+                    if (!referenced.contains(name.substring(0, name.length() - 3))) {
+                        freed += Files.size(object);
+                        Files.delete(object);
+                    }
+                }
+            }
+            return freed;
+        }
+    }
+
+    // Copies project trees in parallel, skipping the regenerable caches.
+    // Uses copy-on-write reflinks when the filesystem supports them and optionally hard-links read-only assets.
+    static class ProjectCloner {
+        // Assets Godot only reads; the editor re-imports them instead of writing to them
+        static final Set<String> READ_ONLY_ASSETS = Set.of(
+            "png", "jpg", "jpeg", "webp", "svg", "tga", "bmp", "exr", "hdr",
+            "ogg", "wav", "mp3", "glb", "gltf", "fbx", "obj", "blend", "ttf", "otf", "woff", "woff2");
+        // Keep reflink command lines well below OS argument limits
+        private static final int REFLINK_BATCH = 200;
+
+        static class Result {
+            int files;
+            long bytes;
+            int reflinked;
+            int linked;
+            int copied;
+            long millis;
+        }
+
+        // Clones a project folder and renames the copy in its project.godot. A failed or cancelled clone
+        // removes the target folder again if it created it, so the same location can be retried.
+        static Result cloneProject(Path source, Path target, String name, boolean linkAssets,
+                                   ProgressListener listener) throws IOException {
+            boolean created = !Files.exists(target);
+            try {
+                Result result = copyTree(source, target, linkAssets, listener);
+                rewriteProjectFile(target, name, null);
+                return result;
+            } catch (IOException | RuntimeException e) {
+                if (created) FileOps.deleteTree(target);
+                throw e;
+            }
+        }
+
+        // Sets config/name and, unless featureVersion is null, the engine version in config/features
+        static void rewriteProjectFile(Path projectDir, String name, String featureVersion) throws IOException {
+            Path projectFile = projectDir.resolve("project.godot");
+            if (!Files.exists(projectFile)) return;
+            List<String> lines = Files.readAllLines(projectFile);
+            for (int i = 0; i < lines.size(); i++) {
+                String line = lines.get(i);
+                if (line.startsWith("config/name=")) {
+                    lines.set(i, "config/name=\"" + name.replace("\"", "\\\"") + "\"");
+                } else if (featureVersion != null && line.startsWith("config/features=")) {
+                    lines.set(i, line.replaceFirst("\"\\d+\\.\\d+\"", "\"" + featureVersion + "\""));
+                }
+            }
+            // Replace rather than rewrite in place, in case the file is shared with the source
+            Path temp = projectFile.resolveSibling("project.godot.tmp");
+            Files.write(temp, lines);
+            Files.move(temp, projectFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        static Result copyTree(Path source, Path target, boolean linkAssets, ProgressListener listener) throws IOException {
+            return copyTree(source, target, linkAssets,
+                dir -> FileOps.CACHE_DIRS.contains(dir.getFileName().toString()), listener);
+        }
+
+        // skipDir gets directory paths relative to source
+        static Result copyTree(Path source, Path target, boolean linkAssets, java.util.function.Predicate<Path> skipDir,
+                               ProgressListener listener) throws IOException {
+            // A target inside the source would be created while the walk runs and copied into itself
+            if (target.toAbsolutePath().normalize().startsWith(source.toAbsolutePath().normalize())) {
+                throw new IOException("Cannot copy " + source + " into a folder inside it: " + target);
+            }
+            long start = System.currentTimeMillis();
+            Map<Path, List<Path>> filesByDir = new LinkedHashMap<>();
+            AtomicLong totalBytes = new AtomicLong();
+            Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                    if (!dir.equals(source) && skipDir.test(source.relativize(dir))) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    Files.createDirectories(target.resolve(source.relativize(dir)));
+                    filesByDir.put(dir, new ArrayList<>());
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (attrs.isRegularFile()) {
+                        filesByDir.get(file.getParent()).add(file);
+                        totalBytes.addAndGet(attrs.size());
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+
+            // Split every directory into batches of links and batches of copies
+            List<List<Path>> copyBatches = new ArrayList<>();
+            List<Path> linkFiles = new ArrayList<>();
+            for (List<Path> files : filesByDir.values()) {
+                List<Path> batch = new ArrayList<>();
+                for (Path file : files) {
+                    if (linkAssets && READ_ONLY_ASSETS.contains(extension(file))) {
+                        linkFiles.add(file);
+                        continue;
+                    }
+                    batch.add(file);
+                    if (batch.size() == REFLINK_BATCH) {
+                        copyBatches.add(batch);
+                        batch = new ArrayList<>();
+                    }
+                }
+                if (!batch.isEmpty()) copyBatches.add(batch);
+            }
+
+            Result result = new Result();
+            result.bytes = totalBytes.get();
+            int total = linkFiles.size() + copyBatches.stream().mapToInt(List::size).sum();
+            result.files = total;
+            AtomicLong done = new AtomicLong();
+            AtomicLong reflinked = new AtomicLong();
+            AtomicLong linked = new AtomicLong();
+            AtomicLong copied = new AtomicLong();
+            // Reflink support is probed by the first batch and remembered for the rest
+            Boolean[] reflinkSupported = {reflinkCommand() == null ? Boolean.FALSE : null};
+            // Set on the first failure or cancellation; the stream rethrows it while other workers may still
+            // be running, and they skip what is left instead of writing into a target about to be deleted
+            AtomicBoolean stop = new AtomicBoolean();
+
+            try {
+                copyFiles(source, target, linkFiles, copyBatches, reflinkSupported, stop, listener, total,
+                    done, reflinked, linked, copied);
+            } catch (RuntimeException e) {
+                stop.set(true);
+                throw e;
+            }
+
+            result.reflinked = (int) reflinked.get();
+            result.linked = (int) linked.get();
+            result.copied = (int) copied.get();
+            result.millis = System.currentTimeMillis() - start;
+            return result;
+        }
+
+        private static void copyFiles(Path source, Path target, List<Path> linkFiles, List<List<Path>> copyBatches,
+                                      Boolean[] reflinkSupported, AtomicBoolean stop, ProgressListener listener,
+                                      int total, AtomicLong done, AtomicLong reflinked, AtomicLong linked,
+                                      AtomicLong copied) {
+            linkFiles.parallelStream().forEach(file -> {
+                if (stop.get()) return;
+                Path dest = target.resolve(source.relativize(file));
+                try {
+                    try {
+                        Files.createLink(dest, file);
+                        linked.incrementAndGet();
+                    } catch (IOException | UnsupportedOperationException e) {
+                        Files.copy(file, dest, StandardCopyOption.COPY_ATTRIBUTES);
+                        copied.incrementAndGet();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                report(listener, done.incrementAndGet(), total);
+            });
+
+            copyBatches.parallelStream().forEach(batch -> {
+                if (stop.get()) return;
+                Path destDir = target.resolve(source.relativize(batch.get(0).getParent()));
+                try {
+                    if (reflinkSupported[0] != Boolean.FALSE) {
+                        boolean ok = reflinkBatch(batch, destDir, () ->
+                            listener.progress("Copying: " + done.get() + " / " + total + " files", done.get(), total));
+                        synchronized (reflinkSupported) {
+                            if (reflinkSupported[0] == null) reflinkSupported[0] = ok;
+                        }
+                        if (ok) {
+                            reflinked.addAndGet(batch.size());
+                            report(listener, done.addAndGet(batch.size()), total);
+                            return;
+                        }
+                    }
+                    for (Path file : batch) {
+                        if (stop.get()) return;
+                        Files.copy(file, destDir.resolve(file.getFileName()),
+                            StandardCopyOption.COPY_ATTRIBUTES, StandardCopyOption.REPLACE_EXISTING);
+                        copied.incrementAndGet();
+                        report(listener, done.incrementAndGet(), total);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+
+        private static void report(ProgressListener listener, long done, long total) {
+            if (done % 64 == 0 || done == total) {
+                listener.progress("Copying: " + done + " / " + total + " files", done, total);
+            }
+        }
+
+        static String extension(Path file) {
+            String name = file.getFileName().toString();
+            int dot = name.lastIndexOf('.');
+            return dot < 0 ? "" : name.substring(dot + 1).toLowerCase();
+        }
+
+        // Java has no reflink API, so the platform cp is used where it can clone blocks
+        static List<String> reflinkCommand() {
+            String os = System.getProperty("os.name").toLowerCase();
+            if (os.contains("linux")) return List.of("cp", "--reflink=always", "--preserve=timestamps");
+            if (os.contains("mac")) return List.of("cp", "-c", "-p");
+            return null;
+        }
+
+        // False when cp fails, so the batch is copied instead. checkCancelled runs while cp works and throws
+        // CancellationException once the task is cancelled, as progress reports do; cancellation and
+        // interruption stop cp and are rethrown rather than turned into a fallback copy.
+        private static boolean reflinkBatch(List<Path> files, Path destDir, Runnable checkCancelled) throws IOException {
+            List<String> command = new ArrayList<>(reflinkCommand());
+            for (Path file : files) command.add(file.toString());
+            command.add(destDir.toString() + File.separator);
+            Process process;
+            try {
+                process = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            } catch (IOException e) {
+                return false;
+            }
+            try {
+                while (!process.waitFor(250, TimeUnit.MILLISECONDS)) {
+                    checkCancelled.run();
+                }
+                return process.exitValue() == 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Copy cancelled");
+            } finally {
+                if (process.isAlive()) process.destroyForcibly();
+            }
+        }
+    }
+
+    // Library of project templates for new projects. Built-in templates are generated for the chosen
+    // engine; user templates live in <root>/<id>/ as template.cfg plus a project/ tree saved from an
+    // existing project together with its import cache, so the editor opens a new copy without
+    // re-importing every asset.
+    static class ProjectTemplates {
+        private static final String BUILT_IN_EMPTY = "Empty";
+        private static final String BUILT_IN_2D = "2D Starter";
+        private static final String BUILT_IN_3D = "3D Starter";
+        // Per-user editor state and GPU specific shaders are not worth shipping in a template
+        private static final Set<String> TRANSIENT_CACHE = Set.of("editor", "shader_cache");
+
+        static class Template {
+            final String name;
+            final String description;
+            // major.minor of the engine the template was saved with; empty for built-ins
+            final String engine;
+            // null for built-ins
+            final Path dir;
+
+            Template(String name, String description, String engine, Path dir) {
+                this.name = name;
+                this.description = description;
+                this.engine = engine;
+                this.dir = dir;
+            }
+
+            boolean isBuiltIn() {
+                return dir == null;
+            }
+
+            // Import caches are only reusable within a major version
+            boolean appliesTo(String engineVersion) {
+                return engine.isEmpty() || major(engine).equals(major(engineVersion));
+            }
+
+            @Override
+            public String toString() {
+                return isBuiltIn() ? name : name + " (saved with " + engine + ")";
+            }
+        }
+
+        private final Path root;
+
+        ProjectTemplates(Path root) {
+            this.root = root;
+        }
+
+        // Built-ins first, then the library sorted by name
+        List<Template> list() {
+            List<Template> templates = new ArrayList<>();
+            templates.add(new Template(BUILT_IN_EMPTY, "Only project.godot", "", null));
+            templates.add(new Template(BUILT_IN_2D, "Main 2D scene with a script", "", null));
+            templates.add(new Template(BUILT_IN_3D, "Main 3D scene with a camera and a light", "", null));
+            templates.addAll(library());
+            return templates;
+        }
+
+        List<Template> library() {
+            List<Template> templates = new ArrayList<>();
+            if (!Files.isDirectory(root)) return templates;
+            try (Stream<Path> dirs = Files.list(root)) {
+                for (Path dir : dirs.sorted().collect(Collectors.toList())) {
+                    Path cfg = dir.resolve("template.cfg");
+                    if (!Files.isRegularFile(cfg) || !Files.isDirectory(dir.resolve("project"))) continue;
+                    Map<String, String> values = new HashMap<>();
+                    for (String line : Files.readAllLines(cfg, java.nio.charset.StandardCharsets.UTF_8)) {
+                        int eq = line.indexOf('=');
+                        if (eq > 0) values.put(line.substring(0, eq), line.substring(eq + 1));
+                    }
+                    templates.add(new Template(values.getOrDefault("name", dir.getFileName().toString()),
+                        values.getOrDefault("description", ""), values.getOrDefault("engine", ""), dir));
+                }
+            } catch (IOException e) {
+                System.err.println("Could not read project templates: " + e.getMessage());
+            }
+            templates.sort(Comparator.comparing(t -> t.name.toLowerCase()));
+            return templates;
+        }
+
+        List<Template> forEngine(String engineVersion) {
+            return list().stream().filter(t -> t.appliesTo(engineVersion)).collect(Collectors.toList());
+        }
+
+        // Creates a project in target, which must not exist or be empty. Library templates are copied
+        // with their import cache; read-only assets are hard-linked when linkAssets is set.
+        ProjectCloner.Result instantiate(Template template, Path target, String name, String engineVersion,
+                                         boolean linkAssets, ProgressListener listener) throws IOException {
+            if (Files.isDirectory(target)) {
+                try (Stream<Path> entries = Files.list(target)) {
+                    if (entries.findAny().isPresent()) throw new IOException("Target folder is not empty: " + target);
+                }
+            }
+            boolean created = !Files.exists(target);
+            try {
+                ProjectCloner.Result result;
+                if (template.isBuiltIn()) {
+                    result = writeBuiltIn(template.name, target, engineVersion);
+                } else {
+                    result = ProjectCloner.copyTree(template.dir.resolve("project"), target, linkAssets, dir -> false, listener);
+                }
+                ProjectCloner.rewriteProjectFile(target, name, featureVersion(engineVersion));
+                return result;
+            } catch (IOException | RuntimeException e) {
+                if (created) FileOps.deleteTree(target);
+                throw e;
+            }
+        }
+
+        // Saves a project to the library, including its import cache but not VCS or editor state
+        Template save(Path project, String name, String description, String engineVersion,
+                      ProgressListener listener) throws IOException {
+            Files.createDirectories(root);
+            String base = name.replaceAll("[^A-Za-z0-9._-]+", "_");
+            Path dir = root.resolve(base);
+            for (int i = 2; Files.exists(dir); i++) dir = root.resolve(base + "_" + i);
+            try {
+                ProjectCloner.copyTree(project, dir.resolve("project"), false, ProjectTemplates::excluded, listener);
+                String engine = featureVersion(engineVersion);
+                Files.write(dir.resolve("template.cfg"), List.of(
+                    "name=" + name.replace('\n', ' '),
+                    "description=" + description.replace('\n', ' '),
+                    "engine=" + engine), java.nio.charset.StandardCharsets.UTF_8);
+                return new Template(name, description, engine, dir);
+            } catch (IOException | RuntimeException e) {
+                FileOps.deleteTree(dir);
+                throw e;
+            }
+        }
+
+        void delete(Template template) throws IOException {
+            if (!template.isBuiltIn()) FileOps.deleteTree(template.dir);
+        }
+
+        static boolean hasImportCache(Template template) {
+            if (template.isBuiltIn()) return false;
+            Path project = template.dir.resolve("project");
+            return Files.isDirectory(project.resolve(".godot").resolve("imported"))
+                || Files.isDirectory(project.resolve(".import"));
+        }
+
+        // Hidden folders such as .git are left out, except the import cache itself
+        private static boolean excluded(Path dir) {
+            String name = dir.getFileName().toString();
+            if (dir.getNameCount() == 2 && dir.getName(0).toString().equals(".godot")) return TRANSIENT_CACHE.contains(name);
+            return name.startsWith(".") && !(dir.getNameCount() == 1 && FileOps.CACHE_DIRS.contains(name));
+        }
+
+        // "4.2.2" -> "4.2", the form used in config/features
+        static String featureVersion(String engineVersion) {
+            String[] parts = EngineValidator.numericVersion(engineVersion).split("\\.");
+            return parts.length >= 2 ? parts[0] + "." + parts[1] : parts[0] + ".0";
+        }
+
+        private static String major(String version) {
+            return EngineValidator.numericVersion(version).split("\\.")[0];
+        }
+
+        private static ProjectCloner.Result writeBuiltIn(String kind, Path target, String engineVersion) throws IOException {
+            long start = System.currentTimeMillis();
+            boolean godot3 = major(engineVersion).equals("3");
+            Map<String, String> files = new LinkedHashMap<>();
+            StringBuilder config = new StringBuilder()
+                .append("; Engine configuration file.\n")
+                .append("; It's best edited using the editor UI and not directly,\n")
+                .append("; since the parameters that go here are not all obvious.\n\n")
+                .append("config_version=").append(godot3 ? 4 : 5).append("\n\n")
+                .append("[application]\n\n")
+                .append("config/name=\"\"\n");
+            if (!kind.equals(BUILT_IN_EMPTY)) config.append("run/main_scene=\"res://main.tscn\"\n");
+            if (!godot3) {
+                config.append("config/features=PackedStringArray(\"").append(featureVersion(engineVersion)).append("\", \"Forward Plus\")\n");
+                config.append("config/icon=\"res://icon.svg\"\n");
+                files.put("icon.svg", ICON_SVG);
+            }
+            files.put("project.godot", config.toString());
+
+            if (!kind.equals(BUILT_IN_EMPTY)) {
+                boolean is3d = kind.equals(BUILT_IN_3D);
+                String root = is3d ? (godot3 ? "Spatial" : "Node3D") : "Node2D";
+                files.put("main.gd", "extends " + root + "\n\n\nfunc _ready()" + (godot3 ? "" : " -> void") + ":\n\tpass\n");
+                StringBuilder scene = new StringBuilder();
+                if (godot3) {
+                    scene.append("[gd_scene load_steps=2 format=2]\n\n")
+                        .append("[ext_resource path=\"res://main.gd\" type=\"Script\" id=1]\n\n")
+                        .append("[node name=\"Main\" type=\"").append(root).append("\"]\n")
+                        .append("script = ExtResource( 1 )\n");
+                } else {
+                    scene.append("[gd_scene load_steps=2 format=3]\n\n")
+                        .append("[ext_resource type=\"Script\" path=\"res://main.gd\" id=\"1\"]\n\n")
+                        .append("[node name=\"Main\" type=\"").append(root).append("\"]\n")
+                        .append("script = ExtResource(\"1\")\n");
+                }
+                if (is3d) {
+                    String camera = godot3 ? "Camera" : "Camera3D";
+                    String light = godot3 ? "DirectionalLight" : "DirectionalLight3D";
+                    String transform = godot3 ? "Transform( " : "Transform3D(";
+                    String close = godot3 ? " )" : ")";
+                    scene.append("\n[node name=\"").append(camera).append("\" type=\"").append(camera).append("\" parent=\".\"]\n")
+                        .append("transform = ").append(transform).append("1, 0, 0, 0, 1, 0, 0, 0, 1, 0, 1, 4").append(close).append("\n")
+                        .append("\n[node name=\"").append(light).append("\" type=\"").append(light).append("\" parent=\".\"]\n")
+                        .append("transform = ").append(transform)
+                        .append("1, 0, 0, 0, 0.707107, 0.707107, 0, -0.707107, 0.707107, 0, 4, 0").append(close).append("\n");
+                }
+                files.put("main.tscn", scene.toString());
+            }
+
+            Files.createDirectories(target);
+            ProjectCloner.Result result = new ProjectCloner.Result();
+            for (Map.Entry<String, String> file : files.entrySet()) {
+                byte[] bytes = file.getValue().getBytes(java.nio.charset.StandardCharsets.UTF_8);
+                Files.write(target.resolve(file.getKey()), bytes);
+                result.files++;
+                result.copied++;
+                result.bytes += bytes.length;
+            }
+            result.millis = System.currentTimeMillis() - start;
+            return result;
+        }
+
+        private static final String ICON_SVG =
+            "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"128\" height=\"128\">" +
+            "<rect x=\"2\" y=\"2\" width=\"124\" height=\"124\" rx=\"14\" fill=\"#363d52\" stroke=\"#212532\" stroke-width=\"4\"/>" +
+            "<circle cx=\"64\" cy=\"64\" r=\"36\" fill=\"#478cbf\"/></svg>\n";
+    }
+
+    // Streams a project into a zip archive, deflating each file in independent chunks on several cores.
+    // Like pigz, each chunk is primed with the last 32 KB of the previous one and ends on a sync flush,
+    // so the concatenated chunks form a single valid deflate stream.
+    static class ArchiveExporter {
+        // Formats that are already compressed and gain nothing from deflate
+        static final Set<String> PRECOMPRESSED = Set.of(
+            "png", "jpg", "jpeg", "webp", "ogg", "oga", "mp3", "mp4", "ogv", "webm",
+            "zip", "pck", "gz", "7z", "ctex", "woff2");
+        static final int CHUNK_SIZE = 256 * 1024;
+        static final int DICTIONARY_SIZE = 32 * 1024;
+        private static final long ZIP64_LIMIT = 0xFFFFFFFFL;
+        // Deflate can slightly expand incompressible data, so switch to zip64 a little early
+        private static final long ZIP64_THRESHOLD = ZIP64_LIMIT - 64 * 1024 * 1024;
+
+        static class Result {
+            int files;
+            long inputBytes;
+            long outputBytes;
+            long millis;
+
+            double megabytesPerSecond() {
+                return millis == 0 ? 0 : inputBytes / 1048576.0 / (millis / 1000.0);
+            }
+        }
+
+        private static class CentralEntry {
+            byte[] name;
+            int method;
+            int flags;
+            long dosTime;
+            long crc;
+            long compressedSize;
+            long size;
+            long offset;
+        }
+
+        // Written to a .part file next to the target and moved over it only once complete, so a cancelled or
+        // failed export leaves any existing archive as it was
+        static Result export(Path project, Path zipFile, boolean storePrecompressed, int threads,
+                             ProgressListener listener) throws IOException {
+            long start = System.currentTimeMillis();
+            Path absoluteZip = zipFile.toAbsolutePath();
+            Path temp = absoluteZip.resolveSibling(absoluteZip.getFileName() + ".part");
+            List<Path> files = new ArrayList<>();
+            for (Path file : SnapshotStore.listFiles(project)) {
+                Path absolute = file.toAbsolutePath();
+                if (!absolute.equals(absoluteZip) && !absolute.equals(temp)) files.add(file);
+            }
+            long sum = 0;
+            for (Path file : files) sum += Files.size(file);
+            long totalBytes = sum;
+
+            String rootName = project.getFileName().toString() + "/";
+            ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads));
+            Result result = new Result();
+            boolean complete = false;
+            try {
+                // Stored entries need their CRC before the local header is written
+                Map<Path, Long> storedCrcs = new ConcurrentHashMap<>();
+                List<Future<?>> crcJobs = new ArrayList<>();
+                for (Path file : files) {
+                    if (storePrecompressed && PRECOMPRESSED.contains(ProjectCloner.extension(file))) {
+                        crcJobs.add(pool.submit(() -> {
+                            storedCrcs.put(file, crc32(file));
+                            return null;
+                        }));
+                    }
+                }
+                for (Future<?> job : crcJobs) await(job);
+
+                List<CentralEntry> central = new ArrayList<>();
+                long[] written = {0};
+                try (CountingOutputStream out = new CountingOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(temp), 1 << 20))) {
+                    Pipeline pipeline = new Pipeline(out, pool, threads);
+                    for (Path file : files) {
+                        String name = rootName + project.relativize(file).toString().replace('\\', '/');
+                        CentralEntry entry = new CentralEntry();
+                        entry.name = name.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+                        entry.dosTime = dosTime(Files.getLastModifiedTime(file).toMillis());
+                        entry.size = Files.size(file);
+                        central.add(entry);
+                        Long crc = storedCrcs.get(file);
+                        if (crc != null) {
+                            entry.method = ZipEntry.STORED;
+                            entry.crc = crc;
+                            entry.compressedSize = entry.size;
+                            pipeline.write(o -> writeStored(o, entry, file));
+                        } else {
+                            entry.method = ZipEntry.DEFLATED;
+                            writeDeflated(pipeline, entry, file);
+                        }
+                        int count = central.size();
+                        pipeline.write(o -> {
+                            written[0] += entry.size;
+                            listener.progress("Compressing: " + count + " / " + files.size() + " files",
+                                written[0], totalBytes);
+                        });
+                    }
+                    pipeline.flush();
+                    writeCentralDirectory(out, central);
+                    result.outputBytes = out.count;
+                }
+                try {
+                    Files.move(temp, absoluteZip, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, absoluteZip, StandardCopyOption.REPLACE_EXISTING);
+                }
+                complete = true;
+                result.files = central.size();
+                result.inputBytes = written[0];
+            } finally {
+                pool.shutdownNow();
+                if (!complete) {
+                    try {
+                        Files.deleteIfExists(temp);
+                    } catch (IOException e) {
+                        System.err.println("Could not delete " + temp + ": " + e.getMessage());
+                    }
+                }
+            }
+            result.millis = System.currentTimeMillis() - start;
+            return result;
+        }
+
+        // Output in archive order, with deflate jobs of any number of files in flight at once. Without
+        // this, a project of many small files would compress one file, and so one core, at a time.
+        // Memory is bounded by the input bytes of unwritten chunks and by their count.
+        private static class Pipeline {
+            interface Piece {
+                void write(CountingOutputStream out) throws IOException;
+            }
+
+            private final CountingOutputStream out;
+            private final ExecutorService pool;
+            private final ArrayDeque<Piece> pieces = new ArrayDeque<>();
+            private final long maxPendingBytes;
+            private final int maxPendingJobs;
+            private long pendingBytes;
+            private int pendingJobs;
+
+            Pipeline(CountingOutputStream out, ExecutorService pool, int threads) {
+                this.out = out;
+                this.pool = pool;
+                this.maxPendingBytes = Math.max(2, threads * 2L) * CHUNK_SIZE;
+                this.maxPendingJobs = Math.max(2, threads) * 64;
+            }
+
+            void write(Piece piece) {
+                pieces.add(piece);
+            }
+
+            void deflate(byte[] chunk, byte[] dictionary, boolean last) throws IOException {
+                Future<byte[]> job = pool.submit(() -> deflateChunk(chunk, dictionary, last));
+                int size = chunk.length;
+                pendingBytes += size;
+                pendingJobs++;
+                pieces.add(o -> {
+                    o.write(await(job));
+                    pendingBytes -= size;
+                    pendingJobs--;
+                });
+                while (pendingBytes > maxPendingBytes || pendingJobs > maxPendingJobs) {
+                    pieces.poll().write(out);
+                }
+            }
+
+            void flush() throws IOException {
+                while (!pieces.isEmpty()) pieces.poll().write(out);
+            }
+        }
+
+        private static void writeStored(CountingOutputStream out, CentralEntry entry, Path file) throws IOException {
+            boolean zip64 = entry.size >= ZIP64_LIMIT;
+            entry.flags = 0x0800;
+            entry.offset = out.count;
+            writeLocalHeader(out, entry, zip64, entry.crc, entry.size, entry.size);
+            long copied = Files.copy(file, out);
+            if (copied != entry.size) {
+                throw new IOException("File changed while exporting: " + file);
+            }
+        }
+
+        // Reads the file and queues its chunks; the header, data and descriptor are written as the
+        // pipeline reaches them
+        private static void writeDeflated(Pipeline pipeline, CentralEntry entry, Path file) throws IOException {
+            boolean zip64 = entry.size >= ZIP64_THRESHOLD;
+            // Sizes and CRC follow the data in a descriptor, so the file is only read once
+            entry.flags = 0x0808;
+            long[] dataStart = {0};
+            pipeline.write(out -> {
+                entry.offset = out.count;
+                writeLocalHeader(out, entry, zip64, 0, 0, 0);
+                dataStart[0] = out.count;
+            });
+
+            CRC32 crc = new CRC32();
+            long size = 0;
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(file), CHUNK_SIZE)) {
+                byte[] current = in.readNBytes(CHUNK_SIZE);
+                byte[] dictionary = null;
+                while (true) {
+                    byte[] next = current.length == CHUNK_SIZE ? in.readNBytes(CHUNK_SIZE) : new byte[0];
+                    boolean last = next.length == 0;
+                    crc.update(current);
+                    size += current.length;
+                    pipeline.deflate(current, dictionary, last);
+                    if (last) break;
+                    dictionary = Arrays.copyOfRange(current, Math.max(0, current.length - DICTIONARY_SIZE), current.length);
+                    current = next;
+                }
+            }
+
+            entry.crc = crc.getValue();
+            entry.size = size;
+            pipeline.write(out -> {
+                entry.compressedSize = out.count - dataStart[0];
+                writeInt(out, 0x08074b50L);
+                writeInt(out, entry.crc);
+                if (zip64) {
+                    writeLong(out, entry.compressedSize);
+                    writeLong(out, entry.size);
+                } else {
+                    writeInt(out, entry.compressedSize);
+                    writeInt(out, entry.size);
+                }
+            });
+        }
+
+        static byte[] deflateChunk(byte[] input, byte[] dictionary, boolean last) {
+            Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+            try {
+                if (dictionary != null) deflater.setDictionary(dictionary);
+                deflater.setInput(input);
+                if (last) deflater.finish();
+                ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2 + 64);
+                byte[] buffer = new byte[65536];
+                while (true) {
+                    int len = last ? deflater.deflate(buffer) : deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                    out.write(buffer, 0, len);
+                    if (last ? deflater.finished() : len < buffer.length) break;
+                }
+                return out.toByteArray();
+            } finally {
+                deflater.end();
+            }
+        }
+
+        private static void writeLocalHeader(OutputStream out, CentralEntry entry, boolean zip64,
+                                             long crc, long compressedSize, long size) throws IOException {
+            writeInt(out, 0x04034b50L);
+            writeShort(out, zip64 ? 45 : 20);
+            writeShort(out, entry.flags);
+            writeShort(out, entry.method);
+            writeInt(out, entry.dosTime);
+            writeInt(out, crc);
+            writeInt(out, zip64 ? ZIP64_LIMIT : compressedSize);
+            writeInt(out, zip64 ? ZIP64_LIMIT : size);
+            writeShort(out, entry.name.length);
+            writeShort(out, zip64 ? 20 : 0);
+            out.write(entry.name);
+            if (zip64) {
+                writeShort(out, 0x0001);
+                writeShort(out, 16);
+                writeLong(out, size);
+                writeLong(out, compressedSize);
+            }
+        }
+
+        private static void writeCentralDirectory(CountingOutputStream out, List<CentralEntry> entries) throws IOException {
+            long cdStart = out.count;
+            for (CentralEntry entry : entries) {
+                boolean sizeZip64 = entry.size >= ZIP64_LIMIT || entry.compressedSize >= ZIP64_LIMIT;
+                boolean offsetZip64 = entry.offset >= ZIP64_LIMIT;
+                int extraLength = (sizeZip64 ? 16 : 0) + (offsetZip64 ? 8 : 0);
+                writeInt(out, 0x02014b50L);
+                writeShort(out, extraLength > 0 ? 45 : 20);
+                writeShort(out, extraLength > 0 ? 45 : 20);
+                writeShort(out, entry.flags);
+                writeShort(out, entry.method);
+                writeInt(out, entry.dosTime);
+                writeInt(out, entry.crc);
+                writeInt(out, sizeZip64 ? ZIP64_LIMIT : entry.compressedSize);
+                writeInt(out, sizeZip64 ? ZIP64_LIMIT : entry.size);
+                writeShort(out, entry.name.length);
+                writeShort(out, extraLength > 0 ? extraLength + 4 : 0);
+                writeShort(out, 0);
+                writeShort(out, 0);
+                writeShort(out, 0);
+                writeInt(out, 0);
+                writeInt(out, offsetZip64 ? ZIP64_LIMIT : entry.offset);
+                out.write(entry.name);
+                if (extraLength > 0) {
+                    writeShort(out, 0x0001);
+                    writeShort(out, extraLength);
+                    if (sizeZip64) {
+                        writeLong(out, entry.size);
+                        writeLong(out, entry.compressedSize);
+                    }
+                    if (offsetZip64) writeLong(out, entry.offset);
+                }
+            }
+            long cdSize = out.count - cdStart;
+
+            boolean zip64 = entries.size() >= 0xFFFF || cdStart >= ZIP64_LIMIT || cdSize >= ZIP64_LIMIT;
+            if (zip64) {
+                long zip64End = out.count;
+                writeInt(out, 0x06064b50L);
+                writeLong(out, 44);
+                writeShort(out, 45);
+                writeShort(out, 45);
+                writeInt(out, 0);
+                writeInt(out, 0);
+                writeLong(out, entries.size());
+                writeLong(out, entries.size());
+                writeLong(out, cdSize);
+                writeLong(out, cdStart);
+                writeInt(out, 0x07064b50L);
+                writeInt(out, 0);
+                writeLong(out, zip64End);
+                writeInt(out, 1);
+            }
+            writeInt(out, 0x06054b50L);
+            writeShort(out, 0);
+            writeShort(out, 0);
+            writeShort(out, zip64 ? 0xFFFF : entries.size());
+            writeShort(out, zip64 ? 0xFFFF : entries.size());
+            writeInt(out, zip64 ? ZIP64_LIMIT : cdSize);
+            writeInt(out, zip64 ? ZIP64_LIMIT : cdStart);
+            writeShort(out, 0);
+        }
+
+        static long crc32(Path file) throws IOException {
+            CRC32 crc = new CRC32();
+            byte[] buffer = new byte[65536];
+            try (InputStream in = Files.newInputStream(file)) {
+                int len;
+                while ((len = in.read(buffer)) > 0) {
+                    crc.update(buffer, 0, len);
+                }
+            }
+            return crc.getValue();
+        }
+
+        private static long dosTime(long millis) {
+            LocalDateTime time = LocalDateTime.ofInstant(java.time.Instant.ofEpochMilli(millis), java.time.ZoneId.systemDefault());
+            if (time.getYear() < 1980) time = LocalDateTime.of(1980, 1, 1, 0, 0);
+            return ((long) (time.getYear() - 1980) << 25) | ((long) time.getMonthValue() << 21)
+                | ((long) time.getDayOfMonth() << 16) | ((long) time.getHour() << 11)
+                | ((long) time.getMinute() << 5) | (time.getSecond() >> 1);
+        }
+
+        private static <T> T await(Future<T> future) throws IOException {
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Export cancelled");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+                throw new IOException(e.getCause());
+            }
+        }
+
+        private static void writeShort(OutputStream out, int value) throws IOException {
+            out.write(value & 0xFF);
+            out.write((value >>> 8) & 0xFF);
+        }
+
+        private static void writeInt(OutputStream out, long value) throws IOException {
+            writeShort(out, (int) (value & 0xFFFF));
+            writeShort(out, (int) ((value >>> 16) & 0xFFFF));
+        }
+
+        private static void writeLong(OutputStream out, long value) throws IOException {
+            writeInt(out, value & 0xFFFFFFFFL);
+            writeInt(out, value >>> 32);
+        }
+
+        private static class CountingOutputStream extends FilterOutputStream {
+            long count;
+
+            CountingOutputStream(OutputStream out) {
+                super(out);
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+                count++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+                count += len;
+            }
+        }
+    }
+
+    // Resource dependency graph of a project: which scenes, resources, scripts and config files
+    // reference which files through res:// paths (ext_resource entries, preload/load calls,
+    // project settings) or uid:// ids. Text files are scanned as bytes in parallel, large ones
+    // through a memory map, and the references found are cached per file by size and mtime so a
+    // second run only re-reads files that changed. Files not reachable from project.godot,
+    // global class scripts or the default bus layout are reported as unused.
+    static class DependencyAnalyzer {
+        // Text formats that can reference other resources
+        static final Set<String> PARSED = Set.of("tscn", "tres", "gd", "gdshader", "gdshaderinc", "cfg", "godot");
+        // Sidecars that only declare the uid of the file next to them
+        static final Set<String> SIDECARS = Set.of("import", "uid");
+        // Smaller files are cheaper to read than to map
+        static final long MAP_THRESHOLD = 64 * 1024;
+        private static final byte[] RES = "res://".getBytes(java.nio.charset.StandardCharsets.US_ASCII);
+        private static final byte[] UID = "uid://".getBytes(java.nio.charset.StandardCharsets.US_ASCII);
+        private static final byte[] CLASS_NAME = "class_name".getBytes(java.nio.charset.StandardCharsets.US_ASCII);
+
+        static class FileInfo {
+            final String path;
+            final long size;
+            final long mtime;
+            // Project-relative paths, and uid://... ids for uid references
+            List<String> references = List.of();
+            String uid = "";
+            boolean namedClass;
+
+            FileInfo(String path, long size, long mtime) {
+                this.path = path;
+                this.size = size;
+                this.mtime = mtime;
+            }
+        }
+
+        static class Component {
+            final List<String> files = new ArrayList<>();
+            long bytes;
+            // The member that references the most others, usually the top-level scene
+            String main;
+        }
+
+        static class Report {
+            int files;
+            int parsed;
+            int cached;
+            long millis;
+            final Map<String, Set<String>> references = new TreeMap<>();
+            final Map<String, Set<String>> referencedBy = new TreeMap<>();
+            final List<FileInfo> unused = new ArrayList<>();
+            long unusedBytes;
+            final List<Component> components = new ArrayList<>();
+            // File -> references that point nowhere
+            final Map<String, List<String>> missing = new TreeMap<>();
+        }
+
+        private final Path cacheDir;
+
+        DependencyAnalyzer(Path cacheDir) {
+            this.cacheDir = cacheDir;
+        }
+
+        Report analyze(Path project, ProgressListener listener) throws IOException {
+            long start = System.currentTimeMillis();
+            Report report = new Report();
+            ProjectScanEvent event = new ProjectScanEvent();
+            event.operation = "Dependency analysis";
+            event.root = project.toString();
+            try (Diagnostics.Span span = Diagnostics.begin("Dependency analysis", event)) {
+                listener.progress("Listing files...", 0, 0);
+                Map<String, FileInfo> files = walk(project);
+                report.files = files.size();
+
+                // Reuse cached references for unchanged files, parse the rest in parallel
+                Map<String, FileInfo> cache = readCache(project);
+                List<FileInfo> toParse = new ArrayList<>();
+                for (FileInfo info : files.values()) {
+                    if (!PARSED.contains(extension(info.path)) && !SIDECARS.contains(extension(info.path))) continue;
+                    FileInfo cached = cache.get(info.path);
+                    if (cached != null && cached.size == info.size && cached.mtime == info.mtime) {
+                        info.references = cached.references;
+                        info.uid = cached.uid;
+                        info.namedClass = cached.namedClass;
+                        report.cached++;
+                    } else {
+                        toParse.add(info);
+                    }
+                }
+                AtomicInteger done = new AtomicInteger();
+                List<IOException> errors = Collections.synchronizedList(new ArrayList<>());
+                toParse.parallelStream().forEach(info -> {
+                    try {
+                        parse(project, info);
+                    } catch (IOException e) {
+                        errors.add(e);
+                    }
+                    int count = done.incrementAndGet();
+                    if (count % 64 == 0 || count == toParse.size()) {
+                        listener.progress("Parsing " + info.path + "...", count, toParse.size());
+                    }
+                });
+                if (!errors.isEmpty()) throw errors.get(0);
+                report.parsed = toParse.size();
+                writeCache(project, files.values());
+
+                listener.progress("Building graph...", 0, 0);
+                buildGraph(files, report);
+                report.millis = System.currentTimeMillis() - start;
+                event.files = report.files;
+                span.complete(files.values().stream().mapToLong(info -> info.size).sum());
+            }
+            return report;
+        }
+
+        // Project files by res:// relative path; skips editor caches, hidden and .gdignore'd folders
+        static Map<String, FileInfo> walk(Path project) throws IOException {
+            Map<String, FileInfo> files = new LinkedHashMap<>();
+            Files.walkFileTree(project, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    if (dir.equals(project)) return FileVisitResult.CONTINUE;
+                    String name = dir.getFileName().toString();
+                    if (name.startsWith(".") || FileOps.CACHE_DIRS.contains(name) || Files.exists(dir.resolve(".gdignore"))) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (attrs.isRegularFile() && !file.getFileName().toString().startsWith(".")) {
+                        String path = project.relativize(file).toString().replace(File.separatorChar, '/');
+                        files.put(path, new FileInfo(path, attrs.size(), attrs.lastModifiedTime().toMillis()));
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+            return files;
+        }
+
+        static void parse(Path project, FileInfo info) throws IOException {
+            Path file = project.resolve(info.path);
+            ByteBuffer buffer;
+            if (info.size >= MAP_THRESHOLD) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+            } else {
+                buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+            }
+
+            String extension = extension(info.path);
+            Set<String> references = new LinkedHashSet<>();
+            String declaredUid = "";
+            int limit = buffer.limit();
+            boolean firstLine = true;
+            for (int i = 0; i < limit; i++) {
+                byte b = buffer.get(i);
+                if (b == '\n') {
+                    firstLine = false;
+                } else if (b == 'r' && matches(buffer, i, RES)) {
+                    int end = tokenEnd(buffer, i, i + RES.length);
+                    String path = decode(buffer, i + RES.length, end);
+                    if (!SIDECARS.contains(extension)) references.add(path);
+                    i = end - 1;
+                } else if (b == 'u' && matches(buffer, i, UID)) {
+                    int end = tokenEnd(buffer, i, i);
+                    String uid = decode(buffer, i, end);
+                    // A scene or resource declares its own uid in the header line; sidecars only declare
+                    if (SIDECARS.contains(extension) || (firstLine && declaredUid.isEmpty()
+                            && (extension.equals("tscn") || extension.equals("tres")))) {
+                        declaredUid = uid;
+                    } else {
+                        references.add(uid);
+                    }
+                    i = end - 1;
+                } else if (b == 'c' && extension.equals("gd") && (i == 0 || buffer.get(i - 1) == '\n')
+                        && matches(buffer, i, CLASS_NAME)) {
+                    // Global classes are used by name, not by path
+                    info.namedClass = true;
+                }
+            }
+
+            // Editor plugins name their script relative to plugin.cfg
+            if (info.path.endsWith("plugin.cfg")) {
+                String text = decode(buffer, 0, limit);
+                java.util.regex.Matcher m = java.util.regex.Pattern.compile("(?m)^script=\"([^\"]+)\"").matcher(text);
+                if (m.find() && !m.group(1).startsWith("res://")) {
+                    int slash = info.path.lastIndexOf('/');
+                    references.add((slash >= 0 ? info.path.substring(0, slash + 1) : "") + m.group(1));
+                }
+            }
+
+            List<String> cleaned = new ArrayList<>();
+            for (String reference : references) {
+                // Sub-resources (res://a.tscn::1) belong to their file
+                int sub = reference.indexOf("::");
+                String path = sub >= 0 ? reference.substring(0, sub) : reference;
+                // Skip paths built at runtime, folders and the import cache
+                if (path.isEmpty() || path.endsWith("/") || path.contains("%") || path.contains("{")
+                        || path.startsWith(".godot/") || path.startsWith(".import/")) continue;
+                cleaned.add(path);
+            }
+            info.references = List.copyOf(new LinkedHashSet<>(cleaned));
+            info.uid = declaredUid;
+        }
+
+        private static boolean matches(ByteBuffer buffer, int offset, byte[] pattern) {
+            if (offset + pattern.length > buffer.limit()) return false;
+            for (int i = 0; i < pattern.length; i++) {
+                if (buffer.get(offset + i) != pattern[i]) return false;
+            }
+            return true;
+        }
+
+        // A quoted token (the usual case) runs to its closing quote, so paths may contain spaces and
+        // non-ASCII characters; an unquoted one ends at whitespace or punctuation
+        private static int tokenEnd(ByteBuffer buffer, int start, int offset) {
+            int quote = start > 0 ? buffer.get(start - 1) : 0;
+            boolean quoted = quote == '"' || quote == '\'';
+            int end = offset;
+            while (end < buffer.limit()) {
+                int b = buffer.get(end) & 0xFF;
+                if (quoted ? b == quote || b == '\n' : b == '"' || b == '\'' || b == ')' || b == ']' || b == ','
+                        || b == ';' || b == '<' || b == '>' || b == '`' || b <= ' ') break;
+                end++;
+            }
+            return end;
+        }
+
+        private static String decode(ByteBuffer buffer, int from, int to) {
+            byte[] bytes = new byte[to - from];
+            buffer.get(from, bytes);
+            return new String(bytes, java.nio.charset.StandardCharsets.UTF_8);
+        }
+
+        private static void buildGraph(Map<String, FileInfo> files, Report report) {
+            // Sidecars give the uid of the file they sit next to
+            Map<String, String> uids = new HashMap<>();
+            for (FileInfo info : files.values()) {
+                if (info.uid.isEmpty()) continue;
+                String extension = extension(info.path);
+                String owner = SIDECARS.contains(extension)
+                    ? info.path.substring(0, info.path.length() - extension.length() - 1)
+                    : info.path;
+                uids.put(info.uid, owner);
+            }
+
+            List<String> nodes = new ArrayList<>();
+            for (FileInfo info : files.values()) {
+                if (!isAsset(info.path)) continue;
+                nodes.add(info.path);
+                for (String reference : info.references) {
+                    String target = reference.startsWith("uid://") ? uids.get(reference) : reference;
+                    if (target == null || !files.containsKey(target)) {
+                        // Unknown uids are usually built-in or editor-generated; only report paths
+                        if (!reference.startsWith("uid://")) {
+                            report.missing.computeIfAbsent(info.path, k -> new ArrayList<>()).add(reference);
+                        }
+                        continue;
+                    }
+                    if (target.equals(info.path)) continue;
+                    report.references.computeIfAbsent(info.path, k -> new TreeSet<>()).add(target);
+                    report.referencedBy.computeIfAbsent(target, k -> new TreeSet<>()).add(info.path);
+                }
+            }
+
+            // Everything reachable from what the engine loads on its own is in use
+            Deque<String> queue = new ArrayDeque<>();
+            Set<String> reachable = new HashSet<>();
+            for (FileInfo info : files.values()) {
+                if (info.path.equals("project.godot") || info.path.equals("default_bus_layout.tres") || info.namedClass) {
+                    if (reachable.add(info.path)) queue.add(info.path);
+                }
+            }
+            while (!queue.isEmpty()) {
+                for (String target : report.references.getOrDefault(queue.poll(), Set.of())) {
+                    if (reachable.add(target)) queue.add(target);
+                }
+            }
+            for (String path : nodes) {
+                if (!reachable.contains(path) && !path.equals("export_presets.cfg")) {
+                    FileInfo info = files.get(path);
+                    report.unused.add(info);
+                    report.unusedBytes += info.size;
+                }
+            }
+            report.unused.sort(Comparator.comparingLong((FileInfo info) -> info.size).reversed());
+
+            // Connected components, ignoring edge direction
+            Map<String, String> parent = new HashMap<>();
+            for (String node : nodes) parent.put(node, node);
+            for (Map.Entry<String, Set<String>> entry : report.references.entrySet()) {
+                for (String target : entry.getValue()) {
+                    parent.put(find(parent, entry.getKey()), find(parent, target));
+                }
+            }
+            Map<String, Component> components = new HashMap<>();
+            for (String node : nodes) {
+                Component component = components.computeIfAbsent(find(parent, node), k -> new Component());
+                component.files.add(node);
+                component.bytes += files.get(node).size;
+                int outgoing = report.references.getOrDefault(node, Set.of()).size();
+                if (component.main == null || outgoing > report.references.getOrDefault(component.main, Set.of()).size()) {
+                    component.main = node;
+                }
+            }
+            for (Component component : components.values()) {
+                if (component.files.size() > 1) report.components.add(component);
+            }
+            report.components.sort(Comparator.comparingLong((Component c) -> c.bytes).reversed());
+        }
+
+        private static String find(Map<String, String> parent, String node) {
+            String root = node;
+            while (!parent.get(root).equals(root)) root = parent.get(root);
+            // Path compression
+            while (!parent.get(node).equals(root)) {
+                String next = parent.get(node);
+                parent.put(node, root);
+                node = next;
+            }
+            return root;
+        }
+
+        private static String extension(String path) {
+            int dot = path.lastIndexOf('.');
+            return dot < path.lastIndexOf('/') + 1 ? "" : path.substring(dot + 1).toLowerCase();
+        }
+
+        // Sidecars and the import cache follow their source file and are not graph nodes
+        private static boolean isAsset(String path) {
+            return !SIDECARS.contains(extension(path));
+        }
+
+        // Format: path|size|mtime|flags|uid|references separated by tabs
+        private Path cacheFile(Path project) {
+            return cacheDir.resolve(FileOps.pathKey(project) + ".deps");
+        }
+
+        private Map<String, FileInfo> readCache(Path project) {
+            Map<String, FileInfo> cache = new HashMap<>();
+            Path file = cacheFile(project);
+            if (!Files.exists(file)) return cache;
+            try (BufferedReader reader = Files.newBufferedReader(file)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] parts = line.split("\\|", 6);
+                    if (parts.length < 6) continue;
+                    FileInfo info = new FileInfo(parts[0], Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+                    info.namedClass = parts[3].contains("c");
+                    info.uid = parts[4];
+                    info.references = parts[5].isEmpty() ? List.of() : List.of(parts[5].split("\t"));
+                    cache.put(info.path, info);
+                }
+            } catch (IOException | RuntimeException e) {
+                // A damaged cache only costs a full re-parse
+                cache.clear();
+            }
+            return cache;
+        }
+
+        private void writeCache(Path project, Collection<FileInfo> files) throws IOException {
+            Files.createDirectories(cacheDir);
+            Path file = cacheFile(project);
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temp)) {
+                for (FileInfo info : files) {
+                    String extension = extension(info.path);
+                    if (!PARSED.contains(extension) && !SIDECARS.contains(extension)) continue;
+                    writer.write(info.path + "|" + info.size + "|" + info.mtime + "|" + (info.namedClass ? "c" : "")
+                        + "|" + info.uid + "|" + String.join("\t", info.references));
+                    writer.newLine();
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // Scans a project for constructs known to break when its engine version changes, before the
+    // switch is committed. Only scripts, scenes, resources and project settings are read, line by
+    // line with a cap on line length, by a pool of workers fed from the directory walk through a
+    // bounded queue, so memory stays flat however large the tree is. Each rule has a literal hint
+    // that is checked before its regex, which keeps the per-line cost low.
+    static class CompatibilityChecker {
+        static final Set<String> SCANNED = Set.of("gd", "tscn", "tres", "godot", "cfg", "gdshader");
+        static final int MAX_LINE = 64 * 1024;
+        static final int MAX_FINDINGS_PER_FILE = 100;
+        static final int MAX_FINDINGS = 10_000;
+        private static final Path END = Paths.get("");
+
+        enum Severity { ERROR, WARNING }
+
+        static class Finding {
+            final String file;
+            final int line;
+            final Severity severity;
+            final String message;
+            final String text;
+
+            Finding(String file, int line, Severity severity, String message, String text) {
+                this.file = file;
+                this.line = line;
+                this.severity = severity;
+                this.message = message;
+                this.text = text;
+            }
+        }
+
+        static class Report {
+            int files;
+            long bytes;
+            int errors;
+            int warnings;
+            boolean truncated;
+            long millis;
+            final Map<String, List<Finding>> byFile = new TreeMap<>();
+        }
+
+        // from/to are {major, minor}
+        private static class Rule {
+            final java.util.function.BiPredicate<int[], int[]> applies;
+            final Set<String> extensions;
+            final String hint;
+            final java.util.regex.Pattern pattern;
+            final Severity severity;
+            final String message;
+
+            Rule(java.util.function.BiPredicate<int[], int[]> applies, Set<String> extensions, String hint,
+                 String regex, Severity severity, String message) {
+                this.applies = applies;
+                this.extensions = extensions;
+                this.hint = hint;
+                this.pattern = java.util.regex.Pattern.compile(regex);
+                this.severity = severity;
+                this.message = message;
+            }
+        }
+
+        private static final java.util.function.BiPredicate<int[], int[]> UPGRADE_3_TO_4 = (from, to) -> from[0] == 3 && to[0] >= 4;
+        private static final java.util.function.BiPredicate<int[], int[]> DOWNGRADE_4_TO_3 = (from, to) -> from[0] >= 4 && to[0] == 3;
+        private static final Set<String> SCRIPTS = Set.of("gd");
+        private static final Set<String> SCENES = Set.of("tscn", "tres");
+        private static final Set<String> PROJECT = Set.of("godot");
+
+        private static final List<Rule> RULES = List.of(
+            // Godot 3 -> 4: the editor converts project.godot and scenes once; scripts need manual fixes
+            new Rule(UPGRADE_3_TO_4, PROJECT, "config_version=4", "^config_version=4", Severity.WARNING,
+                "Project settings will be converted to the Godot 4 format; Godot 3 cannot open them afterwards"),
+            new Rule(UPGRADE_3_TO_4, SCENES, "format=2", "^\\[gd_(scene|resource)\\b.*\\bformat=2\\b", Severity.WARNING,
+                "Godot 3 scene format; converted once on open and unreadable by Godot 3 afterwards"),
+            new Rule(UPGRADE_3_TO_4, SCENES, "type=\"", "type=\"(KinematicBody2D|KinematicBody|Spatial|Particles2D|Particles|"
+                + "Navigation2D|Navigation|YSort|Position2D|Position3D|VisibilityNotifier2D|VisibilityNotifier|Listener|Listener2D)\"",
+                Severity.WARNING, "Node type renamed or removed in Godot 4"),
+            new Rule(UPGRADE_3_TO_4, SCRIPTS, "yield", "\\byield\\s*\\(", Severity.ERROR, "yield() was replaced by await"),
+            new Rule(UPGRADE_3_TO_4, SCRIPTS, "onready", "^\\s*onready\\s+var\\b", Severity.ERROR, "onready is now the @onready annotation"),
+            new Rule(UPGRADE_3_TO_4, SCRIPTS, "export", "^\\s*export(\\s*\\(|\\s+var\\b)", Severity.ERROR, "export is now the @export annotation"),
+            new Rule(UPGRADE_3_TO_4, SCRIPTS, "tool", "^tool\\s*$", Severity.ERROR, "tool is now the @tool annotation"),
+            new Rule(UPGRADE_3_TO_4, SCRIPTS, "setget", "\\bsetget\\b", Severity.ERROR, "setget was replaced by property set/get blocks"),
+            new Rule(UPGRADE_3_TO_4, SCRIPTS, "func", "^\\s*(remote|master|puppet|remotesync|mastersync|puppetsync)\\s+func\\b",
+                Severity.ERROR, "RPC keywords were replaced by the @rpc annotation"),
+            new Rule(UPGRADE_3_TO_4, SCRIPTS, "connect", "\\bconnect\\(\\s*\"[^\"]+\"\\s*,\\s*[^,()]+,\\s*\"", Severity.ERROR,
+                "connect(signal, target, \"method\") takes a Callable in Godot 4"),
+            new Rule(UPGRADE_3_TO_4, SCRIPTS, ".instance()", "\\.instance\\(\\)", Severity.ERROR, "instance() was renamed to instantiate()"),
+            new Rule(UPGRADE_3_TO_4, SCRIPTS, "KinematicBody", "\\bKinematicBody(2D)?\\b", Severity.ERROR,
+                "KinematicBody classes became CharacterBody2D/CharacterBody3D"),
+            new Rule(UPGRADE_3_TO_4, SCRIPTS, "Spatial", "\\bSpatial\\b", Severity.ERROR, "Spatial was renamed to Node3D"),
+            new Rule(UPGRADE_3_TO_4, SCRIPTS, "Pool", "\\bPool(Byte|Int|Real|String|Vector2|Vector3|Color)Array\\b", Severity.ERROR,
+                "Pool*Array types became Packed*Array"),
+            new Rule(UPGRADE_3_TO_4, SCRIPTS, "rand_range", "\\brand_range\\s*\\(", Severity.ERROR, "rand_range() became randf_range()"),
+            new Rule(UPGRADE_3_TO_4, SCRIPTS, "stepify", "\\bstepify\\s*\\(", Severity.ERROR, "stepify() became snapped()"),
+            new Rule(UPGRADE_3_TO_4, SCRIPTS, "2", "\\b(deg2rad|rad2deg)\\s*\\(", Severity.ERROR, "deg2rad()/rad2deg() became deg_to_rad()/rad_to_deg()"),
+            new Rule(UPGRADE_3_TO_4, SCRIPTS, ".new()", "\\b(File|Directory)\\.new\\(\\)", Severity.ERROR,
+                "File and Directory were replaced by FileAccess and DirAccess"),
+            new Rule(UPGRADE_3_TO_4, SCRIPTS, "change_scene", "\\.change_scene\\s*\\(", Severity.ERROR, "change_scene() became change_scene_to_file()"),
+            new Rule(UPGRADE_3_TO_4, SCRIPTS, "BUTTON_", "\\bBUTTON_(LEFT|RIGHT|MIDDLE|WHEEL_UP|WHEEL_DOWN)\\b", Severity.ERROR,
+                "BUTTON_* constants became MOUSE_BUTTON_*"),
+            new Rule(UPGRADE_3_TO_4, SCRIPTS, ".empty()", "\\.empty\\(\\)", Severity.ERROR, "empty() became is_empty()"),
+            new Rule(UPGRADE_3_TO_4, SCRIPTS, "funcref", "\\bfuncref\\s*\\(", Severity.ERROR, "funcref() was replaced by Callable"),
+            new Rule(UPGRADE_3_TO_4, SCRIPTS, "OS.get_", "OS\\.get_(ticks_msec|ticks_usec|unix_time|datetime)\\b", Severity.ERROR,
+                "Time functions moved from OS to the Time singleton"),
+
+            // Godot 4 -> 3: nothing saved by Godot 4 can be read back
+            new Rule(DOWNGRADE_4_TO_3, PROJECT, "config_version=5", "^config_version=5", Severity.ERROR,
+                "Godot 3 cannot open project settings saved by Godot 4"),
+            new Rule(DOWNGRADE_4_TO_3, SCENES, "format=3", "^\\[gd_(scene|resource)\\b.*\\bformat=3\\b", Severity.ERROR,
+                "Godot 4 scene format cannot be read by Godot 3"),
+            new Rule(DOWNGRADE_4_TO_3, SCRIPTS, "@", "^\\s*@(export|onready|tool|rpc)\\b", Severity.ERROR, "Annotations do not exist in Godot 3"),
+            new Rule(DOWNGRADE_4_TO_3, SCRIPTS, "await", "\\bawait\\b", Severity.ERROR, "await does not exist in Godot 3"),
+
+            // Within Godot 4
+            new Rule((from, to) -> from[0] == 4 && to[0] == 4 && from[1] < 3 && to[1] >= 3, SCENES, "TileMap\"",
+                "type=\"TileMap\"", Severity.WARNING, "TileMap is deprecated from Godot 4.3 in favour of TileMapLayer nodes"),
+            new Rule((from, to) -> from[0] == 4 && to[0] == 4 && from[1] >= 3 && to[1] < 3, SCENES, "TileMapLayer",
+                "type=\"TileMapLayer\"", Severity.ERROR, "TileMapLayer does not exist before Godot 4.3")
+        );
+
+        // Newer minor versions write properties older editors silently drop
+        private static final java.util.regex.Pattern FEATURES =
+            java.util.regex.Pattern.compile("^config/features=PackedStringArray\\(\"(\\d+)\\.(\\d+)\"");
+
+        static int[] parseVersion(String version) {
+            String[] parts = version.split("[.\\-]");
+            int major = parts.length > 0 ? parseInt(parts[0]) : 0;
+            int minor = parts.length > 1 ? parseInt(parts[1]) : 0;
+            return new int[]{major, minor};
+        }
+
+        private static int parseInt(String value) {
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+
+        static Report check(Path project, String fromVersion, String toVersion, int threads,
+                            ProgressListener listener) throws IOException, InterruptedException {
+            long start = System.currentTimeMillis();
+            int[] from = parseVersion(fromVersion);
+            int[] to = parseVersion(toVersion);
+            List<Rule> rules = new ArrayList<>();
+            for (Rule rule : RULES) {
+                if (rule.applies.test(from, to)) rules.add(rule);
+            }
+
+            Report report = new Report();
+            AtomicInteger scanned = new AtomicInteger();
+            AtomicLong bytes = new AtomicLong();
+            AtomicInteger findings = new AtomicInteger();
+            BlockingQueue<Path> queue = new ArrayBlockingQueue<>(1024);
+            List<IOException> errors = Collections.synchronizedList(new ArrayList<>());
+            ExecutorService workers = Executors.newFixedThreadPool(threads);
+            // Set by a worker whose progress report found the task cancelled; it interrupts the walker
+            AtomicReference<CancellationException> cancelled = new AtomicReference<>();
+            Thread walker = Thread.currentThread();
+
+            ProjectScanEvent event = new ProjectScanEvent();
+            event.operation = "Compatibility check " + fromVersion + " -> " + toVersion;
+            event.root = project.toString();
+            try (Diagnostics.Span span = Diagnostics.begin("Compatibility check", event)) {
+                for (int i = 0; i < threads; i++) {
+                    workers.execute(() -> {
+                        try {
+                            Path file;
+                            while ((file = queue.take()) != END) {
+                                String relative = project.relativize(file).toString().replace(File.separatorChar, '/');
+                                List<Finding> found;
+                                try {
+                                    found = scanFile(file, relative, rules, to);
+                                } catch (IOException e) {
+                                    errors.add(e);
+                                    continue;
+                                }
+                                if (!found.isEmpty()) {
+                                    synchronized (report) {
+                                        if (findings.addAndGet(found.size()) > MAX_FINDINGS) {
+                                            report.truncated = true;
+                                        } else {
+                                            report.byFile.put(relative, found);
+                                        }
+                                    }
+                                }
+                                int count = scanned.incrementAndGet();
+                                if (count % 100 == 0) listener.progress("Checking " + relative + "...", count, 0);
+                            }
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } catch (CancellationException e) {
+                            if (cancelled.compareAndSet(null, e)) walker.interrupt();
+                        }
+                    });
+                }
+
+                boolean walked = false;
+                try {
+                    Files.walkFileTree(project, new SimpleFileVisitor<Path>() {
+                        @Override
+                        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                            String name = dir.getFileName() != null ? dir.getFileName().toString() : "";
+                            if (!dir.equals(project) && (name.startsWith(".") || FileOps.CACHE_DIRS.contains(name))) {
+                                return FileVisitResult.SKIP_SUBTREE;
+                            }
+                            return FileVisitResult.CONTINUE;
+                        }
+
+                        @Override
+                        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                            String name = file.getFileName().toString();
+                            String extension = name.substring(name.lastIndexOf('.') + 1).toLowerCase();
+                            if (attrs.isRegularFile() && SCANNED.contains(extension)) {
+                                bytes.addAndGet(attrs.size());
+                                try {
+                                    queue.put(file);
+                                } catch (InterruptedException e) {
+                                    Thread.currentThread().interrupt();
+                                    throw new InterruptedIOException("Compatibility check cancelled");
+                                }
+                            }
+                            return FileVisitResult.CONTINUE;
+                        }
+                    });
+                    walked = true;
+                } catch (InterruptedIOException e) {
+                    if (cancelled.get() == null) throw e;
+                } finally {
+                    try {
+                        if (walked) {
+                            // Let the workers drain the queue
+                            for (int i = 0; i < threads; i++) queue.put(END);
+                            workers.shutdown();
+                            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+                        } else {
+                            // Cancelled or failed: this thread may be interrupted, so never block here
+                            queue.clear();
+                            for (int i = 0; i < threads; i++) queue.offer(END);
+                        }
+                    } finally {
+                        workers.shutdownNow();
+                    }
+                }
+                if (cancelled.get() != null) {
+                    // Our own interrupt of the walker, not a cancellation from outside
+                    Thread.interrupted();
+                    throw cancelled.get();
+                }
+                if (!errors.isEmpty()) throw errors.get(0);
+
+                report.files = scanned.get();
+                report.bytes = bytes.get();
+                for (List<Finding> list : report.byFile.values()) {
+                    for (Finding finding : list) {
+                        if (finding.severity == Severity.ERROR) report.errors++;
+                        else report.warnings++;
+                    }
+                }
+                report.millis = System.currentTimeMillis() - start;
+                event.files = report.files;
+                span.complete(report.bytes);
+            }
+            return report;
+        }
+
+        private static List<Finding> scanFile(Path file, String relative, List<Rule> rules, int[] to) throws IOException {
+            String name = file.getFileName().toString();
+            String extension = name.substring(name.lastIndexOf('.') + 1).toLowerCase();
+            List<Rule> applicable = new ArrayList<>();
+            for (Rule rule : rules) {
+                if (rule.extensions.contains(extension)) applicable.add(rule);
+            }
+            boolean projectFile = extension.equals("godot");
+            List<Finding> found = new ArrayList<>();
+            if (applicable.isEmpty() && !projectFile) return found;
+
+            try (Reader reader = new InputStreamReader(Files.newInputStream(file), java.nio.charset.StandardCharsets.UTF_8)) {
+                char[] buffer = new char[16384];
+                StringBuilder line = new StringBuilder();
+                int lineNumber = 1;
+                int len;
+                while ((len = reader.read(buffer)) != -1 && found.size() < MAX_FINDINGS_PER_FILE) {
+                    for (int i = 0; i < len; i++) {
+                        char c = buffer[i];
+                        if (c == '\n') {
+                            checkLine(line, lineNumber++, relative, applicable, projectFile, to, found);
+                            line.setLength(0);
+                        } else if (line.length() < MAX_LINE) {
+                            // The rest of very long lines (embedded data) is skipped
+                            line.append(c);
+                        }
+                    }
+                }
+                if (line.length() > 0) checkLine(line, lineNumber, relative, applicable, projectFile, to, found);
+            }
+            return found;
+        }
+
+        private static void checkLine(CharSequence line, int number, String file, List<Rule> rules, boolean projectFile,
+                                      int[] to, List<Finding> found) {
+            if (found.size() >= MAX_FINDINGS_PER_FILE) return;
+            String text = null;
+            for (Rule rule : rules) {
+                if (indexOf(line, rule.hint) < 0) continue;
+                if (text == null) text = line.toString();
+                if (rule.pattern.matcher(text).find()) {
+                    found.add(new Finding(file, number, rule.severity, rule.message, abbreviate(text)));
+                }
+            }
+            if (projectFile && indexOf(line, "config/features=") >= 0) {
+                java.util.regex.Matcher m = FEATURES.matcher(line);
+                if (m.find()) {
+                    int major = Integer.parseInt(m.group(1));
+                    int minor = Integer.parseInt(m.group(2));
+                    if (major == to[0] && minor > to[1]) {
+                        found.add(new Finding(file, number, Severity.WARNING,
+                            "Last saved with Godot " + major + "." + minor + "; older editors may drop newer properties",
+                            abbreviate(line.toString())));
+                    }
+                }
+            }
+        }
+
+        private static int indexOf(CharSequence line, String hint) {
+            // StringBuilder.indexOf avoids copying every line into a String
+            return line instanceof StringBuilder ? ((StringBuilder) line).indexOf(hint) : line.toString().indexOf(hint);
+        }
+
+        private static String abbreviate(String text) {
+            text = text.trim();
+            return text.length() > 120 ? text.substring(0, 117) + "..." : text;
+        }
+    }
+
+    // Garbage collector for the import cache. Godot writes imported copies of every asset to
+    // .godot/imported (Godot 3: .import) and never removes them when the asset is renamed or
+    // deleted. A cache file is live when a .import sidecar whose source asset still exists lists
+    // it (dest_files, path, path.s3tc, ...); files sharing a live <name>-<md5> prefix, such as the
+    // .md5 stamps, are live too. Everything else, and sidecars whose asset is gone, can be deleted.
+    static class ImportCacheCollector {
+        private static final java.util.regex.Pattern CACHE_REFERENCE =
+            java.util.regex.Pattern.compile("res://(?:\\.godot/imported|\\.import)/([^\"]+)");
+        // icon.svg-218a8f2b3041327d8a5756f3a245f83b.ctex -> icon.svg-218a8f2b3041327d8a5756f3a245f83b
+        private static final java.util.regex.Pattern HASHED_NAME = java.util.regex.Pattern.compile("^(.*-[0-9a-f]{32})\\..*$");
+
+        static class Result {
+            final Path project;
+            int sidecars;
+            int cacheFiles;
+            long cacheBytes;
+            final List<Path> orphans = new ArrayList<>();
+            long orphanBytes;
+
+            Result(Path project) {
+                this.project = project;
+            }
+        }
+
+        static Path cacheDir(Path project) {
+            Path godot4 = project.resolve(".godot").resolve("imported");
+            return Files.isDirectory(godot4) ? godot4 : project.resolve(".import");
+        }
+
+        static Result scan(Path project, boolean parallel) throws IOException {
+            Result result = new Result(project);
+            Path cache = cacheDir(project);
+            if (!Files.isDirectory(cache)) return result;
+
+            ProjectScanEvent event = new ProjectScanEvent();
+            event.operation = "Import cache scan";
+            event.root = project.toString();
+            try (Diagnostics.Span span = Diagnostics.begin("Import cache scan", event)) {
+                List<Path> sidecars = new ArrayList<>();
+                Files.walkFileTree(project, new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                        String name = dir.getFileName() != null ? dir.getFileName().toString() : "";
+                        if (!dir.equals(project) && (name.startsWith(".") || FileOps.CACHE_DIRS.contains(name))) {
+                            return FileVisitResult.SKIP_SUBTREE;
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                        if (attrs.isRegularFile() && file.getFileName().toString().endsWith(".import")) sidecars.add(file);
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+                result.sidecars = sidecars.size();
+
+                // Cache names referenced by sidecars of assets that still exist
+                Set<String> live = ConcurrentHashMap.newKeySet();
+                List<Path> staleSidecars = Collections.synchronizedList(new ArrayList<>());
+                List<IOException> errors = Collections.synchronizedList(new ArrayList<>());
+                Stream<Path> sidecarStream = parallel ? sidecars.parallelStream() : sidecars.stream();
+                sidecarStream.forEach(sidecar -> {
+                    String name = sidecar.getFileName().toString();
+                    Path source = sidecar.resolveSibling(name.substring(0, name.length() - ".import".length()));
+                    if (!Files.exists(source)) {
+                        staleSidecars.add(sidecar);
+                        return;
+                    }
+                    try {
+                        java.util.regex.Matcher m = CACHE_REFERENCE.matcher(Files.readString(sidecar));
+                        while (m.find()) live.add(m.group(1));
+                    } catch (IOException e) {
+                        errors.add(e);
+                    }
+                });
+                if (!errors.isEmpty()) throw errors.get(0);
+                Set<String> livePrefixes = new HashSet<>();
+                for (String name : live) {
+                    java.util.regex.Matcher m = HASHED_NAME.matcher(name);
+                    if (m.matches()) livePrefixes.add(m.group(1));
+                }
+
+                List<Path> cacheFiles;
+                try (Stream<Path> files = Files.list(cache)) {
+                    cacheFiles = files.filter(Files::isRegularFile).collect(Collectors.toList());
+                }
+                result.cacheFiles = cacheFiles.size();
+                List<Path> orphans = Collections.synchronizedList(new ArrayList<>());
+                AtomicLong cacheBytes = new AtomicLong();
+                AtomicLong orphanBytes = new AtomicLong();
+                Stream<Path> cacheStream = parallel ? cacheFiles.parallelStream() : cacheFiles.stream();
+                cacheStream.forEach(file -> {
+                    long size = file.toFile().length();
+                    cacheBytes.addAndGet(size);
+                    String name = file.getFileName().toString();
+                    java.util.regex.Matcher m = HASHED_NAME.matcher(name);
+                    // Only names in Godot's <name>-<md5>.<ext> scheme are ever collected
+                    if (!live.contains(name) && m.matches() && !livePrefixes.contains(m.group(1))) {
+                        orphans.add(file);
+                        orphanBytes.addAndGet(size);
+                    }
+                });
+                for (Path sidecar : staleSidecars) {
+                    orphans.add(sidecar);
+                    orphanBytes.addAndGet(sidecar.toFile().length());
+                }
+                result.cacheBytes = cacheBytes.get();
+                result.orphans.addAll(orphans);
+                result.orphans.sort(null);
+                result.orphanBytes = orphanBytes.get();
+                event.files = result.cacheFiles;
+                span.complete(result.cacheBytes);
+            }
+            return result;
+        }
+
+        // Scans several projects as child tasks, at most maxConcurrent at a time; each project is scanned sequentially
+        static List<Result> scanAll(List<Path> projects, int maxConcurrent, ProgressListener listener)
+                throws IOException, InterruptedException, ExecutionException {
+            try (TaskManager.Scope<Result> scope = new TaskManager.Scope<>(maxConcurrent, false)) {
+                for (Path project : projects) {
+                    scope.fork(String.valueOf(project.getFileName()), child -> scan(project, false));
+                }
+                List<Result> results = new ArrayList<>();
+                List<TaskManager.Task<Result>> tasks = scope.tasks();
+                for (int i = 0; i < tasks.size(); i++) {
+                    try {
+                        results.add(tasks.get(i).future().get());
+                    } catch (ExecutionException e) {
+                        // A missing or unreadable project should not stop the others
+                        System.err.println("Skipping import cache of " + projects.get(i) + ": " + e.getCause().getMessage());
+                    }
+                    listener.progress("Scanned " + projects.get(i).getFileName() + "...", i + 1, projects.size());
+                }
+                scope.join();
+                return results;
+            }
+        }
+
+        // Deletes the orphans of all results in parallel. Returns the bytes freed.
+        static long delete(List<Result> results, ProgressListener listener) throws IOException {
+            List<Path> files = new ArrayList<>();
+            for (Result result : results) files.addAll(result.orphans);
+            AtomicLong freed = new AtomicLong();
+            AtomicInteger done = new AtomicInteger();
+            List<IOException> errors = Collections.synchronizedList(new ArrayList<>());
+            files.parallelStream().forEach(file -> {
+                try {
+                    long size = Files.size(file);
+                    if (Files.deleteIfExists(file)) freed.addAndGet(size);
+                } catch (IOException e) {
+                    errors.add(e);
+                }
+                int count = done.incrementAndGet();
+                if (count % 256 == 0 || count == files.size()) listener.progress("Deleting...", count, files.size());
+            });
+            if (!errors.isEmpty()) {
+                throw new IOException(errors.size() + " files could not be deleted, e.g. " + errors.get(0).getMessage(), errors.get(0));
+            }
+            return freed.get();
+        }
+    }
+
+    // Persistent inverted index over the scripts, scenes and resources of all projects. Each project
+    // has its own file under the index directory holding its term table and, per source file, the
+    // size, mtime and terms, so an update only re-reads files whose size or mtime changed. Terms are
+    // lowercased identifiers, which covers node types, signals, autoload names and class names.
+    static class SearchIndex {
+        static final Set<String> EXTENSIONS = Set.of("gd", "tscn", "tres");
+        private static final int MAGIC = 0x47504D49; // "GPMI"
+        private static final int FORMAT = 1;
+        private static final int MAX_TERM = 64;
+        private static final long MAX_FILE_SIZE = 16L * 1024 * 1024;
+
+        static class FileEntry {
+            final String path;
+            final long size;
+            final long mtime;
+            final String[] terms;
+
+            FileEntry(String path, long size, long mtime, String[] terms) {
+                this.path = path;
+                this.size = size;
+                this.mtime = mtime;
+                this.terms = terms;
+            }
+        }
+
+        // Immutable once built, so searches can run while an update replaces it
+        static class ProjectIndex {
+            final String project;
+            final List<FileEntry> files;
+            final String[] terms;
+            final int[][] postings;
+
+            ProjectIndex(String project, List<FileEntry> files) {
+                this.project = project;
+                this.files = files;
+                Map<String, List<Integer>> byTerm = new HashMap<>();
+                for (int i = 0; i < files.size(); i++) {
+                    for (String term : files.get(i).terms) byTerm.computeIfAbsent(term, k -> new ArrayList<>()).add(i);
+                }
+                terms = byTerm.keySet().toArray(new String[0]);
+                Arrays.sort(terms);
+                postings = new int[terms.length][];
+                for (int i = 0; i < terms.length; i++) {
+                    postings[i] = byTerm.get(terms[i]).stream().mapToInt(Integer::intValue).toArray();
+                }
+            }
+
+            // Files containing the term, or any term starting with it
+            BitSet lookup(String term, boolean prefix) {
+                BitSet result = new BitSet(files.size());
+                int index = Arrays.binarySearch(terms, term);
+                if (!prefix) {
+                    if (index >= 0) for (int file : postings[index]) result.set(file);
+                    return result;
+                }
+                for (int i = index >= 0 ? index : -index - 1; i < terms.length && terms[i].startsWith(term); i++) {
+                    for (int file : postings[i]) result.set(file);
+                }
+                return result;
+            }
+        }
+
+        static class UpdateResult {
+            int projects;
+            int files;
+            int reindexed;
+            int removed;
+            long millis;
+        }
+
+        private final Path dir;
+        private final Map<String, ProjectIndex> projects = new ConcurrentHashMap<>();
+
+        SearchIndex(Path dir) {
+            this.dir = dir;
+        }
+
+        int fileCount() {
+            int count = 0;
+            for (ProjectIndex index : projects.values()) count += index.files.size();
+            return count;
+        }
+
+        int projectCount() {
+            return projects.size();
+        }
+
+        // Reads the saved indexes; unreadable ones are dropped and rebuilt by the next update
+        void load() throws IOException {
+            if (!Files.isDirectory(dir)) return;
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.idx")) {
+                for (Path file : files) {
+                    try {
+                        ProjectIndex index = read(file);
+                        projects.put(index.project, index);
+                    } catch (IOException e) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+        }
+
+        // Brings the index in line with the given projects, at most `threads` projects at a time
+        UpdateResult update(List<String> projectPaths, int threads, ProgressListener listener)
+                throws IOException, InterruptedException, ExecutionException {
+            long start = System.nanoTime();
+            UpdateResult result = new UpdateResult();
+            Set<String> wanted = new HashSet<>(projectPaths);
+            for (String project : new ArrayList<>(projects.keySet())) {
+                if (!wanted.contains(project)) {
+                    projects.remove(project);
+                    Files.deleteIfExists(indexFile(project));
+                }
+            }
+
+            ProjectScanEvent event = new ProjectScanEvent();
+            event.operation = "Search index update";
+            event.root = dir.toString();
+            try (Diagnostics.Span span = Diagnostics.begin("Search index update", event)) {
+                try (TaskManager.Scope<int[]> scope = new TaskManager.Scope<>(threads, false)) {
+                    for (String project : projectPaths) {
+                        scope.fork(String.valueOf(Paths.get(project).getFileName()), child -> updateProject(project));
+                    }
+                    List<TaskManager.Task<int[]>> tasks = scope.tasks();
+                    for (int i = 0; i < tasks.size(); i++) {
+                        try {
+                            int[] counts = tasks.get(i).future().get();
+                            result.files += counts[0];
+                            result.reindexed += counts[1];
+                            result.removed += counts[2];
+                        } catch (ExecutionException e) {
+                            System.err.println("Could not index " + projectPaths.get(i) + ": " + e.getCause().getMessage());
+                        }
+                        listener.progress("Indexed " + Paths.get(projectPaths.get(i)).getFileName() + "...", i + 1, projectPaths.size());
+                    }
+                    scope.join();
+                }
+                result.projects = projects.size();
+                event.files = result.reindexed;
+                span.complete(0);
+            }
+            result.millis = (System.nanoTime() - start) / 1_000_000;
+            return result;
+        }
+
+        // Returns {files, reindexed, removed}
+        private int[] updateProject(String project) throws IOException {
+            Path root = Paths.get(project);
+            if (!Files.isDirectory(root)) {
+                if (projects.remove(project) != null) Files.deleteIfExists(indexFile(project));
+                return new int[3];
+            }
+            ProjectIndex old = projects.get(project);
+            Map<String, FileEntry> previous = new HashMap<>();
+            Map<String, String> termPool = new HashMap<>();
+            if (old != null) {
+                for (FileEntry entry : old.files) previous.put(entry.path, entry);
+                for (String term : old.terms) termPool.put(term, term);
+            }
+
+            List<FileEntry> files = new ArrayList<>();
+            int[] reindexed = {0};
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    String name = dir.getFileName() != null ? dir.getFileName().toString() : "";
+                    if (!dir.equals(root) && (name.startsWith(".") || FileOps.CACHE_DIRS.contains(name))) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    String name = file.getFileName().toString();
+                    if (!attrs.isRegularFile() || attrs.size() > MAX_FILE_SIZE) return FileVisitResult.CONTINUE;
+                    if (!name.equals("project.godot") && !EXTENSIONS.contains(ProjectCloner.extension(file))) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                    String path = root.relativize(file).toString().replace('\\', '/');
+                    long mtime = attrs.lastModifiedTime().toMillis();
+                    FileEntry entry = previous.remove(path);
+                    if (entry == null || entry.size != attrs.size() || entry.mtime != mtime) {
+                        entry = new FileEntry(path, attrs.size(), mtime, tokenize(Files.readAllBytes(file), termPool));
+                        reindexed[0]++;
+                    }
+                    files.add(entry);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+
+            // Whatever was not visited has been deleted or moved
+            int removed = previous.size();
+            if (old == null || reindexed[0] > 0 || removed > 0) {
+                ProjectIndex index = new ProjectIndex(project, files);
+                write(index);
+                projects.put(project, index);
+            }
+            return new int[]{files.size(), reindexed[0], removed};
+        }
+
+        // Distinct lowercased identifiers of at least two characters; numbers and punctuation are skipped
+        static String[] tokenize(byte[] content, Map<String, String> termPool) {
+            Set<String> terms = new HashSet<>();
+            StringBuilder term = new StringBuilder();
+            for (int i = 0; i <= content.length; i++) {
+                int c = i < content.length ? content[i] & 0xFF : ' ';
+                boolean letter = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+                if (letter || (term.length() > 0 && c >= '0' && c <= '9')) {
+                    term.append((char) Character.toLowerCase(c));
+                } else if (term.length() > 0) {
+                    if (term.length() >= 2 && term.length() <= MAX_TERM) terms.add(term.toString());
+                    term.setLength(0);
+                }
+            }
+            String[] result = new String[terms.size()];
+            int i = 0;
+            for (String t : terms) result[i++] = termPool.computeIfAbsent(t, k -> k);
+            return result;
+        }
+
+        // Words are ANDed; a trailing * matches any term with that prefix. Results map each project to
+        // its matching files, at most `limit` files in total.
+        Map<String, List<String>> search(String query, int limit) {
+            List<String> words = new ArrayList<>();
+            List<Boolean> prefixes = new ArrayList<>();
+            for (String word : query.trim().split("\\s+")) {
+                boolean prefix = word.endsWith("*");
+                String[] terms = tokenize(word.getBytes(java.nio.charset.StandardCharsets.UTF_8), new HashMap<>());
+                // tokenize() does not keep order, so a prefix word must be a single identifier
+                if (prefix && terms.length == 1) {
+                    words.add(terms[0]);
+                    prefixes.add(true);
+                } else {
+                    for (String term : terms) {
+                        words.add(term);
+                        prefixes.add(false);
+                    }
+                }
+            }
+            Map<String, List<String>> results = new TreeMap<>();
+            if (words.isEmpty()) return results;
+            int found = 0;
+            for (ProjectIndex index : projects.values()) {
+                BitSet matches = null;
+                for (int i = 0; i < words.size() && (matches == null || !matches.isEmpty()); i++) {
+                    BitSet files = index.lookup(words.get(i), prefixes.get(i));
+                    if (matches == null) {
+                        matches = files;
+                    } else {
+                        matches.and(files);
+                    }
+                }
+                if (matches == null || matches.isEmpty()) continue;
+                List<String> files = new ArrayList<>();
+                for (int i = matches.nextSetBit(0); i >= 0 && found < limit; i = matches.nextSetBit(i + 1), found++) {
+                    files.add(index.files.get(i).path);
+                }
+                files.sort(null);
+                results.put(index.project, files);
+                if (found >= limit) break;
+            }
+            return results;
+        }
+
+        private Path indexFile(String project) {
+            return dir.resolve(FileOps.pathKey(Paths.get(project)) + ".idx");
+        }
+
+        private void write(ProjectIndex index) throws IOException {
+            Files.createDirectories(dir);
+            Path temp = Files.createTempFile(dir, "index", ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(FORMAT);
+                    out.writeUTF(index.project);
+                    out.writeInt(index.terms.length);
+                    for (String term : index.terms) out.writeUTF(term);
+                    out.writeInt(index.files.size());
+                    for (FileEntry entry : index.files) {
+                        out.writeUTF(entry.path);
+                        out.writeLong(entry.size);
+                        out.writeLong(entry.mtime);
+                        out.writeInt(entry.terms.length);
+                        for (String term : entry.terms) out.writeInt(Arrays.binarySearch(index.terms, term));
+                    }
+                }
+                Files.move(temp, indexFile(index.project), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+
+        private static ProjectIndex read(Path file) throws IOException {
+            long length = Files.size(file);
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                if (in.readInt() != MAGIC || in.readInt() != FORMAT) throw new IOException("Unknown index format: " + file);
+                String project = in.readUTF();
+                // A term takes at least its 2-byte length, a file entry 22 bytes and a term reference 4
+                String[] terms = new String[readCount(in, length / 2, file)];
+                for (int i = 0; i < terms.length; i++) terms[i] = in.readUTF();
+                int count = readCount(in, length / 22, file);
+                List<FileEntry> files = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    String path = in.readUTF();
+                    long size = in.readLong();
+                    long mtime = in.readLong();
+                    String[] fileTerms = new String[readCount(in, length / 4, file)];
+                    for (int j = 0; j < fileTerms.length; j++) fileTerms[j] = terms[in.readInt()];
+                    files.add(new FileEntry(path, size, mtime, fileTerms));
+                }
+                return new ProjectIndex(project, files);
+            } catch (ArrayIndexOutOfBoundsException e) {
+                throw new IOException("Corrupt index: " + file, e);
+            }
+        }
+
+        // Counts are checked against what the file could hold, so a damaged one fails instead of allocating
+        private static int readCount(DataInputStream in, long max, Path file) throws IOException {
+            int count = in.readInt();
+            if (count < 0 || count > max) throw new IOException("Corrupt index: " + file);
+            return count;
+        }
+    }
+
+    // Finds Godot projects below a folder (the discovery the scale test drives) and reads a project's
+    // name and version for Import. A project is every directory holding a project.godot. Directories
+    // are listed in parallel on a ForkJoinPool, one listing per directory; hidden and cache folders are
+    // skipped, and the search stops at a project (nested project.godot files are addon demos).
+    static class ProjectDiscovery {
+        private static final java.util.regex.Pattern FEATURE_VERSION = java.util.regex.Pattern.compile("\"(\\d+\\.\\d+)\"");
+
+        static List<GodotProject> scan(Path root, int parallelism, ProgressListener listener) throws IOException {
+            if (!Files.isDirectory(root)) throw new IOException("Not a folder: " + root);
+            ProjectScanEvent event = new ProjectScanEvent();
+            event.operation = "Project discovery";
+            event.root = root.toString();
+            try (Diagnostics.Span span = Diagnostics.begin("Project discovery", event)) {
+                AtomicInteger visited = new AtomicInteger();
+                ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+                List<Path> found;
+                try {
+                    found = pool.invoke(new DirectoryTask(root, visited, listener));
+                } finally {
+                    pool.shutdown();
+                }
+                listener.progress("Reading " + found.size() + " projects...", 0, found.size());
+                List<GodotProject> projects = found.parallelStream().map(ProjectDiscovery::readProject).collect(Collectors.toList());
+                projects.sort(Comparator.comparing(GodotProject::getPath));
+                event.files = visited.get();
+                span.complete(0);
+                return projects;
+            }
+        }
+
+        private static class DirectoryTask extends RecursiveTask<List<Path>> {
+            private final Path dir;
+            private final AtomicInteger visited;
+            private final ProgressListener listener;
+
+            DirectoryTask(Path dir, AtomicInteger visited, ProgressListener listener) {
+                this.dir = dir;
+                this.visited = visited;
+                this.listener = listener;
+            }
+
+            @Override
+            protected List<Path> compute() {
+                List<DirectoryTask> children = new ArrayList<>();
+                try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+                    for (Path entry : entries) {
+                        String name = entry.getFileName().toString();
+                        if (name.equals("project.godot")) return List.of(dir);
+                        if (name.startsWith(".") || FileOps.CACHE_DIRS.contains(name)) continue;
+                        if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                            children.add(new DirectoryTask(entry, visited, listener));
+                        }
+                    }
+                } catch (IOException | DirectoryIteratorException e) {
+                    // Unreadable folders are skipped, as a file manager would
+                    return List.of();
+                } finally {
+                    int count = visited.incrementAndGet();
+                    if (count % 1000 == 0) listener.progress("Scanned " + count + " folders...", count, 0);
+                }
+                List<Path> found = new ArrayList<>();
+                for (DirectoryTask child : invokeAll(children)) found.addAll(child.join());
+                return found;
+            }
+        }
+
+        // Name from config/name (else the folder name); version from config/features, else from config_version
+        static GodotProject readProject(Path dir) {
+            String name = dir.getFileName() != null ? dir.getFileName().toString() : dir.toString();
+            String version = null;
+            int configVersion = 0;
+            try (BufferedReader reader = Files.newBufferedReader(dir.resolve("project.godot"))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith("config/name=")) {
+                        String value = line.substring("config/name=".length()).trim();
+                        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) value = value.substring(1, value.length() - 1);
+                        if (!value.isEmpty()) name = value;
+                    } else if (line.startsWith("config/features=")) {
+                        java.util.regex.Matcher m = FEATURE_VERSION.matcher(line);
+                        if (m.find()) version = m.group(1);
+                    } else if (line.startsWith("config_version=")) {
+                        try {
+                            configVersion = Integer.parseInt(line.substring("config_version=".length()).trim());
+                        } catch (NumberFormatException e) {
+                            // Leave it unknown
+                        }
+                    }
+                }
+            } catch (IOException | UncheckedIOException e) {
+                // Still list the project; the user can fix the version
+            }
+            if (version == null) version = configVersion == 4 ? "3.6" : "4.3";
+            return new GodotProject(name, dir.toAbsolutePath().toString(), version);
+        }
+    }
+
+    // Installs Godot export templates (.tpz) for selected platforms only. The archive is read as a
+    // stream, so entries for other platforms are inflated and dropped without touching the disk and
+    // the download never has to be stored. Files land in <templates root>/<version.txt>, the layout
+    // the editor looks for, via a staging directory so a failed install leaves nothing behind.
+    static class ExportTemplates {
+        static final List<String> PLATFORMS = List.of("Linux", "Windows", "macOS", "Web", "Android", "iOS", "UWP");
+        // Anything that is not platform specific, e.g. version.txt
+        static final String SHARED = "Shared";
+
+        static class Result {
+            String version;
+            Path directory;
+            int files;
+            int skipped;
+            long bytes;
+            URI source;
+            long millis;
+        }
+
+        // Official .tpz published next to the editor download of the same release
+        static String templatesUrl(GodotEngine engine) {
+            String url = engine.getDownloadUrl();
+            String base = url.substring(0, url.lastIndexOf('/') + 1);
+            String file = url.substring(url.lastIndexOf('/') + 1);
+            // Godot_v4.3-stable_win64.exe.zip -> Godot_v4.3-stable_export_templates.tpz
+            int platform = file.indexOf('_', "Godot_v".length());
+            String release = platform > 0 ? file.substring(0, platform) : "Godot_v" + engine.getVersion() + "-stable";
+            return base + release + "_export_templates.tpz";
+        }
+
+        // Where the editor looks for templates: next to a self-contained editor, otherwise the user data dir
+        static Path templatesRoot(GodotEngine engine) {
+            if (engine.isInstalled() && !engine.getInstalledPath().isEmpty()) {
+                Path editorDir = Paths.get(engine.getInstalledPath()).getParent();
+                if (editorDir != null && (Files.exists(editorDir.resolve("._sc_")) || Files.exists(editorDir.resolve("_sc_")))) {
+                    return editorDir.resolve("editor_data").resolve("export_templates");
+                }
+            }
+            String os = System.getProperty("os.name").toLowerCase();
+            String home = System.getProperty("user.home");
+            if (os.contains("win")) {
+                String appData = System.getenv("APPDATA");
+                return Paths.get(appData != null ? appData : home, "Godot", "export_templates");
+            } else if (os.contains("mac")) {
+                return Paths.get(home, "Library", "Application Support", "Godot", "export_templates");
+            }
+            String dataHome = System.getenv("XDG_DATA_HOME");
+            Path base = dataHome != null && !dataHome.isEmpty() ? Paths.get(dataHome) : Paths.get(home, ".local", "share");
+            return base.resolve("godot").resolve("export_templates");
+        }
+
+        // Directory name version.txt will produce, e.g. 4.3 -> 4.3.stable
+        static String expectedDirectory(GodotEngine engine) {
+            return engine.getVersion() + ".stable";
+        }
+
+        // Maps a file inside templates/ to its platform; names cover both the 3.x and 4.x layouts
+        static String platformOf(String name) {
+            String lower = name.toLowerCase();
+            if (lower.startsWith("linux") || lower.startsWith("x11")) return "Linux";
+            if (lower.startsWith("windows")) return "Windows";
+            if (lower.startsWith("macos") || lower.startsWith("osx")) return "macOS";
+            // 3.x names the Web templates webassembly_*, which the "web" prefix also covers
+            if (lower.startsWith("web") || lower.startsWith("javascript")) return "Web";
+            if (lower.startsWith("android")) return "Android";
+            if (lower.startsWith("ios") || lower.startsWith("iphone")) return "iOS";
+            // Universal Windows Platform templates only ship with 3.x
+            if (lower.startsWith("uwp")) return "UWP";
+            return SHARED;
+        }
+
+        // Tries the ranked sources in order, restarting the stream on the next one if a source fails
+        static Result download(HttpClient client, List<MirrorSelector.Probe> ranked, Path root,
+                               Set<String> platforms, ProgressListener listener) throws IOException, InterruptedException {
+            IOException lastError = null;
+            for (MirrorSelector.Probe probe : ranked) {
+                HttpRequest request = HttpRequest.newBuilder(probe.uri).timeout(Duration.ofSeconds(30)).GET().build();
+                try {
+                    HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                    if (response.statusCode() != 200) {
+                        response.body().close();
+                        throw new IOException("HTTP " + response.statusCode());
+                    }
+                    long total = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+                    try (InputStream in = response.body()) {
+                        Result result = install(in, total, probe.uri.toString(), root, platforms, listener);
+                        result.source = probe.uri;
+                        return result;
+                    }
+                } catch (IOException e) {
+                    lastError = e;
+                    listener.progress(probe.uri.getHost() + " failed (" + e.getMessage() + "), trying next source...", 0, 0);
+                }
+            }
+            throw lastError != null ? lastError : new IOException("No download source available");
+        }
+
+        static Result install(InputStream in, long total, String archive, Path root, Set<String> platforms,
+                              ProgressListener listener) throws IOException {
+            long start = System.currentTimeMillis();
+            Result result = new Result();
+            Files.createDirectories(root);
+            Path staging = Files.createTempDirectory(root, ".partial-");
+            boolean posix = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+
+            ZipExtractionEvent event = new ZipExtractionEvent();
+            event.archive = archive;
+            try (Diagnostics.Span span = Diagnostics.begin("Template install", event)) {
+                CountingInputStream counter = new CountingInputStream(new BufferedInputStream(in, 1 << 16));
+                try (ZipInputStream zin = new ZipInputStream(counter)) {
+                    byte[] buffer = new byte[1 << 16];
+                    ZipEntry entry;
+                    while ((entry = zin.getNextEntry()) != null) {
+                        String name = entry.getName();
+                        if (entry.isDirectory() || !name.startsWith("templates/")) continue;
+                        String relative = name.substring("templates/".length());
+                        String platform = platformOf(relative);
+                        if (!platform.equals(SHARED) && !platforms.contains(platform)) {
+                            // The next getNextEntry() reads past this one without writing it
+                            result.skipped++;
+                            listener.progress("Skipping " + relative + "...", counter.count, total);
+                            continue;
+                        }
+
+                        Path target = staging.resolve(relative).normalize();
+                        if (!target.startsWith(staging)) {
+                            throw new IOException("Refusing to extract entry outside the templates directory: " + name);
+                        }
+                        Files.createDirectories(target.getParent());
+                        listener.progress("Extracting " + relative + "...", counter.count, total);
+                        try (OutputStream out = Files.newOutputStream(target)) {
+                            int len;
+                            long lastReport = counter.count;
+                            while ((len = zin.read(buffer)) != -1) {
+                                out.write(buffer, 0, len);
+                                result.bytes += len;
+                                if (counter.count - lastReport > 1 << 20) {
+                                    lastReport = counter.count;
+                                    listener.progress("Extracting " + relative + "...", counter.count, total);
+                                }
+                            }
+                        }
+                        if (relative.equals("version.txt")) {
+                            result.version = Files.readString(target).trim();
+                        } else if (posix && platform.equals("Linux") && !relative.endsWith(".zip")) {
+                            target.toFile().setExecutable(true);
+                        }
+                        result.files++;
+                    }
+                }
+
+                if (result.version == null || result.version.isEmpty()) {
+                    throw new IOException("Not an export template archive: templates/version.txt is missing");
+                }
+                Path directory = root.resolve(result.version).normalize();
+                if (!directory.getParent().equals(root.normalize())) {
+                    throw new IOException("Invalid template version: " + result.version);
+                }
+
+                // Merge into an existing install so platforms can be added later
+                listener.progress("Installing into " + directory + "...", total, total);
+                Files.createDirectories(directory);
+                try (Stream<Path> files = Files.walk(staging)) {
+                    for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                        Path target = directory.resolve(staging.relativize(file).toString());
+                        Files.createDirectories(target.getParent());
+                        Files.move(file, target, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                }
+                result.directory = directory;
+                result.millis = System.currentTimeMillis() - start;
+                event.entries = result.files;
+                span.complete(result.bytes);
+                return result;
+            } finally {
+                FileOps.deleteTree(staging);
+            }
+        }
+
+        // Bytes on disk per platform for one installed template version
+        static Map<String, Long> usage(Path directory) throws IOException {
+            Map<String, Long> usage = new LinkedHashMap<>();
+            if (!Files.isDirectory(directory)) return usage;
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                    String platform = platformOf(directory.relativize(file).toString());
+                    usage.merge(platform, Files.size(file), Long::sum);
+                }
+            }
+            return usage;
+        }
+
+        static long remove(Path directory, Set<String> platforms) throws IOException {
+            long freed = 0;
+            if (!Files.isDirectory(directory)) return 0;
+            List<Path> doomed;
+            try (Stream<Path> files = Files.walk(directory)) {
+                doomed = files.filter(Files::isRegularFile)
+                    .filter(file -> platforms.contains(platformOf(directory.relativize(file).toString())))
+                    .collect(Collectors.toList());
+            }
+            for (Path file : doomed) {
+                freed += Files.size(file);
+                Files.delete(file);
+            }
+            return freed;
+        }
+
+        private static class CountingInputStream extends FilterInputStream {
+            long count;
+
+            CountingInputStream(InputStream in) {
+                super(in);
+            }
+
+            @Override
+            public int read() throws IOException {
+                int b = in.read();
+                if (b != -1) count++;
+                return b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = in.read(b, off, len);
+                if (n > 0) count += n;
+                return n;
+            }
+
+            @Override
+            public long skip(long n) throws IOException {
+                long skipped = in.skip(n);
+                count += skipped;
+                return skipped;
+            }
+        }
+    }
+
+    // Project icons for the projects table. get() never blocks: it returns a cached thumbnail or a
+    // placeholder and queues the load. Loads run newest-first on a small pool, and requests for rows
+    // that scrolled out of view are dropped when the queue backs up. Thumbnails are kept in a
+    // bounded LRU map and, when a disk directory is supplied, as small PNGs keyed by icon mtime.
+    static class ProjectIcons {
+        static final int SIZE = 24;
+        static final Icon PLACEHOLDER = new Icon() {
+            @Override
+            public void paintIcon(Component c, Graphics g, int x, int y) {
+                Graphics2D g2 = (Graphics2D) g.create();
+                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                g2.setColor(new Color(128, 128, 128, 60));
+                g2.fillRoundRect(x + 1, y + 1, SIZE - 2, SIZE - 2, 6, 6);
+                g2.dispose();
+            }
+
+            @Override
+            public int getIconWidth() { return SIZE; }
+
+            @Override
+            public int getIconHeight() { return SIZE; }
+        };
+
+        private final Map<String, Icon> cache;
+        private final Set<String> pending = ConcurrentHashMap.newKeySet();
+        private final LinkedBlockingDeque<Runnable> queue = new LinkedBlockingDeque<>() {
+            // Newest request first: rows on screen now matter more than rows scrolled past
+            @Override
+            public boolean offer(Runnable task) {
+                return offerFirst(task);
+            }
+        };
+        private final ThreadPoolExecutor pool;
+        private final int maxPending;
+        private final java.util.function.Supplier<Path> diskCache;
+        private final Runnable onLoaded;
+
+        ProjectIcons(int capacity, int maxPending, java.util.function.Supplier<Path> diskCache, Runnable onLoaded) {
+            this.cache = new LinkedHashMap<String, Icon>(capacity, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Icon> eldest) {
+                    return size() > capacity;
+                }
+            };
+            this.maxPending = maxPending;
+            this.diskCache = diskCache;
+            this.onLoaded = onLoaded;
+            int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+            this.pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, queue, r -> {
+                Thread thread = new Thread(r, "icon-loader");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.NORM_PRIORITY - 1);
+                return thread;
+            });
+            pool.allowCoreThreadTimeOut(true);
+        }
+
+        Icon get(String projectPath) {
+            synchronized (cache) {
+                Icon icon = cache.get(projectPath);
+                if (icon != null) return icon;
+            }
+            if (pending.add(projectPath)) {
+                pool.execute(new LoadTask(projectPath));
+                // Drop the oldest requests; they are re-queued if their rows are painted again
+                while (queue.size() > maxPending) {
+                    Runnable stale = queue.pollLast();
+                    if (stale instanceof LoadTask) pending.remove(((LoadTask) stale).projectPath);
+                }
+            }
+            return PLACEHOLDER;
+        }
+
+        // Forget decoded thumbnails so changed icons are picked up; the disk cache is keyed by mtime
+        void invalidate() {
+            synchronized (cache) {
+                cache.clear();
+            }
+        }
+
+        private class LoadTask implements Runnable {
+            final String projectPath;
+
+            LoadTask(String projectPath) {
+                this.projectPath = projectPath;
+            }
+
+            @Override
+            public void run() {
+                Icon icon;
+                try {
+                    BufferedImage image = load(Paths.get(projectPath), diskCache.get());
+                    icon = image != null ? new ImageIcon(image) : PLACEHOLDER;
+                } catch (Exception e) {
+                    icon = PLACEHOLDER;
+                }
+                synchronized (cache) {
+                    cache.put(projectPath, icon);
+                }
+                pending.remove(projectPath);
+                onLoaded.run();
+            }
+        }
+
+        static BufferedImage load(Path project, Path diskCache) throws IOException {
+            Path icon = resolveIcon(project);
+            if (icon == null) return null;
+            long mtime = Files.getLastModifiedTime(icon).toMillis();
+            Path cached = null;
+            if (diskCache != null) {
+                cached = diskCache.resolve(FileOps.pathKey(icon) + "-" + Long.toHexString(mtime) + ".png");
+                if (Files.exists(cached)) {
+                    BufferedImage image = ImageIO.read(cached.toFile());
+                    if (image != null) return image;
+                }
+            }
+
+            BufferedImage image = decode(icon, SIZE);
+            if (image != null && cached != null) {
+                Files.createDirectories(diskCache);
+                // Older thumbnails of the same icon are stale now
+                try (DirectoryStream<Path> stale = Files.newDirectoryStream(diskCache, FileOps.pathKey(icon) + "-*.png")) {
+                    for (Path file : stale) Files.deleteIfExists(file);
+                }
+                Path temp = Files.createTempFile(diskCache, "thumb", ".tmp");
+                ImageIO.write(image, "png", temp.toFile());
+                Files.move(temp, cached, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return image;
+        }
+
+        // application/config/icon from project.godot, falling back to the default icon names
+        static Path resolveIcon(Path project) throws IOException {
+            Path projectFile = project.resolve("project.godot");
+            if (Files.exists(projectFile)) {
+                String section = "";
+                try (BufferedReader reader = Files.newBufferedReader(projectFile)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        line = line.trim();
+                        if (line.startsWith("[")) {
+                            section = line;
+                        } else if (section.equals("[application]") && line.startsWith("config/icon=")) {
+                            String value = line.substring("config/icon=".length()).replace("\"", "").trim();
+                            if (value.startsWith("res://")) {
+                                Path icon = project.resolve(value.substring("res://".length())).normalize();
+                                if (icon.startsWith(project) && Files.isRegularFile(icon)) return icon;
+                            }
+                            break;
+                        }
+                    }
+                }
+            }
+            for (String name : new String[]{"icon.svg", "icon.png"}) {
+                Path icon = project.resolve(name);
+                if (Files.isRegularFile(icon)) return icon;
+            }
+            return null;
+        }
+
+        static BufferedImage decode(Path icon, int size) throws IOException {
+            if (icon.getFileName().toString().toLowerCase().endsWith(".svg")) {
+                return SvgRenderer.render(icon, size);
+            }
+            BufferedImage source = ImageIO.read(icon.toFile());
+            return source != null ? scale(source, size) : null;
+        }
+
+        // Halves the image until close to the target so downscaling large icons stays smooth
+        static BufferedImage scale(BufferedImage source, int size) {
+            BufferedImage current = source;
+            int width = current.getWidth();
+            int height = current.getHeight();
+            while (Math.max(width, height) / 2 >= size) {
+                width = Math.max(1, width / 2);
+                height = Math.max(1, height / 2);
+                current = resize(current, width, height, 0, 0, width, height);
+            }
+            double ratio = (double) size / Math.max(width, height);
+            int w = Math.max(1, (int) Math.round(width * ratio));
+            int h = Math.max(1, (int) Math.round(height * ratio));
+            return resize(current, size, size, (size - w) / 2, (size - h) / 2, w, h);
+        }
+
+        private static BufferedImage resize(BufferedImage source, int canvasWidth, int canvasHeight,
+                                            int x, int y, int width, int height) {
+            BufferedImage target = new BufferedImage(canvasWidth, canvasHeight, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = target.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, x, y, width, height, null);
+            g.dispose();
+            return target;
+        }
+    }
+
+    // Shows the project icon next to its name
+    static class ProjectIconRenderer extends DefaultTableCellRenderer {
+        private final ProjectTableModel model;
+        private final ProjectIcons icons;
+
+        ProjectIconRenderer(ProjectTableModel model, ProjectIcons icons) {
+            this.model = model;
+            this.icons = icons;
+            setIconTextGap(8);
+        }
+
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                                                       boolean hasFocus, int row, int column) {
+            super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+            // Only called for painted rows, so only visible projects are ever queued
+            setIcon(icons.get(model.getProject(table.convertRowIndexToModel(row)).getPath()));
+            return this;
+        }
+    }
+
+    // Checks installed engines by running `<exe> --version` and comparing the reported version with the
+    // registered one. Results are cached by executable size and mtime in a small text file, so only
+    // new or changed executables are run again. Missing and timed-out executables are never cached:
+    // the first start after an install is often slowed by a virus scan.
+    static class EngineValidator {
+        enum State { VERIFIED, MISSING, MISMATCH, FAILED, TIMEOUT }
+
+        static class Check {
+            final State state;
+            final String reported;
+            final long size;
+            final long mtime;
+
+            Check(State state, String reported, long size, long mtime) {
+                this.state = state;
+                this.reported = reported;
+                this.size = size;
+                this.mtime = mtime;
+            }
+
+            boolean ok() {
+                return state == State.VERIFIED;
+            }
+
+            boolean cacheable() {
+                return state != State.MISSING && state != State.TIMEOUT;
+            }
+
+            String describe() {
+                switch (state) {
+                    case VERIFIED: return "Verified (" + reported + ")";
+                    case MISSING: return "Executable missing";
+                    case MISMATCH: return "Wrong version (" + reported + ")";
+                    case TIMEOUT: return "Not responding";
+                    default: return "Failed" + (reported.isEmpty() ? "" : " (" + reported + ")");
+                }
+            }
+        }
+
+        private final Path cacheFile;
+        private final Duration timeout;
+        private final Map<String, Check> checks = new ConcurrentHashMap<>();
+        private volatile boolean loaded;
+
+        EngineValidator(Path cacheFile, Duration timeout) {
+            this.cacheFile = cacheFile;
+            this.timeout = timeout;
+        }
+
+        // Latest result for the executable, or null while it has not been checked
+        Check get(String executable) {
+            return checks.get(executable);
+        }
+
+        // Validates the engines as child tasks of the current task, at most maxConcurrent processes at a time
+        void validateAll(List<GodotEngine> engines, int maxConcurrent, Runnable onChecked)
+                throws IOException, InterruptedException, ExecutionException {
+            if (!loaded) load();
+            try (TaskManager.Scope<Check> scope = new TaskManager.Scope<>(maxConcurrent, false)) {
+                for (GodotEngine engine : engines) {
+                    scope.fork("Godot " + engine.getVersion(), listener -> {
+                        Check check = validate(engine);
+                        onChecked.run();
+                        return check;
+                    });
+                }
+                scope.join();
+            }
+            save();
+        }
+
+        Check validate(GodotEngine engine) throws IOException, InterruptedException {
+            String executable = engine.getInstalledPath();
+            Path path = Paths.get(executable);
+            if (!Files.isRegularFile(path)) {
+                Check missing = new Check(State.MISSING, "", 0, 0);
+                checks.put(executable, missing);
+                return missing;
+            }
+            BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+            long mtime = attrs.lastModifiedTime().toMillis();
+            Check cached = checks.get(executable);
+            if (cached != null && cached.cacheable() && cached.size == attrs.size() && cached.mtime == mtime) {
+                return cached;
+            }
+
+            Check check;
+            ProcessLaunchEvent event = new ProcessLaunchEvent();
+            event.executable = executable;
+            event.project = "";
+            try (Diagnostics.Span span = Diagnostics.begin("Engine validation", event)) {
+                check = run(path, engine.getVersion(), attrs.size(), mtime, event);
+                event.success = check.ok();
+                span.complete(0);
+            }
+            checks.put(executable, check);
+            return check;
+        }
+
+        private Check run(Path executable, String expected, long size, long mtime, ProcessLaunchEvent event)
+                throws IOException, InterruptedException {
+            // The Windows GUI build prints nothing to a console; its _console wrapper does
+            String name = executable.getFileName().toString();
+            Path console = executable.resolveSibling(name.replace(".exe", "_console.exe"));
+            Path command = name.endsWith(".exe") && Files.isRegularFile(console) ? console : executable;
+
+            ProcessBuilder pb = new ProcessBuilder(command.toString(), "--version");
+            pb.redirectErrorStream(true);
+            Path output = Files.createTempFile("godot-version", ".txt");
+            pb.redirectOutput(output.toFile());
+            try {
+                Process process;
+                try {
+                    process = pb.start();
+                } catch (IOException e) {
+                    return new Check(State.FAILED, String.valueOf(e.getMessage()), size, mtime);
+                }
+                event.pid = process.pid();
+                try {
+                    if (!process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                        return new Check(State.TIMEOUT, "", size, mtime);
+                    }
+                } finally {
+                    // Also after a timeout, cancel or interrupt, so no engine keeps running behind the task
+                    if (process.isAlive()) BuildPipeline.destroyTree(process);
+                }
+                // --version prints e.g. "4.3.stable.official.77dcf97d8"; skip any warnings before it
+                String reported = "";
+                for (String line : Files.readAllLines(output)) {
+                    if (!line.isEmpty() && Character.isDigit(line.charAt(0))) reported = line.trim();
+                }
+                if (reported.isEmpty()) {
+                    return new Check(State.FAILED, "exit code " + process.exitValue(), size, mtime);
+                }
+                boolean matches = numericVersion(reported).equals(numericVersion(expected));
+                return new Check(matches ? State.VERIFIED : State.MISMATCH, reported, size, mtime);
+            } finally {
+                Files.deleteIfExists(output);
+            }
+        }
+
+        // "4.2.2.stable.official" -> "4.2.2", "4.3.0" -> "4.3"
+        static String numericVersion(String version) {
+            List<String> parts = new ArrayList<>();
+            for (String part : version.split("\\.")) {
+                if (part.isEmpty() || !part.chars().allMatch(Character::isDigit)) break;
+                parts.add(part);
+            }
+            while (parts.size() > 2 && parts.get(parts.size() - 1).equals("0")) parts.remove(parts.size() - 1);
+            return String.join(".", parts);
+        }
+
+        // One line per executable: path|size|mtime|state|reported
+        void load() throws IOException {
+            loaded = true;
+            if (!Files.exists(cacheFile)) return;
+            for (String line : Files.readAllLines(cacheFile)) {
+                String[] parts = line.split("\\|", -1);
+                if (parts.length < 5) continue;
+                try {
+                    checks.put(parts[0], new Check(State.valueOf(parts[3]), parts[4],
+                        Long.parseLong(parts[1]), Long.parseLong(parts[2])));
+                } catch (IllegalArgumentException e) {
+                    // Written by a different version; the engine is simply checked again
+                }
+            }
+        }
+
+        void save() throws IOException {
+            StringBuilder content = new StringBuilder();
+            for (Map.Entry<String, Check> entry : new TreeMap<>(checks).entrySet()) {
+                Check check = entry.getValue();
+                if (!check.cacheable()) continue;
+                content.append(entry.getKey()).append('|').append(check.size).append('|').append(check.mtime)
+                    .append('|').append(check.state).append('|').append(check.reported.replace('|', ' ')).append('\n');
+            }
+            Files.createDirectories(cacheFile.getParent());
+            Path temp = Files.createTempFile(cacheFile.getParent(), "engine-checks", ".tmp");
+            Files.writeString(temp, content);
+            Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    // Headless exports of many projects: runs each project's engine with --export-release for the
+    // chosen presets, several jobs at a time. The limit follows the CPU count and the memory that is
+    // free, and a job waits to start while memory is short. Each job keeps the head and tail of its
+    // output, writes it next to its artifacts and reports exit code, timings and exported files.
+    // Used by the Build dialog and by: java GodotProjectManager.java --build
+    static class BuildPipeline {
+        enum JobState { QUEUED, RUNNING, SUCCEEDED, FAILED, TIMED_OUT, CANCELLED }
+
+        static final long DEFAULT_MEMORY_PER_JOB_MB = 1536;
+        static final Duration DEFAULT_TIMEOUT = Duration.ofMinutes(30);
+        private static final java.util.regex.Pattern PRESET_SECTION = java.util.regex.Pattern.compile("^\\[preset\\.(\\d+)\\]$");
+
+        static class Preset {
+            final String name;
+            final String platform;
+            final String exportPath;
+
+            Preset(String name, String platform, String exportPath) {
+                this.name = name;
+                this.platform = platform;
+                this.exportPath = exportPath;
+            }
+        }
+
+        // Keeps the first and the last lines of a process's output
+        static class BoundedLog {
+            private static final int MAX_LINE = 2000;
+            private final int headLines;
+            private final int tailLines;
+            private final List<String> head = new ArrayList<>();
+            private final ArrayDeque<String> tail = new ArrayDeque<>();
+            private long dropped;
+            private volatile String last = "";
+
+            BoundedLog(int headLines, int tailLines) {
+                this.headLines = headLines;
+                this.tailLines = tailLines;
+            }
+
+            synchronized void append(String line) {
+                if (line.length() > MAX_LINE) line = line.substring(0, MAX_LINE) + "...";
+                if (!line.isBlank()) last = line;
+                if (head.size() < headLines) {
+                    head.add(line);
+                    return;
+                }
+                tail.addLast(line);
+                if (tail.size() > tailLines) {
+                    tail.removeFirst();
+                    dropped++;
+                }
+            }
+
+            String last() {
+                return last;
+            }
+
+            @Override
+            public synchronized String toString() {
+                StringBuilder sb = new StringBuilder();
+                for (String line : head) sb.append(line).append('\n');
+                if (dropped > 0) sb.append("[... ").append(dropped).append(" lines omitted ...]\n");
+                for (String line : tail) sb.append(line).append('\n');
+                return sb.toString();
+            }
+        }
+
+        static class Job {
+            final String project;
+            final Path projectDir;
+            final String engineVersion;
+            // null when the project's engine is not installed
+            final String executable;
+            final String preset;
+            final Path output;
+            final Path logFile;
+            final BoundedLog log = new BoundedLog(50, 200);
+            volatile JobState state = JobState.QUEUED;
+            volatile String error = "";
+            volatile int exitCode = -1;
+            volatile long queuedMillis;
+            volatile long millis;
+            volatile List<Path> artifacts = List.of();
+            volatile long artifactBytes;
+
+            Job(String project, Path projectDir, String engineVersion, String executable, String preset,
+                Path output, Path logFile) {
+                this.project = project;
+                this.projectDir = projectDir;
+                this.engineVersion = engineVersion;
+                this.executable = executable;
+                this.preset = preset;
+                this.output = output;
+                this.logFile = logFile;
+            }
+
+            String describe() {
+                switch (state) {
+                    case SUCCEEDED:
+                        return artifacts.size() + " file(s), " + FileOps.formatBytes(artifactBytes);
+                    case CANCELLED:
+                        return "Cancelled";
+                    case FAILED:
+                    case TIMED_OUT:
+                        return error;
+                    default:
+                        return log.last();
+                }
+            }
+        }
+
+        static class Result {
+            final List<Job> jobs;
+            final int concurrency;
+            final long millis;
+
+            Result(List<Job> jobs, int concurrency, long millis) {
+                this.jobs = jobs;
+                this.concurrency = concurrency;
+                this.millis = millis;
+            }
+
+            long failed() {
+                return jobs.stream().filter(job -> job.state != JobState.SUCCEEDED).count();
+            }
+        }
+
+        private final Set<Process> running = ConcurrentHashMap.newKeySet();
+        private final long memoryPerJobMb;
+        private final Duration timeout;
+
+        BuildPipeline(long memoryPerJobMb, Duration timeout) {
+            this.memoryPerJobMb = memoryPerJobMb;
+            this.timeout = timeout;
+        }
+
+        // Presets declared in the project's export_presets.cfg, in file order
+        static List<Preset> presets(Path project) throws IOException {
+            List<Preset> presets = new ArrayList<>();
+            Path file = project.resolve("export_presets.cfg");
+            if (!Files.exists(file)) return presets;
+            Map<String, String> values = null;
+            for (String line : Files.readAllLines(file, java.nio.charset.StandardCharsets.UTF_8)) {
+                line = line.trim();
+                if (line.startsWith("[")) {
+                    addPreset(presets, values);
+                    values = PRESET_SECTION.matcher(line).matches() ? new HashMap<>() : null;
+                } else if (values != null) {
+                    int eq = line.indexOf('=');
+                    if (eq > 0) values.put(line.substring(0, eq).trim(), unquote(line.substring(eq + 1).trim()));
+                }
+            }
+            addPreset(presets, values);
+            return presets;
+        }
+
+        private static void addPreset(List<Preset> presets, Map<String, String> values) {
+            if (values == null || !values.containsKey("name")) return;
+            presets.add(new Preset(values.get("name"), values.getOrDefault("platform", ""),
+                values.getOrDefault("export_path", "")));
+        }
+
+        private static String unquote(String value) {
+            return value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")
+                ? value.substring(1, value.length() - 1).replace("\\\"", "\"") : value;
+        }
+
+        // One job per project and preset; presetNames empty means every preset of each project.
+        // Artifacts go to outputDir/<project>/<preset>/, the log to outputDir/<project>/<preset>.log.
+        // Names come from the projects' own files, so they are made safe and unique per folder.
+        static List<Job> plan(List<GodotProject> projects, Set<String> presetNames,
+                              java.util.function.Function<GodotProject, String> executableFor,
+                              Path outputDir) throws IOException {
+            List<Job> jobs = new ArrayList<>();
+            Set<String> folders = new HashSet<>();
+            for (GodotProject project : projects) {
+                Path projectDir = Paths.get(project.getPath());
+                Path dir = outputDir.resolve(uniqueName(safeName(project.getName(), "project"), folders));
+                // Preset folders and logs share the project folder
+                Set<String> names = new HashSet<>();
+                for (Preset preset : presets(projectDir)) {
+                    if (!presetNames.isEmpty() && !presetNames.contains(preset.name)) continue;
+                    String presetFolder = uniqueName(safeName(preset.name, "preset"), names);
+                    String exported = preset.exportPath.substring(
+                        Math.max(preset.exportPath.lastIndexOf('/'), preset.exportPath.lastIndexOf('\\')) + 1);
+                    String fileName = exported.replace(".", "").isBlank()
+                        ? safeName(project.getName(), "project") + defaultExtension(preset.platform)
+                        : exported;
+                    jobs.add(new Job(project.getName(), projectDir, project.getEngineVersion(),
+                        executableFor.apply(project), preset.name,
+                        dir.resolve(presetFolder).resolve(fileName),
+                        dir.resolve(presetFolder + ".log")));
+                }
+            }
+            return jobs;
+        }
+
+        // Never empty, "." or "..", and no trailing dot or space (Windows drops them, merging names)
+        private static String safeName(String name, String fallback) {
+            String safe = name.replaceAll("[^A-Za-z0-9._ -]+", "_").trim().replaceAll("[. ]+$", "");
+            return safe.isEmpty() ? fallback : safe;
+        }
+
+        // Appends _2, _3, ... until neither the name nor its .log is taken (case-insensitively) and claims both
+        private static String uniqueName(String base, Set<String> taken) {
+            String name = base;
+            for (int i = 2; taken.contains(name.toLowerCase()) || taken.contains(name.toLowerCase() + ".log"); i++) {
+                name = base + "_" + i;
+            }
+            taken.add(name.toLowerCase());
+            taken.add(name.toLowerCase() + ".log");
+            return name;
+        }
+
+        private static String defaultExtension(String platform) {
+            String p = platform.toLowerCase();
+            if (p.startsWith("windows")) return ".exe";
+            if (p.startsWith("linux") || p.startsWith("x11")) return ".x86_64";
+            if (p.startsWith("mac")) return ".zip";
+            if (p.equals("web") || p.equals("html5")) return ".html";
+            if (p.equals("android")) return ".apk";
+            if (p.equals("ios")) return ".ipa";
+            return ".pck";
+        }
+
+        // Exports use several threads each (texture compression), so half the cores, and no more
+        // jobs than the free memory holds
+        int defaultConcurrency() {
+            int cpu = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+            long free = availableMemoryMb();
+            return free < 0 ? cpu : (int) Math.max(1, Math.min(cpu, free / memoryPerJobMb));
+        }
+
+        // Runs the jobs as child tasks of the current task; onFinished is called from the job's thread
+        Result run(List<Job> jobs, int maxConcurrent, java.util.function.Consumer<Job> onFinished)
+                throws InterruptedException, ExecutionException {
+            long start = System.nanoTime();
+            try (TaskManager.Scope<Job> scope = new TaskManager.Scope<>(maxConcurrent, false)) {
+                for (Job job : jobs) {
+                    scope.fork(job.project + ": " + job.preset, listener -> {
+                        job.queuedMillis = (System.nanoTime() - start) / 1_000_000;
+                        try {
+                            export(job, listener);
+                        } finally {
+                            onFinished.accept(job);
+                        }
+                        return job;
+                    });
+                }
+                scope.join();
+            }
+            return new Result(jobs, maxConcurrent, (System.nanoTime() - start) / 1_000_000);
+        }
+
+        // Kills running exports, for a shutdown hook
+        void destroyAll() {
+            for (Process process : running) destroyTree(process);
+        }
+
+        private void export(Job job, ProgressListener listener) throws Exception {
+            // Stale files would pass for this run's artifacts and log. Only ever clear a folder strictly
+            // inside the project's output folder, whatever the names planned.
+            Path artifactDir = job.output.getParent();
+            Path projectOutput = job.logFile.getParent().normalize();
+            if (!artifactDir.normalize().startsWith(projectOutput) || artifactDir.normalize().equals(projectOutput)) {
+                fail(job, "Refusing to clear " + artifactDir + ": it is not inside " + projectOutput);
+                return;
+            }
+            FileOps.deleteTree(artifactDir);
+            Files.deleteIfExists(job.logFile);
+            if (job.executable == null) {
+                fail(job, "Godot " + job.engineVersion + " is not installed");
+                return;
+            }
+            if (!Files.isRegularFile(job.projectDir.resolve("project.godot"))) {
+                fail(job, "project.godot not found in " + job.projectDir);
+                return;
+            }
+            awaitMemory(listener);
+            Files.createDirectories(artifactDir);
+
+            ProcessBuilder pb = new ProcessBuilder(command(job));
+            pb.directory(job.projectDir.toFile());
+            pb.redirectErrorStream(true);
+
+            job.state = JobState.RUNNING;
+            long begin = System.nanoTime();
+            ProcessLaunchEvent event = new ProcessLaunchEvent();
+            event.executable = job.executable;
+            event.project = job.projectDir.toString();
+            try (Diagnostics.Span span = Diagnostics.begin("Export", event)) {
+                Process process;
+                try {
+                    process = pb.start();
+                } catch (IOException e) {
+                    fail(job, String.valueOf(e.getMessage()));
+                    return;
+                }
+                running.add(process);
+                event.pid = process.pid();
+                Thread reader = Thread.ofVirtual().name("export log: " + job.project).start(() -> {
+                    try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                            process.getInputStream(), java.nio.charset.StandardCharsets.UTF_8))) {
+                        String line;
+                        while ((line = in.readLine()) != null) job.log.append(line);
+                    } catch (IOException e) {
+                        // The process was killed
+                    }
+                });
+                try {
+                    long deadline = begin + timeout.toNanos();
+                    while (!process.waitFor(250, TimeUnit.MILLISECONDS)) {
+                        if (System.nanoTime() > deadline) {
+                            job.state = JobState.TIMED_OUT;
+                            job.error = "Timed out after " + timeout.toMinutes() + " min";
+                            destroyTree(process);
+                            break;
+                        }
+                        listener.progress(job.log.last(), 0, 0);
+                    }
+                    process.waitFor();
+                    reader.join();
+                    job.exitCode = process.exitValue();
+                } catch (InterruptedException | CancellationException e) {
+                    job.state = JobState.CANCELLED;
+                    throw e;
+                } finally {
+                    if (process.isAlive()) destroyTree(process);
+                    running.remove(process);
+                    job.millis = (System.nanoTime() - begin) / 1_000_000;
+                    writeLog(job);
+                }
+
+                if (job.state == JobState.RUNNING) {
+                    collectArtifacts(job);
+                    if (job.exitCode != 0) {
+                        fail(job, "Exit code " + job.exitCode + lastError(job));
+                    } else if (job.artifacts.isEmpty()) {
+                        fail(job, "Nothing was exported" + lastError(job));
+                    } else {
+                        job.state = JobState.SUCCEEDED;
+                    }
+                }
+                event.success = job.state == JobState.SUCCEEDED;
+                span.complete(job.artifactBytes);
+            }
+        }
+
+        // Godot 3 has no --headless and names the release export --export
+        static List<String> command(Job job) {
+            boolean godot3 = EngineValidator.numericVersion(job.engineVersion).startsWith("3.");
+            return List.of(job.executable,
+                godot3 ? "--no-window" : "--headless",
+                "--path", job.projectDir.toString(),
+                godot3 ? "--export" : "--export-release", job.preset,
+                job.output.toString());
+        }
+
+        private void awaitMemory(ProgressListener listener) throws InterruptedException {
+            while (!running.isEmpty()) {
+                long free = availableMemoryMb();
+                if (free < 0 || free >= memoryPerJobMb) return;
+                listener.progress("Waiting for memory (" + free + " MB free)", 0, 0);
+                Thread.sleep(1000);
+            }
+        }
+
+        private static void collectArtifacts(Job job) throws IOException {
+            List<Path> files;
+            try (Stream<Path> walk = Files.walk(job.output.getParent())) {
+                files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+            }
+            long bytes = 0;
+            for (Path file : files) bytes += Files.size(file);
+            job.artifacts = files;
+            job.artifactBytes = bytes;
+        }
+
+        private static void writeLog(Job job) {
+            try {
+                Files.writeString(job.logFile, job.log.toString(), java.nio.charset.StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                System.err.println("Could not write " + job.logFile + ": " + e.getMessage());
+            }
+        }
+
+        private static String lastError(Job job) {
+            String last = job.log.last();
+            return last.isEmpty() ? "" : ": " + last.trim();
+        }
+
+        private static void fail(Job job, String error) {
+            job.state = JobState.FAILED;
+            job.error = error;
+        }
+
+        static void destroyTree(Process process) {
+            process.descendants().forEach(ProcessHandle::destroyForcibly);
+            process.destroyForcibly();
+        }
+
+        // MemAvailable on Linux, which counts reclaimable cache; free physical memory elsewhere. -1 if unknown.
+        static long availableMemoryMb() {
+            Path meminfo = Paths.get("/proc/meminfo");
+            if (Files.isReadable(meminfo)) {
+                try {
+                    for (String line : Files.readAllLines(meminfo)) {
+                        if (line.startsWith("MemAvailable:")) {
+                            return Long.parseLong(line.replaceAll("[^0-9]", "")) / 1024;
+                        }
+                    }
+                } catch (IOException | NumberFormatException e) {
+                    // Fall back to the management bean
+                }
+            }
+            java.lang.management.OperatingSystemMXBean os = java.lang.management.ManagementFactory.getOperatingSystemMXBean();
+            if (os instanceof com.sun.management.OperatingSystemMXBean) {
+                return ((com.sun.management.OperatingSystemMXBean) os).getFreeMemorySize() >> 20;
+            }
+            return -1;
+        }
+
+        // java GodotProjectManager.java --build [--project NAME|PATH]... [--all] [--preset NAME]...
+        //   [--output DIR] [--jobs N] [--memory-per-job MB] [--timeout MINUTES] [--engine EXE] [--data FILE]
+        static int runHeadless(String[] args) {
+            List<String> selected = new ArrayList<>();
+            Set<String> presetNames = new LinkedHashSet<>();
+            boolean all = false;
+            Path output = Paths.get("build");
+            int jobs = 0;
+            long memoryPerJob = DEFAULT_MEMORY_PER_JOB_MB;
+            Duration timeout = DEFAULT_TIMEOUT;
+            String engineOverride = null;
+            Path data = defaultDataFile();
+            try {
+                for (int i = 0; i < args.length; i++) {
+                    switch (args[i]) {
+                        case "--project": selected.add(args[++i]); break;
+                        case "--all": all = true; break;
+                        case "--preset": presetNames.add(args[++i]); break;
+                        case "--output": output = Paths.get(args[++i]); break;
+                        case "--jobs": jobs = Integer.parseInt(args[++i]); break;
+                        case "--memory-per-job": memoryPerJob = Long.parseLong(args[++i]); break;
+                        case "--timeout": timeout = Duration.ofMinutes(Long.parseLong(args[++i])); break;
+                        case "--engine": engineOverride = args[++i]; break;
+                        case "--data": data = Paths.get(args[++i]).toAbsolutePath(); break;
+                        default: throw new IllegalArgumentException(args[i]);
+                    }
+                }
+                if (selected.isEmpty() && !all) throw new IllegalArgumentException("no projects");
+            } catch (RuntimeException e) {
+                System.err.println("Usage: --build (--all | --project NAME|PATH ...) [--preset NAME ...] [--output build]\n" +
+                    "       [--jobs N] [--memory-per-job " + DEFAULT_MEMORY_PER_JOB_MB + "] [--timeout " +
+                    DEFAULT_TIMEOUT.toMinutes() + "] [--engine EXE] [--data FILE]");
+                return 2;
+            }
+
+            try {
+                SharedDataFile.Snapshot snapshot = new SharedDataFile(data).load();
+                if (snapshot == null) {
+                    System.err.println("No data file at " + data);
+                    return 2;
+                }
+                Registry registry = new Registry();
+                registry.reload(snapshot.toEngines(), snapshot.toProjects());
+                List<GodotProject> projects = new ArrayList<>();
+                for (GodotProject project : registry.projects()) {
+                    if (all || selected.contains(project.getName()) || selected.contains(project.getPath())) projects.add(project);
+                }
+                if (projects.isEmpty()) {
+                    System.err.println("No matching projects in " + data);
+                    return 2;
+                }
+
+                String override = engineOverride;
+                List<Job> planned = plan(projects, presetNames, project -> {
+                    if (override != null) return override;
+                    GodotEngine engine = registry.findInstalledEngine(project.getEngineVersion());
+                    return engine == null ? null : engine.getInstalledPath();
+                }, output.toAbsolutePath());
+                if (planned.isEmpty()) {
+                    System.err.println("No matching export presets");
+                    return 2;
+                }
+
+                BuildPipeline pipeline = new BuildPipeline(memoryPerJob, timeout);
+                int concurrency = jobs > 0 ? jobs : pipeline.defaultConcurrency();
+                Thread hook = new Thread(pipeline::destroyAll);
+                Runtime.getRuntime().addShutdownHook(hook);
+                System.out.println("Exporting " + planned.size() + " job(s), " + concurrency + " at a time, to " + output.toAbsolutePath());
+                Result result = pipeline.run(planned, concurrency, job -> System.out.printf("%-9s %8s  %s / %s  %s%n",
+                    job.state == JobState.SUCCEEDED ? "ok" : job.state.toString(),
+                    Diagnostics.formatMillis(job.millis), job.project, job.preset, job.describe()));
+                Runtime.getRuntime().removeShutdownHook(hook);
+                for (Job job : result.jobs) {
+                    if (job.state != JobState.SUCCEEDED && Files.exists(job.logFile)) System.out.println("log: " + job.logFile);
+                }
+                System.out.println(result.jobs.size() + " job(s), " + result.failed() + " failed, in " +
+                    Diagnostics.formatMillis(result.millis));
+                return result.failed() == 0 ? 0 : 1;
+            } catch (Exception e) {
+                e.printStackTrace();
+                return 1;
+            }
+        }
+    }
+
+    // Working-tree status of the git repositories projects live in, for the VCS column. Checks run
+    // `git status --porcelain` on a small pool so a thousand repositories don't thrash the disk.
+    // Results are kept until .git, .git/index or .git/HEAD change; because edits to tracked files
+    // don't touch .git, a result is also re-checked once it is older than the refresh interval.
+    static class VcsStatus {
+        static final String CHECKING = "...";
+        static final String NO_REPOSITORY = "";
+        private static final long RECHECK_MILLIS = 30_000;
+        private static final long REFRESH_MILLIS = 5 * 60_000;
+        private static final long TIMEOUT_SECONDS = 10;
+
+        private static class Entry {
+            final String status;
+            final long stamp;
+            final long ranAt;
+            volatile long checkedAt;
+
+            Entry(String status, long stamp, long ranAt) {
+                this.status = status;
+                this.stamp = stamp;
+                this.ranAt = ranAt;
+                this.checkedAt = ranAt;
+            }
+        }
+
+        private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+        private final Set<String> pending = ConcurrentHashMap.newKeySet();
+        private final ThreadPoolExecutor pool;
+        private final Runnable onUpdated;
+        private volatile boolean gitMissing;
+
+        VcsStatus(int threads, Runnable onUpdated) {
+            this.onUpdated = onUpdated;
+            this.pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                Thread thread = new Thread(r, "vcs-status");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.NORM_PRIORITY - 1);
+                return thread;
+            });
+            pool.allowCoreThreadTimeOut(true);
+        }
+
+        // Cached status for display; queues a check when there is none or it may be out of date
+        String get(String projectPath) {
+            if (gitMissing) return NO_REPOSITORY;
+            Entry entry = cache.get(projectPath);
+            if ((entry == null || System.currentTimeMillis() - entry.checkedAt > RECHECK_MILLIS) && pending.add(projectPath)) {
+                pool.execute(() -> check(projectPath));
+            }
+            return entry != null ? entry.status : CHECKING;
+        }
+
+        // Forces the next get() of every project to re-run git
+        void invalidate() {
+            cache.clear();
+        }
+
+        private void check(String projectPath) {
+            try {
+                Path project = Paths.get(projectPath);
+                Path gitDir = findGitDir(project);
+                long stamp = gitDir != null ? stamp(gitDir) : 0;
+                long now = System.currentTimeMillis();
+                Entry entry = cache.get(projectPath);
+                if (entry != null && entry.stamp == stamp && now - entry.ranAt < REFRESH_MILLIS) {
+                    entry.checkedAt = now;
+                    return;
+                }
+                // A registered folder that was deleted or moved has no status of its own
+                String status = gitDir != null && Files.isDirectory(project) ? run(project) : NO_REPOSITORY;
+                cache.put(projectPath, new Entry(status, stamp, now));
+                if (entry == null || !entry.status.equals(status)) onUpdated.run();
+            } catch (Exception e) {
+                cache.put(projectPath, new Entry("Error", 0, System.currentTimeMillis()));
+                onUpdated.run();
+            } finally {
+                pending.remove(projectPath);
+            }
+        }
+
+        // The .git directory of the repository containing the project, following worktree links
+        static Path findGitDir(Path project) throws IOException {
+            for (Path dir = project.toAbsolutePath(); dir != null; dir = dir.getParent()) {
+                Path git = dir.resolve(".git");
+                if (Files.isDirectory(git)) return git;
+                if (Files.isRegularFile(git)) {
+                    String content = Files.readString(git).trim();
+                    if (content.startsWith("gitdir:")) return dir.resolve(content.substring("gitdir:".length()).trim()).normalize();
+                }
+            }
+            return null;
+        }
+
+        static long stamp(Path gitDir) {
+            long stamp = gitDir.toFile().lastModified();
+            stamp = stamp * 31 + gitDir.resolve("index").toFile().lastModified();
+            return stamp * 31 + gitDir.resolve("HEAD").toFile().lastModified();
+        }
+
+        // "main, clean", "main [ahead 2], 3 changed", ... from `git status --porcelain -b`, limited to the project folder
+        String run(Path project) throws IOException, InterruptedException {
+            ProcessBuilder pb = new ProcessBuilder("git", "status", "--porcelain", "-b", "--", ".");
+            pb.directory(project.toFile());
+            pb.redirectErrorStream(true);
+            // Without this, status refreshes the index and its mtime would invalidate our own cache
+            pb.environment().put("GIT_OPTIONAL_LOCKS", "0");
+            Process process;
+            try {
+                process = pb.start();
+            } catch (IOException e) {
+                // Only a git that cannot be started anywhere blanks the column; anything else is this project's error
+                if (!gitRuns()) {
+                    gitMissing = true;
+                    return NO_REPOSITORY;
+                }
+                throw e;
+            }
+            // Read on another thread so the timeout also covers a git that hangs without closing its output
+            List<String> lines = Collections.synchronizedList(new ArrayList<>());
+            Thread reader = Thread.ofVirtual().name("git status: " + project).start(() -> {
+                try (BufferedReader in = new BufferedReader(new InputStreamReader(process.getInputStream(), java.nio.charset.StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = in.readLine()) != null) {
+                        if (lines.size() < 100_000) lines.add(line);
+                    }
+                } catch (IOException e) {
+                    // The process was killed
+                }
+            });
+            try {
+                if (!process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                    return "Timed out";
+                }
+                reader.join();
+            } finally {
+                if (process.isAlive()) process.destroyForcibly();
+            }
+            if (process.exitValue() != 0) return "Error";
+            return describe(lines);
+        }
+
+        private static boolean gitRuns() {
+            try {
+                Process process = new ProcessBuilder("git", "--version").redirectErrorStream(true).start();
+                process.getInputStream().transferTo(OutputStream.nullOutputStream());
+                return process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS) && process.exitValue() == 0;
+            } catch (IOException e) {
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return true;
+            }
+        }
+
+        static String describe(List<String> lines) {
+            String branch = "";
+            int changed = 0;
+            int untracked = 0;
+            for (String line : lines) {
+                if (line.startsWith("## ")) {
+                    branch = line.substring(3);
+                } else if (line.startsWith("??")) {
+                    untracked++;
+                } else if (!line.isEmpty()) {
+                    changed++;
+                }
+            }
+            // "main...origin/main [ahead 1, behind 2]" or "No commits yet on main"
+            String ahead = "";
+            int bracket = branch.indexOf(" [");
+            if (bracket >= 0) {
+                ahead = branch.substring(bracket + 1);
+                branch = branch.substring(0, bracket);
+            }
+            int dots = branch.indexOf("...");
+            if (dots >= 0) branch = branch.substring(0, dots);
+            if (branch.startsWith("No commits yet on ")) branch = branch.substring("No commits yet on ".length());
+
+            StringBuilder status = new StringBuilder(branch);
+            if (!ahead.isEmpty()) status.append(' ').append(ahead);
+            if (changed > 0) status.append(", ").append(changed).append(" changed");
+            if (untracked > 0) status.append(", ").append(untracked).append(" untracked");
+            if (changed == 0 && untracked == 0) status.append(", clean");
+            return status.toString();
+        }
+    }
+
+    // Renders the SVG subset Godot icons use: paths, basic shapes and groups with transforms, solid
+    // fills and strokes. Gradients are drawn with their first stop colour; text, filters, masks and
+    // clip paths are ignored. Good enough for a 24 px thumbnail without an SVG library.
+    static class SvgRenderer {
+        private static final Map<String, Color> NAMED_COLORS = Map.ofEntries(
+            Map.entry("black", Color.BLACK), Map.entry("white", Color.WHITE), Map.entry("red", Color.RED),
+            Map.entry("green", new Color(0, 128, 0)), Map.entry("blue", Color.BLUE), Map.entry("yellow", Color.YELLOW),
+            Map.entry("gray", Color.GRAY), Map.entry("grey", Color.GRAY), Map.entry("orange", Color.ORANGE),
+            Map.entry("transparent", new Color(0, 0, 0, 0)));
+
+        private final Map<String, org.w3c.dom.Element> ids = new HashMap<>();
+
+        private static class Style {
+            Color fill = Color.BLACK;
+            Color stroke;
+            float strokeWidth = 1;
+            float opacity = 1;
+            float fillOpacity = 1;
+            float strokeOpacity = 1;
+            boolean evenOdd;
+            int cap = BasicStroke.CAP_BUTT;
+            int join = BasicStroke.JOIN_MITER;
+
+            Style copy() {
+                Style style = new Style();
+                style.fill = fill;
+                style.stroke = stroke;
+                style.strokeWidth = strokeWidth;
+                style.opacity = opacity;
+                style.fillOpacity = fillOpacity;
+                style.strokeOpacity = strokeOpacity;
+                style.evenOdd = evenOdd;
+                style.cap = cap;
+                style.join = join;
+                return style;
+            }
+        }
+
+        static BufferedImage render(Path file, int size) throws IOException {
+            org.w3c.dom.Document document;
+            try {
+                javax.xml.parsers.DocumentBuilderFactory factory = javax.xml.parsers.DocumentBuilderFactory.newInstance();
+                factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+                factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+                factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+                factory.setExpandEntityReferences(false);
+                javax.xml.parsers.DocumentBuilder builder = factory.newDocumentBuilder();
+                document = builder.parse(file.toFile());
+            } catch (javax.xml.parsers.ParserConfigurationException | org.xml.sax.SAXException e) {
+                throw new IOException("Invalid SVG " + file + ": " + e.getMessage(), e);
+            }
+
+            org.w3c.dom.Element root = document.getDocumentElement();
+            if (!tag(root).equals("svg")) throw new IOException("Not an SVG file: " + file);
+            SvgRenderer renderer = new SvgRenderer();
+            renderer.collectIds(root);
+
+            double[] box = viewBox(root);
+            BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = image.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+            double scale = Math.min(size / box[2], size / box[3]);
+            g.translate((size - box[2] * scale) / 2, (size - box[3] * scale) / 2);
+            g.scale(scale, scale);
+            g.translate(-box[0], -box[1]);
+            renderer.draw(g, root, new Style());
+            g.dispose();
+            return image;
+        }
+
+        private static String tag(org.w3c.dom.Element element) {
+            String name = element.getTagName();
+            return name.substring(name.indexOf(':') + 1).toLowerCase();
+        }
+
+        private void collectIds(org.w3c.dom.Element element) {
+            if (element.hasAttribute("id")) ids.put(element.getAttribute("id"), element);
+            for (org.w3c.dom.Element child : children(element)) collectIds(child);
+        }
+
+        private static List<org.w3c.dom.Element> children(org.w3c.dom.Element element) {
+            List<org.w3c.dom.Element> children = new ArrayList<>();
+            org.w3c.dom.NodeList nodes = element.getChildNodes();
+            for (int i = 0; i < nodes.getLength(); i++) {
+                if (nodes.item(i) instanceof org.w3c.dom.Element) children.add((org.w3c.dom.Element) nodes.item(i));
+            }
+            return children;
+        }
+
+        private static double[] viewBox(org.w3c.dom.Element root) {
+            String viewBox = root.getAttribute("viewBox").trim();
+            if (!viewBox.isEmpty()) {
+                String[] parts = viewBox.split("[\\s,]+");
+                if (parts.length == 4) {
+                    double[] box = new double[4];
+                    for (int i = 0; i < 4; i++) box[i] = Double.parseDouble(parts[i]);
+                    if (box[2] > 0 && box[3] > 0) return box;
+                }
+            }
+            double width = length(root.getAttribute("width"), 128);
+            double height = length(root.getAttribute("height"), 128);
+            return new double[]{0, 0, width, height};
+        }
+
+        private static double length(String value, double fallback) {
+            java.util.regex.Matcher m = java.util.regex.Pattern.compile("^\\s*([-+]?[0-9]*\\.?[0-9]+(?:[eE][-+]?[0-9]+)?)").matcher(value);
+            if (!m.find() || value.contains("%")) return fallback;
+            return Double.parseDouble(m.group(1));
+        }
+
+        private void draw(Graphics2D g, org.w3c.dom.Element element, Style inherited) {
+            if ("none".equals(property(element, "display")) || "hidden".equals(property(element, "visibility"))) return;
+            Style style = derive(element, inherited);
+            AffineTransform saved = g.getTransform();
+            if (element.hasAttribute("transform")) g.transform(transform(element.getAttribute("transform")));
+
+            Shape shape = null;
+            switch (tag(element)) {
+                case "svg":
+                case "g":
+                case "a":
+                case "switch":
+                    for (org.w3c.dom.Element child : children(element)) draw(g, child, style);
+                    break;
+                case "path":
+                    shape = path(element.getAttribute("d"));
+                    break;
+                case "rect": {
+                    double x = number(element, "x"), y = number(element, "y");
+                    double w = number(element, "width"), h = number(element, "height");
+                    double rx = number(element, "rx"), ry = number(element, "ry");
+                    if (rx == 0) rx = ry;
+                    if (ry == 0) ry = rx;
+                    shape = rx > 0 ? new RoundRectangle2D.Double(x, y, w, h, rx * 2, ry * 2) : new Rectangle2D.Double(x, y, w, h);
+                    break;
+                }
+                case "circle": {
+                    double r = number(element, "r");
+                    shape = new Ellipse2D.Double(number(element, "cx") - r, number(element, "cy") - r, r * 2, r * 2);
+                    break;
+                }
+                case "ellipse": {
+                    double rx = number(element, "rx"), ry = number(element, "ry");
+                    shape = new Ellipse2D.Double(number(element, "cx") - rx, number(element, "cy") - ry, rx * 2, ry * 2);
+                    break;
+                }
+                case "line":
+                    shape = new Line2D.Double(number(element, "x1"), number(element, "y1"), number(element, "x2"), number(element, "y2"));
+                    break;
+                case "polyline":
+                case "polygon": {
+                    String[] points = element.getAttribute("points").trim().split("[\\s,]+");
+                    Path2D.Double poly = new Path2D.Double();
+                    for (int i = 0; i + 1 < points.length; i += 2) {
+                        double x = Double.parseDouble(points[i]), y = Double.parseDouble(points[i + 1]);
+                        if (i == 0) poly.moveTo(x, y); else poly.lineTo(x, y);
+                    }
+                    if (tag(element).equals("polygon")) poly.closePath();
+                    shape = poly;
+                    break;
+                }
+                default:
+                    // defs, gradients, metadata, text and anything else we do not paint
+                    break;
+            }
+
+            if (shape != null) paint(g, shape, style);
+            g.setTransform(saved);
+        }
+
+        private static void paint(Graphics2D g, Shape shape, Style style) {
+            if (style.fill != null) {
+                Path2D.Double filled = new Path2D.Double(shape);
+                filled.setWindingRule(style.evenOdd ? Path2D.WIND_EVEN_ODD : Path2D.WIND_NON_ZERO);
+                g.setColor(alpha(style.fill, style.opacity * style.fillOpacity));
+                g.fill(filled);
+            }
+            if (style.stroke != null && style.strokeWidth > 0) {
+                g.setColor(alpha(style.stroke, style.opacity * style.strokeOpacity));
+                g.setStroke(new BasicStroke(style.strokeWidth, style.cap, style.join));
+                g.draw(shape);
+            }
+        }
+
+        private static Color alpha(Color color, float opacity) {
+            int a = Math.round(color.getAlpha() * Math.max(0, Math.min(1, opacity)));
+            return new Color(color.getRed(), color.getGreen(), color.getBlue(), a);
+        }
+
+        private static double number(org.w3c.dom.Element element, String name) {
+            return length(element.getAttribute(name), 0);
+        }
+
+        // Presentation attribute, overridden by the same property in style=""
+        private static String property(org.w3c.dom.Element element, String name) {
+            String style = element.getAttribute("style");
+            for (String declaration : style.split(";")) {
+                int colon = declaration.indexOf(':');
+                if (colon > 0 && declaration.substring(0, colon).trim().equals(name)) {
+                    return declaration.substring(colon + 1).trim();
+                }
+            }
+            String value = element.getAttribute(name).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        private Style derive(org.w3c.dom.Element element, Style inherited) {
+            Style style = inherited.copy();
+            String fill = property(element, "fill");
+            if (fill != null) style.fill = color(fill, inherited.fill);
+            String stroke = property(element, "stroke");
+            if (stroke != null) style.stroke = color(stroke, inherited.stroke);
+            String strokeWidth = property(element, "stroke-width");
+            if (strokeWidth != null) style.strokeWidth = (float) length(strokeWidth, 1);
+            String opacity = property(element, "opacity");
+            if (opacity != null) style.opacity = inherited.opacity * (float) length(opacity, 1);
+            String fillOpacity = property(element, "fill-opacity");
+            if (fillOpacity != null) style.fillOpacity = (float) length(fillOpacity, 1);
+            String strokeOpacity = property(element, "stroke-opacity");
+            if (strokeOpacity != null) style.strokeOpacity = (float) length(strokeOpacity, 1);
+            String fillRule = property(element, "fill-rule");
+            if (fillRule != null) style.evenOdd = fillRule.equals("evenodd");
+            String cap = property(element, "stroke-linecap");
+            if (cap != null) {
+                style.cap = cap.equals("round") ? BasicStroke.CAP_ROUND : cap.equals("square") ? BasicStroke.CAP_SQUARE : BasicStroke.CAP_BUTT;
+            }
+            String join = property(element, "stroke-linejoin");
+            if (join != null) {
+                style.join = join.equals("round") ? BasicStroke.JOIN_ROUND : join.equals("bevel") ? BasicStroke.JOIN_BEVEL : BasicStroke.JOIN_MITER;
+            }
+            return style;
+        }
+
+        private Color color(String value, Color inherited) {
+            value = value.trim();
+            if (value.equals("none")) return null;
+            if (value.equals("inherit")) return inherited;
+            if (value.equals("currentColor")) return Color.BLACK;
+            try {
+                if (value.startsWith("url(")) {
+                    // Approximate a gradient with its first stop
+                    String id = value.substring(value.indexOf('#') + 1, value.indexOf(')'));
+                    org.w3c.dom.Element gradient = ids.get(id);
+                    while (gradient != null) {
+                        for (org.w3c.dom.Element stop : children(gradient)) {
+                            if (tag(stop).equals("stop")) {
+                                String stopColor = property(stop, "stop-color");
+                                return stopColor != null ? color(stopColor, inherited) : Color.BLACK;
+                            }
+                        }
+                        // Stops may live on a gradient referenced with xlink:href
+                        String href = gradient.hasAttribute("href") ? gradient.getAttribute("href") : gradient.getAttribute("xlink:href");
+                        gradient = href.startsWith("#") ? ids.get(href.substring(1)) : null;
+                    }
+                    return Color.GRAY;
+                }
+                if (value.startsWith("#")) {
+                    String hex = value.substring(1);
+                    if (hex.length() == 3 || hex.length() == 4) {
+                        StringBuilder sb = new StringBuilder();
+                        for (char c : hex.toCharArray()) sb.append(c).append(c);
+                        hex = sb.toString();
+                    }
+                    long rgba = Long.parseLong(hex, 16);
+                    if (hex.length() == 8) {
+                        return new Color((int) (rgba >> 24) & 0xFF, (int) (rgba >> 16) & 0xFF, (int) (rgba >> 8) & 0xFF, (int) rgba & 0xFF);
+                    }
+                    return new Color((int) rgba);
+                }
+                if (value.startsWith("rgb")) {
+                    String[] parts = value.substring(value.indexOf('(') + 1, value.indexOf(')')).split("[\\s,/]+");
+                    int[] rgb = new int[3];
+                    for (int i = 0; i < 3; i++) {
+                        rgb[i] = parts[i].endsWith("%")
+                            ? (int) Math.round(Double.parseDouble(parts[i].substring(0, parts[i].length() - 1)) * 2.55)
+                            : (int) Math.round(Double.parseDouble(parts[i]));
+                    }
+                    int a = parts.length > 3 ? (int) Math.round(length(parts[3], 1) * 255) : 255;
+                    return new Color(clamp(rgb[0]), clamp(rgb[1]), clamp(rgb[2]), clamp(a));
+                }
+            } catch (RuntimeException e) {
+                return inherited;
+            }
+            return NAMED_COLORS.getOrDefault(value.toLowerCase(), inherited);
+        }
+
+        private static int clamp(int value) {
+            return Math.max(0, Math.min(255, value));
+        }
+
+        static AffineTransform transform(String value) {
+            AffineTransform result = new AffineTransform();
+            java.util.regex.Matcher m = java.util.regex.Pattern.compile("(\\w+)\\s*\\(([^)]*)\\)").matcher(value);
+            while (m.find()) {
+                String[] parts = m.group(2).trim().split("[\\s,]+");
+                double[] a = new double[parts.length];
+                for (int i = 0; i < parts.length; i++) a[i] = parts[i].isEmpty() ? 0 : Double.parseDouble(parts[i]);
+                switch (m.group(1)) {
+                    case "matrix":
+                        if (a.length == 6) result.concatenate(new AffineTransform(a[0], a[1], a[2], a[3], a[4], a[5]));
+                        break;
+                    case "translate":
+                        result.translate(a[0], a.length > 1 ? a[1] : 0);
+                        break;
+                    case "scale":
+                        result.scale(a[0], a.length > 1 ? a[1] : a[0]);
+                        break;
+                    case "rotate":
+                        if (a.length == 3) result.rotate(Math.toRadians(a[0]), a[1], a[2]);
+                        else result.rotate(Math.toRadians(a[0]));
+                        break;
+                    case "skewX":
+                        result.shear(Math.tan(Math.toRadians(a[0])), 0);
+                        break;
+                    case "skewY":
+                        result.shear(0, Math.tan(Math.toRadians(a[0])));
+                        break;
+                    default:
+                        break;
+                }
+            }
+            return result;
+        }
+
+        // Full SVG path grammar, including implicit repeats, smooth curves and elliptical arcs
+        static Path2D path(String d) {
+            Path2D.Double path = new Path2D.Double();
+            PathScanner in = new PathScanner(d);
+            char command = 0;
+            char previous = 0;
+            double x = 0, y = 0, startX = 0, startY = 0, controlX = 0, controlY = 0;
+            while (in.skipSeparators()) {
+                if (in.atCommand()) {
+                    command = in.command();
+                } else if (command == 0 || command == 'Z' || command == 'z') {
+                    break;
+                }
+                boolean relative = Character.isLowerCase(command);
+                double ox = relative ? x : 0, oy = relative ? y : 0;
+                char type = Character.toUpperCase(command);
+                switch (type) {
+                    case 'M':
+                        x = ox + in.number();
+                        y = oy + in.number();
+                        path.moveTo(x, y);
+                        startX = x;
+                        startY = y;
+                        // Further coordinate pairs are implicit line-tos
+                        command = relative ? 'l' : 'L';
+                        break;
+                    case 'L':
+                        x = ox + in.number();
+                        y = oy + in.number();
+                        path.lineTo(x, y);
+                        break;
+                    case 'H':
+                        x = ox + in.number();
+                        path.lineTo(x, y);
+                        break;
+                    case 'V':
+                        y = oy + in.number();
+                        path.lineTo(x, y);
+                        break;
+                    case 'C': {
+                        double x1 = ox + in.number(), y1 = oy + in.number();
+                        controlX = ox + in.number();
+                        controlY = oy + in.number();
+                        x = ox + in.number();
+                        y = oy + in.number();
+                        path.curveTo(x1, y1, controlX, controlY, x, y);
+                        break;
+                    }
+                    case 'S': {
+                        double x1 = previous == 'C' || previous == 'S' ? 2 * x - controlX : x;
+                        double y1 = previous == 'C' || previous == 'S' ? 2 * y - controlY : y;
+                        controlX = ox + in.number();
+                        controlY = oy + in.number();
+                        x = ox + in.number();
+                        y = oy + in.number();
+                        path.curveTo(x1, y1, controlX, controlY, x, y);
+                        break;
+                    }
+                    case 'Q':
+                        controlX = ox + in.number();
+                        controlY = oy + in.number();
+                        x = ox + in.number();
+                        y = oy + in.number();
+                        path.quadTo(controlX, controlY, x, y);
+                        break;
+                    case 'T':
+                        controlX = previous == 'Q' || previous == 'T' ? 2 * x - controlX : x;
+                        controlY = previous == 'Q' || previous == 'T' ? 2 * y - controlY : y;
+                        x = ox + in.number();
+                        y = oy + in.number();
+                        path.quadTo(controlX, controlY, x, y);
+                        break;
+                    case 'A': {
+                        double rx = in.number(), ry = in.number(), angle = in.number();
+                        boolean largeArc = in.flag(), sweep = in.flag();
+                        double x1 = ox + in.number(), y1 = oy + in.number();
+                        arcTo(path, x, y, rx, ry, angle, largeArc, sweep, x1, y1);
+                        x = x1;
+                        y = y1;
+                        break;
+                    }
+                    case 'Z':
+                        path.closePath();
+                        x = startX;
+                        y = startY;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown path command " + command);
+                }
+                previous = type;
+            }
+            return path;
+        }
+
+        // Endpoint to centre parameterisation from the SVG implementation notes
+        private static void arcTo(Path2D path, double x0, double y0, double rx, double ry, double angle,
+                                  boolean largeArc, boolean sweep, double x, double y) {
+            if (x0 == x && y0 == y) return;
+            rx = Math.abs(rx);
+            ry = Math.abs(ry);
+            if (rx == 0 || ry == 0) {
+                path.lineTo(x, y);
+                return;
+            }
+            double phi = Math.toRadians(angle % 360);
+            double cos = Math.cos(phi), sin = Math.sin(phi);
+            double dx = (x0 - x) / 2, dy = (y0 - y) / 2;
+            double x1 = cos * dx + sin * dy, y1 = -sin * dx + cos * dy;
+            double lambda = x1 * x1 / (rx * rx) + y1 * y1 / (ry * ry);
+            if (lambda > 1) {
+                rx *= Math.sqrt(lambda);
+                ry *= Math.sqrt(lambda);
+            }
+            double numerator = rx * rx * ry * ry - rx * rx * y1 * y1 - ry * ry * x1 * x1;
+            double denominator = rx * rx * y1 * y1 + ry * ry * x1 * x1;
+            double coefficient = (largeArc == sweep ? -1 : 1) * Math.sqrt(Math.max(0, numerator / denominator));
+            double cx1 = coefficient * rx * y1 / ry, cy1 = -coefficient * ry * x1 / rx;
+            double cx = cos * cx1 - sin * cy1 + (x0 + x) / 2, cy = sin * cx1 + cos * cy1 + (y0 + y) / 2;
+
+            double ux = (x1 - cx1) / rx, uy = (y1 - cy1) / ry;
+            double vx = (-x1 - cx1) / rx, vy = (-y1 - cy1) / ry;
+            double start = Math.atan2(uy, ux);
+            double extent = Math.atan2(ux * vy - uy * vx, ux * vx + uy * vy);
+            if (!sweep && extent > 0) extent -= 2 * Math.PI;
+            else if (sweep && extent < 0) extent += 2 * Math.PI;
+
+            // Arc2D angles run the other way in y-down space
+            Arc2D arc = new Arc2D.Double(-rx, -ry, rx * 2, ry * 2, -Math.toDegrees(start), -Math.toDegrees(extent), Arc2D.OPEN);
+            AffineTransform placement = new AffineTransform();
+            placement.translate(cx, cy);
+            placement.rotate(phi);
+            path.append(placement.createTransformedShape(arc), true);
+        }
+
+        private static class PathScanner {
+            private final String d;
+            private int pos;
+
+            PathScanner(String d) {
+                this.d = d;
+            }
+
+            // Returns false at the end of the data
+            boolean skipSeparators() {
+                while (pos < d.length() && (Character.isWhitespace(d.charAt(pos)) || d.charAt(pos) == ',')) pos++;
+                return pos < d.length();
+            }
+
+            boolean atCommand() {
+                char c = d.charAt(pos);
+                return Character.isLetter(c) && c != 'e' && c != 'E';
+            }
+
+            char command() {
+                return d.charAt(pos++);
+            }
+
+            boolean flag() {
+                skipSeparators();
+                if (pos >= d.length()) throw new IllegalArgumentException("Truncated arc flags");
+                return d.charAt(pos++) == '1';
+            }
+
+            double number() {
+                skipSeparators();
+                int start = pos;
+                if (pos < d.length() && (d.charAt(pos) == '-' || d.charAt(pos) == '+')) pos++;
+                boolean dot = false;
+                while (pos < d.length()) {
+                    char c = d.charAt(pos);
+                    if (Character.isDigit(c)) {
+                        pos++;
+                    } else if (c == '.' && !dot) {
+                        dot = true;
+                        pos++;
+                    } else if ((c == 'e' || c == 'E') && pos > start) {
+                        pos++;
+                        if (pos < d.length() && (d.charAt(pos) == '-' || d.charAt(pos) == '+')) pos++;
+                    } else {
+                        break;
+                    }
+                }
+                if (start == pos) throw new IllegalArgumentException("Expected a number at " + start + " in path data");
+                return Double.parseDouble(d.substring(start, pos));
+            }
+        }
+    }
+
+    // Micro-benchmarks for the persistence, extraction and table paths: java GodotProjectManager.java --bench
+    // Each benchmark runs warm-up iterations first; fast operations are batched until an iteration
+    // takes at least MIN_ITERATION_NANOS. Results are appended to a CSV tagged with --label so runs
+    // of different versions can be compared with --compare.
+    static class Benchmarks {
+        static final int[] REGISTRY_SIZES = {10, 1000, 10000, 100000};
+        static final long MIN_ITERATION_NANOS = 50_000_000L;
+        static final String CSV_HEADER = "label,benchmark,param,mean_ms,p50_ms,min_ms,max_ms,stddev_ms,iterations,java,timestamp";
+        // Results are consumed here so the JIT cannot drop the measured work
+        static volatile Object sink;
+
+        interface Body {
+            Object run() throws Exception;
+        }
+
+        static class Measurement {
+            String benchmark;
+            String param;
+            double meanMs;
+            double p50Ms;
+            double minMs;
+            double maxMs;
+            double stddevMs;
+            int iterations;
+        }
+
+        static int run(String[] args) {
+            String out = "benchmark-results.csv";
+            String label = "dev";
+            String filter = "";
+            boolean quick = false;
+            try {
+                for (int i = 0; i < args.length; i++) {
+                    switch (args[i]) {
+                        case "--out": out = args[++i]; break;
+                        case "--label": label = args[++i]; break;
+                        case "--filter": filter = args[++i]; break;
+                        case "--quick": quick = true; break;
+                        case "--compare":
+                            return compare(Paths.get(args[i + 1]), Paths.get(args[i + 2]));
+                        default: throw new IllegalArgumentException(args[i]);
+                    }
+                }
+                // The label is written unquoted into the CSV
+                if (label.isEmpty() || label.chars().anyMatch(c -> c == ',' || c == '"' || c < ' ')) {
+                    throw new IllegalArgumentException("label");
+                }
+            } catch (RuntimeException e) {
+                System.err.println("Usage: --bench [--quick] [--filter name] [--label text] [--out file.csv]");
+                System.err.println("       --bench --compare baseline.csv current.csv");
+                System.err.println("The label may not be empty or contain commas, quotes or control characters.");
+                return 2;
+            }
+
+            int warmups = quick ? 2 : 5;
+            int iterations = quick ? 3 : 10;
+            List<Measurement> results = new ArrayList<>();
+            Path work = null;
+            try {
+                work = Files.createTempDirectory("gpm-bench");
+                for (int size : REGISTRY_SIZES) {
+                    if (quick && size > 10000) continue;
+                    if (matches(filter, "loadData") || matches(filter, "saveData") || matches(filter, "refreshProjectTable")) {
+                        benchmarkRegistry(work, size, warmups, iterations, filter, results);
+                    }
+                }
+                if (matches(filter, "projectHeap")) {
+                    benchmarkProjectHeap(work, quick ? 100000 : 1000000, true);
+                    benchmarkProjectHeap(work, quick ? 100000 : 1000000, false);
+                }
+                if (matches(filter, "extractZipFile")) {
+                    benchmarkExtraction(work, "engine", warmups, iterations, results);
+                    benchmarkExtraction(work, "project", warmups, iterations, results);
+                }
+                if (matches(filter, "findGodotExecutable")) {
+                    benchmarkFindExecutable(work, "wide", warmups, iterations, results);
+                    benchmarkFindExecutable(work, "deep", warmups, iterations, results);
+                }
+                appendCsv(Paths.get(out), label, results);
+                System.out.println("Results appended to " + Paths.get(out).toAbsolutePath());
+                return 0;
+            } catch (Exception e) {
+                e.printStackTrace();
+                return 1;
+            } finally {
+                if (work != null) {
+                    try {
+                        FileOps.deleteTree(work);
+                    } catch (IOException e) {
+                        System.err.println("Could not delete " + work + ": " + e.getMessage());
+                    }
+                }
+            }
+        }
+
+        private static boolean matches(String filter, String benchmark) {
+            return filter.isEmpty() || benchmark.contains(filter);
+        }
+
+        private static void benchmarkRegistry(Path work, int size, int warmups, int iterations, String filter,
+                                              List<Measurement> results) throws Exception {
+            List<GodotProject> projects = syntheticProjects(size, new Random(size));
+            List<GodotEngine> engines = defaultEngines();
+            Map<String, String> settings = new LinkedHashMap<>();
+            settings.put("defaultProjectLocation", "C:\\Users\\bench\\GodotProjects");
+            settings.put("defaultEngineLocation", "C:\\Users\\bench\\Godot");
+            Path dataFile = work.resolve("registry-" + size + ".json");
+            try (BufferedWriter writer = Files.newBufferedWriter(dataFile)) {
+                writeData(writer, settings, engines, projects);
+            }
+            String param = "projects=" + size;
+
+            if (matches(filter, "loadData")) {
+                results.add(measure("loadData", param, warmups, iterations, () -> {
+                    List<GodotProject> loaded = new ArrayList<>();
+                    try (BufferedReader reader = Files.newBufferedReader(dataFile)) {
+                        readData(reader, defaultEngines(), loaded);
+                    }
+                    return loaded;
+                }));
+            }
+            if (matches(filter, "saveData")) {
+                Path target = work.resolve("save-" + size + ".json");
+                results.add(measure("saveData", param, warmups, iterations, () -> {
+                    try (BufferedWriter writer = Files.newBufferedWriter(target)) {
+                        writeData(writer, settings, engines, projects);
+                    }
+                    return target;
+                }));
+            }
+            if (matches(filter, "refreshProjectTable")) {
+                // A refresh swaps the snapshot and the table then reads the rows it paints
+                ProjectTableModel model = new ProjectTableModel();
+                Registry registry = new Registry();
+                registry.reload(engines, projects);
+                int visibleRows = 40;
+                results.add(measure("refreshProjectTable", param, warmups, iterations, () -> {
+                    model.setProjects(registry.projects());
+                    int chars = 0;
+                    for (int row = 0; row < Math.min(visibleRows, model.getRowCount()); row++) {
+                        for (int column = 0; column < model.getColumnCount(); column++) {
+                            chars += String.valueOf(model.getValueAt(row, column)).length();
+                        }
+                    }
+                    return chars;
+                }));
+            }
+        }
+
+        // Retained heap per project of the registry and of the data file's merge base, loaded the way the
+        // window does, next to the same records held as four Strings each. Printed only: the CSV holds times.
+        // Shared folders is the usual layout of a few project roots; with distinct folders every project
+        // sits in a folder of its own, the worst case for the interned folder paths.
+        private static void benchmarkProjectHeap(Path work, int size, boolean sharedFolders) throws Exception {
+            String layout = sharedFolders ? "shared" : "distinct";
+            Path dataFile = work.resolve("heap-" + layout + "-" + size + ".json");
+            try (BufferedWriter writer = Files.newBufferedWriter(dataFile)) {
+                writeData(writer, new LinkedHashMap<>(), defaultEngines(), List.of());
+                // Written as text: creating the projects here would intern their folders ahead of the measurement
+                for (String[] record : syntheticRecords(size, new Random(size), sharedFolders)) {
+                    writer.write(String.join("|", record));
+                    writer.newLine();
+                }
+            }
+
+            long before = ScaleTest.retainedHeap();
+            SharedDataFile shared = new SharedDataFile(dataFile);
+            List<GodotProject> registry = shared.load().toProjects();
+            long loaded = ScaleTest.retainedHeap();
+            // The load keeps only the compacted merge base; measure it on its own
+            SharedDataFile.Snapshot base = SharedDataFile.Snapshot.of(Map.of(), List.of(), registry).compact();
+            long withBase = ScaleTest.retainedHeap();
+            List<String[]> strings = new ArrayList<>(size);
+            for (GodotProject project : registry) {
+                strings.add(new String[]{new String(project.getName()), project.getPath(),
+                    new String(project.getEngineVersion()), project.getLastOpened()});
+            }
+            long withStrings = ScaleTest.retainedHeap();
+            sink = List.of(shared, registry, base, strings);
+
+            System.out.printf("%-22s %-24s %8d B/project registry, %d B/project merge base, %d B/project as four Strings%n",
+                "projectHeap", layout + " projects=" + size, (loaded - before) / size, (withBase - loaded) / size,
+                (withStrings - withBase) / size);
+        }
+
+        static List<GodotProject> syntheticProjects(int count, Random random) {
+            return syntheticProjects(count, random, true);
+        }
+
+        // Shared folders: 150 team folders under three roots. Otherwise each project is a "game" folder
+        // inside a folder named after it.
+        static List<GodotProject> syntheticProjects(int count, Random random, boolean sharedFolders) {
+            List<GodotProject> projects = new ArrayList<>(count);
+            for (String[] record : syntheticRecords(count, random, sharedFolders)) {
+                GodotProject project = new GodotProject(record[0], record[1], record[2]);
+                project.setLastOpened(record[3]);
+                projects.add(project);
+            }
+            return projects;
+        }
+
+        // Name, path, engine version and last opened date of each synthetic project
+        static List<String[]> syntheticRecords(int count, Random random, boolean sharedFolders) {
+            String[] versions = {"4.5", "4.4.1", "4.4", "4.3", "4.2.2", "3.6", "3.5.3"};
+            String[] roots = {"C:\\Users\\bench\\GodotProjects", "D:\\Work\\Games", "C:\\Users\\bench\\Documents\\Prototypes"};
+            List<String[]> records = new ArrayList<>(count);
+            LocalDate today = LocalDate.now();
+            for (int i = 0; i < count; i++) {
+                String name = "Project " + i + " " + Long.toString(random.nextLong() & 0xFFFFFF, 36);
+                String path = roots[random.nextInt(roots.length)] + "\\team" + (i % 50) + "\\" + name.replace(' ', '_')
+                    + (sharedFolders ? "" : "\\game");
+                String version = versions[random.nextInt(versions.length)];
+                records.add(new String[]{name, path, version, today.minusDays(random.nextInt(1000)).format(DateTimeFormatter.ISO_DATE)});
+            }
+            return records;
+        }
+
+        private static void benchmarkExtraction(Path work, String kind, int warmups, int iterations,
+                                                List<Measurement> results) throws Exception {
+            Path archive = work.resolve(kind + ".zip");
+            long bytes = kind.equals("engine") ? writeEngineArchive(archive) : writeProjectArchive(archive);
+            Path target = work.resolve("extract-" + kind);
+            int[] run = {0};
+            results.add(measure("extractZipFile", kind + " (" + FileOps.formatBytes(bytes).replace(" ", "") + ")",
+                warmups, iterations, () -> {
+                    File dest = target.resolve(String.valueOf(run[0]++)).toFile();
+                    extractZipFile(archive.toFile(), dest);
+                    return dest;
+                }));
+            FileOps.deleteTree(target);
+        }
+
+        // An engine download: one large executable with code-like entropy plus the small console wrapper
+        static long writeEngineArchive(Path archive) throws IOException {
+            Random random = new Random(42);
+            try (ZipOutputStream zos = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(archive)))) {
+                zos.putNextEntry(new ZipEntry("Godot_v4.5-stable_win64.exe"));
+                zos.write(semiCompressible(random, 96 * 1024 * 1024));
+                zos.closeEntry();
+                zos.putNextEntry(new ZipEntry("Godot_v4.5-stable_win64_console.exe"));
+                zos.write(semiCompressible(random, 200 * 1024));
+                zos.closeEntry();
+            }
+            return Files.size(archive);
+        }
+
+        // A project archive: many small scripts and scenes plus some binary assets
+        static long writeProjectArchive(Path archive) throws IOException {
+            Random random = new Random(7);
+            try (ZipOutputStream zos = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(archive)))) {
+                for (int i = 0; i < 3000; i++) {
+                    zos.putNextEntry(new ZipEntry("game/scripts/dir" + (i % 40) + "/script" + i + ".gd"));
+                    StringBuilder sb = new StringBuilder("extends Node\n\n");
+                    for (int line = 0; line < 40 + random.nextInt(200); line++) {
+                        sb.append("func f").append(line).append("(delta):\n\tposition.x += ").append(random.nextInt(100)).append(" * delta\n");
+                    }
+                    zos.write(sb.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8));
+                    zos.closeEntry();
+                }
+                for (int i = 0; i < 60; i++) {
+                    zos.putNextEntry(new ZipEntry("game/assets/texture" + i + ".png"));
+                    byte[] asset = new byte[512 * 1024];
+                    random.nextBytes(asset);
+                    zos.write(asset);
+                    zos.closeEntry();
+                }
+            }
+            return Files.size(archive);
+        }
+
+        static byte[] semiCompressible(Random random, int size) {
+            byte[] data = new byte[size];
+            for (int i = 0; i < size; i += 4096) {
+                // Alternate random blocks with repetitive ones, roughly like machine code and data sections
+                if ((i / 4096) % 3 == 0) {
+                    Arrays.fill(data, i, Math.min(size, i + 4096), (byte) (i >> 12));
+                } else {
+                    byte[] block = new byte[Math.min(4096, size - i)];
+                    random.nextBytes(block);
+                    System.arraycopy(block, 0, data, i, block.length);
+                }
+            }
+            return data;
+        }
+
+        private static void benchmarkFindExecutable(Path work, String shape, int warmups, int iterations,
+                                                    List<Measurement> results) throws Exception {
+            Path root = work.resolve("tree-" + shape);
+            Files.createDirectories(root);
+            Path[] bottom = {root};
+            int dirs = shape.equals("wide") ? writeTree(root, 4, 6, 10, true, bottom) : writeTree(root, 64, 2, 20, false, bottom);
+            Files.createFile(bottom[0].resolve("Godot_v4.5-stable_win64.exe"));
+            results.add(measure("findGodotExecutable", shape + " (" + dirs + " dirs)", warmups, iterations, () -> {
+                String exe = findGodotExecutable(root.toFile());
+                if (exe == null) throw new IllegalStateException("Executable not found");
+                return exe;
+            }));
+        }
+
+        // Builds a directory tree without any executable. A full tree expands every directory, otherwise
+        // only the last directory of each level continues deeper. The last directory visited is returned in bottom[0].
+        private static int writeTree(Path dir, int depth, int fanOut, int filesPerDir, boolean full,
+                                     Path[] bottom) throws IOException {
+            if (depth == 0) return 0;
+            int dirs = 0;
+            for (int d = 0; d < fanOut; d++) {
+                Path child = dir.resolve("level" + depth + "_" + d);
+                Files.createDirectories(child);
+                dirs++;
+                for (int f = 0; f < filesPerDir; f++) {
+                    Files.createFile(child.resolve("file" + f + (f % 5 == 0 ? ".dll" : ".pck")));
+                }
+                bottom[0] = child;
+                if (full || d == fanOut - 1) {
+                    dirs += writeTree(child, depth - 1, fanOut, filesPerDir, full, bottom);
+                }
+            }
+            return dirs;
+        }
+
+        static Measurement measure(String benchmark, String param, int warmups, int iterations, Body body) throws Exception {
+            System.out.printf("%-22s %-24s ", benchmark, param);
+            System.out.flush();
+            // Find how many invocations make one iteration long enough to time reliably
+            int batch = 1;
+            for (int i = 0; i < warmups; i++) {
+                long start = System.nanoTime();
+                for (int b = 0; b < batch; b++) sink = body.run();
+                long elapsed = System.nanoTime() - start;
+                if (elapsed < MIN_ITERATION_NANOS && batch < 1 << 20) {
+                    batch = (int) Math.min(1 << 20, batch * Math.max(2, MIN_ITERATION_NANOS / Math.max(1, elapsed)));
+                }
+            }
+
+            double[] samples = new double[iterations];
+            for (int i = 0; i < iterations; i++) {
+                long start = System.nanoTime();
+                for (int b = 0; b < batch; b++) sink = body.run();
+                samples[i] = (System.nanoTime() - start) / 1e6 / batch;
+            }
+
+            Measurement m = new Measurement();
+            m.benchmark = benchmark;
+            m.param = param;
+            m.iterations = iterations;
+            double[] sorted = samples.clone();
+            Arrays.sort(sorted);
+            m.minMs = sorted[0];
+            m.maxMs = sorted[sorted.length - 1];
+            m.p50Ms = sorted[sorted.length / 2];
+            m.meanMs = Arrays.stream(samples).average().orElse(0);
+            double variance = 0;
+            for (double sample : samples) variance += (sample - m.meanMs) * (sample - m.meanMs);
+            m.stddevMs = Math.sqrt(variance / Math.max(1, samples.length - 1));
+            System.out.printf("%12.3f ms/op  (p50 %.3f, +/- %.3f)%n", m.meanMs, m.p50Ms, m.stddevMs);
+            return m;
+        }
+
+        private static void appendCsv(Path out, String label, List<Measurement> results) throws IOException {
+            boolean newFile = !Files.exists(out);
+            try (BufferedWriter writer = Files.newBufferedWriter(out, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                if (newFile) {
+                    writer.write(CSV_HEADER);
+                    writer.newLine();
+                }
+                String timestamp = LocalDateTime.now().withNano(0).toString();
+                for (Measurement m : results) {
+                    writer.write(String.format(Locale.ROOT, "%s,%s,%s,%.4f,%.4f,%.4f,%.4f,%.4f,%d,%s,%s",
+                        label, m.benchmark, m.param, m.meanMs, m.p50Ms, m.minMs, m.maxMs, m.stddevMs,
+                        m.iterations, System.getProperty("java.version"), timestamp));
+                    writer.newLine();
+                }
+            }
+        }
+
+        // Compares the latest result of every benchmark in two CSV files
+        static int compare(Path baseline, Path current) {
+            try {
+                Map<String, String[]> before = latestRows(baseline);
+                Map<String, String[]> after = latestRows(current);
+                System.out.printf("%-22s %-24s %12s %12s %9s%n", "benchmark", "param", "baseline", "current", "change");
+                for (Map.Entry<String, String[]> entry : after.entrySet()) {
+                    String[] now = entry.getValue();
+                    String[] then = before.get(entry.getKey());
+                    double currentMs = Double.parseDouble(now[3]);
+                    if (then == null) {
+                        System.out.printf("%-22s %-24s %12s %12.3f %9s%n", now[1], now[2], "-", currentMs, "new");
+                        continue;
+                    }
+                    double baselineMs = Double.parseDouble(then[3]);
+                    System.out.printf("%-22s %-24s %12.3f %12.3f %+8.1f%%%n", now[1], now[2], baselineMs, currentMs,
+                        (currentMs - baselineMs) / baselineMs * 100);
+                }
+                return 0;
+            } catch (IOException e) {
+                System.err.println("Error reading results: " + e.getMessage());
+                return 1;
+            }
+        }
+
+        private static Map<String, String[]> latestRows(Path csv) throws IOException {
+            Map<String, String[]> rows = new LinkedHashMap<>();
+            for (String line : Files.readAllLines(csv)) {
+                if (line.startsWith("label,")) continue;
+                String[] parts = line.split(",");
+                if (parts.length >= 4) rows.put(parts[1] + "|" + parts[2], parts);
+            }
+            return rows;
+        }
+    }
+
+    // End-to-end scale test: java GodotProjectManager.java --scale-test
+    // For each registry size it writes a synthetic data file and matching project trees on disk, then
+    // drives the code paths the UI uses (data file load and save, table refresh, folder discovery) and
+    // checks each against a latency and peak-heap budget that grows linearly with the size. A large zip
+    // is extracted once to check throughput and that extraction streams instead of buffering. Exits
+    // with 1 when a budget is exceeded so it can gate a build; --budget-scale loosens all budgets.
+    static class ScaleTest {
+        static final int[] SIZES = {1000, 10000, 100000};
+
+        // base + per-thousand-projects allowances
+        static class Budget {
+            final String phase;
+            final double baseMillis;
+            final double millisPer1k;
+            final double baseHeapMb;
+            final double heapMbPer1k;
+
+            Budget(String phase, double baseMillis, double millisPer1k, double baseHeapMb, double heapMbPer1k) {
+                this.phase = phase;
+                this.baseMillis = baseMillis;
+                this.millisPer1k = millisPer1k;
+                this.baseHeapMb = baseHeapMb;
+                this.heapMbPer1k = heapMbPer1k;
+            }
+        }
+
+        // Peak heap includes garbage not yet collected, so heap budgets leave room for the collector
+        static final Budget LOAD = new Budget("loadData", 100, 15, 64, 4);
+        static final Budget REFRESH = new Budget("refreshProjectTable", 20, 0, 64, 1);
+        static final Budget DISCOVERY = new Budget("discovery", 1000, 100, 64, 3);
+        static final Budget SAVE = new Budget("saveData", 150, 30, 64, 6);
+        // Retained heap of the loaded registry, checked from MIN_HEAP_CHECK_SIZE projects up. The synthetic
+        // projects share 150 folders and measure about 180 B.
+        static final double MAX_BYTES_PER_PROJECT = 256;
+        static final int MIN_HEAP_CHECK_SIZE = 10000;
+        // Extraction: minimum throughput, and peak heap independent of the archive size
+        static final double MIN_EXTRACT_MB_PER_SECOND = 40;
+        static final double MAX_EXTRACT_HEAP_MB = 96;
+
+        private static int failures;
+        private static double budgetScale = 1;
+
+        static int run(String[] args) {
+            int[] sizes = SIZES;
+            int archiveMb = 2048;
+            int runs = 3;
+            try {
+                for (int i = 0; i < args.length; i++) {
+                    switch (args[i]) {
+                        case "--sizes": sizes = Arrays.stream(args[++i].split(",")).mapToInt(Integer::parseInt).toArray(); break;
+                        case "--archive-mb": archiveMb = Integer.parseInt(args[++i]); break;
+                        case "--budget-scale": budgetScale = Double.parseDouble(args[++i]); break;
+                        case "--quick":
+                            sizes = new int[]{1000, 10000};
+                            archiveMb = 256;
+                            break;
+                        default: throw new IllegalArgumentException(args[i]);
+                    }
+                }
+                if (Arrays.stream(sizes).anyMatch(size -> size <= 0) || budgetScale <= 0) throw new IllegalArgumentException();
+            } catch (RuntimeException e) {
+                System.err.println("Usage: --scale-test [--quick] [--sizes 1000,10000,100000] [--archive-mb 2048] [--budget-scale 1.0]");
+                return 2;
+            }
+
+            failures = 0;
+            Path work = null;
+            try {
+                work = Files.createTempDirectory("gpm-scale");
+                System.out.printf("%-4s %-20s %-16s %12s %12s %12s %12s%n", "", "phase", "param", "ms", "budget", "heap MB", "budget");
+                for (int size : sizes) runSize(work, size, runs);
+                if (archiveMb > 0) runExtraction(work, archiveMb);
+                System.out.println(failures == 0 ? "All budgets met." : failures + " budget(s) exceeded.");
+                return failures == 0 ? 0 : 1;
+            } catch (Exception e) {
+                e.printStackTrace();
+                return 1;
+            } finally {
+                if (work != null) {
+                    try {
+                        FileOps.deleteTree(work);
+                    } catch (IOException e) {
+                        System.err.println("Could not delete " + work + ": " + e.getMessage());
+                    }
+                }
+            }
+        }
+
+        private static void runSize(Path work, int size, int runs) throws Exception {
+            String param = "projects=" + size;
+            List<GodotProject> synthetic = Benchmarks.syntheticProjects(size, new Random(size));
+            Map<String, String> settings = new LinkedHashMap<>();
+            settings.put("defaultProjectLocation", work.toString());
+            Path dataFile = work.resolve("data-" + size + ".json");
+            try (BufferedWriter writer = Files.newBufferedWriter(dataFile)) {
+                writeData(writer, settings, defaultEngines(), synthetic);
+            }
+            synthetic = null;
+
+            // Load: parse the shared data file and publish the registry, as at startup
+            Registry registry = new Registry();
+            SharedDataFile shared = new SharedDataFile(dataFile);
+            check(LOAD, param, size, runs, () -> {
+                SharedDataFile.Snapshot snapshot = shared.load();
+                registry.reload(snapshot.toEngines(), snapshot.toProjects());
+                return registry;
+            });
+
+            // Retained heap: one more, independent load held while the heap is measured. The loads above
+            // already ran, so class loading, JIT and caches are in both readings and only the copy differs.
+            long before = retainedHeap();
+            Object[] copy = loadCopy(dataFile);
+            long perProject = (retainedHeap() - before) / size;
+            java.lang.ref.Reference.reachabilityFence(copy);
+            copy = null;
+            // Below MIN_HEAP_CHECK_SIZE collector noise is of the same order as the registry itself
+            boolean heapChecked = size >= MIN_HEAP_CHECK_SIZE;
+            boolean heapOk = !heapChecked || perProject <= MAX_BYTES_PER_PROJECT * budgetScale;
+            if (!heapOk) failures++;
+            System.out.printf("%-4s %-20s %-16s %12s %12s %12s %12s%n", !heapChecked ? "-" : heapOk ? "ok" : "FAIL",
+                "retained heap", param, "", "", perProject + " B/proj",
+                heapChecked ? (long) (MAX_BYTES_PER_PROJECT * budgetScale) + " B/proj" : "not checked");
+
+            // Refresh: swap the snapshot into the table and read the rows a window shows
+            ProjectTableModel model = new ProjectTableModel();
+            check(REFRESH, param, size, runs, () -> {
+                model.setProjects(registry.projects());
+                int chars = 0;
+                for (int row = 0; row < Math.min(40, model.getRowCount()); row++) {
+                    for (int column = 0; column < model.getColumnCount(); column++) {
+                        chars += String.valueOf(model.getValueAt(row, column)).length();
+                    }
+                }
+                return chars;
+            });
+
+            // Save: one project changed, merged against the file under the lock like a real save
+            check(SAVE, param, size, runs, () -> {
+                GodotProject first = registry.projects().get(0);
+                first.setLastOpened(LocalDate.now().plusDays(System.nanoTime() % 1000).format(DateTimeFormatter.ISO_DATE));
+                return shared.save(SharedDataFile.Snapshot.of(settings, registry.engines(), registry.projects()));
+            });
+
+            // Discovery: a folder tree holding `size` projects, each with a .godot cache to skip
+            Path tree = work.resolve("tree-" + size);
+            writeProjectTrees(tree, size);
+            List<?>[] found = {null};
+            check(DISCOVERY, param, size, 1, () -> {
+                found[0] = ProjectDiscovery.scan(tree, Runtime.getRuntime().availableProcessors(), (status, done, total) -> {});
+                return found[0];
+            });
+            if (found[0].size() != size) {
+                failures++;
+                System.out.println("FAIL discovery found " + found[0].size() + " of " + size + " projects");
+            }
+            FileOps.deleteTree(tree);
+            Files.deleteIfExists(dataFile);
+        }
+
+        // Times `runs` runs after one warm-up and checks the median against the budget
+        private static void check(Budget budget, String param, int size, int runs, Benchmarks.Body body) throws Exception {
+            if (runs > 1) Benchmarks.sink = body.run();
+            double[] millis = new double[runs];
+            long peak = 0;
+            for (int i = 0; i < runs; i++) {
+                resetPeakHeap();
+                long start = System.nanoTime();
+                Benchmarks.sink = body.run();
+                millis[i] = (System.nanoTime() - start) / 1e6;
+                peak = Math.max(peak, peakHeap());
+            }
+            Arrays.sort(millis);
+            double median = millis[runs / 2];
+            double maxMillis = (budget.baseMillis + budget.millisPer1k * size / 1000.0) * budgetScale;
+            double peakMb = peak / (1024.0 * 1024);
+            double maxMb = (budget.baseHeapMb + budget.heapMbPer1k * size / 1000.0) * budgetScale;
+            boolean ok = median <= maxMillis && peakMb <= maxMb;
+            if (!ok) failures++;
+            System.out.printf("%-4s %-20s %-16s %12.1f %12.1f %12.1f %12.1f%n", ok ? "ok" : "FAIL", budget.phase, param,
+                median, maxMillis, peakMb, maxMb);
+        }
+
+        private static void runExtraction(Path work, int archiveMb) throws Exception {
+            Path archive = work.resolve("large.zip");
+            long bytes = writeLargeArchive(archive, archiveMb);
+            Path target = work.resolve("extract-large");
+            System.gc();
+            resetPeakHeap();
+            long start = System.nanoTime();
+            extractZipFile(archive.toFile(), target.toFile());
+            double seconds = (System.nanoTime() - start) / 1e9;
+            double peakMb = peakHeap() / (1024.0 * 1024);
+            double mbPerSecond = bytes / (1024.0 * 1024) / seconds;
+            boolean ok = mbPerSecond >= MIN_EXTRACT_MB_PER_SECOND / budgetScale && peakMb <= MAX_EXTRACT_HEAP_MB * budgetScale;
+            if (!ok) failures++;
+            System.out.printf("%-4s %-20s %-16s %12.1f %12s %12.1f %12.1f%n", ok ? "ok" : "FAIL", "extractZipFile",
+                FileOps.formatBytes(bytes).replace(" ", ""), seconds * 1000,
+                String.format(Locale.ROOT, ">=%.0f MB/s", MIN_EXTRACT_MB_PER_SECOND / budgetScale), peakMb, MAX_EXTRACT_HEAP_MB * budgetScale);
+            System.out.printf("%-4s %-20s %-16s %12.1f MB/s%n", "", "", "", mbPerSecond);
+            FileOps.deleteTree(target);
+            Files.delete(archive);
+        }
+
+        // Uncompressed size in bytes. 64 MB entries written at the fastest level, since the test is about reading.
+        static long writeLargeArchive(Path archive, int megabytes) throws IOException {
+            Random random = new Random(megabytes);
+            byte[] block = Benchmarks.semiCompressible(random, 64 * 1024 * 1024);
+            long total = 0;
+            try (ZipOutputStream zos = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(archive), 1 << 16))) {
+                zos.setLevel(Deflater.BEST_SPEED);
+                for (int i = 0; total < (long) megabytes * 1024 * 1024; i++) {
+                    zos.putNextEntry(new ZipEntry("Godot_v4.5-stable/data" + i + ".pck"));
+                    zos.write(block);
+                    zos.closeEntry();
+                    total += block.length;
+                }
+            }
+            return total;
+        }
+
+        // team<n>/project<i>/ with project.godot, a scene, a script and an import cache file
+        static void writeProjectTrees(Path root, int count) {
+            IntStream.range(0, count).parallel().forEach(i -> {
+                Path project = root.resolve("team" + (i % 100)).resolve("project" + i);
+                try {
+                    Files.createDirectories(project.resolve(".godot").resolve("imported"));
+                    Files.createDirectories(project.resolve("scenes"));
+                    Files.writeString(project.resolve("project.godot"), "config_version=5\n\n[application]\n\nconfig/name=\"Project " + i
+                        + "\"\nconfig/features=PackedStringArray(\"4.3\", \"Forward Plus\")\n");
+                    Files.writeString(project.resolve("scenes").resolve("main.tscn"), "[gd_scene format=3]\n\n[node name=\"Main\" type=\"Node2D\"]\n");
+                    Files.writeString(project.resolve("scenes").resolve("main.gd"), "extends Node2D\n");
+                    Files.writeString(project.resolve(".godot").resolve("imported").resolve("icon.svg-0.ctex"), "x");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+
+        // A registry and its data file as the window holds them, loaded into objects of their own
+        private static Object[] loadCopy(Path dataFile) throws IOException {
+            Registry registry = new Registry();
+            SharedDataFile shared = new SharedDataFile(dataFile);
+            SharedDataFile.Snapshot snapshot = shared.load();
+            registry.reload(snapshot.toEngines(), snapshot.toProjects());
+            return new Object[]{registry, shared};
+        }
+
+        // Least heap in use after full collections, repeated until four in a row free less than 64 KB more.
+        // Each pool is read as the collection left it: its current usage also counts buffers threads allocated
+        // into since. Four because the serial collector leaves some dead objects in place as filler and only
+        // compacts fully every fourth full collection; both made small registries measure at random.
+        static long retainedHeap() {
+            long least = Long.MAX_VALUE;
+            int steady = 0;
+            for (int i = 0; i < 20 && steady < 4; i++) {
+                System.gc();
+                long now = 0;
+                for (java.lang.management.MemoryPoolMXBean pool : java.lang.management.ManagementFactory.getMemoryPoolMXBeans()) {
+                    java.lang.management.MemoryUsage usage = pool.getCollectionUsage();
+                    if (pool.getType() == java.lang.management.MemoryType.HEAP && usage != null) {
+                        now += usage.getUsed();
+                    }
+                }
+                steady = least - now < 64 * 1024 ? steady + 1 : 0;
+                least = Math.min(least, now);
+            }
+            return least;
+        }
+
+        private static void resetPeakHeap() {
+            for (java.lang.management.MemoryPoolMXBean pool : java.lang.management.ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == java.lang.management.MemoryType.HEAP) pool.resetPeakUsage();
+            }
+        }
+
+        // Sum of the pools' peaks: an upper bound, since the pools need not peak at the same moment
+        private static long peakHeap() {
+            long peak = 0;
+            for (java.lang.management.MemoryPoolMXBean pool : java.lang.management.ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == java.lang.management.MemoryType.HEAP) peak += pool.getPeakUsage().getUsed();
+            }
+            return peak;
+        }
+    }
+
+    // Flight Recorder events for long-running operations. Durations come from begin()/commit().
+    @Category("Godot Project Manager")
+    abstract static class ManagerEvent extends jdk.jfr.Event {
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+
+        @Label("Success")
+        boolean success;
+    }
+
+    @Name("gpm.EngineDownload")
+    @Label("Engine Download")
+    static class EngineDownloadEvent extends ManagerEvent {
+        @Label("Version")
+        String version;
+
+        @Label("URL")
+        String url;
+    }
+
+    @Name("gpm.ZipExtraction")
+    @Label("Zip Extraction")
+    static class ZipExtractionEvent extends ManagerEvent {
+        @Label("Archive")
+        String archive;
+
+        @Label("Entries")
+        int entries;
+    }
+
+    @Name("gpm.DataLoad")
+    @Label("Data Load")
+    static class DataLoadEvent extends ManagerEvent {
+        @Label("File")
+        String file;
+
+        @Label("Projects")
+        int projects;
+    }
+
+    @Name("gpm.DataSave")
+    @Label("Data Save")
+    static class DataSaveEvent extends ManagerEvent {
+        @Label("File")
+        String file;
+
+        @Label("Projects")
+        int projects;
+    }
+
+    @Name("gpm.ProjectScan")
+    @Label("Project Scan")
+    static class ProjectScanEvent extends ManagerEvent {
+        @Label("Operation")
+        String operation;
+
+        @Label("Root")
+        String root;
+
+        @Label("Files")
+        int files;
+    }
+
+    @Name("gpm.ProcessLaunch")
+    @Label("Process Launch")
+    static class ProcessLaunchEvent extends ManagerEvent {
+        @Label("Executable")
+        String executable;
+
+        @Label("Project")
+        String project;
+
+        @Label("PID")
+        long pid;
+    }
+
+    // In-process counters and latency histograms per operation, fed by the same spans that emit JFR events
+    static class Diagnostics {
+        // Bucket i counts samples below 2^(i+1) microseconds; the last bucket takes everything slower
+        static final int BUCKETS = 32;
+        private static final Map<String, Counters> OPERATIONS = new ConcurrentSkipListMap<>();
+        private static volatile Recording recording;
+
+        private static class Counters {
+            final LongAdder count = new LongAdder();
+            final LongAdder failed = new LongAdder();
+            final LongAdder inProgress = new LongAdder();
+            final LongAdder bytes = new LongAdder();
+            final LongAdder totalNanos = new LongAdder();
+            final AtomicLong maxNanos = new AtomicLong();
+            final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        }
+
+        static class Stats {
+            String name;
+            long count;
+            long failed;
+            long inProgress;
+            long bytes;
+            long totalNanos;
+            long maxNanos;
+            long[] buckets;
+
+            double meanMillis() {
+                return count == 0 ? 0 : totalNanos / 1e6 / count;
+            }
+
+            // Upper bound of the bucket holding the given quantile
+            double percentileMillis(double quantile) {
+                long target = (long) Math.ceil(count * quantile);
+                long seen = 0;
+                for (int i = 0; i < buckets.length; i++) {
+                    seen += buckets[i];
+                    if (seen >= target && seen > 0) return Math.min(bucketUpperMillis(i), maxNanos / 1e6);
+                }
+                return 0;
+            }
+        }
+
+        static class Span implements AutoCloseable {
+            private final Counters counters;
+            private final ManagerEvent event;
+            private final long start = System.nanoTime();
+            private boolean completed;
+
+            Span(Counters counters, ManagerEvent event) {
+                this.counters = counters;
+                this.event = event;
+                counters.inProgress.increment();
+                event.begin();
+            }
+
+            // Marks the operation successful; spans closed without completing are counted as failed
+            void complete(long bytes) {
+                event.bytes = bytes;
+                completed = true;
+            }
+
+            @Override
+            public void close() {
+                long nanos = System.nanoTime() - start;
+                event.success = completed;
+                event.commit();
+                counters.inProgress.decrement();
+                counters.count.increment();
+                if (!completed) counters.failed.increment();
+                counters.bytes.add(event.bytes);
+                counters.totalNanos.add(nanos);
+                counters.maxNanos.accumulateAndGet(nanos, Math::max);
+                counters.buckets.incrementAndGet(bucketOf(nanos));
+            }
+        }
+
+        static Span begin(String operation, ManagerEvent event) {
+            return new Span(OPERATIONS.computeIfAbsent(operation, k -> new Counters()), event);
+        }
+
+        static int bucketOf(long nanos) {
+            long micros = Math.max(1, nanos / 1000);
+            return Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros));
+        }
+
+        static double bucketUpperMillis(int bucket) {
+            return (1L << (bucket + 1)) / 1000.0;
+        }
+
+        static String formatMillis(double millis) {
+            if (millis < 1) return String.format("%.2f ms", millis);
+            if (millis < 1000) return String.format("%.0f ms", millis);
+            return String.format("%.1f s", millis / 1000);
+        }
+
+        static List<Stats> snapshot() {
+            List<Stats> result = new ArrayList<>();
+            for (Map.Entry<String, Counters> entry : OPERATIONS.entrySet()) {
+                Counters counters = entry.getValue();
+                Stats stats = new Stats();
+                stats.name = entry.getKey();
+                stats.count = counters.count.sum();
+                stats.failed = counters.failed.sum();
+                stats.inProgress = counters.inProgress.sum();
+                stats.bytes = counters.bytes.sum();
+                stats.totalNanos = counters.totalNanos.sum();
+                stats.maxNanos = counters.maxNanos.get();
+                stats.buckets = new long[BUCKETS];
+                for (int i = 0; i < BUCKETS; i++) stats.buckets[i] = counters.buckets.get(i);
+                result.add(stats);
+            }
+            return result;
+        }
+
+        static void reset() {
+            // Keep operations that are still running so their spans stay balanced
+            OPERATIONS.values().removeIf(counters -> counters.inProgress.sum() == 0);
+        }
+
+        // Keeps a rolling on-disk flight recording so a dump always covers the recent past
+        static void startRecording() {
+            Thread starter = new Thread(() -> {
+                try {
+                    Recording r = new Recording(jdk.jfr.Configuration.getConfiguration("default"));
+                    r.setName("Godot Project Manager");
+                    r.setToDisk(true);
+                    r.setMaxAge(Duration.ofMinutes(30));
+                    r.setMaxSize(64L * 1024 * 1024);
+                    r.start();
+                    recording = r;
+                } catch (Exception e) {
+                    System.err.println("Flight recording not available: " + e.getMessage());
+                }
+            }, "jfr-start");
+            starter.setDaemon(true);
+            starter.start();
+        }
+
+        static void dump(Path target) throws IOException {
+            Recording r = recording;
+            if (r == null) {
+                throw new IOException("Flight recording is not running");
+            }
+            r.dump(target);
+        }
+    }
+
+    // Headless registry of engines and projects, shared by the panels and all background work.
+    // Readers get immutable snapshots without locking; writers are serialized, publish a new snapshot
+    // and notify listeners in order. Engines and projects must only be mutated through this class.
+    static class Registry {
+        enum EventType { ADDED, REMOVED, UPDATED, RELOADED }
+
+        // Exactly one of engine/project is set, except for RELOADED. The snapshots are the state after the change.
+        static class Event {
+            final EventType type;
+            final GodotEngine engine;
+            final GodotProject project;
+            final int index;
+            final List<GodotEngine> engines;
+            final List<GodotProject> projects;
+
+            Event(EventType type, GodotEngine engine, GodotProject project, int index,
+                  List<GodotEngine> engines, List<GodotProject> projects) {
+                this.type = type;
+                this.engine = engine;
+                this.project = project;
+                this.index = index;
+                this.engines = engines;
+                this.projects = projects;
+            }
+        }
+
+        // Called on the writing thread while the write lock is held, so implementations must be quick
+        // (Swing listeners hand the event to the EDT)
+        interface Listener {
+            void registryChanged(Event event);
+        }
+
+        private final Object writeLock = new Object();
+        private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+        private volatile List<GodotEngine> engines = List.of();
+        private volatile List<GodotProject> projects = List.of();
+
+        List<GodotEngine> engines() { return engines; }
+        List<GodotProject> projects() { return projects; }
+
+        void addListener(Listener listener) { listeners.add(listener); }
+        void removeListener(Listener listener) { listeners.remove(listener); }
+
+        GodotEngine findEngine(String version) {
+            for (GodotEngine engine : engines) {
+                if (engine.getVersion().equals(version)) return engine;
+            }
+            return null;
+        }
+
+        GodotEngine findInstalledEngine(String version) {
+            GodotEngine engine = findEngine(version);
+            return engine != null && engine.isInstalled() ? engine : null;
+        }
+
+        void reload(List<GodotEngine> newEngines, List<GodotProject> newProjects) {
+            synchronized (writeLock) {
+                engines = List.copyOf(newEngines);
+                projects = List.copyOf(newProjects);
+                fire(new Event(EventType.RELOADED, null, null, -1, engines, projects));
+            }
+        }
+
+        // Runs several reads and writes as one step; the lock is reentrant, so changes may call the other methods
+        void atomically(Runnable changes) {
+            synchronized (writeLock) {
+                changes.run();
+            }
+        }
+
+        void addProject(GodotProject project) {
+            synchronized (writeLock) {
+                List<GodotProject> next = new ArrayList<>(projects);
+                next.add(project);
+                projects = Collections.unmodifiableList(next);
+                fire(new Event(EventType.ADDED, null, project, next.size() - 1, engines, projects));
+            }
+        }
+
+        boolean removeProject(GodotProject project) {
+            synchronized (writeLock) {
+                int index = projects.indexOf(project);
+                if (index < 0) return false;
+                List<GodotProject> next = new ArrayList<>(projects);
+                next.remove(index);
+                projects = Collections.unmodifiableList(next);
+                fire(new Event(EventType.REMOVED, null, project, index, engines, projects));
+                return true;
+            }
+        }
+
+        boolean updateProject(GodotProject project, java.util.function.Consumer<GodotProject> mutation) {
+            synchronized (writeLock) {
+                int index = projects.indexOf(project);
+                if (index < 0) return false;
+                mutation.accept(project);
+                fire(new Event(EventType.UPDATED, null, project, index, engines, projects));
+                return true;
+            }
+        }
+
+        // Swaps in a project with different immutable fields at the same position
+        boolean replaceProject(GodotProject project, GodotProject replacement) {
+            synchronized (writeLock) {
+                int index = projects.indexOf(project);
+                if (index < 0) return false;
+                List<GodotProject> next = new ArrayList<>(projects);
+                next.set(index, replacement);
+                projects = Collections.unmodifiableList(next);
+                fire(new Event(EventType.UPDATED, null, replacement, index, engines, projects));
+                return true;
+            }
+        }
+
+        boolean updateEngine(GodotEngine engine, java.util.function.Consumer<GodotEngine> mutation) {
+            synchronized (writeLock) {
+                int index = engines.indexOf(engine);
+                if (index < 0) return false;
+                mutation.accept(engine);
+                fire(new Event(EventType.UPDATED, engine, null, index, engines, projects));
+                return true;
+            }
+        }
+
+        private void fire(Event event) {
+            for (Listener listener : listeners) {
+                try {
+                    listener.registryChanged(event);
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    // Append-only log of project launches, one record per line:
+    //   <start millis>|launch|<engine>|<pid>|<name>|<path>
+    //   <start millis>|exit|<session millis>|<path>
+    // An exit record is written when the editor process ends, also for editors a previous run of the
+    // manager started (found again by pid and process start time). Each record is a single small
+    // append, so several manager instances can share the file. Per project it keeps launch count,
+    // session time and a frecency score: every launch adds a weight that halves every HALF_LIFE_DAYS,
+    // and sessions that ended within a minute (an accidental open) count less than long ones.
+    static class LaunchHistory {
+        static final double HALF_LIFE_DAYS = 14;
+        // Past this many records the file is rewritten without records older than RETENTION_DAYS
+        static final int COMPACT_RECORDS = 50000;
+        static final long RETENTION_DAYS = 365;
+        private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+        static class Stats {
+            final String path;
+            volatile String name;
+            volatile String engine;
+            // Launch start -> session length, -1 while unknown
+            final TreeMap<Long, Long> sessions = new TreeMap<>();
+
+            Stats(String path) {
+                this.path = path;
+            }
+
+            synchronized int launches() {
+                return sessions.size();
+            }
+
+            synchronized long sessionMillis() {
+                long total = 0;
+                for (long session : sessions.values()) total += Math.max(0, session);
+                return total;
+            }
+
+            synchronized long lastLaunch() {
+                return sessions.isEmpty() ? 0 : sessions.lastKey();
+            }
+
+            synchronized double score(long now) {
+                double score = 0;
+                for (Map.Entry<Long, Long> session : sessions.entrySet()) {
+                    double ageDays = Math.max(0, now - session.getKey()) / (double) DAY_MILLIS;
+                    score += weight(session.getValue()) * Math.pow(0.5, ageDays / HALF_LIFE_DAYS);
+                }
+                return score;
+            }
+
+            // 1 for an unknown or half-hour session, 0.25 for a few seconds, up to 2 for long ones
+            private static double weight(long sessionMillis) {
+                if (sessionMillis < 0) return 1;
+                return Math.min(2, 0.25 + sessionMillis / (40.0 * 60 * 1000));
+            }
+        }
+
+        private final Path file;
+        // Held by appends and by compaction, so no instance appends between compaction's read and its
+        // replace of the file. A separate file, since the replace would leave a lock on the log itself behind.
+        private final Path lockFile;
+        private final Runnable onChanged;
+        private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+        LaunchHistory(Path file, Runnable onChanged) {
+            this.file = file;
+            this.lockFile = file.resolveSibling(file.getFileName() + ".lock");
+            this.onChanged = onChanged;
+        }
+
+        void load() {
+            stats.clear();
+            if (!Files.exists(file)) return;
+            List<String> lines;
+            try {
+                lines = Files.readAllLines(file, java.nio.charset.StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                System.err.println("Could not read launch history: " + e.getMessage());
+                return;
+            }
+            Map<String, Long> pids = new HashMap<>();
+            for (String line : lines) {
+                String[] parts = line.split("\\|", 6);
+                try {
+                    long start = Long.parseLong(parts[0]);
+                    if (parts[1].equals("launch") && parts.length == 6) {
+                        Stats s = stats.computeIfAbsent(parts[5], Stats::new);
+                        s.name = parts[4];
+                        s.engine = parts[2];
+                        synchronized (s) {
+                            s.sessions.putIfAbsent(start, -1L);
+                        }
+                        pids.put(start + "|" + parts[5], Long.parseLong(parts[3]));
+                    } else if (parts[1].equals("exit") && parts.length >= 4) {
+                        String path = line.split("\\|", 4)[3];
+                        Stats s = stats.get(path);
+                        if (s != null) {
+                            synchronized (s) {
+                                s.sessions.put(start, Long.parseLong(parts[2]));
+                            }
+                        }
+                        pids.remove(start + "|" + path);
+                    }
+                } catch (RuntimeException e) {
+                    // A torn or foreign line; skip it
+                }
+            }
+            // Recent sessions without an exit record may still be running
+            long recent = System.currentTimeMillis() - 7 * DAY_MILLIS;
+            pids.forEach((key, pid) -> {
+                int bar = key.indexOf('|');
+                long start = Long.parseLong(key.substring(0, bar));
+                if (start < recent) return;
+                ProcessHandle.of(pid).ifPresent(handle -> {
+                    Optional<java.time.Instant> started = handle.info().startInstant();
+                    if (started.isPresent() && Math.abs(started.get().toEpochMilli() - start) < 10000) {
+                        watch(handle, key.substring(bar + 1), start);
+                    }
+                });
+            });
+            if (lines.size() > COMPACT_RECORDS) compact();
+        }
+
+        void recordLaunch(GodotProject project, String engine, Process process) {
+            long start = System.currentTimeMillis();
+            String path = project.getPath();
+            Stats s = stats.computeIfAbsent(path, Stats::new);
+            s.name = project.getName();
+            s.engine = engine;
+            synchronized (s) {
+                s.sessions.put(start, -1L);
+            }
+            append(start + "|launch|" + engine.replace('|', ' ') + "|" + process.pid() + "|" +
+                project.getName().replace('|', ' ') + "|" + path);
+            watch(process.toHandle(), path, start);
+            onChanged.run();
+        }
+
+        private void watch(ProcessHandle handle, String path, long start) {
+            handle.onExit().thenRun(() -> {
+                long session = System.currentTimeMillis() - start;
+                Stats s = stats.get(path);
+                if (s != null) {
+                    synchronized (s) {
+                        s.sessions.put(start, session);
+                    }
+                }
+                append(start + "|exit|" + session + "|" + path);
+                onChanged.run();
+            });
+        }
+
+        private synchronized void append(String record) {
+            try (FileChannel channel = openLock(); FileLock lock = SharedDataFile.acquire(channel, false)) {
+                Files.write(file, (record + "\n").getBytes(java.nio.charset.StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                System.err.println("Could not write launch history: " + e.getMessage());
+            }
+        }
+
+        // Re-reads the log under the lock, as other instances may have appended since load()
+        private synchronized void compact() {
+            long cutoff = System.currentTimeMillis() - RETENTION_DAYS * DAY_MILLIS;
+            try (FileChannel channel = openLock(); FileLock lock = SharedDataFile.acquire(channel, false)) {
+                List<String> kept = new ArrayList<>();
+                for (String line : Files.readAllLines(file, java.nio.charset.StandardCharsets.UTF_8)) {
+                    int bar = line.indexOf('|');
+                    try {
+                        if (bar > 0 && Long.parseLong(line.substring(0, bar)) >= cutoff) kept.add(line);
+                    } catch (NumberFormatException e) {
+                        // Dropped
+                    }
+                }
+                Path temp = Files.createTempFile(file.getParent(), "launch-history", ".tmp");
+                Files.write(temp, kept, java.nio.charset.StandardCharsets.UTF_8);
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                System.err.println("Could not compact launch history: " + e.getMessage());
+            }
+        }
+
+        private FileChannel openLock() throws IOException {
+            Files.createDirectories(lockFile.getParent());
+            return FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        Stats get(String path) {
+            return stats.get(path);
+        }
+
+        List<Stats> all() {
+            return new ArrayList<>(stats.values());
+        }
+
+        // Launched projects by score, then the rest in their original order
+        List<GodotProject> sort(List<GodotProject> projects) {
+            long now = System.currentTimeMillis();
+            Map<String, Double> scores = new HashMap<>();
+            for (Stats s : stats.values()) scores.put(s.path, s.score(now));
+            Map<GodotProject, Double> launchedScores = new IdentityHashMap<>();
+            List<GodotProject> sorted = new ArrayList<>(projects.size());
+            List<GodotProject> rest = new ArrayList<>(projects.size());
+            for (GodotProject project : projects) {
+                Double score = scores.get(project.getPath());
+                if (score != null && score > 0) {
+                    launchedScores.put(project, score);
+                    sorted.add(project);
+                } else {
+                    rest.add(project);
+                }
+            }
+            sorted.sort(Comparator.comparingDouble((GodotProject p) -> launchedScores.get(p)).reversed());
+            sorted.addAll(rest);
+            return sorted;
+        }
+
+        // The highest scoring projects as far as the history knows them, for showing before the registry is read
+        List<GodotProject> top(int n) {
+            long now = System.currentTimeMillis();
+            List<GodotProject> top = new ArrayList<>();
+            stats.values().stream()
+                .sorted(Comparator.comparingDouble((Stats s) -> s.score(now)).reversed())
+                .limit(n)
+                .forEach(s -> {
+                    GodotProject project = new GodotProject(s.name, s.path, s.engine);
+                    project.setLastOpened(java.time.Instant.ofEpochMilli(s.lastLaunch())
+                        .atZone(java.time.ZoneId.systemDefault()).toLocalDate().format(DateTimeFormatter.ISO_DATE));
+                    top.add(project);
+                });
+            return top;
+        }
+
+        // "3 launches, 2.5 h" or "" when never launched
+        String describe(String path) {
+            Stats s = stats.get(path);
+            if (s == null) return "";
+            int launches = s.launches();
+            long minutes = s.sessionMillis() / 60000;
+            String time = minutes < 60 ? minutes + " min" : String.format("%.1f h", minutes / 60.0);
+            return launches + (launches == 1 ? " launch, " : " launches, ") + time;
+        }
+    }
+
+    // Lets several manager instances (and scripts) share the data file without losing updates.
+    // Every read holds a shared lock and every write an exclusive lock on <file>.lock, taken with a
+    // bounded wait. A write is a per-record three-way merge: the common ancestor is the content this
+    // instance last loaded, saved or refreshed, so records changed only on disk are kept, records
+    // changed only here are written, and when both changed the same record the saving instance
+    // wins. Records are settings by key, engines by version and projects by path. The new content
+    // replaces the file with an atomic rename so readers without the lock never see half a file.
+    static class SharedDataFile {
+        private static final long LOCK_TIMEOUT_MILLIS = 5000;
+
+        static class Snapshot {
+            final Map<String, String> settings = new LinkedHashMap<>();
+            // version -> installed|path|installRoot
+            final Map<String, String> engines = new LinkedHashMap<>();
+            // version -> mirror URLs separated by spaces
+            final Map<String, String> mirrors = new LinkedHashMap<>();
+            // path -> name|engineVersion|lastOpened
+            final Map<String, String> projects = new LinkedHashMap<>();
+            // Set instead of projects on a compacted snapshot: sorted 64-bit digests of the paths and of
+            // path plus record. A merge only asks whether a record is unchanged since the base, so the
+            // base keeps 16 bytes per project rather than a second copy of every record.
+            private long[] pathDigests;
+            private long[] recordDigests;
+
+            static Snapshot of(Map<String, String> settings, List<GodotEngine> engines, List<GodotProject> projects) {
+                Snapshot snapshot = new Snapshot();
+                snapshot.settings.putAll(settings);
+                for (GodotEngine engine : engines) {
+                    snapshot.engines.put(engine.getVersion(), engineRecord(engine));
+                    String mirrors = mirrorsRecord(engine);
+                    if (mirrors != null) snapshot.mirrors.put(engine.getVersion(), mirrors);
+                }
+                for (GodotProject project : projects) {
+                    snapshot.projects.put(project.getPath(), projectRecord(project));
+                }
+                return snapshot;
+            }
+
+            static String engineRecord(GodotEngine engine) {
+                return engine.isInstalled() + "|" + engine.getInstalledPath() + "|" + engine.getInstallRoot();
+            }
+
+            // null when the engine has no mirrors
+            static String mirrorsRecord(GodotEngine engine) {
+                return engine.getMirrors().isEmpty() ? null : String.join(" ", engine.getMirrors());
+            }
+
+            static String projectRecord(GodotProject project) {
+                return project.getName() + "|" + project.getEngineVersion() + "|" + project.getLastOpened();
+            }
+
+            static Snapshot parse(byte[] content) throws IOException {
+                List<GodotEngine> engines = defaultEngines();
+                List<GodotProject> projects = new ArrayList<>();
+                BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(content)));
+                Map<String, String> settings = readData(reader, engines, projects);
+                return of(settings, engines, projects);
+            }
+
+            byte[] serialize() throws IOException {
+                StringWriter out = new StringWriter();
+                try (BufferedWriter writer = new BufferedWriter(out)) {
+                    writeData(writer, settings, toEngines(), toProjects());
+                }
+                return out.toString().getBytes();
+            }
+
+            Snapshot compact() {
+                Snapshot compact = new Snapshot();
+                compact.settings.putAll(settings);
+                compact.engines.putAll(engines);
+                compact.mirrors.putAll(mirrors);
+                compact.pathDigests = new long[projects.size()];
+                compact.recordDigests = new long[projects.size()];
+                int i = 0;
+                for (Map.Entry<String, String> entry : projects.entrySet()) {
+                    long path = digest(FNV_OFFSET, entry.getKey());
+                    compact.pathDigests[i] = path;
+                    compact.recordDigests[i++] = digest(digest(path, "\n"), entry.getValue());
+                }
+                Arrays.sort(compact.pathDigests);
+                Arrays.sort(compact.recordDigests);
+                return compact;
+            }
+
+            // Whether the project's record (null: no record) is the same as in this snapshot
+            boolean projectUnchanged(String path, String record) {
+                if (pathDigests == null) return Objects.equals(projects.get(path), record);
+                long pathDigest = digest(FNV_OFFSET, path);
+                if (record == null) return Arrays.binarySearch(pathDigests, pathDigest) < 0;
+                return Arrays.binarySearch(recordDigests, digest(digest(pathDigest, "\n"), record)) >= 0;
+            }
+
+            private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+
+            // 64-bit FNV-1a over the chars, continuing from hash
+            private static long digest(long hash, String text) {
+                for (int i = 0; i < text.length(); i++) {
+                    hash ^= text.charAt(i);
+                    hash *= 0x100000001b3L;
+                }
+                return hash;
+            }
+
+            List<GodotEngine> toEngines() {
+                List<GodotEngine> list = defaultEngines();
+                for (GodotEngine engine : list) {
+                    String record = engines.get(engine.getVersion());
+                    if (record != null) {
+                        String[] parts = record.split("\\|", -1);
+                        engine.setInstalled(Boolean.parseBoolean(parts[0]));
+                        engine.setInstalledPath(parts[1]);
+                        engine.setInstallRoot(parts[2]);
+                    }
+                    String urls = mirrors.get(engine.getVersion());
+                    if (urls != null) engine.setMirrors(Arrays.asList(urls.split(" ")));
+                }
+                return list;
+            }
+
+            List<GodotProject> toProjects() {
+                List<GodotProject> list = new ArrayList<>(projects.size());
+                for (Map.Entry<String, String> entry : projects.entrySet()) {
+                    String[] parts = entry.getValue().split("\\|", -1);
+                    GodotProject project = new GodotProject(parts[0], entry.getKey(), parts[1]);
+                    project.setLastOpened(parts[2]);
+                    list.add(project);
+                }
+                return list;
+            }
+        }
+
+        private final Path file;
+        private final Path lockFile;
+        // Content as of our last load, save or refresh: the common ancestor for merges
+        private Snapshot base = new Snapshot();
+        private String syncedHash = "";
+
+        SharedDataFile(Path file) {
+            this.file = file;
+            this.lockFile = file.resolveSibling(file.getFileName() + ".lock");
+        }
+
+        // Returns null when there is no data file yet
+        Snapshot load() throws IOException {
+            return locked(true, () -> {
+                if (!Files.exists(file)) return null;
+                byte[] content = Files.readAllBytes(file);
+                Snapshot loaded = Snapshot.parse(content);
+                base = loaded.compact();
+                syncedHash = hash(content);
+                return loaded;
+            });
+        }
+
+        // Writes our changes merged with whatever is on disk. Returns what was written.
+        Snapshot save(Snapshot ours) throws IOException {
+            return locked(false, () -> {
+                Snapshot merged = ours;
+                if (Files.exists(file)) {
+                    byte[] content = Files.readAllBytes(file);
+                    if (!hash(content).equals(syncedHash)) {
+                        merged = merge(base, ours, Snapshot.parse(content));
+                    }
+                }
+                byte[] content = merged.serialize();
+                Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+                Files.write(temp, content);
+                try {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+                base = merged.compact();
+                syncedHash = hash(content);
+                return merged;
+            });
+        }
+
+        // Returns the merge of our state with an external change, or null if the file is unchanged
+        Snapshot refresh(Snapshot ours) throws IOException {
+            return locked(true, () -> {
+                if (!Files.exists(file)) return null;
+                byte[] content = Files.readAllBytes(file);
+                String contentHash = hash(content);
+                if (contentHash.equals(syncedHash)) return null;
+                Snapshot theirs = Snapshot.parse(content);
+                Snapshot merged = merge(base, ours, theirs);
+                base = theirs.compact();
+                syncedHash = contentHash;
+                return merged;
+            });
+        }
+
+        interface LockedAction<T> {
+            T run() throws IOException;
+        }
+
+        // Runs the action while holding the lock file, shared for readers and exclusive for writers
+        private <T> T locked(boolean shared, LockedAction<T> action) throws IOException {
+            try (FileChannel channel = openLock()) {
+                FileLock lock = acquire(channel, shared);
+                try {
+                    return action.run();
+                } finally {
+                    lock.release();
+                }
+            }
+        }
+
+        static Snapshot merge(Snapshot base, Snapshot ours, Snapshot theirs) {
+            Snapshot merged = new Snapshot();
+            // Settings are never deleted; a key we do not know (newer version) is kept as is
+            Map<String, String> ourSettings = new LinkedHashMap<>(base.settings);
+            ourSettings.putAll(ours.settings);
+            mergeRecords(base.settings, ourSettings, theirs.settings, merged.settings);
+            mergeRecords(base.engines, ours.engines, theirs.engines, merged.engines);
+            mergeRecords(base.mirrors, ours.mirrors, theirs.mirrors, merged.mirrors);
+            mergeRecords(base::projectUnchanged, ours.projects, theirs.projects, merged.projects);
+            return merged;
+        }
+
+        private static void mergeRecords(Map<String, String> base, Map<String, String> ours,
+                                         Map<String, String> theirs, Map<String, String> merged) {
+            mergeRecords((key, value) -> Objects.equals(base.get(key), value), ours, theirs, merged);
+        }
+
+        // unchanged tells whether a key's value (null: absent) is the same as in the common ancestor
+        private static void mergeRecords(java.util.function.BiPredicate<String, String> unchanged, Map<String, String> ours,
+                                         Map<String, String> theirs, Map<String, String> merged) {
+            Set<String> keys = new LinkedHashSet<>(ours.keySet());
+            keys.addAll(theirs.keySet());
+            for (String key : keys) {
+                String ourValue = ours.get(key);
+                String value = unchanged.test(key, ourValue) ? theirs.get(key) : ourValue;
+                if (value != null) merged.put(key, value);
+            }
+        }
+
+        private FileChannel openLock() throws IOException {
+            Files.createDirectories(lockFile.getParent());
+            return FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        // Polls instead of blocking in lock() so a stuck instance costs at most LOCK_TIMEOUT_MILLIS
+        private static FileLock acquire(FileChannel channel, boolean shared) throws IOException {
+            long deadline = System.currentTimeMillis() + LOCK_TIMEOUT_MILLIS;
+            while (true) {
+                FileLock lock = channel.tryLock(0, Long.MAX_VALUE, shared);
+                if (lock != null) return lock;
+                if (System.currentTimeMillis() > deadline) {
+                    throw new IOException("The data file is locked by another Godot Project Manager instance");
+                }
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for the data file lock");
+                }
+            }
+        }
+
+        private static String hash(byte[] content) {
+            try {
+                return FileOps.toHex(MessageDigest.getInstance("SHA-256").digest(content));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    // Picks the fastest of several download sources and fails over when the chosen one stalls.
+    // Sources are probed concurrently with a ranged GET, which measures latency to the response
+    // headers and the throughput of the first PROBE_BYTES. Downloads resume with a Range request
+    // on the next source when the current one falls below minBytesPerSecond for stallTimeout.
+    static class MirrorSelector {
+        static final int PROBE_BYTES = 256 * 1024;
+        // Used to weigh latency against throughput when the file size is not known
+        private static final long ASSUMED_SIZE = 64L * 1024 * 1024;
+        // A PROBE_BYTES sample cannot tell rates this close to the best apart, so such sources count as
+        // equally fast and are ordered by latency; clearly slower ones keep their measured rate
+        private static final double THROUGHPUT_TOLERANCE = 4;
+
+        private final HttpClient client;
+        private final Duration probeTimeout;
+        private final Duration stallTimeout;
+        private final long minBytesPerSecond;
+
+        static HttpClient newHttpClient() {
+            return HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        }
+
+        MirrorSelector(HttpClient client) {
+            this(client, Duration.ofSeconds(5), Duration.ofSeconds(15), 16 * 1024);
+        }
+
+        MirrorSelector(HttpClient client, Duration probeTimeout, Duration stallTimeout, long minBytesPerSecond) {
+            this.client = client;
+            this.probeTimeout = probeTimeout;
+            this.stallTimeout = stallTimeout;
+            this.minBytesPerSecond = minBytesPerSecond;
+        }
+
+        static class Probe {
+            final URI uri;
+            long latencyMillis = -1;
+            double bytesPerSecond;
+            long contentLength = -1;
+            boolean rangeSupported;
+            String error;
+
+            Probe(URI uri) {
+                this.uri = uri;
+            }
+
+            boolean ok() {
+                return error == null;
+            }
+
+            double estimatedSeconds(long size) {
+                return estimatedSeconds(size, bytesPerSecond);
+            }
+
+            double estimatedSeconds(long size, double rate) {
+                if (!ok() || rate <= 0) return Double.MAX_VALUE;
+                return latencyMillis / 1000.0 + size / rate;
+            }
+
+            @Override
+            public String toString() {
+                if (!ok()) return uri.getHost() + ": " + error;
+                return String.format("%s: %d ms, %s/s%s", uri.getHost(), latencyMillis,
+                    FileOps.formatBytes((long) bytesPerSecond), rangeSupported ? "" : " (no resume)");
+            }
+        }
+
+        static class Result {
+            URI source;
+            long bytes;
+            int failovers;
+        }
+
+        // Thrown when a source stops delivering data; the download continues on the next source
+        static class StallException extends IOException {
+            StallException(String message) {
+                super(message);
+            }
+        }
+
+        static String expand(String template, GodotEngine engine) {
+            return expand(template, engine.getDownloadUrl(), engine.getVersion());
+        }
+
+        static String expand(String template, String url, String version) {
+            String file = url.substring(url.lastIndexOf('/') + 1);
+            String withoutFile = url.substring(0, url.lastIndexOf('/'));
+            String tag = withoutFile.substring(withoutFile.lastIndexOf('/') + 1);
+            return template.replace("{file}", file).replace("{version}", version).replace("{tag}", tag);
+        }
+
+        // Probes all sources at once. Returns them fastest first; unreachable sources come last.
+        List<Probe> rank(List<URI> sources) throws InterruptedException {
+            ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, sources.size()), r -> {
+                Thread thread = new Thread(r, "mirror-probe");
+                thread.setDaemon(true);
+                return thread;
             });
+            List<Probe> probes = new ArrayList<>();
+            try {
+                List<Future<Probe>> futures = new ArrayList<>();
+                for (URI uri : sources) {
+                    futures.add(pool.submit(() -> probe(uri)));
+                }
+                long deadline = System.nanoTime() + probeTimeout.toNanos() * 2;
+                for (int i = 0; i < futures.size(); i++) {
+                    Future<Probe> future = futures.get(i);
+                    try {
+                        probes.add(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+                    } catch (TimeoutException e) {
+                        future.cancel(true);
+                        Probe probe = new Probe(sources.get(i));
+                        probe.error = "timed out";
+                        probes.add(probe);
+                    } catch (ExecutionException e) {
+                        Probe probe = new Probe(sources.get(i));
+                        probe.error = String.valueOf(e.getCause().getMessage());
+                        probes.add(probe);
+                    }
+                }
+            } finally {
+                pool.shutdownNow();
+            }
 
-            // Buttons
-            gbc.gridy = 7;
-            gbc.insets = new Insets(30, 10, 10, 10);
-            JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
-            JButton saveBtn = new JButton("Save Settings");
-            JButton resetBtn = new JButton("Reset to Defaults");
-            
-            saveBtn.setPreferredSize(new Dimension(140, 35));
-            resetBtn.setPreferredSize(new Dimension(140, 35));
-            
-            saveBtn.addActionListener(e -> saveSettings());
-            resetBtn.addActionListener(e -> resetSettings());
-            
-            buttonPanel.add(resetBtn);
-            buttonPanel.add(saveBtn);
-            formPanel.add(buttonPanel, gbc);
+            long size = ASSUMED_SIZE;
+            for (Probe probe : probes) {
+                if (probe.contentLength > 0) size = probe.contentLength;
+            }
+            long expectedSize = size;
+            double best = 0;
+            for (Probe probe : probes) {
+                if (probe.ok()) best = Math.max(best, probe.bytesPerSecond);
+            }
+            double fastEnough = best / THROUGHPUT_TOLERANCE;
+            double bestRate = best;
+            probes.sort(Comparator.comparingDouble(p ->
+                p.estimatedSeconds(expectedSize, p.bytesPerSecond >= fastEnough ? bestRate : p.bytesPerSecond)));
+            return probes;
+        }
 
-            // Info panel
-            JPanel infoPanel = new JPanel(new BorderLayout(10, 10));
-            infoPanel.setBorder(BorderFactory.createTitledBorder("Information"));
-            JTextArea infoText = new JTextArea(
-                "• Project Location: Where new projects will be created by default\n" +
-                "• Engine Location: Where Godot engines will be installed when downloaded\n" +
-                "• These paths can be changed at any time\n" +
-                "• Existing projects and engines will not be moved"
-            );
-            infoText.setEditable(false);
-            infoText.setBackground(formPanel.getBackground());
-            infoText.setWrapStyleWord(true);
-            infoText.setLineWrap(true);
-            infoPanel.add(infoText, BorderLayout.CENTER);
+        Probe probe(URI uri) {
+            Probe probe = new Probe(uri);
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(probeTimeout)
+                .header("Range", "bytes=0-" + (PROBE_BYTES - 1))
+                .GET()
+                .build();
+            long start = System.nanoTime();
+            try {
+                HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                long headers = System.nanoTime();
+                probe.latencyMillis = (headers - start) / 1_000_000;
+                try (InputStream in = response.body()) {
+                    if (response.statusCode() == 206) {
+                        probe.rangeSupported = true;
+                        probe.contentLength = totalFromContentRange(response);
+                    } else if (response.statusCode() == 200) {
+                        probe.contentLength = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+                    } else {
+                        probe.error = "HTTP " + response.statusCode();
+                        return probe;
+                    }
+                    // Closing the stream early aborts the rest of a full (non-ranged) response
+                    int read = in.readNBytes(PROBE_BYTES).length;
+                    double seconds = Math.max(1e-3, (System.nanoTime() - headers) / 1e9);
+                    probe.bytesPerSecond = read / seconds;
+                }
+            } catch (IOException e) {
+                probe.error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                probe.error = "cancelled";
+            }
+            return probe;
+        }
 
-            add(titlePanel, BorderLayout.NORTH);
-            add(formPanel, BorderLayout.CENTER);
-            add(infoPanel, BorderLayout.SOUTH);
+        private static long totalFromContentRange(HttpResponse<?> response) {
+            // Content-Range: bytes 0-262143/104857600
+            String range = response.headers().firstValue("Content-Range").orElse("");
+            int slash = range.lastIndexOf('/');
+            if (slash < 0 || range.endsWith("*")) return -1;
+            try {
+                return Long.parseLong(range.substring(slash + 1).trim());
+            } catch (NumberFormatException e) {
+                return -1;
+            }
         }
 
-        private void saveSettings() {
-            String newProjectLoc = projectLocationField.getText().trim();
-            String newEngineLoc = engineLocationField.getText().trim();
-            
-            if (newProjectLoc.isEmpty() || newEngineLoc.isEmpty()) {
-                JOptionPane.showMessageDialog(this,
-                    "Paths cannot be empty.",
-                    "Invalid Settings",
-                    JOptionPane.ERROR_MESSAGE);
-                return;
+        Result download(List<Probe> ranked, Path target, ProgressListener listener) throws IOException, InterruptedException {
+            long expected = -1;
+            for (Probe probe : ranked) {
+                if (probe.ok() && probe.contentLength > 0) {
+                    expected = probe.contentLength;
+                    break;
+                }
             }
-            
-            defaultProjectLocation = newProjectLoc;
-            defaultEngineLocation = newEngineLoc;
-            
-            saveData();
-            
-            JOptionPane.showMessageDialog(this,
-                "Settings saved successfully!",
-                "Settings Saved",
-                JOptionPane.INFORMATION_MESSAGE);
+
+            Result result = new Result();
+            long offset = 0;
+            IOException lastError = null;
+            Files.deleteIfExists(target);
+            for (Probe probe : ranked) {
+                // A mirror reporting a different size is serving a different file
+                if (expected > 0 && probe.contentLength > 0 && probe.contentLength != expected) continue;
+                try {
+                    offset = transfer(probe, target, probe.rangeSupported ? offset : 0, expected, listener);
+                    if (expected > 0 && offset != expected) {
+                        throw new IOException("Download incomplete: " + offset + " of " + expected + " bytes");
+                    }
+                    result.source = probe.uri;
+                    result.bytes = offset;
+                    return result;
+                } catch (IOException e) {
+                    lastError = e;
+                    result.failovers++;
+                    if (Files.exists(target)) offset = Files.size(target);
+                    listener.progress(probe.uri.getHost() + " failed (" + e.getMessage() + "), trying next source...",
+                        offset, expected);
+                }
+            }
+            throw lastError != null ? lastError : new IOException("No download source available");
         }
 
-        private void resetSettings() {
-            int choice = JOptionPane.showConfirmDialog(this,
-                "Reset settings to default values?",
-                "Reset Settings",
-                JOptionPane.YES_NO_OPTION);
-            
-            if (choice == JOptionPane.YES_OPTION) {
-                defaultProjectLocation = System.getProperty("user.home") + File.separator + "GodotProjects";
-                defaultEngineLocation = System.getProperty("user.home") + File.separator + "Godot";
-                refreshSettings();
-                saveData();
-                
-                JOptionPane.showMessageDialog(this,
-                    "Settings reset to defaults.",
-                    "Settings Reset",
-                    JOptionPane.INFORMATION_MESSAGE);
+        // Stops the watchdog. Returns whether it flagged a stall.
+        private static boolean stopWatchdog(ScheduledExecutorService watchdog, boolean[] stalled, boolean[] finished) {
+            synchronized (stalled) {
+                finished[0] = true;
             }
+            watchdog.shutdownNow();
+            return stalled[0];
         }
 
-        public void refreshSettings() {
-            projectLocationField.setText(defaultProjectLocation);
-            engineLocationField.setText(defaultEngineLocation);
+        // Streams one source into the target starting at offset. Returns the file size afterwards.
+        private long transfer(Probe probe, Path target, long offset, long expected, ProgressListener listener)
+                throws IOException, InterruptedException {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(probe.uri).timeout(stallTimeout).GET();
+            if (offset > 0) builder.header("Range", "bytes=" + offset + "-");
+            HttpResponse<InputStream> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+            if (offset > 0 && response.statusCode() == 200) {
+                // Range ignored; start over
+                offset = 0;
+            } else if (response.statusCode() != 200 && response.statusCode() != 206) {
+                response.body().close();
+                throw new IOException("HTTP " + response.statusCode());
+            }
+            long total = expected > 0 ? expected : response.headers().firstValueAsLong("Content-Length").orElse(-1);
+
+            AtomicLong received = new AtomicLong(offset);
+            InputStream body = response.body();
+            // Guarded by itself so the watchdog cannot flag a stall once the read loop has finished
+            boolean[] stalled = {false};
+            boolean[] finished = {false};
+            ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "download-watchdog");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long[] window = {System.nanoTime(), offset};
+            watchdog.scheduleAtFixedRate(() -> {
+                long now = System.nanoTime();
+                double elapsed = (now - window[0]) / 1e9;
+                if (elapsed < stallTimeout.toMillis() / 1000.0) return;
+                long bytes = received.get() - window[1];
+                if (bytes / elapsed < minBytesPerSecond) {
+                    synchronized (stalled) {
+                        if (finished[0] || stalled[0]) return;
+                        stalled[0] = true;
+                    }
+                    // Closing the body cancels the exchange and ends a read blocked waiting for data;
+                    // the read then returns end of stream or fails, and the stall flag tells which it was
+                    try {
+                        body.close();
+                    } catch (IOException e) {
+                        // Closed anyway
+                    }
+                } else {
+                    window[0] = now;
+                    window[1] = received.get();
+                }
+            }, 250, 250, TimeUnit.MILLISECONDS);
+
+            String host = probe.uri.getHost();
+            try (InputStream in = body;
+                 OutputStream out = new BufferedOutputStream(Files.newOutputStream(target,
+                     StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     offset > 0 ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING))) {
+                byte[] buffer = new byte[65536];
+                int len;
+                while ((len = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, len);
+                    listener.progress("Downloading from " + host + "...", received.addAndGet(len), total);
+                }
+            } catch (IOException e) {
+                if (stopWatchdog(watchdog, stalled, finished)) {
+                    throw new StallException("stalled");
+                }
+                throw e;
+            } finally {
+                stopWatchdog(watchdog, stalled, finished);
+            }
+            // A stall flagged while the last bytes were arriving does not matter if they all arrived
+            if (stalled[0] && (total <= 0 || received.get() != total)) {
+                throw new StallException("stalled");
+            }
+            return Files.size(target);
         }
     }
 
-    // Helper method to extract ZIP files
-    private void extractZipFile(File zipFile, File destDir) throws IOException {
-        byte[] buffer = new byte[8192];
-        
-        try (ZipInputStream zis = new ZipInputStream(new FileInputStream(zipFile))) {
-            ZipEntry entry;
-            while ((entry = zis.getNextEntry()) != null) {
-                File newFile = new File(destDir, entry.getName());
-                
-                if (entry.isDirectory()) {
-                    newFile.mkdirs();
+    // Mirror probing and failover against local stand-in servers: java GodotProjectManager.java --mirror-test
+    // Each stand-in serves the same payload with its own artificial latency, throttle or stall, so the
+    // ranking and the mid-download failover can be checked without network access. Exits with 1 on failure.
+    static class MirrorTest {
+        static final int PAYLOAD_BYTES = 4 * 1024 * 1024;
+
+        private static int failures;
+
+        // One local HTTP server serving the payload with byte-range support
+        static class StandIn {
+            final String name;
+            final long latencyMillis;
+            final long bytesPerSecond;
+            final long stallAfter;
+            final int status;
+            volatile long lastRangeStart = -1;
+            private final com.sun.net.httpserver.HttpServer server;
+            private final ExecutorService handlers;
+
+            StandIn(String name, byte[] payload, long latencyMillis, long bytesPerSecond, long stallAfter, int status)
+                    throws IOException {
+                this.name = name;
+                this.latencyMillis = latencyMillis;
+                this.bytesPerSecond = bytesPerSecond;
+                this.stallAfter = stallAfter;
+                this.status = status;
+                server = com.sun.net.httpserver.HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+                handlers = Executors.newCachedThreadPool(r -> {
+                    Thread thread = new Thread(r, "mirror-test-" + name);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                server.setExecutor(handlers);
+                server.createContext("/", exchange -> {
+                    try {
+                        serve(exchange, payload);
+                    } catch (InterruptedException | IOException e) {
+                        // Client went away or the test is over
+                    } finally {
+                        exchange.close();
+                    }
+                });
+                server.start();
+            }
+
+            private void serve(com.sun.net.httpserver.HttpExchange exchange, byte[] payload)
+                    throws IOException, InterruptedException {
+                Thread.sleep(latencyMillis);
+                if (status != 200) {
+                    exchange.sendResponseHeaders(status, -1);
+                    return;
+                }
+                long start = 0;
+                long end = payload.length - 1;
+                String range = exchange.getRequestHeaders().getFirst("Range");
+                if (range != null && range.startsWith("bytes=")) {
+                    String[] parts = range.substring(6).split("-", -1);
+                    start = Long.parseLong(parts[0]);
+                    if (!parts[1].isEmpty()) end = Math.min(end, Long.parseLong(parts[1]));
+                    lastRangeStart = start;
+                    exchange.getResponseHeaders().set("Content-Range", "bytes " + start + "-" + end + "/" + payload.length);
+                    exchange.sendResponseHeaders(206, end - start + 1);
                 } else {
-                    // Create parent directories if needed
-                    newFile.getParentFile().mkdirs();
-                    
-                    // Extract file
-                    try (FileOutputStream fos = new FileOutputStream(newFile)) {
-                        int len;
-                        while ((len = zis.read(buffer)) > 0) {
-                            fos.write(buffer, 0, len);
+                    exchange.sendResponseHeaders(200, payload.length);
+                }
+                try (OutputStream out = exchange.getResponseBody()) {
+                    for (long pos = start; pos <= end; ) {
+                        if (stallAfter >= 0 && pos >= stallAfter) {
+                            // Keep the connection open without sending anything
+                            Thread.sleep(Long.MAX_VALUE);
                         }
+                        int len = (int) Math.min(16384, end + 1 - pos);
+                        out.write(payload, (int) pos, len);
+                        out.flush();
+                        pos += len;
+                        if (bytesPerSecond > 0) Thread.sleep(len * 1000L / bytesPerSecond);
                     }
                 }
-                zis.closeEntry();
+            }
+
+            URI uri() {
+                return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/" + name + "/Godot.zip");
+            }
+
+            void stop() {
+                server.stop(0);
+                handlers.shutdownNow();
             }
         }
-    }
-    
-    // Helper method to find Godot executable in extracted folder
-    private String findGodotExecutable(File dir) {
-        File[] files = dir.listFiles();
-        if (files == null) return null;
-        
-        // Look for .exe files (prioritize those with "godot" in the name)
-        for (File file : files) {
-            if (file.isFile() && file.getName().toLowerCase().endsWith(".exe")) {
-                if (file.getName().toLowerCase().contains("godot")) {
-                    return file.getAbsolutePath();
+
+        static int run(String[] args) {
+            if (args.length > 0) {
+                System.err.println("Usage: --mirror-test");
+                return 2;
+            }
+            failures = 0;
+            byte[] payload = new byte[PAYLOAD_BYTES];
+            new Random(42).nextBytes(payload);
+            List<StandIn> servers = new ArrayList<>();
+            Path work = null;
+            try {
+                work = Files.createTempDirectory("gpm-mirrors");
+                StandIn fast = start(servers, new StandIn("fast", payload, 0, 0, -1, 200));
+                StandIn distant = start(servers, new StandIn("distant", payload, 400, 0, -1, 200));
+                StandIn throttled = start(servers, new StandIn("throttled", payload, 0, 512 * 1024, -1, 200));
+                StandIn missing = start(servers, new StandIn("missing", payload, 0, 0, -1, 404));
+                StandIn stalling = start(servers, new StandIn("stalling", payload, 0, 0, 1024 * 1024, 200));
+
+                StandIn warmup = start(servers, new StandIn("warmup", payload, 0, 0, -1, 200));
+
+                HttpClient client = MirrorSelector.newHttpClient();
+                MirrorSelector selector = new MirrorSelector(client, Duration.ofSeconds(5), Duration.ofSeconds(1), 16 * 1024);
+                ProgressListener quiet = (message, done, total) -> { };
+
+                // The client's first request pays for its start-up, which would otherwise land on whichever
+                // probe runs first. A server of its own, so no ranked source gets a reused connection.
+                selector.probe(warmup.uri());
+
+                // Ranking: the unthrottled, low-latency source first and the broken one last
+                List<MirrorSelector.Probe> ranked = selector.rank(List.of(
+                    missing.uri(), throttled.uri(), distant.uri(), fast.uri()));
+                StringBuilder order = new StringBuilder();
+                for (MirrorSelector.Probe probe : ranked) {
+                    order.append(order.length() == 0 ? "" : " > ").append(probe.uri.getPath().split("/")[1]);
+                }
+                check("rank", order.toString(), ranked.get(0).uri.equals(fast.uri())
+                    && ranked.get(ranked.size() - 1).uri.equals(missing.uri()) && !ranked.get(ranked.size() - 1).ok());
+
+                // Download from the fastest source
+                Path target = work.resolve("Godot.zip");
+                MirrorSelector.Result result = selector.download(ranked, target, quiet);
+                check("download", result.bytes + " bytes from " + result.source.getPath().split("/")[1],
+                    result.source.equals(fast.uri()) && result.failovers == 0 && sameContent(target, payload)
+                        && !Thread.currentThread().isInterrupted());
+
+                // Failover: the first source stops sending after 1 MB, the next one resumes where it left off
+                List<MirrorSelector.Probe> failover = List.of(selector.probe(stalling.uri()), selector.probe(fast.uri()));
+                long started = System.nanoTime();
+                result = selector.download(failover, target, quiet);
+                long millis = (System.nanoTime() - started) / 1_000_000;
+                check("failover", result.failovers + " failover(s), resumed at " + fast.lastRangeStart + " in " + millis + " ms",
+                    result.source.equals(fast.uri()) && result.failovers == 1 && fast.lastRangeStart >= 1024 * 1024
+                        && sameContent(target, payload) && !Thread.currentThread().isInterrupted());
+
+                System.out.println(failures == 0 ? "All checks passed." : failures + " check(s) failed.");
+                return failures == 0 ? 0 : 1;
+            } catch (Exception e) {
+                e.printStackTrace();
+                return 1;
+            } finally {
+                for (StandIn server : servers) server.stop();
+                if (work != null) {
+                    try {
+                        FileOps.deleteTree(work);
+                    } catch (IOException e) {
+                        System.err.println("Could not delete " + work + ": " + e.getMessage());
+                    }
                 }
             }
         }
-        
-        // If no godot.exe found, look in subdirectories
-        for (File file : files) {
-            if (file.isDirectory()) {
-                String result = findGodotExecutable(file);
-                if (result != null) return result;
-            }
+
+        private static StandIn start(List<StandIn> servers, StandIn server) {
+            servers.add(server);
+            return server;
         }
-        
-        // If still not found, return any .exe file
-        for (File file : files) {
-            if (file.isFile() && file.getName().toLowerCase().endsWith(".exe")) {
-                return file.getAbsolutePath();
-            }
+
+        private static boolean sameContent(Path file, byte[] payload) throws IOException {
+            return Arrays.equals(Files.readAllBytes(file), payload);
+        }
+
+        private static void check(String name, String detail, boolean ok) {
+            if (!ok) failures++;
+            System.out.printf("%-4s %-10s %s%n", ok ? "ok" : "FAIL", name, detail);
         }
-        
-        return null;
     }
 
     // Data classes
+    // Mutable fields are volatile so background readers see changes made through the Registry
     static class GodotEngine {
-        private String version;
-        private String size;
-        private String downloadUrl;
-        private boolean installed;
-        private String installedPath;
+        private final String version;
+        private final String size;
+        private final String downloadUrl;
+        private volatile boolean installed;
+        private volatile String installedPath;
+        private volatile String installRoot;
+        private volatile List<String> mirrors = List.of();
 
         public GodotEngine(String version, String size, String downloadUrl) {
             this.version = version;
@@ -1177,6 +10368,7 @@ public class GodotProjectManager extends JFrame {
             this.downloadUrl = downloadUrl;
             this.installed = false;
             this.installedPath = "";
+            this.installRoot = "";
         }
 
         public String getVersion() { return version; }
@@ -1186,36 +10378,240 @@ public class GodotProjectManager extends JFrame {
         public String getInstalledPath() { return installedPath; }
         public void setInstalled(boolean installed) { this.installed = installed; }
         public void setInstalledPath(String path) { this.installedPath = path; }
+        // Directory the manager extracted this engine into; empty for user-registered executables
+        public String getInstallRoot() { return installRoot; }
+        public void setInstallRoot(String installRoot) { this.installRoot = installRoot; }
+        // Alternative URLs serving the same file as downloadUrl
+        public List<String> getMirrors() { return mirrors; }
+        public void setMirrors(List<String> mirrors) { this.mirrors = List.copyOf(mirrors); }
     }
 
+    // Project record kept compact for registries of a million entries: the folder a project lives in
+    // is a shared PathTrie node, the engine version a small id into a table of known versions and the
+    // date an epoch day. A project costs one small object plus its folder name, and its display name
+    // only when that differs from the folder. The getters rebuild the strings on demand.
     static class GodotProject {
-        private String name;
-        private String path;
-        private String engineVersion;
-        private String lastOpened;
+        private static final List<String> VERSIONS = new CopyOnWriteArrayList<>();
+        private static final Map<String, Short> VERSION_IDS = new ConcurrentHashMap<>();
+        // Dates that are not ISO days (hand-edited data files) are kept as text, keyed by identity
+        private static final Map<GodotProject, String> OTHER_DATES = Collections.synchronizedMap(new WeakHashMap<>());
+        private static final int OTHER_DATE = Integer.MIN_VALUE;
+
+        private final String name;
+        // null when the path has no separator
+        private final PathTrie.Node folder;
+        private final String leaf;
+        private final char separator;
+        private volatile short engineVersion;
+        private volatile int lastOpened;
 
         public GodotProject(String name, String path, String engineVersion) {
-            this.name = name;
-            this.path = path;
-            this.engineVersion = engineVersion;
-            this.lastOpened = LocalDate.now().format(DateTimeFormatter.ISO_DATE);
+            int cut = Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\'));
+            this.folder = cut < 0 ? null : PathTrie.intern(path.substring(0, cut));
+            this.leaf = path.substring(cut + 1);
+            this.separator = cut < 0 ? 0 : path.charAt(cut);
+            this.name = name.equals(leaf) ? leaf : name;
+            this.engineVersion = versionId(engineVersion);
+            this.lastOpened = (int) LocalDate.now().toEpochDay();
         }
 
         public String getName() { return name; }
-        public String getPath() { return path; }
-        public String getEngineVersion() { return engineVersion; }
-        public String getLastOpened() { return lastOpened; }
-        
+        public String getPath() { return folder == null ? leaf : folder.child(separator, leaf); }
+
+        // Compares without building the path, for lookups that scan the whole registry
+        public boolean hasPath(String path) {
+            int cut = path.length() - leaf.length();
+            if (!path.endsWith(leaf)) return false;
+            if (folder == null) return cut == 0;
+            return cut > 0 && path.charAt(cut - 1) == separator && folder.matches(path, cut - 1);
+        }
+        public String getEngineVersion() { return VERSIONS.get(engineVersion); }
+
+        public String getLastOpened() {
+            int day = lastOpened;
+            if (day == OTHER_DATE) return OTHER_DATES.getOrDefault(this, "");
+            // LocalDate.toString is the ISO form for years 0 to 9999
+            return LocalDate.ofEpochDay(day).toString();
+        }
+
         public void setEngineVersion(String engineVersion) {
-            this.engineVersion = engineVersion;
+            this.engineVersion = versionId(engineVersion);
         }
-        
+
         public void setLastOpened(String lastOpened) {
-            this.lastOpened = lastOpened;
+            if (lastOpened != null) {
+                try {
+                    this.lastOpened = (int) (isPlainDate(lastOpened)
+                        ? LocalDate.of(Integer.parseInt(lastOpened, 0, 4, 10), Integer.parseInt(lastOpened, 5, 7, 10),
+                            Integer.parseInt(lastOpened, 8, 10, 10))
+                        : LocalDate.parse(lastOpened, DateTimeFormatter.ISO_DATE)).toEpochDay();
+                    OTHER_DATES.remove(this);
+                    return;
+                } catch (java.time.DateTimeException e) {
+                    // Kept as text below
+                }
+            }
+            OTHER_DATES.put(this, lastOpened);
+            this.lastOpened = OTHER_DATE;
         }
-        
+
+        // yyyy-MM-dd, what saves write; parsed by hand since the formatter dominates loading large files
+        private static boolean isPlainDate(String text) {
+            if (text.length() != 10 || text.charAt(4) != '-' || text.charAt(7) != '-') return false;
+            for (int i = 0; i < 10; i++) {
+                char c = text.charAt(i);
+                if (i != 4 && i != 7 && (c < '0' || c > '9')) return false;
+            }
+            return true;
+        }
+
         public void updateLastOpened() {
-            this.lastOpened = LocalDate.now().format(DateTimeFormatter.ISO_DATE);
+            this.lastOpened = (int) LocalDate.now().toEpochDay();
+            OTHER_DATES.remove(this);
+        }
+
+        private static short versionId(String version) {
+            Short id = VERSION_IDS.get(version);
+            if (id != null) return id;
+            synchronized (VERSIONS) {
+                id = VERSION_IDS.get(version);
+                if (id == null) {
+                    if (VERSIONS.size() > Short.MAX_VALUE) throw new IllegalStateException("Too many engine versions");
+                    id = (short) VERSIONS.size();
+                    VERSIONS.add(version);
+                    VERSION_IDS.put(version, id);
+                }
+                return id;
+            }
+        }
+    }
+
+    // Interned directory prefixes for project paths. Each node is one path segment and links to its
+    // parent, so projects in the same folder share a node and folders share their ancestors. Nodes are
+    // keyed by their parent and segment rather than the whole directory, and only folders with subfolders
+    // keep their full path, so a folder of its own per project costs a node and a segment, not two copies
+    // of the path. Nodes are kept for the life of the process; there is one per distinct folder.
+    static class PathTrie {
+        // Keys are nodes; lookups use a Probe, which equals the node it describes
+        private static final Map<Object, Node> NODES = new ConcurrentHashMap<>();
+
+        static class Node {
+            final Node parent;
+            final String segment;
+            // Separator between the parent and this segment, 0 for a first segment
+            final char separator;
+            // Set once a subfolder asks for it
+            private volatile String path;
+
+            Node(Node parent, String segment, char separator) {
+                this.parent = parent;
+                this.segment = segment;
+                this.separator = separator;
+            }
+
+            String path() {
+                String p = path;
+                if (p != null) return p;
+                return parent == null ? segment : parent.prefix() + separator + segment;
+            }
+
+            // The path of an entry in this folder, built in one step
+            String child(char separator, String name) {
+                String p = path;
+                if (p != null) return p + separator + name;
+                if (parent == null) return segment + separator + name;
+                return parent.prefix() + this.separator + segment + separator + name;
+            }
+
+            private String prefix() {
+                String p = path;
+                if (p == null) {
+                    p = path();
+                    path = p;
+                }
+                return p;
+            }
+
+            // Whether path.substring(0, end) is this folder, without building either string
+            boolean matches(String path, int end) {
+                String p = this.path;
+                if (p != null) return p.length() == end && path.startsWith(p);
+                int start = end - segment.length();
+                if (start < 0 || !path.startsWith(segment, start)) return false;
+                if (parent == null) return start == 0;
+                return start > 0 && path.charAt(start - 1) == separator && parent.matches(path, start - 1);
+            }
+
+            @Override
+            public boolean equals(Object o) {
+                if (!(o instanceof Node)) return false;
+                Node other = (Node) o;
+                return other.parent == parent && other.separator == separator && other.segment.equals(segment);
+            }
+
+            @Override
+            public int hashCode() {
+                return System.identityHashCode(parent) * 31 + segment.hashCode();
+            }
+        }
+
+        // A segment of a directory string, looked up without cutting it out
+        private static class Probe {
+            final String directory;
+            Node parent;
+            int start;
+            int end;
+            char separator;
+            int hash;
+
+            Probe(String directory) {
+                this.directory = directory;
+            }
+
+            @Override
+            public boolean equals(Object o) {
+                if (!(o instanceof Node)) return false;
+                Node node = (Node) o;
+                return node.parent == parent && node.separator == separator && node.segment.length() == end - start
+                    && directory.startsWith(node.segment, start);
+            }
+
+            @Override
+            public int hashCode() {
+                return hash;
+            }
+        }
+
+        static Node intern(String directory) {
+            Probe probe = new Probe(directory);
+            Node node = null;
+            int start = 0;
+            char separator = 0;
+            // String.hashCode of the segment so far
+            int hash = 0;
+            for (int i = 0; i <= directory.length(); i++) {
+                char c = i < directory.length() ? directory.charAt(i) : 0;
+                if (c == '/' || c == '\\' || i == directory.length()) {
+                    probe.parent = node;
+                    probe.start = start;
+                    probe.end = i;
+                    probe.separator = separator;
+                    probe.hash = System.identityHashCode(node) * 31 + hash;
+                    Node found = NODES.get(probe);
+                    if (found == null) {
+                        Node created = new Node(node, directory.substring(start, i), separator);
+                        found = NODES.putIfAbsent(created, created);
+                        if (found == null) found = created;
+                    }
+                    node = found;
+                    start = i + 1;
+                    separator = c;
+                    hash = 0;
+                } else {
+                    hash = 31 * hash + c;
+                }
+            }
+            return node;
         }
     }
 }
\ No newline at end of file